@@ -0,0 +1,35 @@
+package com.example.video_interface.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 业务线程池配置
+ * 线程池由Spring管理生命周期，应用关闭时随容器一起停止
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 电影详情页并行查询线程池
+     * 队列满时直接拒绝，由调用方放弃这次查询，不占用请求线程；关闭时不等待未完成的查询
+     */
+    @Bean
+    public ThreadPoolTaskExecutor movieDetailLookupExecutor(
+            @Value("${app.movie-detail.lookup-threads:16}") int lookupThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(lookupThreads);
+        executor.setMaxPoolSize(lookupThreads);
+        executor.setQueueCapacity(lookupThreads * 64);
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setDaemon(true);
+        executor.setThreadNamePrefix("movie-detail-lookup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -46,6 +46,17 @@ public class MinioConfig {
      */
     private Integer urlExpiration;
     
+    /**
+     * 预签名URL缓存复用比例：URL在经过 urlExpiration * 该比例 的时间后重新签名
+     * 剩余的有效期留给客户端使用，取值范围 (0, 1)
+     */
+    private Double urlCacheRefreshRatio = 0.5;
+    
+    /**
+     * 预签名URL缓存最大条目数
+     */
+    private Integer urlCacheMaxSize = 20000;
+    
     /**
      * 创建MinIO客户端
      */
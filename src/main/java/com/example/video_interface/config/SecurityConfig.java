@@ -3,12 +3,14 @@ package com.example.video_interface.config;
 import com.example.video_interface.filter.DecryptionFilter;
 import com.example.video_interface.security.CustomUserDetailsService;
 import com.example.video_interface.security.JwtAuthenticationFilter;
+import com.example.video_interface.security.PublicPathMatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -21,6 +23,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -39,6 +42,7 @@ public class SecurityConfig {
     private final CustomUserDetailsService customUserDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final DecryptionFilter decryptionFilter;
+    private final PublicPathMatcher publicPathMatcher;
     @Value("${cors.allowed-origins}")
     private String[] allowedOrigins;
 
@@ -68,67 +72,15 @@ public class SecurityConfig {
                 // 允许所有OPTIONS请求（CORS预检请求）
                 auth.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
                 
-                // 允许错误页面访问
-                auth.requestMatchers("/error").permitAll();
-                
-                // 允许用户认证相关的公开端点（注意：context-path=/api，所以这里路径不需要/api前缀）
-                auth.requestMatchers(HttpMethod.POST, "/users/register").permitAll();
-                auth.requestMatchers(HttpMethod.POST, "/users/login").permitAll();
-                auth.requestMatchers(HttpMethod.POST, "/users/auth").permitAll();
-                auth.requestMatchers(HttpMethod.GET, "/users/check-username").permitAll();
-                auth.requestMatchers(HttpMethod.GET, "/users/check-email").permitAll();
-
-                // 允许h5端口访问
-                auth.requestMatchers(HttpMethod.GET, "/h5/categories/*").permitAll();
-                auth.requestMatchers(HttpMethod.GET, "/h5/regions/*").permitAll();
-                auth.requestMatchers(HttpMethod.GET, "/h5/system-config/info").permitAll();
-                auth.requestMatchers(HttpMethod.GET, "/h5/movies/*").permitAll();
-                auth.requestMatchers(HttpMethod.POST, "/h5/movies/*").permitAll();
-                auth.requestMatchers(HttpMethod.GET, "/h5/movies/*/trial/*").permitAll();
-                
-                // 添加更具体的电影详情和播放相关路径
-                auth.requestMatchers(HttpMethod.GET, "/h5/movies/*/detail-page").permitAll();
-                auth.requestMatchers(HttpMethod.GET, "/h5/movies/*/related").permitAll();
-                auth.requestMatchers(HttpMethod.POST, "/h5/movies/*/play-permission").permitAll();
-                auth.requestMatchers(HttpMethod.POST, "/h5/movies/*/increment-view").permitAll();
-                
-                // 购买相关接口需要认证
-                auth.requestMatchers(HttpMethod.POST, "/h5/movies/purchase").authenticated();
-                auth.requestMatchers(HttpMethod.GET, "/h5/movies/*/purchased").authenticated();
-                auth.requestMatchers(HttpMethod.GET, "/h5/movies/user/*/purchased*").authenticated();
-                
-                // 点赞相关接口需要认证
-                auth.requestMatchers(HttpMethod.POST, "/h5/movies/like").authenticated();
-                auth.requestMatchers(HttpMethod.POST, "/h5/movies/unlike").authenticated();
-                auth.requestMatchers(HttpMethod.GET, "/h5/movies/liked").authenticated();
-                
-                // 收藏相关接口需要认证
-                auth.requestMatchers("/h5/favorites/**").authenticated();
-                
-                // 订单相关接口需要认证
-                auth.requestMatchers("/orders/**").authenticated();
-                
-                // 允许支付相关接口匿名访问
-                auth.requestMatchers("/payment/idr/order/callback").permitAll();
-                auth.requestMatchers("/payment/idr/**").authenticated();
-                
-                
-                // 允许验证码相关的公开端点
-                auth.requestMatchers(HttpMethod.GET, "/users/captcha").permitAll();
-                auth.requestMatchers(HttpMethod.POST, "/users/captcha/refresh").permitAll();
-                auth.requestMatchers(HttpMethod.POST, "/users/captcha/verify").permitAll();
-                
-                // 允许管理员相关的公开端点
-                auth.requestMatchers(HttpMethod.POST, "/admin/login").permitAll();
-                auth.requestMatchers(HttpMethod.POST, "/admin/init").permitAll();
-                auth.requestMatchers(HttpMethod.GET, "/admin/check-status").permitAll();
-                
-                // 管理员接口需要认证
-                auth.requestMatchers("/admin/**").authenticated();
+                // 公开路径统一在 PublicPathMatcher 中定义，JWT过滤器使用同一份规则
+                auth.requestMatchers(publicPathMatcher).permitAll();
                 
                 // 其他所有请求需要认证
                 auth.anyRequest().authenticated();
             })
+            // 未认证访问受保护接口时返回401（默认入口点返回403，与已登录但无权限无法区分）
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             // 🔓 添加解密过滤器（在JWT过滤器之前）
             .addFilterBefore(decryptionFilter, UsernamePasswordAuthenticationFilter.class)
             // 🔑 添加JWT认证过滤器
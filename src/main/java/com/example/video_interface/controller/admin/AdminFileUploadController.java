@@ -2,6 +2,7 @@ package com.example.video_interface.controller.admin;
 
 import com.example.video_interface.dto.admin.AdminFileUploadDTO;
 import com.example.video_interface.service.admin.IAdminFileUploadService;
+import com.example.video_interface.service.common.IMinioService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +19,7 @@ import org.springframework.web.multipart.MultipartFile;
 public class AdminFileUploadController {
     
     private final IAdminFileUploadService adminFileUploadService;
+    private final IMinioService minioService;
     
     /**
      * 上传文件
@@ -75,4 +77,11 @@ public class AdminFileUploadController {
         }
     }
     
+    /**
+     * 获取预签名URL缓存统计（命中/未命中/淘汰次数）
+     */
+    @GetMapping("/url-cache/stats")
+    public ResponseEntity<IMinioService.UrlCacheStats> getUrlCacheStats() {
+        return ResponseEntity.ok(minioService.getUrlCacheStats());
+    }
 } 
\ No newline at end of file
@@ -327,5 +327,33 @@ public class AdminMovieController {
         }
     }
     
+    /**
+     * 获取独立观众统计
+     * @param movieId 电影ID，不传时统计全站
+     * @param days 统计天数
+     * @return 每日独立观众数及区间内去重后的总数
+     */
+    @GetMapping("/unique-viewers")
+    public ResponseEntity<?> getUniqueViewers(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(defaultValue = "7") int days) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "code", 200,
+                "message", "获取成功",
+                "data", Map.of(
+                    "daily", movieService.getDailyUniqueViewers(movieId, days),
+                    "total", movieService.countUniqueViewers(movieId, days)
+                )
+            ));
+        } catch (Exception e) {
+            log.error("获取独立观众统计失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                "code", 400,
+                "message", "获取独立观众统计失败，请稍后重试"
+            ));
+        }
+    }
+    
 
 } 
\ No newline at end of file
@@ -2,21 +2,28 @@ package com.example.video_interface.controller.h5;
 
 import com.example.video_interface.dto.h5.H5MovieDTO;
 import com.example.video_interface.dto.h5.H5MovieDetailDTO;
+import com.example.video_interface.dto.h5.H5MoviePersonalizationDTO;
 import com.example.video_interface.dto.h5.H5MoviePlayRequest;
 import com.example.video_interface.dto.h5.H5MoviePlayResponse;
+import com.example.video_interface.dto.h5.H5WatchProgressDTO;
+import com.example.video_interface.model.User;
 import com.example.video_interface.service.h5.IH5MovieService;
+import com.example.video_interface.service.h5.IH5MovieSuggestService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 /**
  * H5端电影控制器
+ * 列表接口额外支持游标分页：传入cursor参数（第一页传空串）时返回 H5CursorPageDTO，不统计总数
  */
 @Slf4j
 @RestController
@@ -25,6 +32,7 @@ import java.util.List;
 public class H5MovieController {
     
     private final IH5MovieService movieService;
+    private final IH5MovieSuggestService movieSuggestService;
     
     /**
      * 获取电影详情（简单版本）
@@ -43,11 +51,15 @@ public class H5MovieController {
      * 获取热门电影列表
      */
     @GetMapping("/hot")
-    public ResponseEntity<Page<H5MovieDTO>> getHotMovies(
+    public ResponseEntity<?> getHotMovies(
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(required = false) String sort) {
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor) {
         log.info("获取热门电影列表，限制数量: {}, 页码: {}, 排序: {}", limit, page, sort);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollHotMovies(sort, cursor, limit));
+        }
         Pageable pageable = PageRequest.of(page, limit);
         Page<H5MovieDTO> movies = movieService.getHotMovies(pageable, sort);
         return ResponseEntity.ok(movies);
@@ -57,11 +69,15 @@ public class H5MovieController {
      * 获取最新电影列表
      */
     @GetMapping("/new")
-    public ResponseEntity<Page<H5MovieDTO>> getNewMovies(
+    public ResponseEntity<?> getNewMovies(
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(required = false) String sort) {
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor) {
         log.info("获取最新电影列表，限制数量: {}, 页码: {}, 排序: {}", limit, page, sort);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollNewMovies(sort, cursor, limit));
+        }
         Pageable pageable = PageRequest.of(page, limit);
         Page<H5MovieDTO> movies = movieService.getNewMovies(pageable, sort);
         return ResponseEntity.ok(movies);
@@ -94,11 +110,15 @@ public class H5MovieController {
      * 根据分类获取电影列表
      */
     @GetMapping("/category")
-    public ResponseEntity<Page<H5MovieDTO>> getMoviesByCategory(
+    public ResponseEntity<?> getMoviesByCategory(
             @RequestParam Long categoryId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("根据分类获取电影列表，分类ID: {}, 页码: {}, 每页数量: {}", categoryId, page, size);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollMoviesByCategory(categoryId, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getMoviesByCategory(categoryId, pageable);
         return ResponseEntity.ok(movies);
@@ -108,11 +128,15 @@ public class H5MovieController {
      * 根据地区获取电影列表
      */
     @GetMapping("/region")
-    public ResponseEntity<Page<H5MovieDTO>> getMoviesByRegion(
+    public ResponseEntity<?> getMoviesByRegion(
             @RequestParam Long regionId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("根据地区获取电影列表，地区ID: {}, 页码: {}, 每页数量: {}", regionId, page, size);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollMoviesByRegion(regionId, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getMoviesByRegion(regionId, pageable);
         return ResponseEntity.ok(movies);
@@ -122,11 +146,15 @@ public class H5MovieController {
      * 根据年份获取电影列表
      */
     @GetMapping("/year")
-    public ResponseEntity<Page<H5MovieDTO>> getMoviesByYear(
+    public ResponseEntity<?> getMoviesByYear(
             @RequestParam Integer year,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("根据年份获取电影列表，年份: {}, 页码: {}, 每页数量: {}", year, page, size);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollMoviesByYear(year, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getMoviesByYear(year, pageable);
         return ResponseEntity.ok(movies);
@@ -136,11 +164,15 @@ public class H5MovieController {
      * 根据收费类型获取电影列表
      */
     @GetMapping("/charge-type")
-    public ResponseEntity<Page<H5MovieDTO>> getMoviesByChargeType(
+    public ResponseEntity<?> getMoviesByChargeType(
             @RequestParam String chargeType,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("根据收费类型获取电影列表，收费类型: {}, 页码: {}, 每页数量: {}", chargeType, page, size);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollMoviesByChargeType(chargeType, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getMoviesByChargeType(chargeType, pageable);
         return ResponseEntity.ok(movies);
@@ -150,11 +182,15 @@ public class H5MovieController {
      * 根据VIP状态获取电影列表
      */
     @GetMapping("/vip")
-    public ResponseEntity<Page<H5MovieDTO>> getMoviesByVipStatus(
+    public ResponseEntity<?> getMoviesByVipStatus(
             @RequestParam Boolean isVip,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("根据VIP状态获取电影列表，VIP状态: {}, 页码: {}, 每页数量: {}", isVip, page, size);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollMoviesByVipStatus(isVip, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getMoviesByVipStatus(isVip, pageable);
         return ResponseEntity.ok(movies);
@@ -164,12 +200,16 @@ public class H5MovieController {
      * 根据免费状态获取电影列表
      */
     @GetMapping("/free")
-    public ResponseEntity<Page<H5MovieDTO>> getMoviesByFreeStatus(
+    public ResponseEntity<?> getMoviesByFreeStatus(
             @RequestParam Boolean isFree,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(required = false) String sort) {
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor) {
         log.info("根据免费状态获取电影列表，免费状态: {}, 页码: {}, 每页数量: {}, 排序: {}", isFree, page, size, sort);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollMoviesByFreeStatus(isFree, sort, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getMoviesByFreeStatus(isFree, pageable, sort);
         return ResponseEntity.ok(movies);
@@ -179,11 +219,15 @@ public class H5MovieController {
      * 根据画质获取电影列表
      */
     @GetMapping("/quality")
-    public ResponseEntity<Page<H5MovieDTO>> getMoviesByQuality(
+    public ResponseEntity<?> getMoviesByQuality(
             @RequestParam String quality,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("根据画质获取电影列表，画质: {}, 页码: {}, 每页数量: {}", quality, page, size);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollMoviesByQuality(quality, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getMoviesByQuality(quality, pageable);
         return ResponseEntity.ok(movies);
@@ -203,6 +247,18 @@ public class H5MovieController {
         return ResponseEntity.ok(movies);
     }
     
+    /**
+     * 搜索联想（输入即查，支持标题、全拼和拼音首字母前缀）
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<IH5MovieSuggestService.SuggestionItem>> suggestMovies(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "10") int limit) {
+        // 每次按键都会调用，只记录调试日志
+        log.debug("搜索联想，输入: {}, 限制数量: {}", keyword, limit);
+        return ResponseEntity.ok(movieSuggestService.suggest(keyword, limit));
+    }
+    
     /**
      * 根据标签搜索电影
      */
@@ -221,7 +277,7 @@ public class H5MovieController {
      * 复合条件查询电影
      */
     @GetMapping("/filter")
-    public ResponseEntity<Page<H5MovieDTO>> getMoviesByConditions(
+    public ResponseEntity<?> getMoviesByConditions(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Long regionId,
             @RequestParam(required = false) Integer releaseYear,
@@ -229,9 +285,14 @@ public class H5MovieController {
             @RequestParam(required = false) Boolean isVip,
             @RequestParam(required = false) String quality,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("复合条件查询电影，分类ID: {}, 地区ID: {}, 年份: {}, 收费类型: {}, VIP状态: {}, 画质: {}, 页码: {}, 每页数量: {}", 
                 categoryId, regionId, releaseYear, chargeType, isVip, quality, page, size);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollMoviesByConditions(categoryId, regionId, releaseYear,
+                    chargeType, isVip, quality, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getMoviesByConditions(categoryId, regionId, releaseYear, 
                                                                     chargeType, isVip, quality, pageable);
@@ -242,10 +303,14 @@ public class H5MovieController {
      * 获取所有电影（分页）
      */
     @GetMapping("/list")
-    public ResponseEntity<Page<H5MovieDTO>> getAllMovies(
+    public ResponseEntity<?> getAllMovies(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("获取所有电影列表，页码: {}, 每页数量: {}", page, size);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollAllMovies(cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getAllMovies(pageable);
         return ResponseEntity.ok(movies);
@@ -255,33 +320,77 @@ public class H5MovieController {
      * 获取电影排行榜
      */
     @GetMapping("/ranking")
-    public ResponseEntity<Page<H5MovieDTO>> getRankingMovies(
+    public ResponseEntity<?> getRankingMovies(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "views") String sortBy,
-            @RequestParam(defaultValue = "all") String timeRange) {
+            @RequestParam(defaultValue = "all") String timeRange,
+            @RequestParam(required = false) String cursor) {
         log.info("获取电影排行榜，页码: {}, 每页数量: {}, 排序方式: {}, 时间范围: {}", 
                 page, size, sortBy, timeRange);
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.scrollRankingMovies(sortBy, timeRange, cursor, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<H5MovieDTO> movies = movieService.getRankingMovies(pageable, sortBy, timeRange);
         return ResponseEntity.ok(movies);
     }
     
     /**
-     * 记录观看次数
+     * 记录观看次数（登录用户按用户去重，未登录按客户端IP近似去重）
      */
     @PostMapping("/view")
-    public ResponseEntity<Void> recordView(@RequestParam Long movieId) {
+    public ResponseEntity<Void> recordView(@AuthenticationPrincipal User user,
+                                           @RequestParam Long movieId,
+                                           HttpServletRequest request) {
         log.info("记录电影观看次数，电影ID: {}", movieId);
-        movieService.recordView(movieId);
+        movieService.recordView(movieId, resolveViewerId(user, request));
         return ResponseEntity.ok().build();
     }
     
     /**
-     * 点赞电影
+     * 播放心跳，播放器每隔几秒上报一次当前播放位置（记入当前登录用户）
+     */
+    @PostMapping("/watch/heartbeat")
+    public ResponseEntity<Void> watchHeartbeat(@AuthenticationPrincipal User user,
+                                               @RequestParam Long movieId,
+                                               @RequestParam Integer position,
+                                               @RequestParam(required = false) Integer duration) {
+        try {
+            movieService.recordWatchHeartbeat(movieId, user.getId(), position, duration);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("记录播放心跳失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("记录播放心跳异常: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 当前登录用户的继续观看列表
+     */
+    @GetMapping("/watch/continue")
+    public ResponseEntity<List<H5WatchProgressDTO>> getContinueWatching(@AuthenticationPrincipal User user,
+                                                                        @RequestParam(defaultValue = "10") int limit) {
+        Long userId = user.getId();
+        log.debug("获取继续观看列表，用户ID: {}, 数量: {}", userId, limit);
+        
+        try {
+            return ResponseEntity.ok(movieService.getContinueWatching(userId, limit));
+        } catch (Exception e) {
+            log.error("获取继续观看列表异常: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 当前登录用户点赞电影
      */
     @PostMapping("/like")
-    public ResponseEntity<Boolean> likeMovie(@RequestParam Long movieId, @RequestParam Long userId) {
+    public ResponseEntity<Boolean> likeMovie(@AuthenticationPrincipal User user, @RequestParam Long movieId) {
+        Long userId = user.getId();
         log.info("点赞电影，电影ID: {}, 用户ID: {}", movieId, userId);
         
         try {
@@ -294,10 +403,11 @@ public class H5MovieController {
     }
     
     /**
-     * 取消点赞电影
+     * 当前登录用户取消点赞电影
      */
     @PostMapping("/unlike")
-    public ResponseEntity<Boolean> unlikeMovie(@RequestParam Long movieId, @RequestParam Long userId) {
+    public ResponseEntity<Boolean> unlikeMovie(@AuthenticationPrincipal User user, @RequestParam Long movieId) {
+        Long userId = user.getId();
         log.info("取消点赞电影，电影ID: {}, 用户ID: {}", movieId, userId);
         
         try {
@@ -310,10 +420,11 @@ public class H5MovieController {
     }
     
     /**
-     * 检查用户是否已点赞电影
+     * 检查当前登录用户是否已点赞电影
      */
     @GetMapping("/liked")
-    public ResponseEntity<Boolean> checkUserLiked(@RequestParam Long movieId, @RequestParam Long userId) {
+    public ResponseEntity<Boolean> checkUserLiked(@AuthenticationPrincipal User user, @RequestParam Long movieId) {
+        Long userId = user.getId();
         log.debug("检查用户点赞状态，电影ID: {}, 用户ID: {}", movieId, userId);
         
         try {
@@ -325,6 +436,45 @@ public class H5MovieController {
         }
     }
     
+    /**
+     * 批量检查当前登录用户的点赞状态
+     */
+    @PostMapping("/liked/batch-check")
+    public ResponseEntity<List<Long>> batchCheckUserLiked(@AuthenticationPrincipal User user,
+                                                          @RequestBody List<Long> movieIds) {
+        Long userId = user.getId();
+        log.debug("批量检查用户点赞状态，用户ID: {}, 电影ID数量: {}", userId, movieIds.size());
+        
+        try {
+            List<Long> likedIds = movieService.batchCheckUserLiked(userId, movieIds);
+            return ResponseEntity.ok(likedIds);
+        } catch (Exception e) {
+            log.error("批量检查用户点赞状态异常: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 批量获取当前登录用户一页电影的个性化状态（收藏、购买、点赞、试看）
+     * 需要认证，用户取自认证信息，不接受请求参数中的用户ID
+     */
+    @PostMapping("/personalization")
+    public ResponseEntity<List<H5MoviePersonalizationDTO>> getMoviePersonalization(@AuthenticationPrincipal User user,
+                                                                                  @RequestBody List<Long> movieIds) {
+        Long userId = user.getId();
+        log.debug("批量获取电影个性化状态，用户ID: {}, 电影ID数量: {}", userId, movieIds.size());
+        
+        try {
+            return ResponseEntity.ok(movieService.getMoviePersonalization(userId, movieIds));
+        } catch (IllegalArgumentException e) {
+            log.warn("批量获取电影个性化状态失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("批量获取电影个性化状态异常: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * 收藏电影
      */
@@ -430,14 +580,14 @@ public class H5MovieController {
      * 获取相关推荐电影
      */
     @GetMapping("/{movieId}/related")
-    public ResponseEntity<List<H5MovieDetailDTO>> getRelatedMovies(
+    public ResponseEntity<List<H5MovieDTO>> getRelatedMovies(
             @PathVariable Long movieId,
             @RequestParam(defaultValue = "4") Integer limit,
             @RequestParam(defaultValue = "0") Integer offset) {
         log.debug("获取相关推荐电影，电影ID: {}, 限制数量: {}, 偏移量: {}", movieId, limit, offset);
         
         try {
-            List<H5MovieDetailDTO> relatedMovies = movieService.getRelatedMovies(movieId, limit, offset);
+            List<H5MovieDTO> relatedMovies = movieService.getRelatedMovies(movieId, limit, offset);
             return ResponseEntity.ok(relatedMovies);
         } catch (IllegalArgumentException e) {
             log.warn("获取相关推荐电影失败: {}", e.getMessage());
@@ -452,11 +602,13 @@ public class H5MovieController {
      * 增加观看次数
      */
     @PostMapping("/{movieId}/increment-view")
-    public ResponseEntity<Void> incrementViews(@PathVariable Long movieId) {
+    public ResponseEntity<Void> incrementViews(@AuthenticationPrincipal User user,
+                                               @PathVariable Long movieId,
+                                               HttpServletRequest request) {
         log.debug("增加观看次数，电影ID: {}", movieId);
         
         try {
-            movieService.incrementViews(movieId);
+            movieService.incrementViews(movieId, resolveViewerId(user, request));
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             log.warn("增加观看次数失败: {}", e.getMessage());
@@ -467,6 +619,18 @@ public class H5MovieController {
         }
     }
     
+    /**
+     * 确定独立观众标识：登录用户取认证用户ID，未登录取服务端看到的客户端地址。
+     * 不采信请求参数中的用户ID和客户端自报的设备标识、代理头，防止伪造刷高独立观众数；
+     * 未登录观众按IP统计是近似值，同一出口IP后的多个观众只计一次。
+     */
+    private String resolveViewerId(User user, HttpServletRequest request) {
+        if (user != null) {
+            return "u:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+    
     // ==================== 试看功能接口 ====================
     
     /**
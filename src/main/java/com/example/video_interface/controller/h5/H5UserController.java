@@ -5,13 +5,12 @@ import com.example.video_interface.dto.h5.H5RegisterRequest;
 import com.example.video_interface.model.User;
 
 import com.example.video_interface.security.JwtTokenProvider;
+import com.example.video_interface.service.common.IUserSessionService;
 import com.example.video_interface.service.h5.IH5UserService;
 import com.example.video_interface.util.RequestContextUtil;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -31,7 +30,7 @@ import java.util.Map;
 public class H5UserController {
     private final IH5UserService h5UserService;
     private final JwtTokenProvider tokenProvider;
-    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final IUserSessionService userSessionService;
 
     /**
      * 用户注册
@@ -319,14 +318,8 @@ public class H5UserController {
         try {
             String deviceId = getDeviceFingerprint();
             if (deviceId != null) {
-                String userDeviceKey = "user:device:" + username;
-                String userTokenKey = "user:token:" + username;
-                String deviceUserKey = "device:user:" + deviceId;
-                
                 // 记录设备信息，24小时过期
-                stringRedisTemplate.opsForValue().set(userDeviceKey, deviceId, 24, TimeUnit.HOURS);
-                stringRedisTemplate.opsForValue().set(userTokenKey, token, 24, TimeUnit.HOURS);
-                stringRedisTemplate.opsForValue().set(deviceUserKey, username, 24, TimeUnit.HOURS);
+                userSessionService.bind(username, deviceId, token);
                 
                 log.debug("记录用户 {} 登录设备信息，设备ID: {}", username, deviceId);
             }
@@ -364,14 +357,8 @@ public class H5UserController {
             String deviceId = getDeviceFingerprint();
             
             if (username != null && deviceId != null) {
-                String userDeviceKey = "user:device:" + username;
-                String userTokenKey = "user:token:" + username;
-                String deviceUserKey = "device:user:" + deviceId;
-                
                 // 清除设备记录
-                stringRedisTemplate.delete(userDeviceKey);
-                stringRedisTemplate.delete(userTokenKey);
-                stringRedisTemplate.delete(deviceUserKey);
+                userSessionService.clear(username);
                 
                 log.debug("清除用户 {} 的设备登录记录，设备ID: {}", username, deviceId);
             }
@@ -70,6 +70,16 @@ public class AdminMovieDTO {
      */
     private Long favorites;
     
+    /**
+     * 今日独立观众数（HyperLogLog估计值，仅查询时填充）
+     */
+    private Long todayUniqueViewers;
+    
+    /**
+     * 近7天独立观众数（跨天去重，HyperLogLog估计值，仅查询时填充）
+     */
+    private Long weekUniqueViewers;
+    
     /**
      * 发布日期
      */
@@ -0,0 +1,32 @@
+package com.example.video_interface.dto.h5;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * H5端游标分页结果（无限滚动）
+ * 不统计总数；客户端把 nextCursor 原样传回即可获取下一页，hasMore 为false时已到末尾
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class H5CursorPageDTO<T> {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> content;
+
+    /**
+     * 下一页游标，没有更多数据时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+}
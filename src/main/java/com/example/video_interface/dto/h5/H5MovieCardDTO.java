@@ -0,0 +1,191 @@
+package com.example.video_interface.dto.h5;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * H5端电影卡片（目录快照条目）
+ * 保存列表页展示及排序、筛选所需的全部字段，标签已预先解析；
+ * 快照构建后不再修改，由服务层按页转换为 H5MovieDTO 并补充文件访问URL
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class H5MovieCardDTO {
+
+    /**
+     * 电影ID
+     */
+    private Long id;
+
+    /**
+     * 电影标题
+     */
+    private String title;
+
+    /**
+     * 剧情简介
+     */
+    private String description;
+
+    /**
+     * 封面图片相对路径
+     */
+    private String cover;
+
+    /**
+     * Banner图片相对路径
+     */
+    private String banner;
+
+    /**
+     * 视频文件路径
+     */
+    private String filePath;
+
+    /**
+     * 电影时长
+     */
+    private String duration;
+
+    /**
+     * 评分
+     */
+    private BigDecimal rating;
+
+    /**
+     * 观看次数
+     */
+    private Long views;
+
+    /**
+     * 点赞次数
+     */
+    private Long likes;
+
+    /**
+     * 收藏次数
+     */
+    private Long favorites;
+
+    /**
+     * 发布日期
+     */
+    private LocalDateTime releaseDate;
+
+    /**
+     * 发行年份
+     */
+    private Integer releaseYear;
+
+    /**
+     * 电影分类
+     */
+    private H5MovieCategoryDTO category;
+
+    /**
+     * 电影地区
+     */
+    private H5RegionDTO region;
+
+    /**
+     * 画质
+     */
+    private String quality;
+
+    /**
+     * 标签列表
+     */
+    private List<String> tags;
+
+    /**
+     * 是否为VIP专享
+     */
+    private Boolean isVip;
+
+    /**
+     * 是否免费
+     */
+    private Boolean isFree;
+
+    /**
+     * 价格
+     */
+    private BigDecimal price;
+
+    /**
+     * 试看时长（秒）
+     */
+    private Integer trialDuration;
+
+    /**
+     * 收费类型：FREE、VIP
+     */
+    private String chargeType;
+
+    /**
+     * 收费类型描述
+     */
+    private String chargeTypeDesc;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 文件格式
+     */
+    private String fileFormat;
+
+    /**
+     * 排序权重
+     */
+    private Integer sortOrder;
+
+    /**
+     * 是否推荐
+     */
+    private Boolean isRecommended;
+
+    /**
+     * 是否超级推荐
+     */
+    private Boolean isSuperRecommended;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * 读取观看、点赞、收藏计数前已完成的计数写回轮次，合并计数时只补上此后写回的增量
+     */
+    private long counterEpoch;
+
+    /**
+     * 分类ID，未设置分类时为null
+     */
+    public Long getCategoryId() {
+        return category != null ? category.getId() : null;
+    }
+
+    /**
+     * 地区ID，未设置地区时为null
+     */
+    public Long getRegionId() {
+        return region != null ? region.getId() : null;
+    }
+}
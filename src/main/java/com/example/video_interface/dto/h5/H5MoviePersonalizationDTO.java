@@ -0,0 +1,42 @@
+package com.example.video_interface.dto.h5;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * H5端电影个性化状态DTO
+ * 列表页拿到一页电影卡片后，用电影ID一次性查询当前用户对每部电影的收藏、购买、点赞和试看状态
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class H5MoviePersonalizationDTO {
+
+    /**
+     * 电影ID
+     */
+    private Long movieId;
+
+    /**
+     * 是否已收藏
+     */
+    private Boolean isFavorited;
+
+    /**
+     * 是否已单片购买
+     */
+    private Boolean isPurchased;
+
+    /**
+     * 是否已点赞
+     */
+    private Boolean isLiked;
+
+    /**
+     * 是否可以试看（电影支持试看且用户不是VIP）
+     */
+    private Boolean isTrialAvailable;
+}
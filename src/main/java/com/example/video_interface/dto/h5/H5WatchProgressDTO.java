@@ -0,0 +1,38 @@
+package com.example.video_interface.dto.h5;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * H5端继续观看DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class H5WatchProgressDTO {
+
+    /**
+     * 电影信息
+     */
+    private H5MovieDTO movie;
+
+    /**
+     * 上次播放位置（秒）
+     */
+    private Integer positionSeconds;
+
+    /**
+     * 视频总时长（秒），未知时为0
+     */
+    private Integer durationSeconds;
+
+    /**
+     * 最后观看时间
+     */
+    private LocalDateTime lastWatchedAt;
+}
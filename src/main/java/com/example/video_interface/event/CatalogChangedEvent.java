@@ -0,0 +1,52 @@
+package com.example.video_interface.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 影片目录变更事件
+ * 管理后台修改电影、分类、地区后发布，H5端的目录快照等本地缓存据此增量更新；
+ * 其他节点的变更经Redis广播后以 remote=true 在本节点重放
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CatalogChangedEvent {
+
+    /**
+     * 变更对象类型
+     */
+    public enum Target {
+        MOVIE,
+        CATEGORY,
+        REGION
+    }
+
+    /**
+     * 变更对象类型
+     */
+    private final Target target;
+
+    /**
+     * 变更对象ID
+     */
+    private final Long id;
+
+    /**
+     * 是否由其他节点广播而来（本地重放时不再向外广播）
+     */
+    private final boolean remote;
+
+    public static CatalogChangedEvent movie(Long movieId) {
+        return new CatalogChangedEvent(Target.MOVIE, movieId, false);
+    }
+
+    public static CatalogChangedEvent category(Long categoryId) {
+        return new CatalogChangedEvent(Target.CATEGORY, categoryId, false);
+    }
+
+    public static CatalogChangedEvent region(Long regionId) {
+        return new CatalogChangedEvent(Target.REGION, regionId, false);
+    }
+}
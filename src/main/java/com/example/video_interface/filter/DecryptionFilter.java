@@ -1,7 +1,6 @@
 package com.example.video_interface.filter;
 
 import com.example.video_interface.util.CryptoUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
@@ -11,11 +10,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * 🔓 解密过滤器
@@ -28,8 +26,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DecryptionFilter implements Filter {
 
+    private static final byte[] CRYPTO_MARKER = "_crypto".getBytes(StandardCharsets.UTF_8);
+
     private final CryptoUtil cryptoUtil;
-    private final ObjectMapper objectMapper = new ObjectMapper();
     
     // 🔒 强制启用签名验证 - 生产级安全要求
     private static final boolean SIGNATURE_REQUIRED = true;
@@ -37,6 +36,12 @@ public class DecryptionFilter implements Filter {
     @Value("${app.crypto.debug.enabled:false}")
     private boolean debugEnabled;
 
+    /**
+     * 带加密头的请求体最大字节数
+     */
+    @Value("${app.crypto.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
     @SuppressWarnings("null")
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -74,47 +79,28 @@ public class DecryptionFilter implements Filter {
             return;
         }
         
+        // 获取加密相关头信息
+        String timestamp = httpRequest.getHeader("X-Timestamp");
+        String signature = httpRequest.getHeader("X-Signature");
+        String deviceId = httpRequest.getHeader("X-Device-ID");
+        
+        // 如果没有加密头信息，直接通过，不读取请求体
+        if (!StringUtils.hasText(timestamp) || !StringUtils.hasText(signature) || !StringUtils.hasText(deviceId)) {
+            log.debug("普通请求，无需解密验证");
+            httpRequest.setAttribute("DECRYPTION_PROCESSED", true);
+            chain.doFilter(request, response);
+            return;
+        }
+        
         try {
-            // 读取请求体
-            String requestBody = getRequestBody(httpRequest);
-            log.debug("读取到请求体: length={}, content={}", 
-                requestBody != null ? requestBody.length() : 0, requestBody);
+            // 读取请求体（只缓存一份字节数组）
+            byte[] requestBody = readRequestBody(httpRequest);
+            log.debug("处理请求: method={}, url={}, clientType={}, bodyLength={}", 
+                method, httpRequest.getRequestURI(), httpRequest.getHeader("X-Client-Type"), requestBody.length);
             
-            if (!StringUtils.hasText(requestBody)) {
+            if (isBlank(requestBody)) {
                 log.debug("请求体为空，直接通过");
-                chain.doFilter(request, response);
-                return;
-            }
-            
-            // 获取加密相关头信息
-            String timestamp = httpRequest.getHeader("X-Timestamp");
-            String signature = httpRequest.getHeader("X-Signature");
-            String deviceId = httpRequest.getHeader("X-Device-ID");
-            String clientType = httpRequest.getHeader("X-Client-Type");
-            
-            log.debug("处理请求: method={}, url={}, clientType={}, hasSignature={}, signatureRequired={}", 
-                method, httpRequest.getRequestURI(), clientType, signature != null, SIGNATURE_REQUIRED);
-            
-            // 🔍 详细调试传输数据
-            log.debug("请求头调试:");
-            log.debug("  - Content-Type: {}", httpRequest.getContentType());
-            log.debug("  - Content-Length: {}", httpRequest.getContentLength());
-            log.debug("  - X-Timestamp: {}", timestamp);
-            log.debug("  - X-Signature: {}", signature);
-            log.debug("  - X-Device-ID: {}", deviceId);
-            log.debug("  - X-Client-Type: {}", clientType);
-            log.debug("请求体原始数据 (前100字符): {}", 
-                requestBody != null ? requestBody.substring(0, Math.min(100, requestBody.length())) + "..." : "null");
-            
-            // 🔒 生产级安全：始终执行完整的签名验证和加密处理
-            log.debug("生产级模式：执行完整的安全验证流程");
-            
-            // 如果没有加密头信息，直接通过
-            if (!StringUtils.hasText(timestamp) || !StringUtils.hasText(signature) || !StringUtils.hasText(deviceId)) {
-                log.debug("普通请求，无需解密验证");
-                CachedBodyHttpServletRequest processedRequest = new CachedBodyHttpServletRequest(httpRequest, requestBody);
-                processedRequest.setAttribute("DECRYPTION_PROCESSED", true);
-                chain.doFilter(processedRequest, response);
+                forward(httpRequest, response, chain, requestBody, requestBody.length);
                 return;
             }
             
@@ -148,30 +134,30 @@ public class DecryptionFilter implements Filter {
             log.debug("请求签名验证成功");
             
             // 检查是否包含加密数据
-            if (!requestBody.contains("_crypto")) {
+            if (indexOf(requestBody, CRYPTO_MARKER) < 0) {
                 log.debug("请求无加密数据");
-                CachedBodyHttpServletRequest processedRequest = new CachedBodyHttpServletRequest(httpRequest, requestBody);
-                processedRequest.setAttribute("DECRYPTION_PROCESSED", true);
-                chain.doFilter(processedRequest, response);
+                forward(httpRequest, response, chain, requestBody, requestBody.length);
                 return;
             }
             
-            // 🔒 生产级安全：始终执行完整的解密验证流程
-            log.debug("执行标准解密流程");
-            
-            // 解密敏感数据
-            Map<String, Object> decryptedData = cryptoUtil.decryptSensitiveData(requestBody, deviceId);
-            String decryptedJson = objectMapper.writeValueAsString(decryptedData);
+            // 解密敏感数据，只有加密字段被解析和替换
+            BodyOutputStream decrypted = new BodyOutputStream(requestBody.length);
+            if (!cryptoUtil.decryptSensitiveData(requestBody, deviceId, decrypted)) {
+                forward(httpRequest, response, chain, requestBody, requestBody.length);
+                return;
+            }
             
             log.info("成功解密请求数据: {} {}", method, httpRequest.getRequestURI());
             
-            // 🔧 标记请求已经过解密处理，防止重复处理
-            CachedBodyHttpServletRequest processedRequest = new CachedBodyHttpServletRequest(httpRequest, decryptedJson);
-            processedRequest.setAttribute("DECRYPTION_PROCESSED", true);
-            
             // 使用解密后的数据继续处理
-            chain.doFilter(processedRequest, response);
+            forward(httpRequest, response, chain, decrypted.buffer(), decrypted.size());
             
+        } catch (RequestBodyTooLargeException e) {
+            log.warn("请求体超过限制: {} {}, 限制: {}字节", method, httpRequest.getRequestURI(), maxBodyBytes);
+            setCorsHeaders(httpResponse, httpRequest);
+            httpResponse.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            httpResponse.setContentType("application/json;charset=UTF-8");
+            httpResponse.getWriter().write("{\"error\":\"请求体过大\",\"code\":413}");
         } catch (NumberFormatException e) {
             log.error("时间戳格式错误", e);
             setCorsHeaders(httpResponse, httpRequest);
@@ -219,11 +205,87 @@ public class DecryptionFilter implements Filter {
     }
 
     /**
-     * 读取请求体内容
+     * 🔧 标记请求已经过解密处理（防止重复处理），并用缓存的请求体继续处理
+     */
+    private void forward(HttpServletRequest request, ServletResponse response, FilterChain chain,
+                         byte[] body, int length) throws IOException, ServletException {
+        CachedBodyHttpServletRequest processedRequest = new CachedBodyHttpServletRequest(request, body, length);
+        processedRequest.setAttribute("DECRYPTION_PROCESSED", true);
+        chain.doFilter(processedRequest, response);
+    }
+
+    /**
+     * 读取请求体内容，超过 maxBodyBytes 时抛出 RequestBodyTooLargeException
+     * 已知Content-Length时按长度一次分配
      */
-    private String getRequestBody(HttpServletRequest request) throws IOException {
+    private byte[] readRequestBody(HttpServletRequest request) throws IOException {
+        int contentLength = request.getContentLength();
+        if (contentLength > maxBodyBytes) {
+            throw new RequestBodyTooLargeException();
+        }
         try (InputStream inputStream = request.getInputStream()) {
-            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+            byte[] body;
+            if (contentLength >= 0) {
+                body = new byte[contentLength];
+                int read = inputStream.readNBytes(body, 0, contentLength);
+                if (read < contentLength) {
+                    body = Arrays.copyOf(body, read);
+                }
+            } else {
+                body = inputStream.readNBytes(maxBodyBytes + 1);
+            }
+            if (body.length > maxBodyBytes || (contentLength >= 0 && inputStream.read() != -1)) {
+                throw new RequestBodyTooLargeException();
+            }
+            return body;
+        }
+    }
+
+    /**
+     * 请求体是否只有空白字符
+     */
+    private static boolean isBlank(byte[] body) {
+        for (byte b : body) {
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 在请求体中查找字节序列
+     */
+    private static int indexOf(byte[] body, byte[] target) {
+        outer:
+        for (int i = 0; i <= body.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (body[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 请求体超过限制
+     */
+    private static class RequestBodyTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * 可直接取出内部缓冲区的输出流，解密结果不再额外复制
+     */
+    private static class BodyOutputStream extends ByteArrayOutputStream {
+        BodyOutputStream(int size) {
+            super(size);
+        }
+
+        byte[] buffer() {
+            return buf;
         }
     }
 
@@ -233,41 +295,49 @@ public class DecryptionFilter implements Filter {
      */
     private static class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
         private final byte[] cachedBody;
+        private final int length;
 
-        public CachedBodyHttpServletRequest(HttpServletRequest request, String body) {
+        public CachedBodyHttpServletRequest(HttpServletRequest request, byte[] body, int length) {
             super(request);
-            this.cachedBody = body.getBytes(StandardCharsets.UTF_8);
+            this.cachedBody = body;
+            this.length = length;
         }
 
         @Override
         public ServletInputStream getInputStream() throws IOException {
-            return new CachedBodyServletInputStream(this.cachedBody);
+            return new CachedBodyServletInputStream(this.cachedBody, this.length);
         }
 
         @Override
         public BufferedReader getReader() throws IOException {
-            ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(this.cachedBody);
+            ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(this.cachedBody, 0, this.length);
             return new BufferedReader(new InputStreamReader(byteArrayInputStream, StandardCharsets.UTF_8));
         }
+
+        @Override
+        public int getContentLength() {
+            return length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return length;
+        }
     }
 
     /**
      * 缓存的ServletInputStream实现
      */
     private static class CachedBodyServletInputStream extends ServletInputStream {
-        private final InputStream cachedBodyInputStream;
+        private final ByteArrayInputStream cachedBodyInputStream;
 
-        public CachedBodyServletInputStream(byte[] cachedBody) {
-            this.cachedBodyInputStream = new ByteArrayInputStream(cachedBody);
+        public CachedBodyServletInputStream(byte[] cachedBody, int length) {
+            this.cachedBodyInputStream = new ByteArrayInputStream(cachedBody, 0, length);
         }
 
         @Override
         public boolean isFinished() {
-            try {
-                return cachedBodyInputStream.available() == 0;
-            } catch (IOException e) {
-                return false;
-            }
+            return cachedBodyInputStream.available() == 0;
         }
 
         @Override
@@ -284,5 +354,10 @@ public class DecryptionFilter implements Filter {
         public int read() throws IOException {
             return cachedBodyInputStream.read();
         }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return cachedBodyInputStream.read(b, off, len);
+        }
     }
 } 
\ No newline at end of file
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Comment;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,9 +17,11 @@ import java.util.Collections;
 /**
  * 用户实体类
  * 存储用户基本信息、账户状态、VIP信息等
+ * 只更新修改过的列：观看时长由观看历史服务直接增量更新，整行保存不能覆盖它
  */
 @Data
 @Entity
+@DynamicUpdate
 @Table(name = "users")
 @Comment("用户信息表")
 @Builder
@@ -0,0 +1,90 @@
+package com.example.video_interface.repository;
+
+import com.example.video_interface.model.Movie;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 电影列表卡片投影
+ * 只查询列表页需要的列（简介截断），分类和地区通过连接一次取出，避免逐行懒加载
+ */
+public interface MovieCardView {
+
+    Long getId();
+
+    String getTitle();
+
+    /**
+     * 截断后的剧情简介
+     */
+    String getDescription();
+
+    String getCover();
+
+    String getBanner();
+
+    String getFilePath();
+
+    String getDuration();
+
+    BigDecimal getRating();
+
+    Long getViews();
+
+    Long getLikes();
+
+    Long getFavorites();
+
+    LocalDateTime getReleaseDate();
+
+    Integer getReleaseYear();
+
+    String getQuality();
+
+    String getTags();
+
+    Boolean getIsVip();
+
+    Boolean getIsFree();
+
+    BigDecimal getPrice();
+
+    Integer getTrialDuration();
+
+    Movie.ChargeType getChargeType();
+
+    Long getFileSize();
+
+    String getFileFormat();
+
+    Integer getSortOrder();
+
+    Boolean getIsRecommended();
+
+    Boolean getIsSuperRecommended();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    String getCategoryDescription();
+
+    String getCategoryIcon();
+
+    Integer getCategoryWeight();
+
+    Long getRegionId();
+
+    String getRegionName();
+
+    String getRegionDescription();
+
+    String getRegionIcon();
+
+    Integer getRegionWeight();
+}
@@ -0,0 +1,17 @@
+package com.example.video_interface.repository;
+
+import com.example.video_interface.model.Movie;
+
+/**
+ * 电影筛选维度投影（统计年份、画质、收费类型分布所需的字段）
+ */
+public interface MovieFacetView {
+
+    Long getId();
+
+    Integer getReleaseYear();
+
+    String getQuality();
+
+    Movie.ChargeType getChargeType();
+}
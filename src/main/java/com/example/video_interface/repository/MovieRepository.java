@@ -3,11 +3,13 @@ package com.example.video_interface.repository;
 import com.example.video_interface.model.Movie;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,21 +18,47 @@ import java.util.List;
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, Long> {
     
+    /**
+     * 列表卡片简介的最大长度
+     */
+    int CARD_DESCRIPTION_LENGTH = 200;
+    
+    /**
+     * 列表卡片投影的查询列（配合 MovieCardView 使用）
+     */
+    String CARD_VIEW_SELECT = "SELECT m.id AS id, m.title AS title, " +
+           "SUBSTRING(m.description, 1, " + CARD_DESCRIPTION_LENGTH + ") AS description, " +
+           "m.cover AS cover, m.banner AS banner, m.filePath AS filePath, m.duration AS duration, " +
+           "m.rating AS rating, m.views AS views, m.likes AS likes, m.favorites AS favorites, " +
+           "m.releaseDate AS releaseDate, m.releaseYear AS releaseYear, m.quality AS quality, m.tags AS tags, " +
+           "m.isVip AS isVip, m.isFree AS isFree, m.price AS price, m.trialDuration AS trialDuration, " +
+           "m.chargeType AS chargeType, m.fileSize AS fileSize, m.fileFormat AS fileFormat, " +
+           "m.sortOrder AS sortOrder, m.isRecommended AS isRecommended, m.isSuperRecommended AS isSuperRecommended, " +
+           "m.createdAt AS createdAt, m.updatedAt AS updatedAt, " +
+           "c.id AS categoryId, c.name AS categoryName, c.description AS categoryDescription, " +
+           "c.icon AS categoryIcon, c.weight AS categoryWeight, " +
+           "r.id AS regionId, r.name AS regionName, r.description AS regionDescription, " +
+           "r.icon AS regionIcon, r.weight AS regionWeight " +
+           "FROM Movie m LEFT JOIN m.category c LEFT JOIN m.region r ";
+    
     /**
      * 根据ID和状态查询电影
      */
+    @EntityGraph(attributePaths = {"category", "region"})
     Movie findByIdAndStatus(Long id, Movie.MovieStatus status);
     
     /**
      * 根据状态查询热门电影
      */
     @Query("SELECT m FROM Movie m WHERE m.status = :status ORDER BY m.views DESC, m.likes DESC")
+    @EntityGraph(attributePaths = {"category", "region"})
     List<Movie> findHotMoviesByStatus(@Param("status") Movie.MovieStatus status, Pageable pageable);
     
     /**
      * 根据状态查询最新电影
      */
     @Query("SELECT m FROM Movie m WHERE m.status = :status ORDER BY m.createdAt DESC")
+    @EntityGraph(attributePaths = {"category", "region"})
     List<Movie> findNewMoviesByStatus(@Param("status") Movie.MovieStatus status, Pageable pageable);
     
     /**
@@ -101,6 +129,7 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      * 根据关键词搜索电影
      */
     @Query("SELECT m FROM Movie m WHERE m.status = :status AND (m.title LIKE %:keyword% OR m.description LIKE %:keyword%) ORDER BY m.sortOrder DESC, m.createdAt DESC")
+    @EntityGraph(attributePaths = {"category", "region"})
     List<Movie> searchByKeyword(@Param("status") Movie.MovieStatus status, 
                                @Param("keyword") String keyword, 
                                Pageable pageable);
@@ -109,6 +138,7 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      * 根据标签搜索电影
      */
     @Query("SELECT m FROM Movie m WHERE m.status = :status AND m.tags LIKE %:tag% ORDER BY m.sortOrder DESC, m.createdAt DESC")
+    @EntityGraph(attributePaths = {"category", "region"})
     List<Movie> searchByTag(@Param("status") Movie.MovieStatus status, 
                            @Param("tag") String tag, 
                            Pageable pageable);
@@ -138,6 +168,7 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
            "AND (:status IS NULL OR m.status = :status) " +
            "AND (:chargeType IS NULL OR m.chargeType = :chargeType) " +
            "ORDER BY m.sortOrder DESC, m.createdAt DESC")
+    @EntityGraph(attributePaths = {"category", "region"})
     Page<Movie> findByConditions(@Param("keyword") String keyword,
                                 @Param("categoryId") Long categoryId,
                                 @Param("regionId") Long regionId,
@@ -145,29 +176,6 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
                                 @Param("chargeType") Movie.ChargeType chargeType,
                                 Pageable pageable);
     
-    /**
-     * 复合条件查询电影
-     */
-    @Query("SELECT m FROM Movie m " +
-           "LEFT JOIN m.category c " +
-           "LEFT JOIN m.region r " +
-           "WHERE m.status = :status " +
-           "AND (:categoryId IS NULL OR c.id = :categoryId) " +
-           "AND (:regionId IS NULL OR r.id = :regionId) " +
-           "AND (:releaseYear IS NULL OR m.releaseYear = :releaseYear) " +
-           "AND (:chargeType IS NULL OR m.chargeType = :chargeType) " +
-           "AND (:isVip IS NULL OR m.isVip = :isVip) " +
-           "AND (:quality IS NULL OR m.quality = :quality) " +
-           "ORDER BY m.sortOrder DESC, m.createdAt DESC")
-    Page<Movie> findByConditions(@Param("status") Movie.MovieStatus status,
-                                @Param("categoryId") Long categoryId,
-                                @Param("regionId") Long regionId,
-                                @Param("releaseYear") Integer releaseYear,
-                                @Param("chargeType") Movie.ChargeType chargeType,
-                                @Param("isVip") Boolean isVip,
-                                @Param("quality") String quality,
-                                Pageable pageable);
-    
     /**
      * 根据标题查询电影
      */
@@ -203,6 +211,7 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
            "AND m.id != :excludeMovieId " +
            "AND (m.category.id = :categoryId OR m.region.id = :regionId) " +
            "ORDER BY m.sortOrder DESC, m.createdAt DESC")
+    @EntityGraph(attributePaths = {"category", "region"})
     List<Movie> findRelatedMovies(@Param("categoryId") Long categoryId,
                                  @Param("regionId") Long regionId,
                                  @Param("excludeMovieId") Long excludeMovieId,
@@ -300,4 +309,54 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      */
     @Query("SELECT m FROM Movie m WHERE m.isFree = :isFree AND m.status = :status ORDER BY m.views DESC, m.sortOrder DESC")
     Page<Movie> findByIsFreeAndStatusOrderByViewsDesc(@Param("isFree") Boolean isFree, @Param("status") Movie.MovieStatus status, Pageable pageable);
+    
+    // ==================== 目录快照相关查询方法 ====================
+    
+    /**
+     * 根据状态查询全部电影的列表卡片投影
+     */
+    @Query(CARD_VIEW_SELECT + "WHERE m.status = :status")
+    List<MovieCardView> findCardViewsByStatus(@Param("status") Movie.MovieStatus status);
+    
+    /**
+     * 根据ID查询电影的列表卡片投影
+     */
+    @Query(CARD_VIEW_SELECT + "WHERE m.id = :id AND m.status = :status")
+    MovieCardView findCardViewByIdAndStatus(@Param("id") Long id, @Param("status") Movie.MovieStatus status);
+    
+    /**
+     * 根据ID批量查询电影的列表卡片投影（不限状态，用于收藏、购买记录等历史列表）
+     */
+    @Query(CARD_VIEW_SELECT + "WHERE m.id IN :ids")
+    List<MovieCardView> findCardViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // ==================== 全文索引相关查询方法 ====================
+    
+    /**
+     * 根据状态查询全部电影的搜索文档
+     */
+    @Query("SELECT m.id AS id, m.title AS title, m.description AS description, m.tags AS tags " +
+           "FROM Movie m WHERE m.status = :status")
+    List<MovieSearchView> findSearchViewsByStatus(@Param("status") Movie.MovieStatus status);
+    
+    /**
+     * 根据ID查询电影的搜索文档
+     */
+    @Query("SELECT m.id AS id, m.title AS title, m.description AS description, m.tags AS tags " +
+           "FROM Movie m WHERE m.id = :id AND m.status = :status")
+    MovieSearchView findSearchViewByIdAndStatus(@Param("id") Long id, @Param("status") Movie.MovieStatus status);
+    
+    /**
+     * 查询指定状态电影的筛选维度
+     */
+    @Query("SELECT m.id AS id, m.releaseYear AS releaseYear, m.quality AS quality, m.chargeType AS chargeType " +
+           "FROM Movie m WHERE m.status = :status")
+    List<MovieFacetView> findFacetViewsByStatus(@Param("status") Movie.MovieStatus status);
+    
+    /**
+     * 根据ID查询电影的筛选维度
+     */
+    @Query("SELECT m.id AS id, m.releaseYear AS releaseYear, m.quality AS quality, m.chargeType AS chargeType " +
+           "FROM Movie m WHERE m.id = :id AND m.status = :status")
+    MovieFacetView findFacetViewByIdAndStatus(@Param("id") Long id, @Param("status") Movie.MovieStatus status);
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.video_interface.repository;
+
+/**
+ * 电影搜索文档投影（建立全文索引所需的字段）
+ */
+public interface MovieSearchView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getTags();
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,6 +63,21 @@ public interface UserFavoriteRepository extends JpaRepository<UserFavorite, Long
             @Param("contentType") UserFavorite.ContentType contentType, 
             @Param("status") UserFavorite.FavoriteStatus status);
     
+    /**
+     * 在指定内容ID范围内查询用户收藏的内容ID
+     * @param userId 用户ID
+     * @param contentType 内容类型
+     * @param status 状态
+     * @param contentIds 内容ID范围
+     * @return 其中已收藏的内容ID
+     */
+    @Query("SELECT uf.contentId FROM UserFavorite uf WHERE uf.userId = :userId AND uf.contentType = :contentType AND uf.status = :status AND uf.contentId IN :contentIds")
+    List<Long> findContentIdsByUserIdAndContentTypeAndStatusAndContentIdIn(
+            @Param("userId") Long userId, 
+            @Param("contentType") UserFavorite.ContentType contentType, 
+            @Param("status") UserFavorite.FavoriteStatus status,
+            @Param("contentIds") Collection<Long> contentIds);
+    
     /**
      * 根据内容ID和内容类型查询收藏数量
      * @param contentId 内容ID
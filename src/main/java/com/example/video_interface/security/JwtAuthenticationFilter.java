@@ -1,5 +1,7 @@
 package com.example.video_interface.security;
 
+import com.example.video_interface.service.common.ITokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,13 +14,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -27,51 +26,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
-
-    private final List<String> publicPaths = Arrays.asList(
-        "/users/register",
-        "/users/login",
-        "/users/auth",
-        "/users/check-username",
-        "/users/check-email",
-        "/admin/login",
-        "/admin/check-status",
-        "/error",
-        // H5电影相关公开路径
-        "/h5/categories/**",
-        "/h5/regions/**",
-        // 系统配置公开路径
-        "/h5/system-config/info",
-        // 具体的电影公开路径，不使用通配符
-        "/h5/movies/hot",
-        "/h5/movies/new",
-        "/h5/movies/high-rated",
-        "/h5/movies/super-recommended",
-        "/h5/movies/category",
-        "/h5/movies/region",
-        "/h5/movies/year",
-        "/h5/movies/charge-type",
-        "/h5/movies/vip",
-        "/h5/movies/free",
-        "/h5/movies/quality",
-        "/h5/movies/search",
-        "/h5/movies/filter",
-        "/h5/movies/list",
-        "/h5/movies/view",
-        "/h5/movies/like",
-        "/h5/movies/unlike",
-        "/h5/movies/favorite",
-        "/h5/movies/unfavorite",
-        "/h5/movies/permission",
-        "/h5/movies/filters",
-        "/h5/movies/trial",
-        "/h5/movies/*/detail-page",
-        "/h5/movies/*/related",
-        "/h5/movies/*/play-permission",
-        "/h5/movies/*/increment-view",
-        "/h5/movies/detail-simple"
-    );
+    private final JwtPrincipalCache principalCache;
+    private final PublicPathMatcher publicPathMatcher;
+    private final ITokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -89,20 +46,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 如果是公开路径，直接放行
-        if (isPublicPath(requestPath)) {
+        // 如果是公开路径，直接放行；携带Token时尽量识别登录用户（如按用户统计独立观众），识别失败也不拒绝
+        if (publicPathMatcher.matches(request)) {
             log.debug("公开路径，直接放行: {}", requestPath);
+            String jwt = getJwtFromRequest(request);
+            if (StringUtils.hasText(jwt)) {
+                authenticate(request, jwt);
+            }
             filterChain.doFilter(request, response);
             return;
         }
 
         log.debug("需要认证的路径: {}", requestPath);
 
+        authenticate(request, getJwtFromRequest(request));
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Token有效时把登录用户写入安全上下文，无效或缺失时不做处理
+     */
+    private void authenticate(HttpServletRequest request, String jwt) {
         try {
-            String jwt = getJwtFromRequest(request);
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromJWT(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+            JwtPrincipalCache.Principal principal = StringUtils.hasText(jwt) ? resolvePrincipal(jwt) : null;
+            if (principal != null && jwtTokenProvider.isSessionValid(principal.getUsername(), jwt)
+                    && !tokenRevocationService.isRevoked(jwt)) {
+                String username = principal.getUsername();
+                UserDetails userDetails = principal.getUserDetails();
                 
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -116,22 +86,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (Exception ex) {
             log.error("无法设置用户认证: {}", ex.getMessage());
         }
-
-        filterChain.doFilter(request, response);
     }
 
-    private boolean isPublicPath(String path) {
-        // 移除/api前缀进行匹配，因为后端配置了context-path=/api
-        final String pathWithoutApi = path.startsWith("/api") ? path.substring(4) : path;
-        
-        boolean isPublic = publicPaths.stream()
-            .anyMatch(pattern -> {
-                boolean matches = pathMatcher.match(pattern, pathWithoutApi);
-                log.debug("路径匹配检查: {} vs {} = {}", pattern, pathWithoutApi, matches);
-                return matches;
-            });
-        log.debug("路径 {} 是否为公开路径: {}", path, isPublic);
-        return isPublic;
+    /**
+     * 先查认证用户缓存，未命中时解析Token并从数据库加载用户
+     */
+    private JwtPrincipalCache.Principal resolvePrincipal(String jwt) {
+        JwtPrincipalCache.Principal principal = principalCache.get(jwt);
+        if (principal != null) {
+            return principal;
+        }
+        long loadVersion = principalCache.version();
+        Claims claims = jwtTokenProvider.parseClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername(claims.getSubject());
+        return principalCache.put(jwt, claims, userDetails, loadVersion);
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
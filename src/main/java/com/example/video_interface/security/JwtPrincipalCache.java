@@ -0,0 +1,237 @@
+package com.example.video_interface.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 已认证用户缓存
+ *
+ * 1. 以Token的SHA-256摘要为键，缓存解密解析后的Claims和从数据库加载的UserDetails，
+ *    命中时跳过Token解密解析和用户查询；条目在写入后固定时间过期，且不会超过Token本身的过期时间；
+ * 2. 设备和单点登录校验不缓存，每次请求仍由 JwtTokenProvider 查询Redis，顶号立即生效；
+ * 3. 登出时按Token移除，修改密码、锁定、角色或状态变化时在事务提交后按用户名移除，
+ *    并在 principal:changed 频道广播，其他节点同样移除；
+ * 4. 每次移除都会推进失效版本号，加载开始后发生过移除的结果不写入缓存，避免旧用户信息被放回。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtPrincipalCache {
+
+    private static final String CHANNEL = "principal:changed";
+    private static final String TOKEN_PREFIX = "t:";
+    private static final String USER_PREFIX = "u:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Value("${app.jwt.principal-cache-max-size:100000}")
+    private long cacheMaxSize;
+
+    @Value("${app.jwt.principal-cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    /**
+     * 当前节点实例标识，用于忽略自己发出的广播
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 失效版本号，每次移除缓存时加一
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Token摘要 -> 已认证用户
+     */
+    private Cache<String, Principal> principalCache;
+
+    @PostConstruct
+    public void init() {
+        principalCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onBroadcast(message), new ChannelTopic(CHANNEL));
+        log.info("认证用户缓存初始化完成，最大条目数: {}, 有效期: {}秒", cacheMaxSize, cacheTtlSeconds);
+    }
+
+    /**
+     * 当前失效版本号，加载用户前读取，写入缓存时传回
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * 获取Token对应的已认证用户
+     * @param token 请求中的Token
+     * @return 已认证用户，未缓存或Token已过期时返回null
+     */
+    public Principal get(String token) {
+        String digest = digest(token);
+        Principal principal = principalCache.getIfPresent(digest);
+        if (principal != null && principal.isExpired(System.currentTimeMillis())) {
+            principalCache.invalidate(digest);
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * 缓存解析和加载的结果
+     * @param token 请求中的Token
+     * @param claims 解析后的Claims
+     * @param userDetails 用户信息
+     * @param loadVersion 加载前读取的失效版本号
+     * @return 已认证用户
+     */
+    public Principal put(String token, Claims claims, UserDetails userDetails, long loadVersion) {
+        Principal principal = new Principal(claims, userDetails);
+        String digest = digest(token);
+        principalCache.put(digest, principal);
+        // 写入期间有移除发生时撤回，下次请求重新加载
+        if (version.get() != loadVersion) {
+            principalCache.invalidate(digest);
+        }
+        return principal;
+    }
+
+    /**
+     * 移除单个Token（登出）
+     * @param token Token
+     */
+    public void invalidateToken(String token) {
+        if (token == null) {
+            return;
+        }
+        String digest = digest(token);
+        evictToken(digest);
+        broadcast(TOKEN_PREFIX + digest);
+    }
+
+    /**
+     * 移除用户的全部Token（修改密码、锁定、角色或状态变化），有事务时在提交后执行
+     * @param username 用户名
+     */
+    public void invalidateUser(String username) {
+        if (username == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 提交前移除的话，并发请求可能又把未提交前的旧用户信息加载回缓存
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictUserAndBroadcast(username);
+                }
+            });
+        } else {
+            evictUserAndBroadcast(username);
+        }
+    }
+
+    private void evictUserAndBroadcast(String username) {
+        evictUser(username);
+        broadcast(USER_PREFIX + username);
+    }
+
+    private void evictToken(String digest) {
+        version.incrementAndGet();
+        principalCache.invalidate(digest);
+    }
+
+    /**
+     * 按用户名移除需要遍历缓存，只在用户信息变化时发生
+     */
+    private void evictUser(String username) {
+        version.incrementAndGet();
+        principalCache.asMap().values().removeIf(principal -> username.equals(principal.getUsername()));
+    }
+
+    private void broadcast(String key) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, instanceId + ":" + key);
+        } catch (Exception e) {
+            log.warn("广播认证用户变化失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 处理其他节点广播的认证用户变化
+     */
+    private void onBroadcast(Message message) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            // 实例标识是UUID，不含冒号；用户名中可能含冒号，因此按第一个冒号拆分
+            int separator = body.indexOf(':');
+            if (separator < 0 || instanceId.equals(body.substring(0, separator))) {
+                return;
+            }
+            String key = body.substring(separator + 1);
+            if (key.startsWith(TOKEN_PREFIX)) {
+                evictToken(key.substring(TOKEN_PREFIX.length()));
+            } else if (key.startsWith(USER_PREFIX)) {
+                evictUser(key.substring(USER_PREFIX.length()));
+            }
+        } catch (Exception e) {
+            log.warn("处理认证用户广播失败: {}", e.getMessage());
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 已认证用户
+     */
+    public static class Principal {
+        private final Claims claims;
+        private final UserDetails userDetails;
+        private final long expiresAtMillis;
+
+        public Principal(Claims claims, UserDetails userDetails) {
+            this.claims = claims;
+            this.userDetails = userDetails;
+            Date expiration = claims.getExpiration();
+            this.expiresAtMillis = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        }
+
+        public Claims getClaims() { return claims; }
+        public UserDetails getUserDetails() { return userDetails; }
+        public String getUsername() { return claims.getSubject(); }
+
+        boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+}
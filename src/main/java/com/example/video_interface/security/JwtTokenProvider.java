@@ -1,5 +1,6 @@
 package com.example.video_interface.security;
 
+import com.example.video_interface.service.common.IUserSessionService;
 import com.example.video_interface.util.CryptoUtil;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
@@ -8,7 +9,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -44,11 +44,11 @@ public class JwtTokenProvider {
     private SecretKeySpec aesKey;
 
     private final UserDetailsService userDetailsService;
-    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final IUserSessionService userSessionService;
 
-    public JwtTokenProvider(UserDetailsService userDetailsService, RedisTemplate<String, String> stringRedisTemplate) {
+    public JwtTokenProvider(UserDetailsService userDetailsService, IUserSessionService userSessionService) {
         this.userDetailsService = userDetailsService;
-        this.stringRedisTemplate = stringRedisTemplate;
+        this.userSessionService = userSessionService;
     }
 
     @PostConstruct
@@ -148,58 +148,72 @@ public class JwtTokenProvider {
      * @return 验证结果
      */
     public boolean validateToken(String encryptedToken) {
+        Claims claims = parseClaims(encryptedToken);
+        return claims != null && isSessionValid(claims.getSubject(), encryptedToken);
+    }
+
+    /**
+     * 解密并解析Token，不检查设备会话
+     * @param encryptedToken 加密的Token
+     * @return Claims，Token无效时返回null
+     */
+    public Claims parseClaims(String encryptedToken) {
+        Claims claims;
         try {
             log.debug("Validating enhanced JWT token");
-            
-            // 解密Token
-            String decryptedToken = decryptToken(encryptedToken);
-            
-            // 解析Claims
-            Claims claims = Jwts.parserBuilder()
+            claims = Jwts.parserBuilder()
                     .setSigningKey(key)
                     .build()
-                    .parseClaimsJws(decryptedToken)
+                    .parseClaimsJws(decryptToken(encryptedToken))
                     .getBody();
-            
-            // 验证Token类型
-            String tokenType = claims.get("type", String.class);
-            if (!"access_token".equals(tokenType)) {
-                log.warn("无效的Token类型: {}", tokenType);
+        } catch (Exception e) {
+            log.debug("Enhanced token validation failed, trying plain token", e);
+            // 如果增强验证失败，尝试普通验证（兼容性）
+            return parsePlainClaims(encryptedToken);
+        }
+
+        // 验证Token类型
+        String tokenType = claims.get("type", String.class);
+        if (!"access_token".equals(tokenType)) {
+            log.warn("无效的Token类型: {}", tokenType);
+            return null;
+        }
+        return claims;
+    }
+
+    /**
+     * 验证用户会话中的设备信息和当前有效Token（会话读取走本地近端缓存）
+     * @param username 用户名
+     * @param encryptedToken 请求中的Token
+     * @return 设备和Token都匹配（或未记录）时返回true；读取会话失败时退回普通Token校验
+     */
+    public boolean isSessionValid(String username, String encryptedToken) {
+        String currentDevice = getDeviceFingerprint();
+        if (username == null || currentDevice == null) {
+            return true;
+        }
+        try {
+            IUserSessionService.Session session = userSessionService.get(username);
+            String storedDevice = session.getDeviceId();
+            String storedToken = session.getToken();
+
+            // 检查设备是否匹配
+            if (storedDevice != null && !storedDevice.equals(currentDevice)) {
+                log.warn("用户 {} 设备不匹配: 存储设备={}, 当前设备={}", 
+                    username, storedDevice, currentDevice);
                 return false;
             }
-            
-            // 验证Redis中的设备信息
-            String username = claims.getSubject();
-            String currentDevice = getDeviceFingerprint();
-            
-            if (username != null && currentDevice != null) {
-                String userDeviceKey = "user:device:" + username;
-                String userTokenKey = "user:token:" + username;
-                
-                String storedDevice = stringRedisTemplate.opsForValue().get(userDeviceKey);
-                String storedToken = stringRedisTemplate.opsForValue().get(userTokenKey);
-                
-                // 检查设备是否匹配
-                if (storedDevice != null && !storedDevice.equals(currentDevice)) {
-                    log.warn("用户 {} 设备不匹配: 存储设备={}, 当前设备={}", 
-                        username, storedDevice, currentDevice);
-                    return false;
-                }
-                
-                // 检查token是否匹配
-                if (storedToken != null && !storedToken.equals(encryptedToken)) {
-                    log.warn("用户 {} token不匹配，可能已被其他设备顶掉", username);
-                    return false;
-                }
+
+            // 检查token是否匹配
+            if (storedToken != null && !storedToken.equals(encryptedToken)) {
+                log.warn("用户 {} token不匹配，可能已被其他设备顶掉", username);
+                return false;
             }
-            
-            log.debug("Enhanced JWT token validation successful");
             return true;
-            
         } catch (Exception e) {
-            log.debug("Enhanced token validation failed, trying plain token", e);
-            // 如果增强验证失败，尝试普通验证（兼容性）
-            return validatePlainToken(encryptedToken);
+            log.warn("检查用户 {} 设备信息失败，尝试普通验证: {}", username, e.getMessage());
+            // 会话无法读取时沿用原有的兼容处理：按普通Token验证
+            return parsePlainClaims(encryptedToken) != null;
         }
     }
 
@@ -296,15 +310,15 @@ public class JwtTokenProvider {
     }
 
     /**
-     * 兼容性方法：验证普通Token
+     * 兼容性方法：解析普通Token
      */
-    private boolean validatePlainToken(String authToken) {
+    private Claims parsePlainClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
+            return Jwts.parserBuilder()
                     .setSigningKey(key)
                     .build()
-                    .parseClaimsJws(authToken);
-            return true;
+                    .parseClaimsJws(authToken)
+                    .getBody();
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -316,7 +330,7 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return null;
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
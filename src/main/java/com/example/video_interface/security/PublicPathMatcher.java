@@ -0,0 +1,264 @@
+package com.example.video_interface.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 公开路径匹配器
+ *
+ * 1. 所有无需登录即可访问的接口都在这里定义，SecurityConfig 据此放行，JwtAuthenticationFilter 据此只在携带Token时
+ *    尝试识别用户、识别失败不拒绝，未列出的路径一律需要认证；
+ * 2. 路径不含 context-path（/api），按路径段精确匹配，"*" 匹配一个非空路径段，"**" 只能作为最后一段，匹配剩余任意路径；
+ * 3. 启动时把全部规则编译成路径段前缀树，每个节点记录允许的请求方法位掩码；
+ *    匹配时在原始路径字符串上逐段二分查找子节点，不拆分字符串、不创建对象。
+ */
+@Slf4j
+@Component
+public class PublicPathMatcher implements RequestMatcher {
+
+    private static final String WILDCARD = "*";
+    private static final String DOUBLE_WILDCARD = "**";
+
+    /**
+     * 不限请求方法
+     */
+    private static final HttpMethod ANY = null;
+
+    private final Node root;
+
+    public PublicPathMatcher() {
+        Builder builder = new Builder();
+
+        // 错误页面
+        builder.add(ANY, "/error");
+
+        // 用户注册、登录等认证相关端点（注意：context-path=/api，所以这里路径不需要/api前缀）
+        builder.add(HttpMethod.POST, "/users/register");
+        builder.add(HttpMethod.POST, "/users/login");
+        builder.add(HttpMethod.POST, "/users/auth");
+        builder.add(HttpMethod.GET, "/users/check-username");
+        builder.add(HttpMethod.GET, "/users/check-email");
+
+        // 验证码
+        builder.add(HttpMethod.GET, "/users/captcha");
+        builder.add(HttpMethod.POST, "/users/captcha/refresh");
+        builder.add(HttpMethod.POST, "/users/captcha/verify");
+
+        // H5分类、地区和系统配置
+        builder.add(HttpMethod.GET, "/h5/categories/*");
+        builder.add(HttpMethod.GET, "/h5/regions/*");
+        builder.add(HttpMethod.GET, "/h5/system-config/info");
+
+        // H5电影一级路径逐个列出（收藏等接口按请求参数中的用户ID处理），
+        // 点赞、个性化状态等按登录用户处理的接口不在此列
+        builder.add(HttpMethod.GET, "/h5/movies/detail-simple");
+        builder.add(HttpMethod.GET, "/h5/movies/hot");
+        builder.add(HttpMethod.GET, "/h5/movies/new");
+        builder.add(HttpMethod.GET, "/h5/movies/high-rated");
+        builder.add(HttpMethod.GET, "/h5/movies/super-recommended");
+        builder.add(HttpMethod.GET, "/h5/movies/category");
+        builder.add(HttpMethod.GET, "/h5/movies/region");
+        builder.add(HttpMethod.GET, "/h5/movies/year");
+        builder.add(HttpMethod.GET, "/h5/movies/charge-type");
+        builder.add(HttpMethod.GET, "/h5/movies/vip");
+        builder.add(HttpMethod.GET, "/h5/movies/free");
+        builder.add(HttpMethod.GET, "/h5/movies/quality");
+        builder.add(HttpMethod.GET, "/h5/movies/search");
+        builder.add(HttpMethod.GET, "/h5/movies/suggest");
+        builder.add(HttpMethod.GET, "/h5/movies/filter");
+        builder.add(HttpMethod.GET, "/h5/movies/list");
+        builder.add(HttpMethod.GET, "/h5/movies/ranking");
+        builder.add(HttpMethod.GET, "/h5/movies/permission");
+        builder.add(HttpMethod.GET, "/h5/movies/filters");
+        builder.add(HttpMethod.POST, "/h5/movies/view");
+        builder.add(HttpMethod.POST, "/h5/movies/favorite");
+        builder.add(HttpMethod.POST, "/h5/movies/unfavorite");
+
+        // 电影详情、试看和播放相关路径
+        builder.add(HttpMethod.GET, "/h5/movies/*/trial/*");
+        builder.add(HttpMethod.GET, "/h5/movies/*/detail-page");
+        builder.add(HttpMethod.GET, "/h5/movies/*/related");
+        builder.add(HttpMethod.POST, "/h5/movies/*/play-permission");
+        builder.add(HttpMethod.POST, "/h5/movies/*/increment-view");
+
+        // 支付回调
+        builder.add(ANY, "/payment/idr/order/callback");
+
+        // 管理员登录和初始化
+        builder.add(HttpMethod.POST, "/admin/login");
+        builder.add(HttpMethod.POST, "/admin/init");
+        builder.add(HttpMethod.GET, "/admin/check-status");
+
+        this.root = builder.build();
+        log.info("公开路径匹配器初始化完成，规则数: {}", builder.size);
+    }
+
+    /**
+     * 判断请求是否为公开路径
+     */
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (request.getPathInfo() != null) {
+            path = path + request.getPathInfo();
+        }
+        return isPublic(request.getMethod(), path);
+    }
+
+    /**
+     * 判断请求方法和路径是否公开
+     * @param method 请求方法
+     * @param path 不含 context-path 的请求路径
+     * @return 是否公开
+     */
+    public boolean isPublic(String method, String path) {
+        return path != null && match(root, path, 0, methodBit(method));
+    }
+
+    private static boolean match(Node node, String path, int pos, int methodBit) {
+        if ((node.tailMethods & methodBit) != 0) {
+            return true;
+        }
+        int length = path.length();
+        if (pos == length) {
+            return (node.methods & methodBit) != 0;
+        }
+        if (path.charAt(pos) != '/') {
+            return false;
+        }
+        int start = pos + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = length;
+        }
+        Node literal = node.findChild(path, start, end);
+        if (literal != null && match(literal, path, end, methodBit)) {
+            return true;
+        }
+        return end > start && node.wildcard != null && match(node.wildcard, path, end, methodBit);
+    }
+
+    /**
+     * 请求方法对应的位；不在列表中的方法只匹配不限方法的规则
+     */
+    private static int methodBit(String method) {
+        if (method == null) {
+            return 1;
+        }
+        switch (method) {
+            case "GET": return 1 << 1;
+            case "POST": return 1 << 2;
+            case "PUT": return 1 << 3;
+            case "DELETE": return 1 << 4;
+            case "PATCH": return 1 << 5;
+            case "HEAD": return 1 << 6;
+            case "OPTIONS": return 1 << 7;
+            default: return 1;
+        }
+    }
+
+    /**
+     * 比较路径中 [start, end) 这一段与给定路径段，顺序与 String.compareTo 一致
+     */
+    private static int compareSegment(String path, int start, int end, String segment) {
+        int length = end - start;
+        int common = Math.min(length, segment.length());
+        for (int i = 0; i < common; i++) {
+            int diff = path.charAt(start + i) - segment.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - segment.length();
+    }
+
+    /**
+     * 前缀树节点，构建完成后不再修改
+     */
+    private static final class Node {
+        /**
+         * 按字典序排列的字面量子路径段及对应子节点
+         */
+        private String[] segments = new String[0];
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        /**
+         * 规则在此结束时允许的请求方法
+         */
+        private int methods;
+        /**
+         * 以 "**" 在此结束的规则允许的请求方法
+         */
+        private int tailMethods;
+
+        private Node findChild(String path, int start, int end) {
+            int low = 0;
+            int high = segments.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareSegment(path, start, end, segments[mid]);
+                if (cmp > 0) {
+                    low = mid + 1;
+                } else if (cmp < 0) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 构建前缀树，字面量子节点先放在 TreeMap 中，构建结束时转成有序数组
+     */
+    private static final class Builder {
+        private final Map<Node, TreeMap<String, Node>> literals = new IdentityHashMap<>();
+        private final Node root = new Node();
+        private int size;
+
+        void add(HttpMethod method, String pattern) {
+            int bit = method == null ? -1 : methodBit(method.name());
+            Node node = root;
+            String[] parts = pattern.substring(1).split("/");
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i];
+                if (DOUBLE_WILDCARD.equals(part)) {
+                    if (i != parts.length - 1) {
+                        throw new IllegalArgumentException("\"**\" 只能作为最后一个路径段: " + pattern);
+                    }
+                    node.tailMethods |= bit;
+                    size++;
+                    return;
+                }
+                if (WILDCARD.equals(part)) {
+                    if (node.wildcard == null) {
+                        node.wildcard = new Node();
+                    }
+                    node = node.wildcard;
+                } else {
+                    node = literals.computeIfAbsent(node, n -> new TreeMap<>())
+                            .computeIfAbsent(part, p -> new Node());
+                }
+            }
+            node.methods |= bit;
+            size++;
+        }
+
+        Node build() {
+            for (Map.Entry<Node, TreeMap<String, Node>> entry : literals.entrySet()) {
+                Node node = entry.getKey();
+                node.segments = entry.getValue().keySet().toArray(new String[0]);
+                node.children = entry.getValue().values().toArray(new Node[0]);
+            }
+            return root;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.video_interface.service.admin;
 
 import com.example.video_interface.dto.admin.AdminMovieDTO;
+import com.example.video_interface.service.common.IMovieAudienceService.DailyViewers;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -81,4 +82,20 @@ public interface IAdminMovieService {
      * @return 超级推荐电影列表
      */
     List<AdminMovieDTO> getSuperRecommendedMovies();
+    
+    /**
+     * 获取最近若干天每天的独立观众数
+     * @param movieId 电影ID，为null时统计全站
+     * @param days 天数
+     * @return 按日期升序排列的每日统计
+     */
+    List<DailyViewers> getDailyUniqueViewers(Long movieId, int days);
+    
+    /**
+     * 统计最近若干天的独立观众数（跨天去重）
+     * @param movieId 电影ID，为null时统计全站
+     * @param days 天数
+     * @return 独立观众数
+     */
+    long countUniqueViewers(Long movieId, int days);
 } 
\ No newline at end of file
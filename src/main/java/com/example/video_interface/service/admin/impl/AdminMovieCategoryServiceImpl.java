@@ -1,11 +1,13 @@
 package com.example.video_interface.service.admin.impl;
 
 import com.example.video_interface.dto.admin.AdminMovieCategoryDTO;
+import com.example.video_interface.event.CatalogChangedEvent;
 import com.example.video_interface.model.MovieCategory;
 import com.example.video_interface.repository.MovieCategoryRepository;
 import com.example.video_interface.service.admin.IAdminMovieCategoryService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,9 @@ public class AdminMovieCategoryServiceImpl implements IAdminMovieCategoryService
     @Autowired
     private MovieCategoryRepository movieCategoryRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     @Transactional(readOnly = true)
     public List<AdminMovieCategoryDTO> getAllCategories() {
@@ -44,6 +49,7 @@ public class AdminMovieCategoryServiceImpl implements IAdminMovieCategoryService
         MovieCategory category = new MovieCategory();
         BeanUtils.copyProperties(categoryDTO, category, "id", "createdAt", "updatedAt");
         category = movieCategoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(category.getId()));
         return convertToDTO(category);
     }
 
@@ -53,6 +59,7 @@ public class AdminMovieCategoryServiceImpl implements IAdminMovieCategoryService
                 .map(category -> {
                     BeanUtils.copyProperties(categoryDTO, category, "id", "createdAt", "updatedAt");
                     category = movieCategoryRepository.save(category);
+                    eventPublisher.publishEvent(CatalogChangedEvent.category(id));
                     return convertToDTO(category);
                 })
                 .orElse(null);
@@ -70,6 +77,7 @@ public class AdminMovieCategoryServiceImpl implements IAdminMovieCategoryService
         }
         
         movieCategoryRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(id));
     }
 
     @Override
@@ -78,6 +86,7 @@ public class AdminMovieCategoryServiceImpl implements IAdminMovieCategoryService
                 .map(category -> {
                     category.setEnabled(enabled);
                     category = movieCategoryRepository.save(category);
+                    eventPublisher.publishEvent(CatalogChangedEvent.category(id));
                     return convertToDTO(category);
                 })
                 .orElse(null);
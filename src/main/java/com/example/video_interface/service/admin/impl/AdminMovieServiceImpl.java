@@ -1,6 +1,7 @@
 package com.example.video_interface.service.admin.impl;
 
 import com.example.video_interface.dto.admin.AdminMovieDTO;
+import com.example.video_interface.event.CatalogChangedEvent;
 import com.example.video_interface.model.Movie;
 import com.example.video_interface.model.MovieCategory;
 import com.example.video_interface.model.Region;
@@ -9,14 +10,19 @@ import com.example.video_interface.repository.MovieRepository;
 import com.example.video_interface.repository.RegionRepository;
 import com.example.video_interface.service.admin.IAdminMovieService;
 import com.example.video_interface.service.common.IMinioService;
+import com.example.video_interface.service.common.IMovieAudienceService;
+import com.example.video_interface.service.common.IMovieAudienceService.DailyViewers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 管理后台电影服务实现类
@@ -30,6 +36,8 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
     private final MovieCategoryRepository categoryRepository;
     private final RegionRepository regionRepository;
     private final IMinioService minioService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IMovieAudienceService movieAudienceService;
     
     @Override
     public Page<AdminMovieDTO> getMovieList(Pageable pageable, String keyword, Long categoryId, 
@@ -58,7 +66,7 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
         Page<Movie> movies = movieRepository.findByConditions(keyword, categoryId, regionId, 
                                                              movieStatus, movieChargeType, pageable);
         
-        return movies.map(movie -> {
+        Page<AdminMovieDTO> result = movies.map(movie -> {
             AdminMovieDTO dto = AdminMovieDTO.fromEntity(movie);
             // 生成封面URL
             if (dto.getCover() != null && !dto.getCover().trim().isEmpty()) {
@@ -80,6 +88,8 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
             }
             return dto;
         });
+        fillUniqueViewers(result.getContent());
+        return result;
     }
     
     @Override
@@ -108,6 +118,7 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
                 dto.setBannerUrl(null);
             }
         }
+        fillUniqueViewers(List.of(dto));
         return dto;
     }
     
@@ -174,6 +185,7 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
         log.debug("🔍 保存前的电影实体: {}", movie);
         Movie savedMovie = movieRepository.save(movie);
         log.info("电影创建成功 - ID: {}, 标题: {}", savedMovie.getId(), savedMovie.getTitle());
+        eventPublisher.publishEvent(CatalogChangedEvent.movie(savedMovie.getId()));
         
         AdminMovieDTO dto = AdminMovieDTO.fromEntity(savedMovie);
         // 生成封面URL
@@ -262,6 +274,7 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
         
         Movie updatedMovie = movieRepository.save(movie);
         log.info("电影更新成功 - ID: {}, 标题: {}", updatedMovie.getId(), updatedMovie.getTitle());
+        eventPublisher.publishEvent(CatalogChangedEvent.movie(id));
         
         AdminMovieDTO dto = AdminMovieDTO.fromEntity(updatedMovie);
         // 生成封面URL
@@ -295,6 +308,7 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
         
         movieRepository.delete(movie);
         log.info("电影删除成功 - ID: {}, 标题: {}", id, movie.getTitle());
+        eventPublisher.publishEvent(CatalogChangedEvent.movie(id));
     }
     
     @Override
@@ -312,6 +326,7 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
             Movie updatedMovie = movieRepository.save(movie);
             log.info("电影状态更新成功 - ID: {}, 标题: {}, 状态: {}", 
                     updatedMovie.getId(), updatedMovie.getTitle(), updatedMovie.getStatus());
+            eventPublisher.publishEvent(CatalogChangedEvent.movie(id));
             
             return AdminMovieDTO.fromEntity(updatedMovie);
         } catch (IllegalArgumentException e) {
@@ -329,6 +344,7 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
         
         movie.setIsRecommended(isRecommended);
         Movie savedMovie = movieRepository.save(movie);
+        eventPublisher.publishEvent(CatalogChangedEvent.movie(id));
         
         AdminMovieDTO dto = AdminMovieDTO.fromEntity(savedMovie);
         // 生成封面URL
@@ -379,6 +395,7 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
         
         movie.setIsSuperRecommended(isSuperRecommended);
         Movie savedMovie = movieRepository.save(movie);
+        eventPublisher.publishEvent(CatalogChangedEvent.movie(id));
         
         AdminMovieDTO dto = AdminMovieDTO.fromEntity(savedMovie);
         // 生成封面URL
@@ -434,4 +451,36 @@ public class AdminMovieServiceImpl implements IAdminMovieService {
             return dto;
         }).collect(java.util.stream.Collectors.toList());
     }
+    
+    @Override
+    public List<DailyViewers> getDailyUniqueViewers(Long movieId, int days) {
+        log.debug("查询每日独立观众数 - 电影ID: {}, 天数: {}", movieId, days);
+        return movieId != null
+                ? movieAudienceService.getMovieDailyViewers(movieId, days)
+                : movieAudienceService.getSiteDailyViewers(days);
+    }
+    
+    @Override
+    public long countUniqueViewers(Long movieId, int days) {
+        if (movieId == null) {
+            return movieAudienceService.countSiteViewers(days);
+        }
+        return movieAudienceService.countMovieViewers(List.of(movieId), days).getOrDefault(movieId, 0L);
+    }
+    
+    /**
+     * 批量填充今日及近7天独立观众数
+     */
+    private void fillUniqueViewers(List<AdminMovieDTO> dtos) {
+        if (dtos.isEmpty()) {
+            return;
+        }
+        List<Long> ids = dtos.stream().map(AdminMovieDTO::getId).collect(Collectors.toList());
+        Map<Long, Long> today = movieAudienceService.countMovieViewers(ids, 1);
+        Map<Long, Long> week = movieAudienceService.countMovieViewers(ids, 7);
+        for (AdminMovieDTO dto : dtos) {
+            dto.setTodayUniqueViewers(today.get(dto.getId()));
+            dto.setWeekUniqueViewers(week.get(dto.getId()));
+        }
+    }
 } 
\ No newline at end of file
@@ -1,12 +1,14 @@
 package com.example.video_interface.service.admin.impl;
 
 import com.example.video_interface.dto.admin.AdminRegionDTO;
+import com.example.video_interface.event.CatalogChangedEvent;
 import com.example.video_interface.model.Region;
 import com.example.video_interface.repository.RegionRepository;
 import com.example.video_interface.service.admin.IAdminRegionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +25,7 @@ import java.util.stream.Collectors;
 public class AdminRegionServiceImpl implements IAdminRegionService {
 
     private final RegionRepository regionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<AdminRegionDTO> getAllRegions() {
@@ -45,6 +48,7 @@ public class AdminRegionServiceImpl implements IAdminRegionService {
         Region region = convertToEntity(regionDTO);
         Region saved = regionRepository.save(region);
         log.info("创建地区成功: {}", saved.getName());
+        eventPublisher.publishEvent(CatalogChangedEvent.region(saved.getId()));
         return convertToDTO(saved);
     }
 
@@ -63,6 +67,7 @@ public class AdminRegionServiceImpl implements IAdminRegionService {
         
         Region updated = regionRepository.save(existingRegion);
         log.info("更新地区成功: {}", updated.getName());
+        eventPublisher.publishEvent(CatalogChangedEvent.region(id));
         return convertToDTO(updated);
     }
 
@@ -80,6 +85,7 @@ public class AdminRegionServiceImpl implements IAdminRegionService {
         
         regionRepository.delete(region);
         log.info("删除地区成功: {}", region.getName());
+        eventPublisher.publishEvent(CatalogChangedEvent.region(id));
     }
 
     @Override
@@ -91,6 +97,7 @@ public class AdminRegionServiceImpl implements IAdminRegionService {
         region.setEnabled(enabled);
         Region updated = regionRepository.save(region);
         log.info("切换地区状态成功: {} -> {}", updated.getName(), enabled);
+        eventPublisher.publishEvent(CatalogChangedEvent.region(id));
         return convertToDTO(updated);
     }
 
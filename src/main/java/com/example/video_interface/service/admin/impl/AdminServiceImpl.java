@@ -5,9 +5,11 @@ import com.example.video_interface.dto.admin.AdminUserDTO;
 import com.example.video_interface.dto.admin.AdminManagementRequest;
 import com.example.video_interface.model.User;
 import com.example.video_interface.repository.UserRepository;
+import com.example.video_interface.security.JwtPrincipalCache;
 import com.example.video_interface.security.JwtTokenProvider;
 import com.example.video_interface.service.admin.IAdminService;
 import com.example.video_interface.service.common.ILoginSecurityService;
+import com.example.video_interface.service.common.ITokenRevocationService;
 import com.example.video_interface.util.RequestContextUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +17,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -25,11 +26,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -44,9 +45,10 @@ public class AdminServiceImpl implements IAdminService {
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
-    private final RedisTemplate<String, String> stringRedisTemplate;
     private final ILoginSecurityService loginSecurityService;
     private final PasswordEncoder passwordEncoder;
+    private final JwtPrincipalCache principalCache;
+    private final ITokenRevocationService tokenRevocationService;
 
     /**
      * 管理员登录
@@ -176,10 +178,10 @@ public class AdminServiceImpl implements IAdminService {
             long remainingTime = expirationTime - currentTime;
             
             if (remainingTime > 0) {
-                String key = "blacklist:" + token;
-                stringRedisTemplate.opsForValue().set(key, username, remainingTime, TimeUnit.MILLISECONDS);
+                tokenRevocationService.revoke(token, username, Duration.ofMillis(remainingTime));
                 log.debug("Token已加入黑名单，管理员: {}", username);
             }
+            principalCache.invalidateToken(token);
         } catch (Exception e) {
             log.error("管理员登出过程发生错误: {}", e.getMessage());
             throw new RuntimeException("退出登录失败");
@@ -377,6 +379,9 @@ public class AdminServiceImpl implements IAdminService {
                 return result;
             }
 
+            // 用户名和密码变化后，按原用户名缓存的认证信息失效
+            principalCache.invalidateUser(admin.getUsername());
+
             // 更新字段
             if (StringUtils.hasText(request.getUsername())) {
                 admin.setUsername(request.getUsername());
@@ -439,6 +444,7 @@ public class AdminServiceImpl implements IAdminService {
             }
 
             userRepository.delete(admin);
+            principalCache.invalidateUser(admin.getUsername());
 
             Map<String, Object> result = new HashMap<>();
             result.put("code", 200);
@@ -491,6 +497,7 @@ public class AdminServiceImpl implements IAdminService {
 
             admin.setStatus(request.getEnabled() ? User.UserStatus.ACTIVE : User.UserStatus.INACTIVE);
             User updatedAdmin = userRepository.save(admin);
+            principalCache.invalidateUser(updatedAdmin.getUsername());
 
             Map<String, Object> result = new HashMap<>();
             result.put("code", 200);
@@ -5,7 +5,9 @@ import com.example.video_interface.dto.admin.AdminUserRequest;
 import com.example.video_interface.dto.admin.UserStatistics;
 import com.example.video_interface.model.User;
 import com.example.video_interface.repository.UserRepository;
+import com.example.video_interface.security.JwtPrincipalCache;
 import com.example.video_interface.service.admin.IAdminUserService;
+import com.example.video_interface.service.common.IUserEntitlementService;
 import com.example.video_interface.util.RequestContextUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +36,8 @@ import java.util.List;
 @Transactional
 public class AdminUserServiceImpl implements IAdminUserService {
     private final UserRepository userRepository;
+    private final IUserEntitlementService userEntitlementService;
+    private final JwtPrincipalCache principalCache;
 
     @Override
     public Page<AdminUserDTO> getUserList(AdminUserRequest request) {
@@ -73,6 +77,8 @@ public class AdminUserServiceImpl implements IAdminUserService {
         
         User user = userRepository.findById(request.getId())
                 .orElseThrow(() -> new IllegalArgumentException("用户不存在"));
+        // 锁定、状态、角色或用户名变化后，按原用户名缓存的认证信息失效
+        principalCache.invalidateUser(user.getUsername());
         
         // 更新用户信息
         if (StringUtils.hasText(request.getUsername())) {
@@ -122,6 +128,9 @@ public class AdminUserServiceImpl implements IAdminUserService {
         }
         
         User savedUser = userRepository.save(user);
+        if (request.getIsVip() != null || request.getVipExpireTime() != null) {
+            userEntitlementService.invalidate(savedUser.getId());
+        }
         log.info("管理员更新用户信息成功: {}", savedUser.getUsername());
         
         return AdminUserDTO.fromUser(savedUser);
@@ -142,6 +151,7 @@ public class AdminUserServiceImpl implements IAdminUserService {
         // 软删除：将状态设置为DELETED
         user.setStatus(User.UserStatus.DELETED);
         userRepository.save(user);
+        principalCache.invalidateUser(user.getUsername());
         
         log.info("管理员删除用户成功: {}", user.getUsername());
     }
@@ -169,6 +179,7 @@ public class AdminUserServiceImpl implements IAdminUserService {
         }
         
         User savedUser = userRepository.save(user);
+        principalCache.invalidateUser(savedUser.getUsername());
         log.info("管理员锁定用户成功: {}", savedUser.getUsername());
         
         return AdminUserDTO.fromUser(savedUser);
@@ -189,6 +200,7 @@ public class AdminUserServiceImpl implements IAdminUserService {
         user.setLastFailedLoginTime(null);
         
         User savedUser = userRepository.save(user);
+        principalCache.invalidateUser(savedUser.getUsername());
         log.info("管理员解锁用户成功: {}", savedUser.getUsername());
         
         return AdminUserDTO.fromUser(savedUser);
@@ -221,6 +233,7 @@ public class AdminUserServiceImpl implements IAdminUserService {
         user.setVipExpireTime(expireTime);
         
         User savedUser = userRepository.save(user);
+        userEntitlementService.invalidate(userId);
         log.info("管理员设置用户VIP状态成功: {}", savedUser.getUsername());
         
         return AdminUserDTO.fromUser(savedUser);
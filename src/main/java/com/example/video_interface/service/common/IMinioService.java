@@ -3,6 +3,8 @@ package com.example.video_interface.service.common;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * MinIO服务接口
@@ -42,6 +44,22 @@ public interface IMinioService {
      */
     String getFileUrl(String objectName, int expiration);
     
+    /**
+     * 批量获取文件访问URL（预签名URL，私有读写）
+     * 列表页一次性为整页的封面/Banner签名，空对象名会被忽略
+     * @param objectNames 对象名称集合（相对路径）
+     * @return 对象名称 -> 预签名URL
+     */
+    Map<String, String> getFileUrls(Collection<String> objectNames);
+    
+    /**
+     * 批量获取文件访问URL（预签名URL，私有读写）
+     * @param objectNames 对象名称集合（相对路径）
+     * @param expiration 过期时间（秒）
+     * @return 对象名称 -> 预签名URL
+     */
+    Map<String, String> getFileUrls(Collection<String> objectNames, int expiration);
+    
     /**
      * 删除文件
      * @param objectName 对象名称（相对路径）
@@ -63,6 +81,12 @@ public interface IMinioService {
      */
     FileInfo getFileInfo(String objectName);
     
+    /**
+     * 获取预签名URL缓存统计信息
+     * @return 缓存统计
+     */
+    UrlCacheStats getUrlCacheStats();
+    
     /**
      * 文件信息
      */
@@ -88,4 +112,30 @@ public interface IMinioService {
         public String getEtag() { return etag; }
         public String getLastModified() { return lastModified; }
     }
+    
+    /**
+     * 预签名URL缓存统计
+     */
+    class UrlCacheStats {
+        private long size;
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private double hitRate;
+        
+        public UrlCacheStats(long size, long hitCount, long missCount, long evictionCount, double hitRate) {
+            this.size = size;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.hitRate = hitRate;
+        }
+        
+        // Getters
+        public long getSize() { return size; }
+        public long getHitCount() { return hitCount; }
+        public long getMissCount() { return missCount; }
+        public long getEvictionCount() { return evictionCount; }
+        public double getHitRate() { return hitRate; }
+    }
 } 
\ No newline at end of file
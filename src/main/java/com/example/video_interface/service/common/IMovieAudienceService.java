@@ -0,0 +1,76 @@
+package com.example.video_interface.service.common;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 电影独立观众统计服务接口
+ * 观众标识按天记录到Redis HyperLogLog（每部电影每天一个、全站每天一个），
+ * 每个计数器占用固定内存，与访问量无关，计数约有0.81%的标准误差
+ */
+public interface IMovieAudienceService {
+
+    /**
+     * 记录一次观看（Redis不可用时忽略）
+     * @param movieId 电影ID
+     * @param viewerId 观众标识（登录用户ID，未登录时为客户端IP，后者为近似值）
+     */
+    void recordViewer(Long movieId, String viewerId);
+
+    /**
+     * 领取电影某天独立观众数（PFCOUNT）自上次领取以来的增长
+     * 领取进度保存在Redis中、由各节点共享，同一段增长只会被领取一次
+     * @param movieIds 电影ID集合
+     * @param date 日期
+     * @return 电影ID -> 新增独立观众数，仅包含有增长的电影
+     */
+    Map<Long, Long> claimViewerGrowth(Collection<Long> movieIds, LocalDate date);
+
+    /**
+     * 批量统计电影最近若干天的独立观众数（跨天去重）
+     * @param movieIds 电影ID集合
+     * @param days 天数，1表示仅今天
+     * @return 电影ID -> 独立观众数，Redis不可用时返回空映射
+     */
+    Map<Long, Long> countMovieViewers(Collection<Long> movieIds, int days);
+
+    /**
+     * 获取单部电影最近若干天每天的独立观众数
+     * @param movieId 电影ID
+     * @param days 天数
+     * @return 按日期升序排列的每日统计
+     */
+    List<DailyViewers> getMovieDailyViewers(Long movieId, int days);
+
+    /**
+     * 获取全站最近若干天每天的独立观众数
+     * @param days 天数
+     * @return 按日期升序排列的每日统计
+     */
+    List<DailyViewers> getSiteDailyViewers(int days);
+
+    /**
+     * 统计全站最近若干天的独立观众数（跨天去重）
+     * @param days 天数
+     * @return 独立观众数
+     */
+    long countSiteViewers(int days);
+
+    /**
+     * 每日独立观众数
+     */
+    class DailyViewers {
+        private LocalDate date;
+        private long uniqueViewers;
+
+        public DailyViewers(LocalDate date, long uniqueViewers) {
+            this.date = date;
+            this.uniqueViewers = uniqueViewers;
+        }
+
+        public LocalDate getDate() { return date; }
+        public long getUniqueViewers() { return uniqueViewers; }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.video_interface.service.common;
+
+import java.time.Duration;
+
+/**
+ * Token吊销服务接口
+ * 登出、被其他设备顶掉的Token写入Redis黑名单，并通过Redis Stream同步到所有节点的本地布隆过滤器；
+ * 校验时先查本地布隆过滤器，只有可能命中时才查询Redis
+ */
+public interface ITokenRevocationService {
+
+    /**
+     * 吊销Token
+     * @param token Token
+     * @param username Token所属用户名
+     * @param ttl 黑名单保留时间，不短于Token剩余有效期
+     */
+    void revoke(String token, String username, Duration ttl);
+
+    /**
+     * Token是否已被吊销
+     * @param token Token
+     * @return 是否已吊销
+     */
+    boolean isRevoked(String token);
+}
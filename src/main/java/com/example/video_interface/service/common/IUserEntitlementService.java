@@ -0,0 +1,69 @@
+package com.example.video_interface.service.common;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户观看权益服务接口
+ * 按用户缓存VIP状态、VIP到期时间以及已单片购买的电影ID（压缩位图），
+ * 播放、试看权限判断只查内存；支付回调、激活码兑换、管理员修改VIP后需调用 invalidate
+ */
+public interface IUserEntitlementService {
+
+    /**
+     * 获取用户权益
+     * @param userId 用户ID
+     * @return 用户权益，用户不存在或加载失败时返回null
+     */
+    Entitlement get(Long userId);
+
+    /**
+     * 用户当前是否为有效VIP
+     * @param userId 用户ID
+     * @return 是否为VIP（已过期的不算）
+     */
+    boolean isVip(Long userId);
+
+    /**
+     * 用户是否已单片购买电影
+     * @param userId 用户ID
+     * @param movieId 电影ID
+     * @return 是否已购买
+     */
+    boolean hasPurchased(Long userId, Long movieId);
+
+    /**
+     * 丢弃用户的权益缓存（所有节点）；在事务中调用时，事务提交后才生效
+     * @param userId 用户ID
+     */
+    void invalidate(Long userId);
+
+    /**
+     * 用户权益（不可变）
+     */
+    class Entitlement {
+        private final boolean vip;
+        private final LocalDateTime vipExpireTime;
+        private final Roaring64Bitmap purchasedMovieIds;
+
+        public Entitlement(boolean vip, LocalDateTime vipExpireTime, Roaring64Bitmap purchasedMovieIds) {
+            this.vip = vip;
+            this.vipExpireTime = vipExpireTime;
+            this.purchasedMovieIds = purchasedMovieIds;
+        }
+
+        public LocalDateTime getVipExpireTime() { return vipExpireTime; }
+
+        /**
+         * VIP标记有效且未到期（未设置到期时间视为长期有效）
+         */
+        public boolean isVipActive() {
+            return vip && (vipExpireTime == null || vipExpireTime.isAfter(LocalDateTime.now()));
+        }
+
+        public boolean hasPurchased(Long movieId) {
+            return movieId != null && purchasedMovieIds.contains(movieId);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.video_interface.service.common;
+
+/**
+ * 用户登录会话服务接口
+ * 每个用户一个Redis哈希（user:session:{用户名}），记录当前登录设备和当前有效Token，
+ * 用于单设备登录校验；读取走本地近端缓存，会话变化时所有节点同步丢弃
+ */
+public interface IUserSessionService {
+
+    /**
+     * 获取用户当前会话
+     * @param username 用户名
+     * @return 当前会话，未登录时设备和Token均为null
+     * @throws RuntimeException Redis不可用时
+     */
+    Session get(String username);
+
+    /**
+     * 记录用户在设备上登录，覆盖原会话
+     * @param username 用户名
+     * @param deviceId 设备ID
+     * @param token 登录Token
+     */
+    void bind(String username, String deviceId, String token);
+
+    /**
+     * 清除用户会话
+     * @param username 用户名
+     */
+    void clear(String username);
+
+    /**
+     * 用户会话
+     */
+    class Session {
+        public static final Session NONE = new Session(null, null);
+
+        private final String deviceId;
+        private final String token;
+
+        public Session(String deviceId, String token) {
+            this.deviceId = deviceId;
+            this.token = token;
+        }
+
+        public String getDeviceId() { return deviceId; }
+        public String getToken() { return token; }
+    }
+}
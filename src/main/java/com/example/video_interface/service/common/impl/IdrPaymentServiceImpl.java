@@ -10,6 +10,7 @@ import com.example.video_interface.repository.UserMoviePurchaseRepository;
 import com.example.video_interface.repository.VipPackageRepository;
 import com.example.video_interface.service.common.IdrApiClient;
 import com.example.video_interface.service.common.IIdrPaymentService;
+import com.example.video_interface.service.common.IUserEntitlementService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -44,6 +45,9 @@ public class IdrPaymentServiceImpl implements IIdrPaymentService {
     
     @Autowired
     private VipPackageRepository vipPackageRepository;
+    
+    @Autowired
+    private IUserEntitlementService userEntitlementService;
 
     @Value("${idr.api.projectId}")
     private String buymeabtcProjectId;
@@ -312,6 +316,7 @@ public class IdrPaymentServiceImpl implements IIdrPaymentService {
                     .build();
             
             userMoviePurchaseRepository.save(purchase);
+            userEntitlementService.invalidate(user.getId());
             
             log.info("电影购买记录创建成功，用户ID: {}, 电影ID: {}, 订单号: {}", 
                     user.getId(), order.getProductId(), order.getOrderNo());
@@ -352,6 +357,7 @@ public class IdrPaymentServiceImpl implements IIdrPaymentService {
             user.setVipExpireTime(vipExpireTime);
             user.setIsVip(true);
             userRepository.save(user);
+            userEntitlementService.invalidate(user.getId());
             
             log.info("VIP购买成功，用户ID: {}, 套餐ID: {}, 到期时间: {}, 订单号: {}", 
                     user.getId(), order.getProductId(), vipExpireTime, order.getOrderNo());
@@ -395,6 +401,7 @@ public class IdrPaymentServiceImpl implements IIdrPaymentService {
                 case MOVIE_PURCHASE:
                     // 电影购买退款：删除购买记录
                     userMoviePurchaseRepository.deleteByUserIdAndMovieId(user.getId(), order.getProductId());
+                    userEntitlementService.invalidate(user.getId());
                     log.info("电影购买退款处理完成，用户ID: {}, 电影ID: {}", user.getId(), order.getProductId());
                     break;
                     
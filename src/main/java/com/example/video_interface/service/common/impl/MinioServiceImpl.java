@@ -2,8 +2,14 @@ package com.example.video_interface.service.common.impl;
 
 import com.example.video_interface.config.MinioConfig;
 import com.example.video_interface.service.common.IMinioService;
+import com.example.video_interface.util.MinioPresignSigner;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.minio.*;
 import io.minio.http.Method;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,6 +18,13 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -25,6 +38,42 @@ public class MinioServiceImpl implements IMinioService {
     
     private final MinioClient minioClient;
     private final MinioConfig minioConfig;
+    private final MinioPresignSigner presignSigner;
+    
+    /**
+     * 预签名URL缓存，键为 (存储桶, 对象名, 过期时间)
+     * 每个URL在经过 过期时间 * urlCacheRefreshRatio 后失效并重新签名，保证返回给客户端的URL仍有足够的剩余有效期
+     */
+    private Cache<PresignKey, String> presignedUrlCache;
+    
+    @PostConstruct
+    public void initPresignedUrlCache() {
+        double refreshRatio = resolveRefreshRatio();
+        int maxSize = minioConfig.getUrlCacheMaxSize() != null ? minioConfig.getUrlCacheMaxSize() : 20000;
+        
+        presignedUrlCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<PresignKey, String>() {
+                    @Override
+                    public long expireAfterCreate(PresignKey key, String url, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos((long) (key.expiration() * 1000L * refreshRatio));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(PresignKey key, String url, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, url, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(PresignKey key, String url, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        
+        log.info("预签名URL缓存初始化完成，最大条目数: {}, 复用比例: {}", maxSize, refreshRatio);
+    }
     
     @Override
     public String uploadFile(MultipartFile file, String objectName) {
@@ -87,15 +136,79 @@ public class MinioServiceImpl implements IMinioService {
     
     @Override
     public String getFileUrl(String objectName, int expiration) {
+        PresignKey key = new PresignKey(minioConfig.getBucketName(), objectName, expiration);
+        return presignedUrlCache.get(key, this::presign);
+    }
+    
+    @Override
+    public Map<String, String> getFileUrls(Collection<String> objectNames) {
+        return getFileUrls(objectNames, minioConfig.getUrlExpiration());
+    }
+    
+    @Override
+    public Map<String, String> getFileUrls(Collection<String> objectNames, int expiration) {
+        Map<String, String> urls = new HashMap<>();
+        if (objectNames == null || objectNames.isEmpty()) {
+            return urls;
+        }
+        
+        String bucket = minioConfig.getBucketName();
+        Set<PresignKey> keys = new LinkedHashSet<>();
+        for (String objectName : objectNames) {
+            if (objectName != null && !objectName.trim().isEmpty()) {
+                keys.add(new PresignKey(bucket, objectName, expiration));
+            }
+        }
+        
+        // 先取缓存，未命中的部分在同一签名时间下一次性本地签名
+        Map<PresignKey, String> cached = presignedUrlCache.getAllPresent(keys);
+        List<String> missing = new ArrayList<>();
+        for (PresignKey key : keys) {
+            String url = cached.get(key);
+            if (url != null) {
+                urls.put(key.objectName(), url);
+            } else {
+                missing.add(key.objectName());
+            }
+        }
+        
+        if (!missing.isEmpty()) {
+            log.debug("批量生成文件访问URL，缓存命中: {}, 需签名: {}", cached.size(), missing.size());
+            Map<String, String> signed = presignSigner.presignGet(bucket, missing, expiration);
+            signed.forEach((objectName, url) -> {
+                presignedUrlCache.put(new PresignKey(bucket, objectName, expiration), url);
+                urls.put(objectName, url);
+            });
+        }
+        
+        return urls;
+    }
+    
+    @Override
+    public UrlCacheStats getUrlCacheStats() {
+        CacheStats stats = presignedUrlCache.stats();
+        return new UrlCacheStats(
+            presignedUrlCache.estimatedSize(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.evictionCount(),
+            stats.hitRate()
+        );
+    }
+    
+    /**
+     * 生成预签名URL（缓存未命中时调用）
+     */
+    private String presign(PresignKey key) {
         try {
-            log.debug("生成文件访问URL: {}, 过期时间: {}秒", objectName, expiration);
+            log.debug("生成文件访问URL: {}, 过期时间: {}秒", key.objectName(), key.expiration());
             
             String url = minioClient.getPresignedObjectUrl(
                 GetPresignedObjectUrlArgs.builder()
                     .method(Method.GET)
-                    .bucket(minioConfig.getBucketName())
-                    .object(objectName)
-                    .expiry(expiration, TimeUnit.SECONDS)
+                    .bucket(key.bucket())
+                    .object(key.objectName())
+                    .expiry(key.expiration(), TimeUnit.SECONDS)
                     .build()
             );
             
@@ -120,6 +233,9 @@ public class MinioServiceImpl implements IMinioService {
                     .build()
             );
             
+            // 对象已删除，之前签发的URL不再复用
+            presignedUrlCache.asMap().keySet().removeIf(key -> key.objectName().equals(objectName));
+            
             log.info("文件删除成功: {}", objectName);
             return true;
             
@@ -195,4 +311,22 @@ public class MinioServiceImpl implements IMinioService {
             throw new RuntimeException("存储桶操作失败: " + e.getMessage(), e);
         }
     }
+    
+    /**
+     * 解析URL复用比例，非法配置时回退为0.5
+     */
+    private double resolveRefreshRatio() {
+        Double ratio = minioConfig.getUrlCacheRefreshRatio();
+        if (ratio == null || ratio <= 0 || ratio >= 1) {
+            log.warn("无效的预签名URL复用比例: {}，使用默认值0.5", ratio);
+            return 0.5;
+        }
+        return ratio;
+    }
+    
+    /**
+     * 预签名URL缓存键
+     */
+    private record PresignKey(String bucket, String objectName, int expiration) {
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.example.video_interface.service.common.impl;
+
+import com.example.video_interface.service.common.IMovieAudienceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 电影独立观众统计服务实现类
+ *
+ * Redis键：audience:movie:{电影ID}:{yyyyMMdd}、audience:site:{yyyyMMdd}，
+ * 超过保留天数后自动过期。多天的独立观众数用 PFCOUNT 多个键（临时求并集）得到，不额外占用内存。
+ * audience:claimed:{yyyyMMdd} 为哈希，记录各电影当天已被排行榜领取的独立观众数。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovieAudienceServiceImpl implements IMovieAudienceService {
+
+    private static final String MOVIE_KEY_PREFIX = "audience:movie:";
+    private static final String SITE_KEY_PREFIX = "audience:site:";
+    private static final String CLAIMED_KEY_PREFIX = "audience:claimed:";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * 比较当天的PFCOUNT与已领取的计数，只把增长部分记为已领取并返回；
+     * 脚本在Redis中原子执行，多个节点同时领取时不会重复计数
+     */
+    private static final byte[] CLAIM_GROWTH_SCRIPT = bytes(
+            "local count = redis.call('PFCOUNT', KEYS[1]) "
+            + "local claimed = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0') "
+            + "if count <= claimed then return 0 end "
+            + "redis.call('HSET', KEYS[2], ARGV[1], count) "
+            + "redis.call('EXPIRE', KEYS[2], ARGV[2]) "
+            + "return count - claimed");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.audience.retention-days:90}")
+    private int retentionDays;
+
+    @Override
+    public void recordViewer(Long movieId, String viewerId) {
+        if (movieId == null || viewerId == null || viewerId.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        byte[] movieKey = bytes(movieKey(movieId, today));
+        byte[] siteKey = bytes(siteKey(today));
+        byte[] viewer = bytes(viewerId);
+        long ttl = Duration.ofDays(retentionDays).getSeconds();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.hyperLogLogCommands().pfAdd(movieKey, viewer);
+                connection.hyperLogLogCommands().pfAdd(siteKey, viewer);
+                connection.keyCommands().expire(movieKey, ttl);
+                connection.keyCommands().expire(siteKey, ttl);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("记录独立观众失败，电影ID: {}, 错误: {}", movieId, e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<Long, Long> claimViewerGrowth(Collection<Long> movieIds, LocalDate date) {
+        if (movieIds == null || movieIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> ids = new ArrayList<>(movieIds);
+        byte[] claimedKey = bytes(CLAIMED_KEY_PREFIX + date.format(DAY_FORMAT));
+        byte[] ttl = bytes(String.valueOf(Duration.ofDays(retentionDays).getSeconds()));
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long movieId : ids) {
+                connection.scriptingCommands().eval(CLAIM_GROWTH_SCRIPT, ReturnType.INTEGER, 2,
+                        bytes(movieKey(movieId, date)), claimedKey, bytes(String.valueOf(movieId)), ttl);
+            }
+            return null;
+        });
+        Map<Long, Long> growth = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object claimed = results.get(i);
+            if (claimed instanceof Long && (Long) claimed > 0) {
+                growth.put(ids.get(i), (Long) claimed);
+            }
+        }
+        return growth;
+    }
+
+    @Override
+    public Map<Long, Long> countMovieViewers(Collection<Long> movieIds, int days) {
+        if (movieIds == null || movieIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> ids = new ArrayList<>(movieIds);
+        List<LocalDate> dates = recentDates(days);
+        try {
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long movieId : ids) {
+                    byte[][] keys = new byte[dates.size()][];
+                    for (int i = 0; i < keys.length; i++) {
+                        keys[i] = bytes(movieKey(movieId, dates.get(i)));
+                    }
+                    connection.hyperLogLogCommands().pfCount(keys);
+                }
+                return null;
+            });
+            Map<Long, Long> counts = new HashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                Object count = results.get(i);
+                counts.put(ids.get(i), count instanceof Long ? (Long) count : 0L);
+            }
+            return counts;
+        } catch (Exception e) {
+            log.warn("统计电影独立观众失败，电影数: {}, 错误: {}", ids.size(), e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    @Override
+    public List<DailyViewers> getMovieDailyViewers(Long movieId, int days) {
+        List<LocalDate> dates = recentDates(days);
+        List<String> keys = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            keys.add(movieKey(movieId, date));
+        }
+        return countDaily(dates, keys);
+    }
+
+    @Override
+    public List<DailyViewers> getSiteDailyViewers(int days) {
+        List<LocalDate> dates = recentDates(days);
+        List<String> keys = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            keys.add(siteKey(date));
+        }
+        return countDaily(dates, keys);
+    }
+
+    @Override
+    public long countSiteViewers(int days) {
+        List<LocalDate> dates = recentDates(days);
+        String[] keys = new String[dates.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = siteKey(dates.get(i));
+        }
+        Long count = stringRedisTemplate.opsForHyperLogLog().size(keys);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 以管道逐个统计每天的计数
+     */
+    private List<DailyViewers> countDaily(List<LocalDate> dates, List<String> keys) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.hyperLogLogCommands().pfCount(bytes(key));
+            }
+            return null;
+        });
+        List<DailyViewers> daily = new ArrayList<>(dates.size());
+        for (int i = 0; i < dates.size(); i++) {
+            Object count = results.get(i);
+            daily.add(new DailyViewers(dates.get(i), count instanceof Long ? (Long) count : 0L));
+        }
+        return daily;
+    }
+
+    /**
+     * 最近若干天的日期（按日期升序，含今天），天数限制在保留天数以内
+     */
+    private List<LocalDate> recentDates(int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("天数必须大于0");
+        }
+        int count = Math.min(days, retentionDays);
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dates = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            dates.add(today.minusDays(i));
+        }
+        return dates;
+    }
+
+    private static String movieKey(Long movieId, LocalDate date) {
+        return MOVIE_KEY_PREFIX + movieId + ":" + date.format(DAY_FORMAT);
+    }
+
+    private static String siteKey(LocalDate date) {
+        return SITE_KEY_PREFIX + date.format(DAY_FORMAT);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
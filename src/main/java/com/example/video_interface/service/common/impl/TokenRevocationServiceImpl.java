@@ -0,0 +1,241 @@
+package com.example.video_interface.service.common.impl;
+
+import com.example.video_interface.service.common.ITokenRevocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StringRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token吊销服务实现类
+ *
+ * 1. 吊销时在一次管道请求中写入 blacklist:{token}（带过期时间）并向 token:revocations 流追加Token的SHA-256摘要和过期时间，
+ *    本节点随即把摘要加入布隆过滤器；
+ * 2. 各节点启动时读取整个流建立布隆过滤器，之后每隔一秒左右读取新增记录，吊销在数秒内同步到所有节点；
+ * 3. 校验时先查本地布隆过滤器，未命中直接判定为有效，无需网络请求；命中时（真实吊销或误判）再查询黑名单键确认；
+ * 4. 布隆过滤器无法删除元素，定时从流重建并跳过已过期的记录，同时用 XTRIM MINID 裁剪超过保留时长的记录
+ *    （记录ID以追加时间开头，保留时长不短于Token最长有效期，被裁剪的记录对应的Token均已过期）。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements ITokenRevocationService {
+
+    private static final String STREAM_KEY = "token:revocations";
+    private static final String BLACKLIST_PREFIX = "blacklist:";
+    private static final String FIELD_DIGEST = "digest";
+    private static final String FIELD_EXPIRE_AT = "expireAt";
+
+    /**
+     * 每次从流中读取的最大记录数
+     */
+    private static final int READ_BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.token-revocation.capacity:1000000}")
+    private long capacity;
+
+    @Value("${app.token-revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.token-revocation.retention:86400000}")
+    private long retentionMillis;
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * 已读取到的最后一条流记录ID，只在同步方法中访问
+     */
+    private String lastRecordId = "0-0";
+
+    @PostConstruct
+    public void init() {
+        bloomFilter = new BloomFilter(capacity, falsePositiveRate);
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("加载Token吊销记录失败，将在后续同步中补齐: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void revoke(String token, String username, Duration ttl) {
+        if (token == null || ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        byte[] digest = digest(token);
+        String expireAt = String.valueOf(System.currentTimeMillis() + ttl.toMillis());
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            // 先写黑名单键，其他节点的布隆过滤器命中时黑名单键一定已存在
+            redis.set(BLACKLIST_PREFIX + token, username, Expiration.from(ttl),
+                    RedisStringCommands.SetOption.upsert());
+            redis.xAdd(STREAM_KEY, Map.of(FIELD_DIGEST, Base64.getEncoder().encodeToString(digest),
+                    FIELD_EXPIRE_AT, expireAt));
+            return null;
+        });
+        bloomFilter.put(digest);
+    }
+
+    @Override
+    public boolean isRevoked(String token) {
+        if (!bloomFilter.mightContain(digest(token))) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(BLACKLIST_PREFIX + token));
+        } catch (Exception e) {
+            // 只有布隆过滤器命中的Token会走到这里，无法确认时按已吊销处理
+            log.warn("查询Token黑名单失败: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 定时读取其他节点追加的吊销记录
+     */
+    @Scheduled(fixedDelayString = "${app.token-revocation.poll-interval:1000}")
+    public synchronized void poll() {
+        try {
+            readFrom(bloomFilter, 0);
+        } catch (Exception e) {
+            log.warn("同步Token吊销记录失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时重建布隆过滤器，去掉已过期的记录
+     */
+    @Scheduled(initialDelayString = "${app.token-revocation.rebuild-interval:3600000}",
+            fixedDelayString = "${app.token-revocation.rebuild-interval:3600000}")
+    public synchronized void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("重建Token吊销布隆过滤器失败: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void rebuild() {
+        String minId = (System.currentTimeMillis() - retentionMillis) + "-0";
+        stringRedisTemplate.execute((RedisCallback<Object>) connection ->
+                ((StringRedisConnection) connection).execute("XTRIM", STREAM_KEY, "MINID", "~", minId));
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        String previousRecordId = lastRecordId;
+        lastRecordId = "0-0";
+        try {
+            int count = readFrom(rebuilt, System.currentTimeMillis());
+            bloomFilter = rebuilt;
+            log.info("Token吊销布隆过滤器重建完成，有效记录数: {}", count);
+        } catch (RuntimeException e) {
+            lastRecordId = previousRecordId;
+            throw e;
+        }
+    }
+
+    /**
+     * 从 lastRecordId 之后读取流记录加入布隆过滤器
+     * @param filter 目标布隆过滤器
+     * @param expiredBefore 过期时间早于该时间的记录跳过，0表示不跳过
+     * @return 加入的记录数
+     */
+    private int readFrom(BloomFilter filter, long expiredBefore) {
+        int added = 0;
+        while (true) {
+            StreamOffset<String> offset = StreamOffset.create(STREAM_KEY, ReadOffset.from(lastRecordId));
+            List<StringRecord> records = stringRedisTemplate.execute((RedisCallback<List<StringRecord>>) connection ->
+                    ((StringRedisConnection) connection).xReadAsString(
+                            StreamReadOptions.empty().count(READ_BATCH_SIZE), offset));
+            if (records == null || records.isEmpty()) {
+                return added;
+            }
+            for (StringRecord record : records) {
+                Map<String, String> value = record.getValue();
+                String digest = value.get(FIELD_DIGEST);
+                String expireAt = value.get(FIELD_EXPIRE_AT);
+                if (digest != null && (expireAt == null || Long.parseLong(expireAt) >= expiredBefore)) {
+                    filter.put(Base64.getDecoder().decode(digest));
+                    added++;
+                }
+                lastRecordId = record.getId().getValue();
+            }
+            if (records.size() < READ_BATCH_SIZE) {
+                return added;
+            }
+        }
+    }
+
+    private static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 线程安全的布隆过滤器，元素本身就是SHA-256摘要，直接取摘要的前16字节做双重哈希
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, m);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            this.bits = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+        }
+
+        void put(byte[] digest) {
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            long h1 = buffer.getLong(0);
+            long h2 = buffer.getLong(8);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << index;
+                int word = (int) (index >>> 6);
+                if ((bits.get(word) & mask) == 0) {
+                    bits.accumulateAndGet(word, mask, (current, bit) -> current | bit);
+                }
+            }
+        }
+
+        boolean mightContain(byte[] digest) {
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            long h1 = buffer.getLong(0);
+            long h2 = buffer.getLong(8);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.video_interface.service.common.impl;
+
+import com.example.video_interface.service.common.IUserEntitlementService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 用户观看权益服务实现类
+ *
+ * 1. 首次访问时读取用户的VIP标记、到期时间和全部单片购买记录，组装成不可变的权益对象放入本地缓存，
+ *    已购电影ID用 Roaring64Bitmap 保存；用户不存在时不缓存；
+ * 2. VIP是否有效在读取时按到期时间判断，VIP到期无需主动刷新缓存；
+ * 3. 权益变化后（支付回调、激活码兑换、管理员修改）在事务提交后丢弃本地缓存，
+ *    并在 entitlement:changed 频道广播用户ID，其他节点同样丢弃；
+ * 4. 缓存写入后有固定过期时间，广播丢失时最多在该时间后恢复一致。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserEntitlementServiceImpl implements IUserEntitlementService {
+
+    private static final String CHANNEL = "entitlement:changed";
+    private static final String USER_SQL = "SELECT is_vip, vip_expire_time FROM users WHERE id = ?";
+    private static final String PURCHASE_SQL = "SELECT movie_id FROM user_movie_purchases WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Value("${app.entitlement.cache-max-users:100000}")
+    private long cacheMaxUsers;
+
+    @Value("${app.entitlement.cache-ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    /**
+     * 当前节点实例标识，用于忽略自己发出的广播
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 用户ID -> 用户权益
+     */
+    private LoadingCache<Long, Entitlement> entitlementCache;
+
+    @PostConstruct
+    public void init() {
+        entitlementCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxUsers)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build(this::loadEntitlement);
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onBroadcast(message), new ChannelTopic(CHANNEL));
+        log.info("用户权益缓存初始化完成，最大用户数: {}", cacheMaxUsers);
+    }
+
+    @Override
+    public Entitlement get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return entitlementCache.get(userId);
+        } catch (Exception e) {
+            log.warn("加载用户权益失败，用户ID: {}, 错误: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isVip(Long userId) {
+        Entitlement entitlement = get(userId);
+        return entitlement != null && entitlement.isVipActive();
+    }
+
+    @Override
+    public boolean hasPurchased(Long userId, Long movieId) {
+        Entitlement entitlement = get(userId);
+        return entitlement != null && entitlement.hasPurchased(movieId);
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 提交前丢弃的话，并发请求可能又把未提交前的旧数据加载回缓存
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private Entitlement loadEntitlement(Long userId) {
+        List<Entitlement> users = jdbcTemplate.query(USER_SQL, (rs, rowNum) -> {
+            Timestamp expireTime = rs.getTimestamp(2);
+            return new Entitlement(rs.getBoolean(1),
+                    expireTime != null ? expireTime.toLocalDateTime() : null,
+                    loadPurchased(userId));
+        }, userId);
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    private Roaring64Bitmap loadPurchased(Long userId) {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        jdbcTemplate.query(PURCHASE_SQL, rs -> {
+            bitmap.addLong(rs.getLong(1));
+        }, userId);
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    private void evict(Long userId) {
+        entitlementCache.invalidate(userId);
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, instanceId + ":" + userId);
+        } catch (Exception e) {
+            log.warn("广播用户权益变化失败，用户ID: {}, 错误: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 处理其他节点广播的权益变化
+     */
+    private void onBroadcast(Message message) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.lastIndexOf(':');
+            if (separator < 0 || instanceId.equals(body.substring(0, separator))) {
+                return;
+            }
+            entitlementCache.invalidate(Long.valueOf(body.substring(separator + 1)));
+        } catch (Exception e) {
+            log.warn("处理用户权益广播失败: {}", e.getMessage());
+        }
+    }
+}
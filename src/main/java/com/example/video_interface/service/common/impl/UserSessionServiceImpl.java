@@ -0,0 +1,133 @@
+package com.example.video_interface.service.common.impl;
+
+import com.example.video_interface.service.common.IUserSessionService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 用户登录会话服务实现类
+ *
+ * 1. 设备和Token放在同一个哈希中，读取一次 HMGET，登录时 HSET 和 EXPIRE 合并为一次管道请求；
+ * 2. 读取结果（包括未登录）放入本地近端缓存，已登录用户的每次请求通常不再访问Redis；
+ * 3. 登录、登出后丢弃本地缓存，并在 session:changed 频道广播用户名，其他节点同样丢弃，顶号在广播到达后立即生效；
+ * 4. 缓存写入后有较短的过期时间，广播丢失或会话在Redis中自然过期时，最多在该时间后恢复一致。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserSessionServiceImpl implements IUserSessionService {
+
+    private static final String CHANNEL = "session:changed";
+    private static final String KEY_PREFIX = "user:session:";
+    private static final String FIELD_DEVICE = "device";
+    private static final String FIELD_TOKEN = "token";
+
+    /**
+     * 会话在Redis中的有效期
+     */
+    private static final Duration SESSION_TTL = Duration.ofHours(24);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Value("${app.session.cache-max-size:100000}")
+    private long cacheMaxSize;
+
+    @Value("${app.session.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    /**
+     * 当前节点实例标识，用于忽略自己发出的广播
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 用户名 -> 会话
+     */
+    private LoadingCache<String, Session> sessionCache;
+
+    @PostConstruct
+    public void init() {
+        sessionCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build(this::loadSession);
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onBroadcast(message), new ChannelTopic(CHANNEL));
+        log.info("用户会话缓存初始化完成，最大条目数: {}, 有效期: {}秒", cacheMaxSize, cacheTtlSeconds);
+    }
+
+    @Override
+    public Session get(String username) {
+        return sessionCache.get(username);
+    }
+
+    @Override
+    public void bind(String username, String deviceId, String token) {
+        String key = KEY_PREFIX + username;
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.hMSet(key, Map.of(FIELD_DEVICE, deviceId, FIELD_TOKEN, token));
+            redis.expire(key, SESSION_TTL.getSeconds());
+            return null;
+        });
+        evict(username);
+    }
+
+    @Override
+    public void clear(String username) {
+        stringRedisTemplate.delete(KEY_PREFIX + username);
+        evict(username);
+    }
+
+    private Session loadSession(String username) {
+        List<Object> values = stringRedisTemplate.opsForHash()
+                .multiGet(KEY_PREFIX + username, List.of(FIELD_DEVICE, FIELD_TOKEN));
+        String deviceId = (String) values.get(0);
+        String token = (String) values.get(1);
+        return deviceId == null && token == null ? Session.NONE : new Session(deviceId, token);
+    }
+
+    private void evict(String username) {
+        sessionCache.invalidate(username);
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, instanceId + ":" + username);
+        } catch (Exception e) {
+            log.warn("广播用户会话变化失败，用户: {}, 错误: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * 处理其他节点广播的会话变化
+     */
+    private void onBroadcast(Message message) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            // 实例标识是UUID，不含冒号；用户名中可能含冒号，因此按第一个冒号拆分
+            int separator = body.indexOf(':');
+            if (separator < 0 || instanceId.equals(body.substring(0, separator))) {
+                return;
+            }
+            sessionCache.invalidate(body.substring(separator + 1));
+        } catch (Exception e) {
+            log.warn("处理用户会话广播失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.video_interface.service.h5;
+
+import com.example.video_interface.dto.h5.H5MovieDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * H5端影片目录查询结果缓存服务接口
+ * 本地缓存（L1）+ Redis共享缓存（L2），缓存键包含全局目录版本号；
+ * 目录变更时递增版本并通过Redis发布/订阅通知所有节点
+ */
+public interface IH5CatalogPageCacheService {
+
+    /**
+     * 获取缓存的分页结果，未命中时调用loader加载并写入缓存
+     * @param endpoint 接口标识，例如 hot、category
+     * @param params 筛选及排序参数（已拼接为字符串）
+     * @param pageable 分页参数
+     * @param loader 加载函数
+     * @return 分页结果
+     */
+    Page<H5MovieDTO> getPage(String endpoint, String params, Pageable pageable, Supplier<Page<H5MovieDTO>> loader);
+
+    /**
+     * 获取缓存的列表结果，未命中时调用loader加载并写入缓存
+     * @param endpoint 接口标识
+     * @param params 筛选及排序参数（已拼接为字符串）
+     * @param loader 加载函数
+     * @return 列表结果
+     */
+    List<H5MovieDTO> getList(String endpoint, String params, Supplier<List<H5MovieDTO>> loader);
+
+    /**
+     * 当前节点已知的目录版本号
+     */
+    long getCatalogVersion();
+}
@@ -0,0 +1,222 @@
+package com.example.video_interface.service.h5;
+
+import com.example.video_interface.dto.h5.H5CursorPageDTO;
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.model.Movie;
+import com.example.video_interface.repository.MovieCardView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * H5端影片目录快照服务接口
+ * 在内存中维护上架（ACTIVE）电影的不可变快照，并为每种排序方式预先排好序，
+ * 列表类接口直接在快照上切片分页，不再逐页查询数据库
+ */
+public interface IH5CatalogSnapshotService {
+
+    /**
+     * 按排序方式分页获取电影卡片
+     * @param sort 排序方式
+     * @param filter 筛选条件，null表示不筛选
+     * @param pageable 分页参数（忽略其中的排序字段）
+     * @return 电影卡片分页
+     */
+    Page<H5MovieCardDTO> page(CatalogSort sort, Predicate<H5MovieCardDTO> filter, Pageable pageable);
+
+    /**
+     * 按排序方式获取前N部电影
+     * @param sort 排序方式
+     * @param filter 筛选条件，null表示不筛选
+     * @param limit 数量
+     * @return 电影卡片列表
+     */
+    List<H5MovieCardDTO> top(CatalogSort sort, Predicate<H5MovieCardDTO> filter, int limit);
+
+    /**
+     * 按属性组合筛选并分页，基于位图索引求交，总数取自位图基数
+     * @param sort 排序方式
+     * @param filter 筛选条件，各字段为null表示不限
+     * @param pageable 分页参数（忽略其中的排序字段）
+     * @return 电影卡片分页
+     */
+    Page<H5MovieCardDTO> filter(CatalogSort sort, CatalogFilter filter, Pageable pageable);
+
+    /**
+     * 游标分页：从游标记录的位置之后取下一页，不统计总数
+     * @param sort 排序方式
+     * @param filter 筛选条件，null表示不筛选
+     * @param cursor 上一页返回的游标，null或空串表示从头开始
+     * @param size 每页数量
+     * @return 游标分页结果
+     * @throws IllegalArgumentException 游标无效或与排序方式不匹配
+     */
+    H5CursorPageDTO<H5MovieCardDTO> scroll(CatalogSort sort, Predicate<H5MovieCardDTO> filter, String cursor, int size);
+
+    /**
+     * 游标分页（按属性组合筛选，基于位图索引）
+     * @param sort 排序方式
+     * @param filter 筛选条件，各字段为null表示不限
+     * @param cursor 上一页返回的游标，null或空串表示从头开始
+     * @param size 每页数量
+     * @return 游标分页结果
+     * @throws IllegalArgumentException 游标无效或与排序方式不匹配
+     */
+    H5CursorPageDTO<H5MovieCardDTO> scrollFilter(CatalogSort sort, CatalogFilter filter, String cursor, int size);
+
+    /**
+     * 根据ID获取上架电影
+     * @param movieId 电影ID
+     * @return 电影卡片，不存在或未上架时返回null
+     */
+    H5MovieCardDTO get(Long movieId);
+
+    /**
+     * 当前快照版本号，每次替换快照递增
+     */
+    long getVersion();
+
+    /**
+     * 从数据库全量重建快照
+     */
+    void rebuild();
+
+    /**
+     * 增量刷新单部电影（重新读取数据库，上架则更新，否则移出快照）
+     * @param movieId 电影ID
+     */
+    void refreshMovie(Long movieId);
+
+    /**
+     * 将电影实体转换为卡片（不写入快照），分类和地区须已加载
+     * @param movie 电影实体
+     * @return 电影卡片
+     */
+    H5MovieCardDTO toCard(Movie movie);
+
+    /**
+     * 将列表卡片投影转换为卡片（不写入快照）
+     * @param view 列表卡片投影
+     * @return 电影卡片
+     */
+    H5MovieCardDTO toCard(MovieCardView view);
+
+    /**
+     * 快照排序方式
+     * 每种方式按 主排序字段降序、次排序字段降序、ID降序 排列，与原有JPQL的ORDER BY保持一致
+     */
+    enum CatalogSort {
+        /**
+         * 默认排序：排序权重、创建时间
+         */
+        DEFAULT(H5MovieCardDTO::getSortOrder, H5MovieCardDTO::getCreatedAt),
+        /**
+         * 热门：观看次数、点赞次数
+         */
+        HOT(H5MovieCardDTO::getViews, H5MovieCardDTO::getLikes),
+        /**
+         * 最新：创建时间
+         */
+        NEWEST(H5MovieCardDTO::getCreatedAt, H5MovieCardDTO::getId),
+        /**
+         * 评分：评分、观看次数
+         */
+        RATING(H5MovieCardDTO::getRating, H5MovieCardDTO::getViews),
+        /**
+         * 年份：发行年份、观看次数
+         */
+        YEAR(H5MovieCardDTO::getReleaseYear, H5MovieCardDTO::getViews),
+        /**
+         * 点赞：点赞次数、观看次数
+         */
+        LIKES(H5MovieCardDTO::getLikes, H5MovieCardDTO::getViews),
+        /**
+         * 收藏：收藏次数、观看次数
+         */
+        FAVORITES(H5MovieCardDTO::getFavorites, H5MovieCardDTO::getViews);
+
+        private final Comparator<H5MovieCardDTO> comparator;
+        private final Function<H5MovieCardDTO, ? extends Comparable<?>> primary;
+        private final Function<H5MovieCardDTO, ? extends Comparable<?>> secondary;
+
+        <P extends Comparable<? super P>, S extends Comparable<? super S>> CatalogSort(
+                Function<H5MovieCardDTO, P> primary, Function<H5MovieCardDTO, S> secondary) {
+            // 与MySQL一致：降序时NULL排在最后
+            this.comparator = Comparator.comparing(primary, Comparator.nullsLast(Comparator.<P>reverseOrder()))
+                    .thenComparing(secondary, Comparator.nullsLast(Comparator.<S>reverseOrder()))
+                    .thenComparing(H5MovieCardDTO::getId, Comparator.reverseOrder());
+            this.primary = primary;
+            this.secondary = secondary;
+        }
+
+        public Comparator<H5MovieCardDTO> comparator() {
+            return comparator;
+        }
+
+        /**
+         * 卡片的排序键：主排序字段、次排序字段、ID
+         */
+        public Comparable<?>[] sortKey(H5MovieCardDTO card) {
+            return new Comparable<?>[] {primary.apply(card), secondary.apply(card), card.getId()};
+        }
+
+        /**
+         * 按本排序方式比较卡片与排序键，规则与 comparator() 一致
+         * @return 负数表示卡片排在键之前，正数表示排在键之后
+         */
+        public int compareToKey(H5MovieCardDTO card, Comparable<?>[] key) {
+            Comparable<?>[] own = sortKey(card);
+            for (int i = 0; i < own.length; i++) {
+                int result = compareDescNullsLast(own[i], key[i]);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compareDescNullsLast(Comparable a, Comparable b) {
+            if (a == null) {
+                return b == null ? 0 : 1;
+            }
+            if (b == null) {
+                return -1;
+            }
+            return b.compareTo(a);
+        }
+    }
+
+    /**
+     * 属性筛选条件（各字段为null表示不限，取值须与卡片字段完全相等，画质不区分大小写）
+     */
+    class CatalogFilter {
+        private final Long categoryId;
+        private final Long regionId;
+        private final Integer releaseYear;
+        private final String chargeType;
+        private final Boolean isVip;
+        private final String quality;
+
+        public CatalogFilter(Long categoryId, Long regionId, Integer releaseYear,
+                             String chargeType, Boolean isVip, String quality) {
+            this.categoryId = categoryId;
+            this.regionId = regionId;
+            this.releaseYear = releaseYear;
+            this.chargeType = chargeType;
+            this.isVip = isVip;
+            this.quality = quality;
+        }
+
+        public Long getCategoryId() { return categoryId; }
+        public Long getRegionId() { return regionId; }
+        public Integer getReleaseYear() { return releaseYear; }
+        public String getChargeType() { return chargeType; }
+        public Boolean getIsVip() { return isVip; }
+        public String getQuality() { return quality; }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.video_interface.service.h5;
+
+/**
+ * H5端电影互动计数服务接口
+ * 观看、点赞、收藏次数先在内存中累加，定时（以及应用关闭时）批量写回数据库，
+ * 避免每次点击都读取并整行更新同一部电影
+ */
+public interface IH5MovieCounterService {
+
+    /**
+     * 累加计数；在事务中调用时，事务提交后才计入
+     * @param movieId 电影ID
+     * @param counter 计数类型
+     * @param delta 增量，可为负数
+     */
+    void increment(Long movieId, Counter counter, long delta);
+
+    /**
+     * 将尚未写回的增量合并到刚从数据库读取的计数上
+     * @param movieId 电影ID
+     * @param counter 计数类型
+     * @param persisted 数据库中的计数
+     * @return 合并后的计数，不小于0
+     */
+    Long merge(Long movieId, Counter counter, Long persisted);
+
+    /**
+     * 将增量合并到较早读取的计数上（例如目录快照）：除尚未写回的增量外，
+     * 还要加上读取之后才写回数据库的增量
+     * @param movieId 电影ID
+     * @param counter 计数类型
+     * @param persisted 读取时数据库中的计数
+     * @param loadedEpoch 读取前的 flushEpoch()
+     * @return 合并后的计数，不小于0
+     */
+    Long merge(Long movieId, Counter counter, Long persisted, long loadedEpoch);
+
+    /**
+     * 已完成的写回轮次，在读取计数前获取，合并时传回
+     */
+    long flushEpoch();
+
+    /**
+     * 释放不晚于指定轮次写回的增量（目录快照已按该轮次之后的数据重新加载）
+     * @param epoch 快照加载前的 flushEpoch()
+     */
+    void discardFlushed(long epoch);
+
+    /**
+     * 立即把累积的增量写回数据库
+     * @return 写回的电影数量
+     */
+    int flush();
+
+    /**
+     * 计数类型
+     */
+    enum Counter {
+        VIEWS,
+        LIKES,
+        FAVORITES
+    }
+}
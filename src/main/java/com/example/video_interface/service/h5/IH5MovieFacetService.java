@@ -0,0 +1,27 @@
+package com.example.video_interface.service.h5;
+
+import com.example.video_interface.service.h5.IH5MovieService.MovieFilterOptions;
+
+/**
+ * H5端电影筛选维度计数服务接口
+ * 维护上架电影按年份、画质、收费类型的数量分布，电影变更时增量更新，定时与数据库对账
+ */
+public interface IH5MovieFacetService {
+
+    /**
+     * 获取筛选选项及各选项的电影数量
+     * @return 筛选选项
+     */
+    MovieFilterOptions getFilterOptions();
+
+    /**
+     * 从数据库重新统计全部计数，修正内存计数的偏差
+     */
+    void reconcile();
+
+    /**
+     * 增量更新单部电影对计数的贡献
+     * @param movieId 电影ID
+     */
+    void refreshMovie(Long movieId);
+}
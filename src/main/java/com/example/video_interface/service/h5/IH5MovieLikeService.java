@@ -0,0 +1,44 @@
+package com.example.video_interface.service.h5;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * H5端电影点赞记录服务接口
+ * 记录每个用户点赞过的电影，点赞、取消点赞均为幂等操作，
+ * 用户已点赞的电影集合以压缩位图缓存在内存中，单个和批量查询都不访问数据库
+ */
+public interface IH5MovieLikeService {
+
+    /**
+     * 点赞
+     * @param userId 用户ID
+     * @param movieId 电影ID
+     * @return 是否新增了点赞记录（已点赞过返回false）
+     */
+    boolean like(Long userId, Long movieId);
+
+    /**
+     * 取消点赞
+     * @param userId 用户ID
+     * @param movieId 电影ID
+     * @return 是否删除了点赞记录（未点赞过返回false）
+     */
+    boolean unlike(Long userId, Long movieId);
+
+    /**
+     * 检查用户是否已点赞电影
+     * @param userId 用户ID
+     * @param movieId 电影ID
+     * @return 是否已点赞
+     */
+    boolean isLiked(Long userId, Long movieId);
+
+    /**
+     * 批量检查点赞状态
+     * @param userId 用户ID
+     * @param movieIds 电影ID列表
+     * @return 其中已点赞的电影ID，保持传入顺序
+     */
+    List<Long> filterLiked(Long userId, Collection<Long> movieIds);
+}
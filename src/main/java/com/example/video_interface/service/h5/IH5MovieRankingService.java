@@ -0,0 +1,94 @@
+package com.example.video_interface.service.h5;
+
+import com.example.video_interface.service.h5.IH5MovieCounterService.Counter;
+
+import java.util.List;
+
+/**
+ * H5端电影时间窗口排行榜服务接口
+ * 按小时分桶记录观看、点赞、收藏增量及新增独立观众，合并为近一天、一周、一个月的排行榜以及按时间衰减的热度榜；
+ * 各节点在内存中保存排行榜前N名，请求时无需排序
+ */
+public interface IH5MovieRankingService {
+
+    /**
+     * 记录一次互动增量（计入当前小时）
+     * @param movieId 电影ID
+     * @param counter 计数类型
+     * @param delta 增量，可为负数
+     */
+    void record(Long movieId, Counter counter, long delta);
+
+    /**
+     * 标记电影今天有新的观看（观众已记入独立观众统计）
+     * 刷新时按该电影当天独立观众数（PFCOUNT）的增长计入当前小时
+     * @param movieId 电影ID
+     */
+    void recordViewer(Long movieId);
+
+    /**
+     * 获取时间窗口内的排行榜
+     * @param counter 计数类型
+     * @param window 时间窗口
+     * @return 按窗口内增量降序排列的电影ID；排行榜尚未加载时返回null
+     */
+    List<Long> top(Counter counter, RankingWindow window);
+
+    /**
+     * 获取时间窗口内的独立观众排行榜（窗口内每天独立观众数之和）
+     * @param window 时间窗口
+     * @return 按独立观众数降序排列的电影ID；排行榜尚未加载时返回null
+     */
+    List<Long> topViewers(RankingWindow window);
+
+    /**
+     * 获取热度榜（各类互动加权、按时间衰减）
+     * @return 按热度降序排列的电影ID；排行榜尚未加载时返回null
+     */
+    List<Long> trending();
+
+    /**
+     * 立即写入累积的增量、滚动过期的小时桶并重新加载排行榜
+     */
+    void refresh();
+
+    /**
+     * 排行榜时间窗口（以小时桶计）
+     */
+    enum RankingWindow {
+        DAY(24),
+        WEEK(24 * 7),
+        MONTH(24 * 30);
+
+        private final int hours;
+
+        RankingWindow(int hours) {
+            this.hours = hours;
+        }
+
+        public int getHours() {
+            return hours;
+        }
+
+        /**
+         * 解析排行榜接口的timeRange参数
+         * @return 对应的时间窗口；all、year及无法识别的取值返回null（按累计计数排行）
+         */
+        public static RankingWindow of(String timeRange) {
+            if (timeRange == null) {
+                return null;
+            }
+            switch (timeRange.toLowerCase()) {
+                case "day":
+                case "today":
+                    return DAY;
+                case "week":
+                    return WEEK;
+                case "month":
+                    return MONTH;
+                default:
+                    return null;
+            }
+        }
+    }
+}
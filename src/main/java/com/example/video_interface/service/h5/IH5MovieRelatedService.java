@@ -0,0 +1,23 @@
+package com.example.video_interface.service.h5;
+
+import java.util.List;
+
+/**
+ * H5端相关推荐服务接口
+ * 后台定时为每部上架电影计算最相近的K部电影（分类、地区、标签重合度、共同收藏），
+ * 结果以紧凑的邻接表保存在内存中，详情页推荐直接查表
+ */
+public interface IH5MovieRelatedService {
+
+    /**
+     * 获取电影的相关电影
+     * @param movieId 电影ID
+     * @return 按相关度降序排列的电影ID；索引中没有该电影（如索引建立后才上架）时返回null
+     */
+    List<Long> getRelatedIds(Long movieId);
+
+    /**
+     * 重新计算全部电影的相关电影
+     */
+    void rebuild();
+}
@@ -0,0 +1,39 @@
+package com.example.video_interface.service.h5;
+
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * H5端电影搜索服务接口
+ * 基于进程内倒排索引（标题、简介、标签），按BM25相关度排序，不访问数据库
+ */
+public interface IH5MovieSearchService {
+
+    /**
+     * 关键词搜索
+     * @param keyword 关键词
+     * @param pageable 分页参数
+     * @return 按相关度排序的电影卡片
+     */
+    Page<H5MovieCardDTO> search(String keyword, Pageable pageable);
+
+    /**
+     * 按标签搜索（标签完全匹配，不区分大小写）
+     * @param tag 标签
+     * @param pageable 分页参数
+     * @return 按默认排序的电影卡片
+     */
+    Page<H5MovieCardDTO> searchByTag(String tag, Pageable pageable);
+
+    /**
+     * 从数据库全量重建索引
+     */
+    void rebuild();
+
+    /**
+     * 增量刷新单部电影的索引
+     * @param movieId 电影ID
+     */
+    void refreshMovie(Long movieId);
+}
@@ -1,11 +1,14 @@
 package com.example.video_interface.service.h5;
 
+import com.example.video_interface.dto.h5.H5CursorPageDTO;
 import com.example.video_interface.dto.h5.H5MovieDTO;
 import com.example.video_interface.dto.h5.H5MovieDetailDTO;
+import com.example.video_interface.dto.h5.H5MoviePersonalizationDTO;
 import com.example.video_interface.dto.h5.H5MoviePlayRequest;
 import com.example.video_interface.dto.h5.H5MoviePlayResponse;
 import com.example.video_interface.dto.h5.H5MoviePurchaseRequest;
 import com.example.video_interface.dto.h5.H5MoviePurchaseResponse;
+import com.example.video_interface.dto.h5.H5WatchProgressDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -187,17 +190,83 @@ public interface IH5MovieService {
     /**
      * 获取电影排行榜
      * @param pageable 分页参数
-     * @param sortBy 排序方式：views, rating, likes, favorites, newest
-     * @param timeRange 时间范围：all, week, month, year
+     * @param sortBy 排序方式：views, rating, likes, favorites, newest, viewers（独立观众）, trending（热度，忽略时间范围）
+     * @param timeRange 时间范围：day, week, month按窗口内的增量排行（仅views, likes, favorites, viewers）；all, year按累计计数排行
      * @return 排行榜电影列表
      */
     Page<H5MovieDTO> getRankingMovies(Pageable pageable, String sortBy, String timeRange);
     
+    // ==================== 游标分页（无限滚动） ====================
+    // 参数含义与对应的分页方法一致；cursor为上一页返回的nextCursor，null或空串表示第一页，不统计总数
+    
+    /**
+     * 游标分页获取热门电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollHotMovies(String sort, String cursor, int size);
+    
+    /**
+     * 游标分页获取最新电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollNewMovies(String sort, String cursor, int size);
+    
+    /**
+     * 游标分页获取分类电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollMoviesByCategory(Long categoryId, String cursor, int size);
+    
+    /**
+     * 游标分页获取地区电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollMoviesByRegion(Long regionId, String cursor, int size);
+    
+    /**
+     * 游标分页获取指定年份电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollMoviesByYear(Integer year, String cursor, int size);
+    
+    /**
+     * 游标分页获取指定收费类型电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollMoviesByChargeType(String chargeType, String cursor, int size);
+    
+    /**
+     * 游标分页获取VIP/非VIP电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollMoviesByVipStatus(Boolean isVip, String cursor, int size);
+    
+    /**
+     * 游标分页获取免费/付费电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollMoviesByFreeStatus(Boolean isFree, String sort, String cursor, int size);
+    
+    /**
+     * 游标分页获取指定画质电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollMoviesByQuality(String quality, String cursor, int size);
+    
+    /**
+     * 游标分页复合条件查询电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollMoviesByConditions(Long categoryId, Long regionId, Integer releaseYear,
+                                                         String chargeType, Boolean isVip, String quality,
+                                                         String cursor, int size);
+    
+    /**
+     * 游标分页获取所有电影
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollAllMovies(String cursor, int size);
+    
+    /**
+     * 游标分页获取电影排行榜
+     */
+    H5CursorPageDTO<H5MovieDTO> scrollRankingMovies(String sortBy, String timeRange, String cursor, int size);
+    
     /**
      * 记录观看次数
      * @param movieId 电影ID
+     * @param viewerId 观众标识（登录用户ID，未登录时为客户端IP，按IP统计为近似值），用于统计独立观众
      */
-    void recordView(Long movieId);
+    void recordView(Long movieId, String viewerId);
     
     /**
      * 点赞电影
@@ -223,6 +292,41 @@ public interface IH5MovieService {
      */
     boolean checkUserLiked(Long movieId, Long userId);
     
+    /**
+     * 批量检查用户点赞状态
+     * @param userId 用户ID
+     * @param movieIds 电影ID列表
+     * @return 已点赞的电影ID列表
+     */
+    List<Long> batchCheckUserLiked(Long userId, List<Long> movieIds);
+    
+    /**
+     * 批量获取用户对一页电影的个性化状态（收藏、购买、点赞、试看）
+     * 收藏状态一次查询，购买、点赞、VIP状态来自内存位图
+     * @param userId 用户ID
+     * @param movieIds 电影ID列表，最多100个
+     * @return 每部电影的状态，按传入顺序去重
+     */
+    List<H5MoviePersonalizationDTO> getMoviePersonalization(Long userId, List<Long> movieIds);
+    
+    /**
+     * 记录播放心跳（播放器每隔几秒上报一次）
+     * @param movieId 电影ID
+     * @param userId 用户ID
+     * @param positionSeconds 当前播放位置（秒）
+     * @param durationSeconds 视频总时长（秒），可为空
+     * @throws IllegalArgumentException 电影不存在或已下架、播放位置无效
+     */
+    void recordWatchHeartbeat(Long movieId, Long userId, Integer positionSeconds, Integer durationSeconds);
+    
+    /**
+     * 获取继续观看列表（最近观看但未看完的电影）
+     * @param userId 用户ID
+     * @param limit 最大数量
+     * @return 继续观看列表，按最后观看时间倒序
+     */
+    List<H5WatchProgressDTO> getContinueWatching(Long userId, int limit);
+    
     /**
      * 收藏电影
      * @param movieId 电影ID
@@ -282,15 +386,16 @@ public interface IH5MovieService {
      * @param movieId 电影ID
      * @param limit 限制数量
      * @param offset 随机偏移量
-     * @return 相关推荐电影列表
+     * @return 相关推荐电影列表（列表卡片，不含视频文件地址）
      */
-    List<H5MovieDetailDTO> getRelatedMovies(Long movieId, Integer limit, Integer offset);
+    List<H5MovieDTO> getRelatedMovies(Long movieId, Integer limit, Integer offset);
     
     /**
      * 增加观看次数
      * @param movieId 电影ID
+     * @param viewerId 观众标识（登录用户ID，未登录时为客户端IP，按IP统计为近似值），用于统计独立观众
      */
-    void incrementViews(Long movieId);
+    void incrementViews(Long movieId, String viewerId);
     
     // ==================== 试看功能 ====================
     
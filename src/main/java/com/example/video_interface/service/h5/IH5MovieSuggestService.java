@@ -0,0 +1,42 @@
+package com.example.video_interface.service.h5;
+
+import java.util.List;
+
+/**
+ * H5端搜索联想服务接口
+ * 基于电影标题构建前缀树，支持汉字、全拼和拼音首字母前缀，按观看次数排序
+ */
+public interface IH5MovieSuggestService {
+
+    /**
+     * 获取联想结果
+     * @param prefix 用户已输入的内容
+     * @param limit 返回数量
+     * @return 联想结果，按观看次数降序
+     */
+    List<SuggestionItem> suggest(String prefix, int limit);
+
+    /**
+     * 从目录快照重建前缀树
+     */
+    void rebuild();
+
+    /**
+     * 联想结果项
+     */
+    class SuggestionItem {
+        private Long id;
+        private String title;
+        private Long views;
+
+        public SuggestionItem(Long id, String title, Long views) {
+            this.id = id;
+            this.title = title;
+            this.views = views;
+        }
+
+        public Long getId() { return id; }
+        public String getTitle() { return title; }
+        public Long getViews() { return views; }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.video_interface.service.h5;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * H5端观看历史服务接口
+ * 播放器每隔几秒上报一次播放心跳，心跳按（用户，电影）在内存中合并，
+ * 定时批量写入观看历史表，并累加用户的总观看时长
+ */
+public interface IH5WatchHistoryService {
+
+    /**
+     * 记录播放心跳（只更新内存）
+     * @param userId 用户ID
+     * @param movieId 电影ID
+     * @param positionSeconds 当前播放位置（秒）
+     * @param durationSeconds 视频总时长（秒），未知时为0
+     */
+    void heartbeat(Long userId, Long movieId, int positionSeconds, int durationSeconds);
+
+    /**
+     * 获取用户最近观看但未看完的电影（包含尚未写入数据库的进度）
+     * @param userId 用户ID
+     * @param limit 最大数量
+     * @return 观看进度，按最后观看时间倒序
+     */
+    List<WatchProgress> getContinueWatching(Long userId, int limit);
+
+    /**
+     * 立即把合并后的观看进度写入数据库
+     * @return 写入的观看记录数
+     */
+    int flush();
+
+    /**
+     * 观看进度
+     */
+    class WatchProgress {
+        private final Long movieId;
+        private final int positionSeconds;
+        private final int durationSeconds;
+        private final LocalDateTime updatedAt;
+
+        public WatchProgress(Long movieId, int positionSeconds, int durationSeconds, LocalDateTime updatedAt) {
+            this.movieId = movieId;
+            this.positionSeconds = positionSeconds;
+            this.durationSeconds = durationSeconds;
+            this.updatedAt = updatedAt;
+        }
+
+        public Long getMovieId() { return movieId; }
+        public int getPositionSeconds() { return positionSeconds; }
+        public int getDurationSeconds() { return durationSeconds; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogFilter;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 影片目录属性位图索引（不可变）
+ * 每个属性取值对应一个压缩位图，位图中的位是快照槽位；多条件筛选即位图求交集。
+ * 增量更新只复制受影响的位图，其余位图在新旧索引间共享。
+ */
+final class CatalogBitmapIndex {
+
+    /**
+     * 建立索引的属性
+     */
+    enum Attribute {
+        CATEGORY(H5MovieCardDTO::getCategoryId),
+        REGION(H5MovieCardDTO::getRegionId),
+        YEAR(H5MovieCardDTO::getReleaseYear),
+        CHARGE_TYPE(H5MovieCardDTO::getChargeType),
+        VIP(H5MovieCardDTO::getIsVip),
+        QUALITY(card -> normalizeQuality(card.getQuality()));
+
+        private final Function<H5MovieCardDTO, Object> extractor;
+
+        Attribute(Function<H5MovieCardDTO, Object> extractor) {
+            this.extractor = extractor;
+        }
+
+        Object valueOf(H5MovieCardDTO card) {
+            return card != null ? extractor.apply(card) : null;
+        }
+    }
+
+    private static final Attribute[] ATTRIBUTES = Attribute.values();
+
+    /**
+     * 属性 -> (属性取值 -> 槽位位图)（位图创建后不再修改）
+     */
+    private final EnumMap<Attribute, Map<Object, RoaringBitmap>> bitmaps;
+
+    private CatalogBitmapIndex(EnumMap<Attribute, Map<Object, RoaringBitmap>> bitmaps) {
+        this.bitmaps = bitmaps;
+    }
+
+    static CatalogBitmapIndex build(H5MovieCardDTO[] entries) {
+        EnumMap<Attribute, Map<Object, RoaringBitmap>> bitmaps = new EnumMap<>(Attribute.class);
+        for (Attribute attribute : ATTRIBUTES) {
+            Map<Object, RoaringBitmap> values = new HashMap<>();
+            for (int slot = 0; slot < entries.length; slot++) {
+                Object value = attribute.valueOf(entries[slot]);
+                if (value != null) {
+                    values.computeIfAbsent(value, v -> new RoaringBitmap()).add(slot);
+                }
+            }
+            values.values().forEach(RoaringBitmap::runOptimize);
+            bitmaps.put(attribute, values);
+        }
+        return new CatalogBitmapIndex(bitmaps);
+    }
+
+    static CatalogBitmapIndex empty() {
+        return build(new H5MovieCardDTO[0]);
+    }
+
+    /**
+     * 槽位上的电影由 previous 变为 next（任一方可为null），返回新索引
+     */
+    CatalogBitmapIndex withChange(int slot, H5MovieCardDTO previous, H5MovieCardDTO next) {
+        EnumMap<Attribute, Map<Object, RoaringBitmap>> updated = new EnumMap<>(bitmaps);
+        for (Attribute attribute : ATTRIBUTES) {
+            Object oldValue = attribute.valueOf(previous);
+            Object newValue = attribute.valueOf(next);
+            if (previous != null && next != null && Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            Map<Object, RoaringBitmap> values = new HashMap<>(bitmaps.get(attribute));
+            if (oldValue != null) {
+                RoaringBitmap bitmap = values.get(oldValue);
+                if (bitmap != null) {
+                    bitmap = bitmap.clone();
+                    bitmap.remove(slot);
+                    if (bitmap.isEmpty()) {
+                        values.remove(oldValue);
+                    } else {
+                        values.put(oldValue, bitmap);
+                    }
+                }
+            }
+            if (newValue != null) {
+                RoaringBitmap bitmap = values.get(newValue);
+                bitmap = bitmap != null ? bitmap.clone() : new RoaringBitmap();
+                bitmap.add(slot);
+                values.put(newValue, bitmap);
+            }
+            updated.put(attribute, values);
+        }
+        return new CatalogBitmapIndex(updated);
+    }
+
+    /**
+     * 计算满足全部条件的槽位
+     * @return 结果位图（调用方不得修改）；没有任何条件时返回null
+     */
+    RoaringBitmap match(CatalogFilter filter) {
+        List<RoaringBitmap> operands = new ArrayList<>(ATTRIBUTES.length);
+        if (!collect(operands, Attribute.CATEGORY, filter.getCategoryId())
+                || !collect(operands, Attribute.REGION, filter.getRegionId())
+                || !collect(operands, Attribute.YEAR, filter.getReleaseYear())
+                || !collect(operands, Attribute.CHARGE_TYPE, filter.getChargeType())
+                || !collect(operands, Attribute.VIP, filter.getIsVip())
+                || !collect(operands, Attribute.QUALITY, normalizeQuality(filter.getQuality()))) {
+            return new RoaringBitmap();
+        }
+        if (operands.isEmpty()) {
+            return null;
+        }
+        if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        // 从最小的位图开始求交，中间结果尽快缩小
+        operands.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+        return FastAggregation.and(operands.toArray(new RoaringBitmap[0]));
+    }
+
+    /**
+     * 画质统一转为大写后建立索引和查询，与数据库默认排序规则一样不区分大小写
+     */
+    static String normalizeQuality(String quality) {
+        return quality != null ? quality.toUpperCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * 加入一个条件对应的位图
+     * @return 条件取值不存在于任何电影时返回false（结果必为空）
+     */
+    private boolean collect(List<RoaringBitmap> operands, Attribute attribute, Object value) {
+        if (value == null) {
+            return true;
+        }
+        RoaringBitmap bitmap = bitmaps.get(attribute).get(value);
+        if (bitmap == null) {
+            return false;
+        }
+        operands.add(bitmap);
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogSort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 目录游标编解码
+ * 游标是 "排序方式|主排序键|次排序键|ID" 的Base64URL编码，每个键带类型前缀以便还原：
+ * L=Long、I=Integer、D=BigDecimal、T=LocalDateTime，~表示null。
+ * 游标只记录上一页最后一条的排序键，与快照槽位无关，快照更新后仍可继续翻页。
+ * 时间窗口排行榜没有可比较的排序键，使用 "范围|偏移量" 形式的偏移游标。
+ */
+final class CatalogCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private CatalogCursor() {
+    }
+
+    static String encode(CatalogSort sort, Comparable<?>[] key) {
+        StringBuilder sb = new StringBuilder(sort.name());
+        for (Comparable<?> value : key) {
+            sb.append(SEPARATOR).append(encodeValue(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     * @throws IllegalArgumentException 游标格式错误或不属于该排序方式
+     */
+    static Comparable<?>[] decode(CatalogSort sort, String cursor) {
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        String[] parts = text.split("\\|", -1);
+        if (parts.length != 4 || !sort.name().equals(parts[0])) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        Comparable<?>[] key = new Comparable<?>[3];
+        try {
+            for (int i = 0; i < key.length; i++) {
+                key[i] = decodeValue(parts[i + 1]);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        if (!(key[2] instanceof Long)) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        return key;
+    }
+
+    static String encodeOffset(String scope, int offset) {
+        String text = scope + SEPARATOR + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析偏移游标
+     * @throws IllegalArgumentException 游标格式错误或不属于该范围
+     */
+    static int decodeOffset(String scope, String cursor) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = text.lastIndexOf(SEPARATOR);
+            if (separator < 0 || !scope.equals(text.substring(0, separator))) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            int offset = Integer.parseInt(text.substring(separator + 1));
+            if (offset < 0) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    private static String encodeValue(Comparable<?> value) {
+        if (value == null) {
+            return "~";
+        }
+        if (value instanceof Long) {
+            return "L" + value;
+        }
+        if (value instanceof Integer) {
+            return "I" + value;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return "D" + decimal.toPlainString();
+        }
+        if (value instanceof LocalDateTime) {
+            return "T" + value;
+        }
+        throw new IllegalStateException("不支持的排序键类型: " + value.getClass().getName());
+    }
+
+    private static Comparable<?> decodeValue(String text) {
+        if ("~".equals(text)) {
+            return null;
+        }
+        String body = text.substring(1);
+        switch (text.charAt(0)) {
+            case 'L':
+                return Long.valueOf(body);
+            case 'I':
+                return Integer.valueOf(body);
+            case 'D':
+                return new BigDecimal(body);
+            case 'T':
+                return LocalDateTime.parse(body);
+            default:
+                throw new IllegalArgumentException("未知的排序键类型: " + text.charAt(0));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogFilter;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogSort;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 影片目录快照（不可变）
+ * entries 按槽位保存电影卡片，每种排序方式对应一个预先排好序的槽位数组；
+ * 增量更新时复制出新快照，读线程始终看到完整一致的旧快照或新快照。
+ * 被移除的电影只留下空槽位，下一次全量重建时压缩。
+ * 属性位图索引同样以槽位为位，随快照一起复制更新。
+ */
+final class CatalogSnapshot {
+
+    private static final CatalogSort[] SORTS = CatalogSort.values();
+
+    private final long version;
+
+    /**
+     * 槽位 -> 电影卡片，已移除的槽位为null
+     */
+    private final H5MovieCardDTO[] entries;
+
+    /**
+     * 电影ID -> 槽位
+     */
+    private final Map<Long, Integer> slotById;
+
+    /**
+     * 按 CatalogSort.ordinal() 索引的有序槽位数组
+     */
+    private final int[][] orders;
+
+    private final CatalogBitmapIndex index;
+
+    /**
+     * 按 CatalogSort.ordinal() 索引的 槽位 -> 排名 数组，首次按位图筛选时生成
+     */
+    private final AtomicReferenceArray<int[]> ranks = new AtomicReferenceArray<>(SORTS.length);
+
+    private CatalogSnapshot(long version, H5MovieCardDTO[] entries, Map<Long, Integer> slotById, int[][] orders,
+                            CatalogBitmapIndex index) {
+        this.version = version;
+        this.entries = entries;
+        this.slotById = slotById;
+        this.orders = orders;
+        this.index = index;
+    }
+
+    static CatalogSnapshot empty() {
+        int[][] orders = new int[SORTS.length][];
+        Arrays.fill(orders, new int[0]);
+        return new CatalogSnapshot(0L, new H5MovieCardDTO[0], Map.of(), orders, CatalogBitmapIndex.empty());
+    }
+
+    /**
+     * 全量构建快照
+     */
+    static CatalogSnapshot build(long version, List<H5MovieCardDTO> cards) {
+        H5MovieCardDTO[] entries = cards.toArray(new H5MovieCardDTO[0]);
+        Map<Long, Integer> slotById = new HashMap<>(entries.length * 2);
+        for (int i = 0; i < entries.length; i++) {
+            slotById.put(entries[i].getId(), i);
+        }
+
+        int[][] orders = new int[SORTS.length][];
+        Integer[] boxed = new Integer[entries.length];
+        for (CatalogSort sort : SORTS) {
+            for (int i = 0; i < boxed.length; i++) {
+                boxed[i] = i;
+            }
+            Comparator<H5MovieCardDTO> comparator = sort.comparator();
+            Arrays.sort(boxed, (a, b) -> comparator.compare(entries[a], entries[b]));
+            int[] order = new int[boxed.length];
+            for (int i = 0; i < boxed.length; i++) {
+                order[i] = boxed[i];
+            }
+            orders[sort.ordinal()] = order;
+        }
+        return new CatalogSnapshot(version, entries, slotById, orders, CatalogBitmapIndex.build(entries));
+    }
+
+    /**
+     * 新增或替换一部电影，返回新快照
+     */
+    CatalogSnapshot withUpsert(long version, H5MovieCardDTO card) {
+        Integer existing = slotById.get(card.getId());
+        H5MovieCardDTO[] newEntries;
+        Map<Long, Integer> newSlotById = slotById;
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            newEntries = entries.clone();
+        } else {
+            slot = entries.length;
+            newEntries = Arrays.copyOf(entries, entries.length + 1);
+            newSlotById = new HashMap<>(slotById);
+            newSlotById.put(card.getId(), slot);
+        }
+        newEntries[slot] = card;
+
+        int[][] newOrders = new int[SORTS.length][];
+        for (CatalogSort sort : SORTS) {
+            int[] order = orders[sort.ordinal()];
+            if (existing != null) {
+                order = removeSlot(order, slot);
+            }
+            newOrders[sort.ordinal()] = insertSlot(order, newEntries, slot, sort.comparator());
+        }
+        CatalogBitmapIndex newIndex = index.withChange(slot, existing != null ? entries[slot] : null, card);
+        return new CatalogSnapshot(version, newEntries, newSlotById, newOrders, newIndex);
+    }
+
+    /**
+     * 移除一部电影，返回新快照；电影不在快照中时返回自身
+     */
+    CatalogSnapshot withRemoval(long version, Long movieId) {
+        Integer slot = slotById.get(movieId);
+        if (slot == null) {
+            return this;
+        }
+        H5MovieCardDTO[] newEntries = entries.clone();
+        newEntries[slot] = null;
+        Map<Long, Integer> newSlotById = new HashMap<>(slotById);
+        newSlotById.remove(movieId);
+
+        int[][] newOrders = new int[SORTS.length][];
+        for (CatalogSort sort : SORTS) {
+            newOrders[sort.ordinal()] = removeSlot(orders[sort.ordinal()], slot);
+        }
+        return new CatalogSnapshot(version, newEntries, newSlotById, newOrders,
+                index.withChange(slot, entries[slot], null));
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * 快照中的电影数量
+     */
+    int size() {
+        return slotById.size();
+    }
+
+    /**
+     * 指定排序方式的有序槽位数组（调用方不得修改）
+     */
+    int[] order(CatalogSort sort) {
+        return orders[sort.ordinal()];
+    }
+
+    /**
+     * 满足筛选条件的槽位（调用方不得修改）；没有任何条件时返回null
+     */
+    RoaringBitmap match(CatalogFilter filter) {
+        return index.match(filter);
+    }
+
+    /**
+     * 指定排序方式下 槽位 -> 排名 的数组（调用方不得修改），已移除的槽位为-1
+     */
+    int[] rank(CatalogSort sort) {
+        int[] rank = ranks.get(sort.ordinal());
+        if (rank == null) {
+            int[] order = orders[sort.ordinal()];
+            rank = new int[entries.length];
+            Arrays.fill(rank, -1);
+            for (int i = 0; i < order.length; i++) {
+                rank[order[i]] = i;
+            }
+            ranks.compareAndSet(sort.ordinal(), null, rank);
+        }
+        return rank;
+    }
+
+    H5MovieCardDTO entry(int slot) {
+        return entries[slot];
+    }
+
+    H5MovieCardDTO get(Long movieId) {
+        Integer slot = slotById.get(movieId);
+        return slot != null ? entries[slot] : null;
+    }
+
+    private static int[] removeSlot(int[] order, int slot) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == slot) {
+                int[] result = new int[order.length - 1];
+                System.arraycopy(order, 0, result, 0, i);
+                System.arraycopy(order, i + 1, result, i, order.length - i - 1);
+                return result;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * 二分查找插入位置，保持数组有序
+     */
+    private static int[] insertSlot(int[] order, H5MovieCardDTO[] entries, int slot,
+                                    Comparator<H5MovieCardDTO> comparator) {
+        H5MovieCardDTO card = entries[slot];
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(entries[order[mid]], card) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int[] result = new int[order.length + 1];
+        System.arraycopy(order, 0, result, 0, low);
+        result[low] = slot;
+        System.arraycopy(order, low, result, low + 1, order.length - low);
+        return result;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5MovieDTO;
+import com.example.video_interface.event.CatalogChangedEvent;
+import com.example.video_interface.service.h5.IH5CatalogPageCacheService;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * H5端影片目录查询结果缓存服务实现类
+ *
+ * 一致性约定：
+ * 1. 缓存键形如 catalog:page:v{版本}:{接口}:{参数}:{页码}:{每页条数}，版本号取自Redis的 catalog:version；
+ * 2. 目录变更提交后，发起节点先更新本地快照，再递增版本并在 catalog:changed 频道广播；
+ * 3. 接收节点先重放变更更新本地快照，再采用新版本，因此按新版本生成的缓存不会来自旧快照；
+ * 4. 发布/订阅消息丢失时，定时轮询版本号兜底，收敛延迟不超过轮询间隔。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5CatalogPageCacheServiceImpl implements IH5CatalogPageCacheService {
+
+    private static final String VERSION_KEY = "catalog:version";
+    private static final String CHANNEL = "catalog:changed";
+    private static final String PAGE_KEY_PREFIX = "catalog:page:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final IH5CatalogSnapshotService catalogSnapshotService;
+
+    @Value("${app.catalog.cache.local-max-size:2000}")
+    private long localMaxSize;
+
+    @Value("${app.catalog.cache.local-ttl-seconds:30}")
+    private long localTtlSeconds;
+
+    @Value("${app.catalog.cache.redis-ttl-seconds:120}")
+    private long redisTtlSeconds;
+
+    /**
+     * 当前节点实例标识，用于忽略自己发出的广播
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile long catalogVersion = 0L;
+
+    private Cache<String, CachedResult> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onBroadcast(message), new ChannelTopic(CHANNEL));
+        try {
+            catalogVersion = readRemoteVersion();
+        } catch (Exception e) {
+            log.warn("读取目录版本号失败，暂按版本0处理: {}", e.getMessage());
+        }
+        log.info("目录查询缓存初始化完成，目录版本: {}, 本地最大条数: {}", catalogVersion, localMaxSize);
+    }
+
+    @Override
+    public Page<H5MovieDTO> getPage(String endpoint, String params, Pageable pageable,
+                                    Supplier<Page<H5MovieDTO>> loader) {
+        String key = buildKey(endpoint, params, pageable.getPageNumber() + ":" + pageable.getPageSize());
+        CachedResult cached = lookup(key);
+        if (cached != null) {
+            return new PageImpl<>(cached.getContent(), pageable, cached.getTotal());
+        }
+        Page<H5MovieDTO> page = loader.get();
+        store(key, new CachedResult(page.getContent(), page.getTotalElements()));
+        return page;
+    }
+
+    @Override
+    public List<H5MovieDTO> getList(String endpoint, String params, Supplier<List<H5MovieDTO>> loader) {
+        String key = buildKey(endpoint, params, "all");
+        CachedResult cached = lookup(key);
+        if (cached != null) {
+            return cached.getContent();
+        }
+        List<H5MovieDTO> list = loader.get();
+        store(key, new CachedResult(list, list.size()));
+        return list;
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * 本节点目录变更提交后递增版本并广播（排在快照更新之后）
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        try {
+            Long version = stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+            if (version != null) {
+                adoptVersion(version);
+                InvalidationMessage message = new InvalidationMessage(instanceId, version,
+                        event.getTarget().name(), event.getId());
+                stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(message));
+                log.debug("广播目录变更，版本: {}, 事件: {}", version, event);
+            }
+        } catch (Exception e) {
+            // Redis不可用时至少保证本节点不再返回旧结果
+            localCache.invalidateAll();
+            log.warn("广播目录变更失败，事件: {}, 错误: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * 定时轮询版本号，兜底处理丢失的广播消息
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.cache.version-poll-interval:5000}")
+    public void pollVersion() {
+        try {
+            long remoteVersion = readRemoteVersion();
+            if (remoteVersion > catalogVersion) {
+                log.info("检测到目录版本落后（本地: {}, 远端: {}），全量重建快照", catalogVersion, remoteVersion);
+                catalogSnapshotService.rebuild();
+                adoptVersion(remoteVersion);
+            } else if (remoteVersion < catalogVersion) {
+                // Redis数据被清空后版本号从头计数，直接跟随远端，避免后续变更因版本偏小而被忽略
+                log.warn("目录版本号被重置（本地: {}, 远端: {}），跟随远端版本", catalogVersion, remoteVersion);
+                catalogSnapshotService.rebuild();
+                synchronized (this) {
+                    catalogVersion = remoteVersion;
+                    localCache.invalidateAll();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("轮询目录版本号失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 处理其他节点广播的目录变更
+     */
+    private void onBroadcast(Message message) {
+        try {
+            InvalidationMessage body = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), InvalidationMessage.class);
+            if (instanceId.equals(body.getOrigin())) {
+                return;
+            }
+            // 先在本地重放变更（同步更新快照），再采用新版本
+            eventPublisher.publishEvent(new CatalogChangedEvent(
+                    CatalogChangedEvent.Target.valueOf(body.getTarget()), body.getId(), true));
+            adoptVersion(body.getVersion());
+            log.debug("收到目录变更广播，版本: {}, 来源节点: {}", body.getVersion(), body.getOrigin());
+        } catch (Exception e) {
+            log.warn("处理目录变更广播失败: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void adoptVersion(long version) {
+        if (version > catalogVersion) {
+            catalogVersion = version;
+            localCache.invalidateAll();
+        }
+    }
+
+    private long readRemoteVersion() {
+        String value = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+
+    private String buildKey(String endpoint, String params, String page) {
+        return PAGE_KEY_PREFIX + "v" + catalogVersion + ":" + endpoint + ":" + params + ":" + page;
+    }
+
+    /**
+     * 依次查找本地缓存和Redis，Redis命中时回填本地缓存
+     */
+    private CachedResult lookup(String key) {
+        CachedResult cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key);
+            if (json != null) {
+                cached = objectMapper.readValue(json, CachedResult.class);
+                localCache.put(key, cached);
+                return cached;
+            }
+        } catch (Exception e) {
+            log.warn("读取目录缓存失败，key: {}, 错误: {}", key, e.getMessage());
+        }
+        return null;
+    }
+
+    private void store(String key, CachedResult result) {
+        localCache.put(key, result);
+        try {
+            stringRedisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(result),
+                    redisTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入目录缓存失败，key: {}, 错误: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 缓存的查询结果
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedResult {
+        private List<H5MovieDTO> content;
+        private long total;
+    }
+
+    /**
+     * 目录变更广播消息
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InvalidationMessage {
+        private String origin;
+        private long version;
+        private String target;
+        private Long id;
+    }
+}
@@ -0,0 +1,450 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5CursorPageDTO;
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.dto.h5.H5MovieCategoryDTO;
+import com.example.video_interface.dto.h5.H5RegionDTO;
+import com.example.video_interface.event.CatalogChangedEvent;
+import com.example.video_interface.model.Movie;
+import com.example.video_interface.repository.MovieCardView;
+import com.example.video_interface.repository.MovieRepository;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService;
+import com.example.video_interface.service.h5.IH5MovieCounterService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * H5端影片目录快照服务实现类
+ * 快照通过volatile引用整体替换：读请求无锁，写操作（全量重建、单部电影增量更新）串行执行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5CatalogSnapshotServiceImpl implements IH5CatalogSnapshotService {
+
+    private final MovieRepository movieRepository;
+    private final ObjectMapper objectMapper;
+    private final IH5MovieCounterService movieCounterService;
+
+    /**
+     * 命中数乘以该值仍小于影片总数时，按排名排序取页，否则顺序扫描
+     */
+    private static final int SPARSE_RATIO = 16;
+
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.empty();
+
+    private volatile boolean initialized = false;
+
+    @Override
+    public Page<H5MovieCardDTO> page(CatalogSort sort, Predicate<H5MovieCardDTO> filter, Pageable pageable) {
+        CatalogSnapshot current = current();
+        int[] order = current.order(sort);
+        long offset = pageable.getOffset();
+        int pageSize = pageable.getPageSize();
+
+        if (filter == null) {
+            int from = (int) Math.min(offset, order.length);
+            int to = Math.min(from + pageSize, order.length);
+            List<H5MovieCardDTO> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(current.entry(order[i]));
+            }
+            return new PageImpl<>(content, pageable, order.length);
+        }
+
+        List<H5MovieCardDTO> content = new ArrayList<>(pageSize);
+        long matched = 0;
+        for (int slot : order) {
+            H5MovieCardDTO card = current.entry(slot);
+            if (filter.test(card)) {
+                if (matched >= offset && content.size() < pageSize) {
+                    content.add(card);
+                }
+                matched++;
+            }
+        }
+        return new PageImpl<>(content, pageable, matched);
+    }
+
+    @Override
+    public List<H5MovieCardDTO> top(CatalogSort sort, Predicate<H5MovieCardDTO> filter, int limit) {
+        CatalogSnapshot current = current();
+        List<H5MovieCardDTO> result = new ArrayList<>(Math.max(0, Math.min(limit, current.size())));
+        for (int slot : current.order(sort)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            H5MovieCardDTO card = current.entry(slot);
+            if (filter == null || filter.test(card)) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Page<H5MovieCardDTO> filter(CatalogSort sort, CatalogFilter filter, Pageable pageable) {
+        CatalogSnapshot current = current();
+        RoaringBitmap matched = current.match(filter);
+        if (matched == null) {
+            return page(sort, null, pageable);
+        }
+        int total = matched.getCardinality();
+        long offset = pageable.getOffset();
+        int pageSize = pageable.getPageSize();
+        if (offset >= total) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        int[] order = current.order(sort);
+        int size = (int) Math.min(pageSize, total - offset);
+        List<H5MovieCardDTO> content = new ArrayList<>(size);
+
+        if ((long) total * SPARSE_RATIO < order.length) {
+            // 命中较少：取出命中槽位的排名排序后切片，代价与命中数成正比
+            int[] rank = current.rank(sort);
+            int[] matchedRanks = new int[total];
+            int n = 0;
+            for (IntIterator it = matched.getIntIterator(); it.hasNext(); ) {
+                matchedRanks[n++] = rank[it.next()];
+            }
+            Arrays.sort(matchedRanks);
+            for (int i = (int) offset; i < offset + size; i++) {
+                content.add(current.entry(order[matchedRanks[i]]));
+            }
+        } else {
+            // 命中较多：按有序槽位数组顺序扫描，取满一页即停止
+            long skipped = 0;
+            for (int slot : order) {
+                if (!matched.contains(slot)) {
+                    continue;
+                }
+                if (skipped++ < offset) {
+                    continue;
+                }
+                content.add(current.entry(slot));
+                if (content.size() >= size) {
+                    break;
+                }
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public H5CursorPageDTO<H5MovieCardDTO> scroll(CatalogSort sort, Predicate<H5MovieCardDTO> filter,
+                                                  String cursor, int size) {
+        CatalogSnapshot current = current();
+        return scroll(current, sort, slot -> filter == null || filter.test(current.entry(slot)), cursor, size);
+    }
+
+    @Override
+    public H5CursorPageDTO<H5MovieCardDTO> scrollFilter(CatalogSort sort, CatalogFilter filter, String cursor, int size) {
+        CatalogSnapshot current = current();
+        RoaringBitmap matched = current.match(filter);
+        return scroll(current, sort, matched != null ? matched::contains : slot -> true, cursor, size);
+    }
+
+    @Override
+    public H5MovieCardDTO get(Long movieId) {
+        return movieId != null ? current().get(movieId) : null;
+    }
+
+    @Override
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        // 写回轮次在读取前获取：读取期间完成的写回宁可重复计入，也不让计数回退
+        long counterEpoch = movieCounterService.flushEpoch();
+        List<H5MovieCardDTO> cards = movieRepository.findCardViewsByStatus(Movie.MovieStatus.ACTIVE)
+                .stream()
+                .map(this::toCard)
+                .collect(Collectors.toList());
+        cards.forEach(card -> card.setCounterEpoch(counterEpoch));
+        snapshot = CatalogSnapshot.build(versionSequence.incrementAndGet(), cards);
+        initialized = true;
+        movieCounterService.discardFlushed(counterEpoch);
+        log.info("影片目录快照重建完成，版本: {}, 电影数: {}, 耗时: {}ms",
+                snapshot.getVersion(), cards.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public synchronized void refreshMovie(Long movieId) {
+        if (!initialized) {
+            rebuild();
+            return;
+        }
+        long counterEpoch = movieCounterService.flushEpoch();
+        MovieCardView view = movieRepository.findCardViewByIdAndStatus(movieId, Movie.MovieStatus.ACTIVE);
+        if (view != null) {
+            H5MovieCardDTO card = toCard(view);
+            card.setCounterEpoch(counterEpoch);
+            snapshot = snapshot.withUpsert(versionSequence.incrementAndGet(), card);
+        } else {
+            snapshot = snapshot.withRemoval(versionSequence.incrementAndGet(), movieId);
+        }
+        log.debug("影片目录快照增量更新，电影ID: {}, 版本: {}", movieId, snapshot.getVersion());
+    }
+
+    /**
+     * 目录变更后（事务提交后）更新快照；须先于页面缓存的版本递增执行
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            if (event.getTarget() == CatalogChangedEvent.Target.MOVIE && event.getId() != null) {
+                refreshMovie(event.getId());
+            } else {
+                rebuild();
+            }
+        } catch (Exception e) {
+            // 快照更新失败不影响管理端操作，等待下一次定时重建
+            log.warn("更新影片目录快照失败，事件: {}, 错误: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * 启动完成后加载快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("启动时加载影片目录快照失败，将在首次访问时重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时全量重建：同步观看、点赞等统计数据的变化，并压缩已移除电影留下的空槽位
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.refresh-interval:300000}",
+               initialDelayString = "${app.catalog.snapshot.refresh-interval:300000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("定时重建影片目录快照失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public H5MovieCardDTO toCard(Movie movie) {
+        H5MovieCardDTO card = H5MovieCardDTO.builder()
+                .id(movie.getId())
+                .title(movie.getTitle())
+                .description(movie.getDescription())
+                .cover(movie.getCover())
+                .banner(movie.getBanner())
+                .filePath(movie.getFilePath())
+                .duration(movie.getDuration())
+                .rating(movie.getRating())
+                .views(movie.getViews())
+                .likes(movie.getLikes())
+                .favorites(movie.getFavorites())
+                .releaseDate(movie.getReleaseDate())
+                .releaseYear(movie.getReleaseYear())
+                .quality(movie.getQuality())
+                .tags(parseTags(movie.getId(), movie.getTags()))
+                .isVip(movie.getIsVip())
+                .isFree(movie.getIsFree())
+                .price(movie.getPrice())
+                .trialDuration(movie.getTrialDuration())
+                .chargeType(movie.getChargeType().name())
+                .chargeTypeDesc(movie.getChargeType().getDescription())
+                .fileSize(movie.getFileSize())
+                .fileFormat(movie.getFileFormat())
+                .sortOrder(movie.getSortOrder())
+                .isRecommended(movie.getIsRecommended())
+                .isSuperRecommended(movie.getIsSuperRecommended())
+                .createdAt(movie.getCreatedAt())
+                .updatedAt(movie.getUpdatedAt())
+                .counterEpoch(movieCounterService.flushEpoch())
+                .build();
+
+        if (movie.getCategory() != null) {
+            card.setCategory(H5MovieCategoryDTO.builder()
+                    .id(movie.getCategory().getId())
+                    .name(movie.getCategory().getName())
+                    .description(movie.getCategory().getDescription())
+                    .icon(movie.getCategory().getIcon())
+                    .weight(movie.getCategory().getWeight())
+                    .build());
+        }
+
+        if (movie.getRegion() != null) {
+            card.setRegion(H5RegionDTO.builder()
+                    .id(movie.getRegion().getId())
+                    .name(movie.getRegion().getName())
+                    .description(movie.getRegion().getDescription())
+                    .icon(movie.getRegion().getIcon())
+                    .weight(movie.getRegion().getWeight())
+                    .build());
+        }
+
+        return card;
+    }
+
+    @Override
+    public H5MovieCardDTO toCard(MovieCardView view) {
+        H5MovieCardDTO card = H5MovieCardDTO.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .description(view.getDescription())
+                .cover(view.getCover())
+                .banner(view.getBanner())
+                .filePath(view.getFilePath())
+                .duration(view.getDuration())
+                .rating(view.getRating())
+                .views(view.getViews())
+                .likes(view.getLikes())
+                .favorites(view.getFavorites())
+                .releaseDate(view.getReleaseDate())
+                .releaseYear(view.getReleaseYear())
+                .quality(view.getQuality())
+                .tags(parseTags(view.getId(), view.getTags()))
+                .isVip(view.getIsVip())
+                .isFree(view.getIsFree())
+                .price(view.getPrice())
+                .trialDuration(view.getTrialDuration())
+                .chargeType(view.getChargeType().name())
+                .chargeTypeDesc(view.getChargeType().getDescription())
+                .fileSize(view.getFileSize())
+                .fileFormat(view.getFileFormat())
+                .sortOrder(view.getSortOrder())
+                .isRecommended(view.getIsRecommended())
+                .isSuperRecommended(view.getIsSuperRecommended())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .counterEpoch(movieCounterService.flushEpoch())
+                .build();
+
+        if (view.getCategoryId() != null) {
+            card.setCategory(H5MovieCategoryDTO.builder()
+                    .id(view.getCategoryId())
+                    .name(view.getCategoryName())
+                    .description(view.getCategoryDescription())
+                    .icon(view.getCategoryIcon())
+                    .weight(view.getCategoryWeight())
+                    .build());
+        }
+
+        if (view.getRegionId() != null) {
+            card.setRegion(H5RegionDTO.builder()
+                    .id(view.getRegionId())
+                    .name(view.getRegionName())
+                    .description(view.getRegionDescription())
+                    .icon(view.getRegionIcon())
+                    .weight(view.getRegionWeight())
+                    .build());
+        }
+
+        return card;
+    }
+
+    /**
+     * 在有序槽位数组中二分定位游标之后的第一个位置，再顺序取满一页
+     */
+    private H5CursorPageDTO<H5MovieCardDTO> scroll(CatalogSnapshot current, CatalogSort sort, IntPredicate accept,
+                                                   String cursor, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("每页数量必须大于0");
+        }
+        int[] order = current.order(sort);
+        int index = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            Comparable<?>[] key = CatalogCursor.decode(sort, cursor);
+            int low = 0;
+            int high = order.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sort.compareToKey(current.entry(order[mid]), key) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            index = low;
+        }
+
+        List<H5MovieCardDTO> content = new ArrayList<>(Math.min(size, order.length - index));
+        for (; index < order.length && content.size() < size; index++) {
+            if (accept.test(order[index])) {
+                content.add(current.entry(order[index]));
+            }
+        }
+        boolean hasMore = false;
+        for (; index < order.length; index++) {
+            if (accept.test(order[index])) {
+                hasMore = true;
+                break;
+            }
+        }
+        String nextCursor = hasMore
+                ? CatalogCursor.encode(sort, sort.sortKey(content.get(content.size() - 1)))
+                : null;
+        return new H5CursorPageDTO<>(content, nextCursor, hasMore);
+    }
+
+    /**
+     * 首次访问时若快照尚未加载则同步加载
+     */
+    private CatalogSnapshot current() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    rebuild();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 解析标签，兼容JSON数组和逗号分隔两种格式；没有标签时返回null
+     */
+    private List<String> parseTags(Long movieId, String tags) {
+        if (tags == null || tags.isEmpty()) {
+            return null;
+        }
+        try {
+            List<String> parsed = tags.startsWith("[")
+                    ? objectMapper.readValue(tags, new TypeReference<List<String>>() {})
+                    : Arrays.asList(tags.split(","));
+            return Collections.unmodifiableList(parsed);
+        } catch (Exception e) {
+            log.warn("Failed to parse tags for movie {}: {}", movieId, e.getMessage());
+            return List.of();
+        }
+    }
+}
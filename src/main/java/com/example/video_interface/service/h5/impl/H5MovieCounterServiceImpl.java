@@ -0,0 +1,281 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.service.h5.IH5MovieCounterService;
+import com.example.video_interface.service.h5.IH5MovieRankingService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * H5端电影互动计数服务实现类
+ *
+ * 1. 每部电影每种计数一个LongAdder，高并发点击只做分段累加，不访问数据库；
+ * 2. 定时取出并清零各计数，按批执行 UPDATE movies SET views = views + ? ...，
+ *    增量式更新不会覆盖其他节点或管理端同时写入的值；点赞、收藏数在SQL中限制不小于0；
+ * 3. 写回失败时把增量加回内存，等待下一轮重试；应用关闭前再写回一次；
+ * 4. 每次计入的增量同时交给排行榜服务按小时分桶；
+ * 5. 目录快照只在重建时读取计数，写回后的增量按轮次保留，合并快照中的计数时补上快照加载之后写回的部分，
+ *    快照重建后再释放，避免写回后到下次重建之间列表中的计数回退；
+ * 6. 增量在待写回计数与已写回增量之间转移时持有写锁，合并时乐观读、被转移打断则持读锁重读，
+ *    不会读到增量同时不在两处（回退）或同时在两处（重复）的中间状态。
+ * 各节点只写回自己累积的增量，多节点部署无需协调。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5MovieCounterServiceImpl implements IH5MovieCounterService {
+
+    private static final String FLUSH_SQL = "UPDATE movies SET "
+            + "views = GREATEST(COALESCE(views, 0) + ?, 0), "
+            + "likes = GREATEST(COALESCE(likes, 0) + ?, 0), "
+            + "favorites = GREATEST(COALESCE(favorites, 0) + ?, 0) "
+            + "WHERE id = ?";
+
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IH5MovieRankingService movieRankingService;
+
+    @Value("${app.engagement.flush-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 电影ID -> 按 Counter.ordinal() 索引的待写回增量
+     */
+    private final Map<Long, LongAdder[]> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 电影ID -> 正在写回或已写回、但快照尚未重新加载的增量（按轮次递增排列，数组整体替换）
+     */
+    private final Map<Long, FlushedDelta[]> flushed = new ConcurrentHashMap<>();
+
+    /**
+     * 已完成的写回轮次
+     */
+    private final AtomicLong flushEpoch = new AtomicLong();
+
+    /**
+     * 保护增量在 pending 与 flushed 之间的转移；累加不需要获取
+     */
+    private final StampedLock transferLock = new StampedLock();
+
+    @Override
+    public void increment(Long movieId, Counter counter, long delta) {
+        if (movieId == null || delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 事务回滚时不计入
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(movieId, counter, delta);
+                }
+            });
+        } else {
+            apply(movieId, counter, delta);
+        }
+    }
+
+    @Override
+    public Long merge(Long movieId, Counter counter, Long persisted) {
+        return merge(movieId, counter, persisted, flushEpoch.get());
+    }
+
+    @Override
+    public Long merge(Long movieId, Counter counter, Long persisted, long loadedEpoch) {
+        if (movieId == null) {
+            return persisted;
+        }
+        long stamp = transferLock.tryOptimisticRead();
+        Long value = mergeUnlocked(movieId, counter, persisted, loadedEpoch);
+        if (!transferLock.validate(stamp)) {
+            stamp = transferLock.readLock();
+            try {
+                value = mergeUnlocked(movieId, counter, persisted, loadedEpoch);
+            } finally {
+                transferLock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    private Long mergeUnlocked(Long movieId, Counter counter, Long persisted, long loadedEpoch) {
+        LongAdder[] adders = pending.get(movieId);
+        FlushedDelta[] deltas = flushed.get(movieId);
+        if (adders == null && deltas == null) {
+            return persisted;
+        }
+        long value = persisted != null ? persisted : 0L;
+        if (adders != null) {
+            value += adders[counter.ordinal()].sum();
+        }
+        if (deltas != null) {
+            for (FlushedDelta delta : deltas) {
+                // 正在写回的一轮（epoch = 已完成轮次 + 1）也要加上，此时增量已不在待写回计数中
+                if (delta.epoch > loadedEpoch) {
+                    value += delta.deltas[counter.ordinal()];
+                }
+            }
+        }
+        return Math.max(0L, value);
+    }
+
+    @Override
+    public long flushEpoch() {
+        return flushEpoch.get();
+    }
+
+    @Override
+    public void discardFlushed(long epoch) {
+        for (Long movieId : flushed.keySet()) {
+            flushed.computeIfPresent(movieId, (id, deltas) -> {
+                int keep = 0;
+                for (FlushedDelta delta : deltas) {
+                    if (delta.epoch > epoch) {
+                        keep++;
+                    }
+                }
+                if (keep == deltas.length) {
+                    return deltas;
+                }
+                return keep == 0 ? null : Arrays.copyOfRange(deltas, deltas.length - keep, deltas.length);
+            });
+        }
+    }
+
+    @Override
+    public synchronized int flush() {
+        long epoch = flushEpoch.get() + 1;
+        List<Object[]> batch = new ArrayList<>();
+        // 清零与记为已写回在同一写锁内完成，合并方读不到增量离开待写回计数、尚未记为已写回的中间状态
+        long stamp = transferLock.writeLock();
+        try {
+            for (Map.Entry<Long, LongAdder[]> entry : pending.entrySet()) {
+                long[] deltas = new long[COUNTERS.length];
+                boolean changed = false;
+                for (int i = 0; i < COUNTERS.length; i++) {
+                    deltas[i] = entry.getValue()[i].sumThenReset();
+                    changed |= deltas[i] != 0;
+                }
+                if (changed) {
+                    addFlushed(entry.getKey(), new FlushedDelta(epoch, deltas));
+                    batch.add(new Object[] {deltas[0], deltas[1], deltas[2], entry.getKey()});
+                }
+            }
+        } finally {
+            transferLock.unlockWrite(stamp);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        int written = 0;
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<Object[]> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, chunk);
+                written += chunk.size();
+            } catch (Exception e) {
+                log.warn("写回电影互动计数失败，{}部电影的增量将在下次重试: {}", chunk.size(), e.getMessage());
+                long failedStamp = transferLock.writeLock();
+                try {
+                    for (Object[] row : chunk) {
+                        Long movieId = (Long) row[3];
+                        for (int i = 0; i < COUNTERS.length; i++) {
+                            add(movieId, COUNTERS[i], (Long) row[i]);
+                        }
+                        removeFlushed(movieId, epoch);
+                    }
+                } finally {
+                    transferLock.unlockWrite(failedStamp);
+                }
+            }
+        }
+        flushEpoch.set(epoch);
+        log.debug("写回电影互动计数，电影数: {}", written);
+        return written;
+    }
+
+    /**
+     * 定时写回
+     */
+    @Scheduled(fixedDelayString = "${app.engagement.flush-interval:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("定时写回电影互动计数失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 应用关闭前写回剩余增量
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flush();
+        log.info("应用关闭，已写回电影互动计数，电影数: {}", written);
+    }
+
+    private void apply(Long movieId, Counter counter, long delta) {
+        add(movieId, counter, delta);
+        movieRankingService.record(movieId, counter, delta);
+    }
+
+    private void add(Long movieId, Counter counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        pending.computeIfAbsent(movieId, id -> newAdders())[counter.ordinal()].add(delta);
+    }
+
+    private void addFlushed(Long movieId, FlushedDelta delta) {
+        flushed.compute(movieId, (id, deltas) -> {
+            if (deltas == null) {
+                return new FlushedDelta[] {delta};
+            }
+            FlushedDelta[] updated = Arrays.copyOf(deltas, deltas.length + 1);
+            updated[deltas.length] = delta;
+            return updated;
+        });
+    }
+
+    private void removeFlushed(Long movieId, long epoch) {
+        flushed.computeIfPresent(movieId, (id, deltas) -> {
+            FlushedDelta[] kept = Arrays.stream(deltas)
+                    .filter(delta -> delta.epoch != epoch)
+                    .toArray(FlushedDelta[]::new);
+            return kept.length == 0 ? null : kept;
+        });
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[COUNTERS.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * 一轮写回中单部电影的增量，按 Counter.ordinal() 索引
+     */
+    private record FlushedDelta(long epoch, long[] deltas) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.event.CatalogChangedEvent;
+import com.example.video_interface.model.Movie;
+import com.example.video_interface.repository.MovieFacetView;
+import com.example.video_interface.repository.MovieRepository;
+import com.example.video_interface.service.h5.IH5MovieFacetService;
+import com.example.video_interface.service.h5.IH5MovieService.ChargeTypeOption;
+import com.example.video_interface.service.h5.IH5MovieService.MovieFilterOptions;
+import com.example.video_interface.service.h5.IH5MovieService.QualityOption;
+import com.example.video_interface.service.h5.IH5MovieService.YearOption;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * H5端电影筛选维度计数服务实现类
+ *
+ * 1. 内存中记录每部上架电影的维度取值，电影变更时先减去旧取值、再加上新取值，计数始终与逐条统计一致；
+ * 2. 各节点都从数据库统计并各自维护计数，其他节点的变更通过目录变更事件（remote）到达后同样增量更新；
+ * 3. 定时从数据库重新统计，发现偏差时记录日志并以数据库为准覆盖内存。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5MovieFacetServiceImpl implements IH5MovieFacetService {
+
+    private final MovieRepository movieRepository;
+
+    /**
+     * 电影ID -> 已计入的维度取值
+     */
+    private Map<Long, FacetValues> contributions = new HashMap<>();
+
+    private FacetCounts counts = new FacetCounts();
+
+    /**
+     * 由计数生成的筛选选项，计数变化时重新生成，读取时直接返回
+     */
+    private volatile MovieFilterOptions options;
+
+    @Override
+    public MovieFilterOptions getFilterOptions() {
+        MovieFilterOptions current = options;
+        if (current == null) {
+            synchronized (this) {
+                if (options == null) {
+                    reconcile();
+                }
+                current = options;
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public synchronized void reconcile() {
+        long start = System.currentTimeMillis();
+        Map<Long, FacetValues> loaded = new HashMap<>();
+        FacetCounts recounted = new FacetCounts();
+        for (MovieFacetView view : movieRepository.findFacetViewsByStatus(Movie.MovieStatus.ACTIVE)) {
+            FacetValues values = new FacetValues(view.getReleaseYear(), view.getQuality(), view.getChargeType());
+            loaded.put(view.getId(), values);
+            recounted.apply(values, 1);
+        }
+        if (options != null && !recounted.equals(counts)) {
+            log.warn("筛选维度计数与数据库不一致，已按数据库修正，内存: {}, 数据库: {}", counts, recounted);
+        }
+        contributions = loaded;
+        counts = recounted;
+        options = counts.toOptions();
+        log.info("筛选维度计数对账完成，电影数: {}, 耗时: {}ms", loaded.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public synchronized void refreshMovie(Long movieId) {
+        if (options == null) {
+            reconcile();
+            return;
+        }
+        MovieFacetView view = movieRepository.findFacetViewByIdAndStatus(movieId, Movie.MovieStatus.ACTIVE);
+        FacetValues next = view != null
+                ? new FacetValues(view.getReleaseYear(), view.getQuality(), view.getChargeType())
+                : null;
+        FacetValues previous = next != null ? contributions.put(movieId, next) : contributions.remove(movieId);
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        if (previous != null) {
+            counts.apply(previous, -1);
+        }
+        if (next != null) {
+            counts.apply(next, 1);
+        }
+        options = counts.toOptions();
+        log.debug("筛选维度计数增量更新，电影ID: {}, 原取值: {}, 新取值: {}", movieId, previous, next);
+    }
+
+    /**
+     * 电影变更后（事务提交后）增量更新计数；分类、地区变更不影响这三个维度
+     */
+    @Order(2)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getTarget() != CatalogChangedEvent.Target.MOVIE || event.getId() == null) {
+            return;
+        }
+        try {
+            refreshMovie(event.getId());
+        } catch (Exception e) {
+            log.warn("更新筛选维度计数失败，事件: {}, 错误: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * 启动完成后统计计数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("启动时统计筛选维度计数失败，将在首次查询时重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时对账
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.facet.reconcile-interval:600000}",
+               initialDelayString = "${app.catalog.facet.reconcile-interval:600000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("定时对账筛选维度计数失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 单部电影的维度取值
+     */
+    private record FacetValues(Integer year, String quality, Movie.ChargeType chargeType) {
+    }
+
+    /**
+     * 各维度的计数（非线程安全，由外层同步保护）
+     */
+    private static final class FacetCounts {
+        private final Map<Integer, Long> years = new TreeMap<>(Comparator.reverseOrder());
+        private final Map<String, Long> qualities = new TreeMap<>();
+        private final Map<Movie.ChargeType, Long> chargeTypes = new EnumMap<>(Movie.ChargeType.class);
+
+        private void apply(FacetValues values, long delta) {
+            if (values.year() != null) {
+                add(years, values.year(), delta);
+            }
+            if (values.quality() != null && !values.quality().isEmpty()) {
+                add(qualities, values.quality(), delta);
+            }
+            if (values.chargeType() != null) {
+                add(chargeTypes, values.chargeType(), delta);
+            }
+        }
+
+        private static <K> void add(Map<K, Long> map, K key, long delta) {
+            long value = map.getOrDefault(key, 0L) + delta;
+            if (value == 0) {
+                map.remove(key);
+            } else {
+                map.put(key, value);
+            }
+        }
+
+        private MovieFilterOptions toOptions() {
+            List<YearOption> yearOptions = new ArrayList<>(years.size());
+            years.forEach((year, count) -> yearOptions.add(new YearOption(year, count)));
+            List<QualityOption> qualityOptions = new ArrayList<>(qualities.size());
+            qualities.forEach((quality, count) -> qualityOptions.add(new QualityOption(quality, count)));
+            List<ChargeTypeOption> chargeTypeOptions = new ArrayList<>(chargeTypes.size());
+            chargeTypes.forEach((type, count) ->
+                    chargeTypeOptions.add(new ChargeTypeOption(type.name(), type.getDescription(), count)));
+            return new MovieFilterOptions(yearOptions, qualityOptions, chargeTypeOptions);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FacetCounts other)) {
+                return false;
+            }
+            return years.equals(other.years) && qualities.equals(other.qualities)
+                    && chargeTypes.equals(other.chargeTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(years, qualities, chargeTypes);
+        }
+
+        @Override
+        public String toString() {
+            return "years=" + years + ", qualities=" + qualities + ", chargeTypes=" + chargeTypes;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.service.h5.IH5MovieLikeService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * H5端电影点赞记录服务实现类
+ *
+ * 1. 点赞记录保存在 user_movie_likes 表，主键 (user_id, movie_id)；
+ *    点赞用 INSERT IGNORE、取消用 DELETE，按影响行数判断状态是否真的改变，重复请求不会重复计数；
+ * 2. 用户已点赞的电影ID以 Roaring64Bitmap 缓存在本地，首次访问时从数据库加载，
+ *    写入成功后以写时复制方式更新缓存中的位图，读取无需加锁；
+ * 3. 点赞状态变化后在 likes:changed 频道广播用户ID，其他节点丢弃该用户的缓存，下次访问时重新加载。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5MovieLikeServiceImpl implements IH5MovieLikeService {
+
+    private static final String CHANNEL = "likes:changed";
+    private static final String INSERT_SQL = "INSERT IGNORE INTO user_movie_likes (user_id, movie_id) VALUES (?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM user_movie_likes WHERE user_id = ? AND movie_id = ?";
+    private static final String LOAD_SQL = "SELECT movie_id FROM user_movie_likes WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Value("${app.likes.cache-max-users:100000}")
+    private long cacheMaxUsers;
+
+    @Value("${app.likes.cache-ttl-seconds:1800}")
+    private long cacheTtlSeconds;
+
+    /**
+     * 当前节点实例标识，用于忽略自己发出的广播
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 用户ID -> 已点赞电影ID位图（位图放入缓存后不再修改）
+     */
+    private LoadingCache<Long, Roaring64Bitmap> likedCache;
+
+    @PostConstruct
+    public void init() {
+        likedCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxUsers)
+                .expireAfterAccess(Duration.ofSeconds(cacheTtlSeconds))
+                .build(this::loadLiked);
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onBroadcast(message), new ChannelTopic(CHANNEL));
+        log.info("点赞记录缓存初始化完成，最大用户数: {}", cacheMaxUsers);
+    }
+
+    @Override
+    public boolean like(Long userId, Long movieId) {
+        boolean changed = jdbcTemplate.update(INSERT_SQL, userId, movieId) > 0;
+        if (changed) {
+            updateCached(userId, movieId, true);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean unlike(Long userId, Long movieId) {
+        boolean changed = jdbcTemplate.update(DELETE_SQL, userId, movieId) > 0;
+        if (changed) {
+            updateCached(userId, movieId, false);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean isLiked(Long userId, Long movieId) {
+        if (userId == null || movieId == null) {
+            return false;
+        }
+        try {
+            return likedCache.get(userId).contains(movieId);
+        } catch (Exception e) {
+            log.warn("查询用户点赞状态失败，用户ID: {}, 电影ID: {}, 错误: {}", userId, movieId, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<Long> filterLiked(Long userId, Collection<Long> movieIds) {
+        if (userId == null || movieIds == null || movieIds.isEmpty()) {
+            return List.of();
+        }
+        Roaring64Bitmap liked;
+        try {
+            liked = likedCache.get(userId);
+        } catch (Exception e) {
+            log.warn("批量查询用户点赞状态失败，用户ID: {}, 错误: {}", userId, e.getMessage());
+            return List.of();
+        }
+        List<Long> result = new ArrayList<>();
+        for (Long movieId : movieIds) {
+            if (movieId != null && liked.contains(movieId)) {
+                result.add(movieId);
+            }
+        }
+        return result;
+    }
+
+    private Roaring64Bitmap loadLiked(Long userId) {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            bitmap.addLong(rs.getLong(1));
+        }, userId);
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    /**
+     * 数据库写入成功后更新本地缓存并通知其他节点
+     * 缓存中没有该用户时无需处理，下次访问会从数据库加载最新记录
+     */
+    private void updateCached(Long userId, Long movieId, boolean liked) {
+        likedCache.asMap().computeIfPresent(userId, (id, bitmap) -> {
+            Roaring64Bitmap copy = bitmap.clone();
+            if (liked) {
+                copy.addLong(movieId);
+            } else {
+                copy.removeLong(movieId);
+            }
+            return copy;
+        });
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, instanceId + ":" + userId);
+        } catch (Exception e) {
+            log.warn("广播点赞状态变化失败，用户ID: {}, 错误: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 处理其他节点广播的点赞状态变化
+     */
+    private void onBroadcast(Message message) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.lastIndexOf(':');
+            if (separator < 0 || instanceId.equals(body.substring(0, separator))) {
+                return;
+            }
+            likedCache.invalidate(Long.valueOf(body.substring(separator + 1)));
+        } catch (Exception e) {
+            log.warn("处理点赞状态广播失败: {}", e.getMessage());
+        }
+    }
+}
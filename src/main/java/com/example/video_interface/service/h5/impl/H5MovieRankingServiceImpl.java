@@ -0,0 +1,435 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.service.common.IMovieAudienceService;
+import com.example.video_interface.service.h5.IH5MovieCounterService.Counter;
+import com.example.video_interface.service.h5.IH5MovieRankingService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * H5端电影时间窗口排行榜服务实现类
+ *
+ * Redis数据结构（小时以UTC纪元小时数计，指标为views、likes、favorites及viewers（当日新增独立观众））：
+ * 1. ranking:bucket:{指标}:{小时}  该小时内各电影的增量，保留一个月多一天；
+ * 2. ranking:window:{指标}:{窗口}  窗口内各小时桶之和。写入增量时同时累加到窗口，
+ *    整点滚动时只需减去移出窗口的那个小时桶（ZUNIONSTORE 权重 1,-1），不必重新合并整个窗口；
+ * 3. ranking:trending  各类互动按权重相加、每过一个半衰期权重减半的热度分，整点滚动时按新权重重建，
+ *    小时内的增量直接累加；
+ * 4. ranking:rolled-hour  最近一次滚动到的小时；滚动由获得 ranking:roll-lock 的节点执行。
+ *
+ * 各节点先在内存中按小时累积增量，定时以管道批量写入Redis，随后读取各排行榜前N名保存在内存中。
+ * viewers 的增量不按单次观看计，而是刷新时向独立观众统计领取各电影当天 PFCOUNT 的增长。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5MovieRankingServiceImpl implements IH5MovieRankingService {
+
+    private static final String BUCKET_KEY_PREFIX = "ranking:bucket:";
+    private static final String WINDOW_KEY_PREFIX = "ranking:window:";
+    private static final String TRENDING_KEY = "ranking:trending";
+    private static final String ROLLED_HOUR_KEY = "ranking:rolled-hour";
+    private static final String ROLL_LOCK_KEY = "ranking:roll-lock";
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final Metric[] METRICS = Metric.values();
+    private static final RankingWindow[] WINDOWS = RankingWindow.values();
+
+    /**
+     * 小时桶保留时长：最长窗口再多一天，保证滚动时被减去的桶仍然存在
+     */
+    private static final Duration BUCKET_TTL = Duration.ofHours(RankingWindow.MONTH.getHours() + 24L);
+
+
+    /**
+     * 排行指标，与 Counter 同名的指标由计数服务记录；trendingWeight 为热度分中的权重（0表示不计入）
+     */
+    private enum Metric {
+        VIEWS(1.0),
+        LIKES(3.0),
+        FAVORITES(5.0),
+        VIEWERS(0.0);
+
+        private final double trendingWeight;
+
+        Metric(double trendingWeight) {
+            this.trendingWeight = trendingWeight;
+        }
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final IMovieAudienceService movieAudienceService;
+
+    @Value("${app.ranking.top-size:500}")
+    private int topSize;
+
+    @Value("${app.ranking.trending-half-life-hours:24}")
+    private int trendingHalfLifeHours;
+
+    /**
+     * 当前节点实例标识，作为滚动锁的值
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 小时 -> 电影ID -> 按 Metric.ordinal() 索引的待写入增量
+     */
+    private final Map<Long, Map<Long, LongAdder[]>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 日期 -> 有新观看、待领取独立观众增长的电影ID
+     */
+    private final Map<LocalDate, Set<Long>> viewedMovies = new ConcurrentHashMap<>();
+
+    /**
+     * 最近一次读到的滚动小时，-1表示Redis中尚无滚动记录
+     */
+    private volatile long rolledHour = -1L;
+
+    /**
+     * 排行榜键 -> 前N名电影ID（不可变列表）
+     */
+    private volatile Map<String, List<Long>> topLists;
+
+    @Override
+    public void record(Long movieId, Counter counter, long delta) {
+        add(movieId, Metric.valueOf(counter.name()), delta);
+    }
+
+    @Override
+    public void recordViewer(Long movieId) {
+        if (movieId != null) {
+            viewedMovies.computeIfAbsent(LocalDate.now(), date -> ConcurrentHashMap.newKeySet()).add(movieId);
+        }
+    }
+
+    @Override
+    public List<Long> top(Counter counter, RankingWindow window) {
+        return topList(windowKey(Metric.valueOf(counter.name()), window));
+    }
+
+    @Override
+    public List<Long> topViewers(RankingWindow window) {
+        return topList(windowKey(Metric.VIEWERS, window));
+    }
+
+    @Override
+    public List<Long> trending() {
+        return topList(TRENDING_KEY);
+    }
+
+    @Override
+    public void refresh() {
+        // 写入前先同步滚动进度：进度未知时增量只写小时桶，窗口随后由全量重建得到；
+        // 若沿用本地的-1，Redis中已有进度时窗口会漏掉这批增量，之后减去该小时桶时计数偏少
+        syncRolledHour();
+        collectViewers();
+        flush();
+        roll();
+        loadTopLists();
+    }
+
+    /**
+     * 定时写入增量并刷新排行榜
+     */
+    @Scheduled(fixedDelayString = "${app.ranking.refresh-interval:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("刷新电影排行榜失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 应用关闭前写入剩余增量
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            syncRolledHour();
+            collectViewers();
+            flush();
+        } catch (Exception e) {
+            log.warn("应用关闭时写入排行榜增量失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 领取有新观看的电影当天独立观众数的增长，作为 viewers 增量计入当前小时
+     * 领取失败的电影保留到下次刷新重试
+     */
+    private void collectViewers() {
+        for (LocalDate date : new ArrayList<>(viewedMovies.keySet())) {
+            Set<Long> movieIds = viewedMovies.remove(date);
+            if (movieIds == null || movieIds.isEmpty()) {
+                continue;
+            }
+            try {
+                movieAudienceService.claimViewerGrowth(movieIds, date)
+                        .forEach((movieId, growth) -> add(movieId, Metric.VIEWERS, growth));
+            } catch (Exception e) {
+                log.warn("领取独立观众增长失败，日期: {}, 电影数: {}, 错误: {}", date, movieIds.size(), e.getMessage());
+                viewedMovies.computeIfAbsent(date, d -> ConcurrentHashMap.newKeySet()).addAll(movieIds);
+            }
+        }
+    }
+
+    /**
+     * 以管道批量写入累积的增量：小时桶、仍包含该小时的窗口以及热度分
+     */
+    private synchronized void flush() {
+        long now = currentHour();
+        long rolled = rolledHour;
+        Map<Long, Map<Long, long[]>> drained = new HashMap<>();
+        for (Map.Entry<Long, Map<Long, LongAdder[]>> hourEntry : pending.entrySet()) {
+            long hour = hourEntry.getKey();
+            Map<Long, long[]> deltas = new HashMap<>();
+            for (Map.Entry<Long, LongAdder[]> entry : hourEntry.getValue().entrySet()) {
+                long[] values = new long[METRICS.length];
+                boolean changed = false;
+                for (int i = 0; i < METRICS.length; i++) {
+                    values[i] = entry.getValue()[i].sumThenReset();
+                    changed |= values[i] != 0;
+                }
+                if (changed) {
+                    deltas.put(entry.getKey(), values);
+                }
+            }
+            if (!deltas.isEmpty()) {
+                drained.put(hour, deltas);
+            }
+            // 上一小时的桶再保留一轮，接住跨整点的并发写入
+            if (hour < now - 1) {
+                pending.remove(hour);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<Long, Map<Long, long[]>> hourEntry : drained.entrySet()) {
+                    long hour = hourEntry.getKey();
+                    double decay = rolled >= 0 ? decayWeight(hour - rolled) : 1.0;
+                    for (Map.Entry<Long, long[]> entry : hourEntry.getValue().entrySet()) {
+                        byte[] member = bytes(String.valueOf(entry.getKey()));
+                        long[] values = entry.getValue();
+                        double trendingDelta = 0;
+                        for (Metric metric : METRICS) {
+                            long delta = values[metric.ordinal()];
+                            if (delta == 0) {
+                                continue;
+                            }
+                            connection.zSetCommands().zIncrBy(bytes(bucketKey(metric, hour)), delta, member);
+                            for (RankingWindow window : WINDOWS) {
+                                // 窗口未知时等待下次滚动整体重建
+                                if (rolled >= 0 && hour > rolled - window.getHours()) {
+                                    connection.zSetCommands().zIncrBy(bytes(windowKey(metric, window)), delta, member);
+                                }
+                            }
+                            trendingDelta += delta * metric.trendingWeight;
+                        }
+                        if (rolled >= 0 && trendingDelta != 0) {
+                            connection.zSetCommands().zIncrBy(bytes(TRENDING_KEY), trendingDelta * decay, member);
+                        }
+                    }
+                    for (Metric metric : METRICS) {
+                        connection.keyCommands().expire(bytes(bucketKey(metric, hour)), BUCKET_TTL.getSeconds());
+                    }
+                }
+                return null;
+            });
+            log.debug("写入排行榜增量，小时数: {}", drained.size());
+        } catch (Exception e) {
+            log.warn("写入排行榜增量失败，将在下次重试: {}", e.getMessage());
+            drained.forEach((hour, deltas) -> deltas.forEach((movieId, values) -> {
+                LongAdder[] adders = pending.computeIfAbsent(hour, h -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(movieId, id -> newAdders());
+                for (int i = 0; i < METRICS.length; i++) {
+                    adders[i].add(values[i]);
+                }
+            }));
+        }
+    }
+
+    /**
+     * 整点滚动：从各窗口减去移出窗口的小时桶，并按新的衰减权重重建热度分
+     * 滚动进度落后超过最长窗口（或从未滚动过）时，直接由小时桶重建全部窗口
+     */
+    private void roll() {
+        long now = currentHour();
+        Long rolled = readRolledHour();
+        if (rolled != null && rolled >= now) {
+            rolledHour = rolled;
+            return;
+        }
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(ROLL_LOCK_KEY, instanceId, Duration.ofMinutes(5));
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        try {
+            if (rolled == null || now - rolled > RankingWindow.MONTH.getHours()) {
+                log.info("排行榜窗口从小时桶全量重建，上次滚动: {}, 当前小时: {}", rolled, now);
+                for (Metric metric : METRICS) {
+                    for (RankingWindow window : WINDOWS) {
+                        rebuildWindow(metric, window, now);
+                    }
+                }
+            } else {
+                for (long hour = rolled + 1; hour <= now; hour++) {
+                    for (Metric metric : METRICS) {
+                        for (RankingWindow window : WINDOWS) {
+                            String key = windowKey(metric, window);
+                            stringRedisTemplate.opsForZSet().unionAndStore(key,
+                                    List.of(bucketKey(metric, hour - window.getHours())), key,
+                                    Aggregate.SUM, Weights.of(1, -1));
+                            stringRedisTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, 0);
+                        }
+                    }
+                }
+            }
+            rebuildTrending(now);
+            stringRedisTemplate.opsForValue().set(ROLLED_HOUR_KEY, String.valueOf(now));
+            rolledHour = now;
+            log.debug("排行榜滚动到小时: {}", now);
+        } finally {
+            if (instanceId.equals(stringRedisTemplate.opsForValue().get(ROLL_LOCK_KEY))) {
+                stringRedisTemplate.delete(ROLL_LOCK_KEY);
+            }
+        }
+    }
+
+    private void rebuildWindow(Metric metric, RankingWindow window, long now) {
+        List<String> buckets = new ArrayList<>(window.getHours());
+        for (long hour = now - window.getHours() + 1; hour <= now; hour++) {
+            buckets.add(bucketKey(metric, hour));
+        }
+        String key = windowKey(metric, window);
+        stringRedisTemplate.opsForZSet().unionAndStore(buckets.get(0), buckets.subList(1, buckets.size()), key);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, 0);
+    }
+
+    /**
+     * 合并最近若干个半衰期内的小时桶，当前小时权重为1
+     */
+    private void rebuildTrending(long now) {
+        int hours = Math.max(1, trendingHalfLifeHours) * 3;
+        List<String> keys = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (int age = 0; age < hours; age++) {
+            for (Metric metric : METRICS) {
+                if (metric.trendingWeight > 0) {
+                    weights.add(metric.trendingWeight * decayWeight(-age));
+                    keys.add(bucketKey(metric, now - age));
+                }
+            }
+        }
+        stringRedisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()), TRENDING_KEY,
+                Aggregate.SUM, Weights.of(weights.stream().mapToDouble(Double::doubleValue).toArray()));
+        stringRedisTemplate.opsForZSet().removeRangeByScore(TRENDING_KEY, Double.NEGATIVE_INFINITY, 0);
+    }
+
+    private void add(Long movieId, Metric metric, long delta) {
+        if (movieId == null || delta == 0) {
+            return;
+        }
+        pending.computeIfAbsent(currentHour(), hour -> new ConcurrentHashMap<>())
+                .computeIfAbsent(movieId, id -> newAdders())[metric.ordinal()].add(delta);
+    }
+
+    private List<Long> topList(String key) {
+        Map<String, List<Long>> lists = topLists;
+        return lists != null ? lists.get(key) : null;
+    }
+
+    /**
+     * 读取各排行榜前N名
+     */
+    private void loadTopLists() {
+        Map<String, List<Long>> lists = new HashMap<>();
+        for (Metric metric : METRICS) {
+            for (RankingWindow window : WINDOWS) {
+                String key = windowKey(metric, window);
+                lists.put(key, readTop(key));
+            }
+        }
+        lists.put(TRENDING_KEY, readTop(TRENDING_KEY));
+        topLists = lists;
+    }
+
+    private List<Long> readTop(String key) {
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(key, 0, topSize - 1L);
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = new ArrayList<>(members.size());
+        for (String member : members) {
+            ids.add(Long.valueOf(member));
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    private void syncRolledHour() {
+        Long rolled = readRolledHour();
+        rolledHour = rolled != null ? rolled : -1L;
+    }
+
+    private Long readRolledHour() {
+        String value = stringRedisTemplate.opsForValue().get(ROLLED_HOUR_KEY);
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    /**
+     * 相对当前滚动小时偏移 hours 小时的增量在热度分中的权重
+     */
+    private double decayWeight(long hours) {
+        return Math.pow(2.0, (double) hours / Math.max(1, trendingHalfLifeHours));
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / HOUR_MILLIS;
+    }
+
+    private static String bucketKey(Metric metric, long hour) {
+        return BUCKET_KEY_PREFIX + metric.name().toLowerCase() + ":" + hour;
+    }
+
+    private static String windowKey(Metric metric, RankingWindow window) {
+        return WINDOW_KEY_PREFIX + metric.name().toLowerCase() + ":" + window.name().toLowerCase();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[METRICS.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
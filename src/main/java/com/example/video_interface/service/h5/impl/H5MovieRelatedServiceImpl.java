@@ -0,0 +1,319 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogSort;
+import com.example.video_interface.service.h5.IH5MovieRelatedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * H5端相关推荐服务实现类
+ *
+ * 1. 候选集：同分类、同标签的电影（每个分类/标签只取最热门的若干部）以及被同一用户收藏过的电影，
+ *    避免两两比较全部电影；
+ * 2. 相关度 = 同分类 + 同地区 + 标签Jaccard相似度 + 共同收藏人数（取对数） + 少量热度加分；
+ * 3. 每部电影保留前K个，候选不足时用全站热门补齐；
+ * 4. 结果按电影ID排序存成 ids/offsets/neighbours 三个数组，查询时二分定位，构建完成后整体替换引用。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5MovieRelatedServiceImpl implements IH5MovieRelatedService {
+
+    private static final double CATEGORY_WEIGHT = 3.0;
+    private static final double REGION_WEIGHT = 1.0;
+    private static final double TAG_WEIGHT = 4.0;
+    private static final double CO_FAVORITE_WEIGHT = 2.0;
+    private static final double POPULARITY_WEIGHT = 0.5;
+
+    /**
+     * 每个分类、标签参与候选的电影数上限（按热度）
+     */
+    private static final int POSTING_LIMIT = 200;
+
+    /**
+     * 统计共同收藏时每个用户最多取的收藏数，避免个别用户产生过多组合
+     */
+    private static final int MAX_USER_FAVORITES = 100;
+
+    private static final String FAVORITES_SQL = "SELECT user_id, content_id FROM user_favorites "
+            + "WHERE content_type = 'MOVIE' AND status = 'ACTIVE' ORDER BY user_id";
+
+    private final IH5CatalogSnapshotService catalogSnapshotService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.catalog.related.top-k:24}")
+    private int topK;
+
+    private volatile NeighbourIndex index;
+
+    @Override
+    public List<Long> getRelatedIds(Long movieId) {
+        NeighbourIndex current = index;
+        if (current == null || movieId == null) {
+            return null;
+        }
+        return current.get(movieId);
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        // 按热度降序，位置即热度名次
+        List<H5MovieCardDTO> cards = catalogSnapshotService.top(CatalogSort.HOT, null, Integer.MAX_VALUE);
+        int n = cards.size();
+        Map<Long, Integer> positions = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            positions.put(cards.get(i).getId(), i);
+        }
+
+        List<Set<String>> tags = new ArrayList<>(n);
+        Map<Long, List<Integer>> categoryPostings = new HashMap<>();
+        Map<String, List<Integer>> tagPostings = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            H5MovieCardDTO card = cards.get(i);
+            Set<String> movieTags = normalizeTags(card.getTags());
+            tags.add(movieTags);
+            if (card.getCategoryId() != null) {
+                addPosting(categoryPostings.computeIfAbsent(card.getCategoryId(), id -> new ArrayList<>()), i);
+            }
+            for (String tag : movieTags) {
+                addPosting(tagPostings.computeIfAbsent(tag, t -> new ArrayList<>()), i);
+            }
+        }
+        List<Map<Integer, Integer>> coFavorites = loadCoFavorites(positions, n);
+
+        List<long[]> neighbours = new ArrayList<>(n);
+        double[] scores = new double[n];
+        boolean[] marked = new boolean[n];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            H5MovieCardDTO card = cards.get(i);
+            candidates.clear();
+            if (card.getCategoryId() != null) {
+                mark(categoryPostings.get(card.getCategoryId()), i, marked, candidates);
+            }
+            for (String tag : tags.get(i)) {
+                mark(tagPostings.get(tag), i, marked, candidates);
+            }
+            mark(coFavorites.get(i).keySet(), i, marked, candidates);
+
+            for (int j : candidates) {
+                scores[j] = score(card, cards.get(j), tags.get(i), tags.get(j), coFavorites.get(i).get(j), j, n);
+            }
+            candidates.sort((a, b) -> Double.compare(scores[b], scores[a]));
+
+            int size = Math.min(topK, Math.max(0, n - 1));
+            long[] related = new long[size];
+            int count = 0;
+            for (int j : candidates) {
+                if (count >= size) {
+                    break;
+                }
+                related[count++] = cards.get(j).getId();
+            }
+            // 候选不足时按热度补齐
+            for (int j = 0; j < n && count < size; j++) {
+                if (j != i && !marked[j]) {
+                    related[count++] = cards.get(j).getId();
+                }
+            }
+            for (int j : candidates) {
+                marked[j] = false;
+            }
+            neighbours.add(related);
+        }
+
+        index = NeighbourIndex.build(cards, neighbours);
+        log.info("相关推荐索引重建完成，电影数: {}, 每部保留: {}, 耗时: {}ms",
+                n, topK, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 启动完成后建立索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("启动时建立相关推荐索引失败，将在下次定时任务重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时重建索引（热度、收藏关系随时间变化，新上架电影在重建后才进入索引）
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.related.rebuild-interval:3600000}",
+               initialDelayString = "${app.catalog.related.rebuild-interval:3600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("定时重建相关推荐索引失败: {}", e.getMessage());
+        }
+    }
+
+    private static double score(H5MovieCardDTO a, H5MovieCardDTO b, Set<String> tagsA, Set<String> tagsB,
+                                Integer coFavorites, int hotRank, int total) {
+        double score = 0;
+        if (a.getCategoryId() != null && a.getCategoryId().equals(b.getCategoryId())) {
+            score += CATEGORY_WEIGHT;
+        }
+        if (a.getRegionId() != null && a.getRegionId().equals(b.getRegionId())) {
+            score += REGION_WEIGHT;
+        }
+        if (!tagsA.isEmpty() && !tagsB.isEmpty()) {
+            int common = 0;
+            for (String tag : tagsA) {
+                if (tagsB.contains(tag)) {
+                    common++;
+                }
+            }
+            score += TAG_WEIGHT * common / (tagsA.size() + tagsB.size() - common);
+        }
+        if (coFavorites != null) {
+            score += CO_FAVORITE_WEIGHT * Math.log1p(coFavorites);
+        }
+        return score + POPULARITY_WEIGHT * (1.0 - (double) hotRank / total);
+    }
+
+    /**
+     * 读取电影收藏记录，统计每对上架电影被同一用户收藏的次数
+     * @return 按热度名次索引：名次 -> 共同收藏次数
+     */
+    private List<Map<Integer, Integer>> loadCoFavorites(Map<Long, Integer> positions, int n) {
+        List<Map<Integer, Integer>> coFavorites = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            coFavorites.add(new HashMap<>());
+        }
+        try {
+            List<Integer> basket = new ArrayList<>();
+            long[] currentUser = {Long.MIN_VALUE};
+            jdbcTemplate.query(FAVORITES_SQL, rs -> {
+                long userId = rs.getLong(1);
+                if (userId != currentUser[0]) {
+                    addPairs(basket, coFavorites);
+                    basket.clear();
+                    currentUser[0] = userId;
+                }
+                Integer position = positions.get(rs.getLong(2));
+                if (position != null && basket.size() < MAX_USER_FAVORITES) {
+                    basket.add(position);
+                }
+            });
+            addPairs(basket, coFavorites);
+        } catch (Exception e) {
+            log.warn("读取共同收藏关系失败，本次仅按内容属性计算: {}", e.getMessage());
+        }
+        return coFavorites;
+    }
+
+    private static void addPairs(List<Integer> basket, List<Map<Integer, Integer>> coFavorites) {
+        for (int x = 0; x < basket.size(); x++) {
+            for (int y = x + 1; y < basket.size(); y++) {
+                int a = basket.get(x);
+                int b = basket.get(y);
+                if (a != b) {
+                    coFavorites.get(a).merge(b, 1, Integer::sum);
+                    coFavorites.get(b).merge(a, 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    private static void mark(Iterable<Integer> postings, int self, boolean[] marked, List<Integer> candidates) {
+        if (postings == null) {
+            return;
+        }
+        for (int j : postings) {
+            if (j != self && !marked[j]) {
+                marked[j] = true;
+                candidates.add(j);
+            }
+        }
+    }
+
+    private static void addPosting(List<Integer> posting, int position) {
+        if (posting.size() < POSTING_LIMIT) {
+            posting.add(position);
+        }
+    }
+
+    private static Set<String> normalizeTags(List<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> normalized = new HashSet<>();
+        for (String tag : tags) {
+            if (tag != null && !tag.isBlank()) {
+                normalized.add(tag.trim().toLowerCase());
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * 不可变邻接表：ids 升序，第 i 部电影的相关电影为 neighbours[offsets[i], offsets[i+1])
+     */
+    private static final class NeighbourIndex {
+        private final long[] ids;
+        private final int[] offsets;
+        private final long[] neighbours;
+
+        private NeighbourIndex(long[] ids, int[] offsets, long[] neighbours) {
+            this.ids = ids;
+            this.offsets = offsets;
+            this.neighbours = neighbours;
+        }
+
+        static NeighbourIndex build(List<H5MovieCardDTO> cards, List<long[]> related) {
+            int n = cards.size();
+            Integer[] order = new Integer[n];
+            int total = 0;
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+                total += related.get(i).length;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(cards.get(a).getId(), cards.get(b).getId()));
+            long[] ids = new long[n];
+            int[] offsets = new int[n + 1];
+            long[] neighbours = new long[total];
+            for (int k = 0; k < n; k++) {
+                long[] list = related.get(order[k]);
+                ids[k] = cards.get(order[k]).getId();
+                System.arraycopy(list, 0, neighbours, offsets[k], list.length);
+                offsets[k + 1] = offsets[k] + list.length;
+            }
+            return new NeighbourIndex(ids, offsets, neighbours);
+        }
+
+        List<Long> get(long movieId) {
+            int k = Arrays.binarySearch(ids, movieId);
+            if (k < 0) {
+                return null;
+            }
+            List<Long> result = new ArrayList<>(offsets[k + 1] - offsets[k]);
+            for (int p = offsets[k]; p < offsets[k + 1]; p++) {
+                result.add(neighbours[p]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.event.CatalogChangedEvent;
+import com.example.video_interface.model.Movie;
+import com.example.video_interface.repository.MovieRepository;
+import com.example.video_interface.repository.MovieSearchView;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogSort;
+import com.example.video_interface.service.h5.IH5MovieSearchService;
+import com.example.video_interface.util.SearchTokenizer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * H5端电影搜索服务实现类
+ * 字段加权的BM25：标题权重3、标签权重2、简介权重1。
+ * 查询优先要求命中全部查询词，全部命中的结果为空时退化为任意命中。
+ * 全量重建不持锁扫描，扫描期间的增量更新在新索引换入后重放。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5MovieSearchServiceImpl implements IH5MovieSearchService {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float TAG_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final MovieRepository movieRepository;
+    private final IH5CatalogSnapshotService catalogSnapshotService;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 串行化全量重建
+     */
+    private final Object rebuildMonitor = new Object();
+
+    private SearchIndex index = new SearchIndex();
+
+    /**
+     * 全量重建扫描期间被增量更新过的电影ID（由写锁保护）。
+     * 扫描不持锁，这些更新只落在旧索引上，换入新索引后需要重放。
+     */
+    private Set<Long> refreshedDuringRebuild;
+
+    private volatile boolean initialized = false;
+
+    @Override
+    public Page<H5MovieCardDTO> search(String keyword, Pageable pageable) {
+        Set<String> terms = SearchTokenizer.tokenizeQuery(keyword);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        ensureInitialized();
+
+        Map<Long, double[]> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            SearchIndex current = index;
+            int docCount = current.docs.size();
+            double avgLength = docCount > 0 ? current.totalLength / docCount : 1.0;
+            for (String term : terms) {
+                Map<Long, Float> posting = current.postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+                    float tf = entry.getValue();
+                    double norm = K1 * (1 - B + B * current.docs.get(entry.getKey()).length / avgLength);
+                    double[] score = scores.computeIfAbsent(entry.getKey(), id -> new double[2]);
+                    score[0] += idf * tf * (K1 + 1) / (tf + norm);
+                    score[1] += 1;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> hits = new ArrayList<>();
+        for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+            if (entry.getValue()[1] >= terms.size()) {
+                hits.add(entry.getKey());
+            }
+        }
+        if (hits.isEmpty()) {
+            hits.addAll(scores.keySet());
+        }
+
+        List<H5MovieCardDTO> cards = new ArrayList<>(hits.size());
+        for (Long id : hits) {
+            H5MovieCardDTO card = catalogSnapshotService.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        Comparator<H5MovieCardDTO> byScore = Comparator.comparingDouble(card -> -scores.get(card.getId())[0]);
+        cards.sort(byScore.thenComparing(CatalogSort.HOT.comparator()));
+        return slice(cards, pageable);
+    }
+
+    @Override
+    public Page<H5MovieCardDTO> searchByTag(String tag, Pageable pageable) {
+        String normalized = SearchTokenizer.normalize(tag).trim();
+        if (normalized.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        ensureInitialized();
+
+        List<H5MovieCardDTO> cards = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = index.tags.get(normalized);
+            if (ids != null) {
+                for (Long id : ids) {
+                    H5MovieCardDTO card = catalogSnapshotService.get(id);
+                    if (card != null) {
+                        cards.add(card);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        cards.sort(CatalogSort.DEFAULT.comparator());
+        return slice(cards, pageable);
+    }
+
+    @Override
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                refreshedDuringRebuild = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            SearchIndex rebuilt = new SearchIndex();
+            Set<Long> replay;
+            try {
+                for (MovieSearchView view : movieRepository.findSearchViewsByStatus(Movie.MovieStatus.ACTIVE)) {
+                    rebuilt.add(toDocument(view));
+                }
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    replay = refreshedDuringRebuild;
+                    refreshedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                index = rebuilt;
+                initialized = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // 扫描期间的增量更新可能读到比扫描更新的数据，重新读库后应用到新索引
+            for (Long movieId : replay) {
+                applyRefresh(movieId);
+            }
+            log.info("电影搜索索引重建完成，文档数: {}, 词元数: {}, 重放增量: {}, 耗时: {}ms",
+                    rebuilt.docs.size(), rebuilt.postings.size(), replay.size(),
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    public void refreshMovie(Long movieId) {
+        if (!initialized) {
+            rebuild();
+            return;
+        }
+        applyRefresh(movieId);
+        log.debug("电影搜索索引增量更新，电影ID: {}", movieId);
+    }
+
+    private void applyRefresh(Long movieId) {
+        MovieSearchView view = movieRepository.findSearchViewByIdAndStatus(movieId, Movie.MovieStatus.ACTIVE);
+        SearchDocument document = view != null ? toDocument(view) : null;
+        lock.writeLock().lock();
+        try {
+            index.remove(movieId);
+            if (document != null) {
+                index.add(document);
+            }
+            if (refreshedDuringRebuild != null) {
+                refreshedDuringRebuild.add(movieId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 电影变更后（事务提交后）更新索引；分类、地区变更不影响索引
+     */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getTarget() != CatalogChangedEvent.Target.MOVIE || event.getId() == null) {
+            return;
+        }
+        try {
+            refreshMovie(event.getId());
+        } catch (Exception e) {
+            log.warn("更新电影搜索索引失败，事件: {}, 错误: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * 启动完成后建立索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("启动时建立电影搜索索引失败，将在首次搜索时重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时全量重建，兜底处理丢失的变更广播
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.search.refresh-interval:600000}",
+               initialDelayString = "${app.catalog.search.refresh-interval:600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("定时重建电影搜索索引失败: {}", e.getMessage());
+        }
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private Page<H5MovieCardDTO> slice(List<H5MovieCardDTO> cards, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), cards.size());
+        int to = Math.min(from + pageable.getPageSize(), cards.size());
+        return new PageImpl<>(new ArrayList<>(cards.subList(from, to)), pageable, cards.size());
+    }
+
+    /**
+     * 分词并统计加权词频
+     */
+    private SearchDocument toDocument(MovieSearchView view) {
+        Map<String, Float> termFrequencies = new HashMap<>();
+        float length = 0;
+        length += addTerms(termFrequencies, SearchTokenizer.tokenizeDocument(view.getTitle()), TITLE_WEIGHT);
+        length += addTerms(termFrequencies, SearchTokenizer.tokenizeDocument(view.getDescription()), DESCRIPTION_WEIGHT);
+
+        List<String> tags = parseTags(view.getId(), view.getTags());
+        Set<String> normalizedTags = new HashSet<>();
+        for (String tag : tags) {
+            if (tag == null) {
+                continue;
+            }
+            String normalized = SearchTokenizer.normalize(tag).trim();
+            if (!normalized.isEmpty()) {
+                normalizedTags.add(normalized);
+                length += addTerms(termFrequencies, SearchTokenizer.tokenizeDocument(normalized), TAG_WEIGHT);
+            }
+        }
+        return new SearchDocument(view.getId(), termFrequencies, normalizedTags, length);
+    }
+
+    private float addTerms(Map<String, Float> termFrequencies, List<String> tokens, float weight) {
+        for (String token : tokens) {
+            termFrequencies.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private List<String> parseTags(Long movieId, String tags) {
+        if (tags == null || tags.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return tags.startsWith("[")
+                    ? objectMapper.readValue(tags, new TypeReference<List<String>>() {})
+                    : Arrays.asList(tags.split(","));
+        } catch (Exception e) {
+            log.warn("Failed to parse tags for movie {}: {}", movieId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * 单部电影的索引文档
+     */
+    private static final class SearchDocument {
+        private final Long id;
+        private final Map<String, Float> termFrequencies;
+        private final Set<String> tags;
+        private final float length;
+
+        private SearchDocument(Long id, Map<String, Float> termFrequencies, Set<String> tags, float length) {
+            this.id = id;
+            this.termFrequencies = termFrequencies;
+            this.tags = tags;
+            this.length = length;
+        }
+    }
+
+    /**
+     * 倒排索引（非线程安全，由外层读写锁保护）
+     */
+    private static final class SearchIndex {
+        /**
+         * 词元 -> (电影ID -> 加权词频)
+         */
+        private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+        /**
+         * 电影ID -> 文档
+         */
+        private final Map<Long, SearchDocument> docs = new HashMap<>();
+        /**
+         * 归一化标签 -> 电影ID
+         */
+        private final Map<String, Set<Long>> tags = new HashMap<>();
+        private double totalLength;
+
+        private void add(SearchDocument document) {
+            docs.put(document.id, document);
+            totalLength += document.length;
+            document.termFrequencies.forEach((term, tf) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id, tf));
+            for (String tag : document.tags) {
+                tags.computeIfAbsent(tag, t -> new HashSet<>()).add(document.id);
+            }
+        }
+
+        private void remove(Long movieId) {
+            SearchDocument document = docs.remove(movieId);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length;
+            for (String term : document.termFrequencies.keySet()) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(movieId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            for (String tag : document.tags) {
+                Set<Long> ids = tags.get(tag);
+                if (ids != null) {
+                    ids.remove(movieId);
+                    if (ids.isEmpty()) {
+                        tags.remove(tag);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,38 +1,77 @@
 package com.example.video_interface.service.h5.impl;
 
+import com.example.video_interface.dto.h5.H5CursorPageDTO;
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
 import com.example.video_interface.dto.h5.H5MovieCategoryDTO;
 import com.example.video_interface.dto.h5.H5MovieDTO;
 import com.example.video_interface.dto.h5.H5RegionDTO;
 import com.example.video_interface.dto.h5.H5MovieDetailDTO;
+import com.example.video_interface.dto.h5.H5MoviePersonalizationDTO;
 import com.example.video_interface.dto.h5.H5MoviePlayRequest;
 import com.example.video_interface.dto.h5.H5MoviePlayResponse;
 import com.example.video_interface.dto.h5.H5MoviePurchaseRequest;
 import com.example.video_interface.dto.h5.H5MoviePurchaseResponse;
+import com.example.video_interface.dto.h5.H5WatchProgressDTO;
 import com.example.video_interface.model.Movie;
 import com.example.video_interface.model.MovieCategory;
 import com.example.video_interface.model.Region;
-import com.example.video_interface.model.User;
 import com.example.video_interface.model.UserMoviePurchase;
 import com.example.video_interface.model.Order;
+import com.example.video_interface.repository.MovieCardView;
 import com.example.video_interface.repository.MovieRepository;
 import com.example.video_interface.repository.UserRepository;
 import com.example.video_interface.repository.UserMoviePurchaseRepository;
 import com.example.video_interface.repository.OrderRepository;
+import com.example.video_interface.service.h5.IH5CatalogPageCacheService;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogFilter;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogSort;
+import com.example.video_interface.service.h5.IH5MovieCounterService;
+import com.example.video_interface.service.h5.IH5MovieCounterService.Counter;
+import com.example.video_interface.service.h5.IH5MovieFacetService;
+import com.example.video_interface.service.h5.IH5MovieLikeService;
+import com.example.video_interface.service.h5.IH5MovieRankingService;
+import com.example.video_interface.service.h5.IH5MovieRelatedService;
+import com.example.video_interface.service.h5.IH5MovieRankingService.RankingWindow;
+import com.example.video_interface.service.h5.IH5MovieSearchService;
 import com.example.video_interface.service.h5.IH5MovieService;
 import com.example.video_interface.service.h5.IH5UserFavoriteService;
+import com.example.video_interface.service.h5.IH5WatchHistoryService;
+import com.example.video_interface.service.h5.IH5WatchHistoryService.WatchProgress;
 import com.example.video_interface.service.common.IMinioService;
+import com.example.video_interface.service.common.IMovieAudienceService;
+import com.example.video_interface.service.common.IUserEntitlementService;
+import com.example.video_interface.service.common.IUserEntitlementService.Entitlement;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +82,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class H5MovieServiceImpl implements IH5MovieService {
     
+    /**
+     * 个性化状态单次查询的最大电影数
+     */
+    private static final int MAX_PERSONALIZATION_MOVIES = 100;
+    
+    /**
+     * 继续观看列表的最大数量
+     */
+    private static final int MAX_CONTINUE_WATCHING = 50;
+    
+    /**
+     * 播放心跳上报的时长与电影记录时长的允许偏差：取秒数和比例中较大的一个（片头片尾、转码差异）
+     */
+    private static final int DURATION_TOLERANCE_SECONDS = 60;
+    private static final double DURATION_TOLERANCE_RATIO = 0.05;
+    
     private final MovieRepository movieRepository;
     private final UserRepository userRepository;
     private final UserMoviePurchaseRepository userMoviePurchaseRepository;
@@ -50,9 +105,29 @@ public class H5MovieServiceImpl implements IH5MovieService {
     private final ObjectMapper objectMapper;
     private final IMinioService minioService;
     private final IH5UserFavoriteService userFavoriteService;
+    private final IH5CatalogSnapshotService catalogSnapshotService;
+    private final IH5CatalogPageCacheService pageCacheService;
+    private final IH5MovieSearchService movieSearchService;
+    private final IH5MovieFacetService movieFacetService;
+    private final IH5MovieCounterService movieCounterService;
+    private final IH5MovieLikeService movieLikeService;
+    private final IH5MovieRankingService movieRankingService;
+    private final IMovieAudienceService movieAudienceService;
+    private final IH5MovieRelatedService movieRelatedService;
+    private final IUserEntitlementService userEntitlementService;
+    private final IH5WatchHistoryService watchHistoryService;
+    
+    /**
+     * 详情页并行查询线程池（见 ExecutorConfig，队列满时拒绝提交）
+     */
+    private final ThreadPoolTaskExecutor movieDetailLookupExecutor;
+    
+    @Value("${app.movie-detail.lookup-timeout-ms:300}")
+    private long detailLookupTimeoutMs;
     
     @Override
     public H5MovieDTO getMovieById(Long id) {
+        // 快照中的简介已截断，单部电影查询仍读取完整实体（分类、地区同一条语句取出）
         Movie movie = movieRepository.findByIdAndStatus(id, Movie.MovieStatus.ACTIVE);
         if (movie == null) {
             return null;
@@ -62,192 +137,187 @@ public class H5MovieServiceImpl implements IH5MovieService {
     
     @Override
     public List<H5MovieDTO> getHotMovies(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Movie> movies = movieRepository.findHotMoviesByStatus(Movie.MovieStatus.ACTIVE, pageable);
-        return movies.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return pageCacheService.getList("hot", "limit=" + limit,
+                () -> convertCards(catalogSnapshotService.top(CatalogSort.HOT, null, limit)));
     }
     
     @Override
     public Page<H5MovieDTO> getHotMovies(Pageable pageable) {
-        // 先获取总数
-        long total = movieRepository.countByStatus(Movie.MovieStatus.ACTIVE);
-        List<Movie> movies = movieRepository.findHotMoviesByStatus(Movie.MovieStatus.ACTIVE, pageable);
-        List<H5MovieDTO> dtos = movies.stream().map(this::convertToDTO).collect(Collectors.toList());
-        return new org.springframework.data.domain.PageImpl<>(dtos, pageable, total);
+        return getHotMovies(pageable, null);
     }
     
     @Override
     public Page<H5MovieDTO> getHotMovies(Pageable pageable, String sort) {
-        if (sort == null || sort.isEmpty() || "default".equals(sort)) {
-            return getHotMovies(pageable);
-        }
-        
-        // 先获取总数
-        long total = movieRepository.countByStatus(Movie.MovieStatus.ACTIVE);
-        List<Movie> movies;
-        
-        switch (sort.toLowerCase()) {
-            case "rating":
-                movies = movieRepository.findHotMoviesByStatusOrderByRatingDesc(Movie.MovieStatus.ACTIVE, pageable);
-                break;
-            case "year":
-                movies = movieRepository.findHotMoviesByStatusOrderByReleaseYearDesc(Movie.MovieStatus.ACTIVE, pageable);
-                break;
-            case "hot":
-                movies = movieRepository.findHotMoviesByStatusOrderByViewsDesc(Movie.MovieStatus.ACTIVE, pageable);
-                break;
-            default:
-                movies = movieRepository.findHotMoviesByStatus(Movie.MovieStatus.ACTIVE, pageable);
-                break;
-        }
-        
-        List<H5MovieDTO> dtos = movies.stream().map(this::convertToDTO).collect(Collectors.toList());
-        return new org.springframework.data.domain.PageImpl<>(dtos, pageable, total);
+        CatalogSort catalogSort = resolveSort(sort, CatalogSort.HOT);
+        return pageCacheService.getPage("hot", "sort=" + catalogSort, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(catalogSort, null, pageable)));
     }
     
     @Override
     public List<H5MovieDTO> getNewMovies(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Movie> movies = movieRepository.findNewMoviesByStatus(Movie.MovieStatus.ACTIVE, pageable);
-        return movies.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return pageCacheService.getList("new", "limit=" + limit,
+                () -> convertCards(catalogSnapshotService.top(CatalogSort.NEWEST, null, limit)));
     }
     
     @Override
     public Page<H5MovieDTO> getNewMovies(Pageable pageable) {
-        // 先获取总数
-        long total = movieRepository.countByStatus(Movie.MovieStatus.ACTIVE);
-        List<Movie> movies = movieRepository.findNewMoviesByStatus(Movie.MovieStatus.ACTIVE, pageable);
-        List<H5MovieDTO> dtos = movies.stream().map(this::convertToDTO).collect(Collectors.toList());
-        return new org.springframework.data.domain.PageImpl<>(dtos, pageable, total);
+        return getNewMovies(pageable, null);
     }
     
     @Override
     public Page<H5MovieDTO> getNewMovies(Pageable pageable, String sort) {
-        if (sort == null || sort.isEmpty() || "default".equals(sort)) {
-            return getNewMovies(pageable);
-        }
-        
-        // 先获取总数
-        long total = movieRepository.countByStatus(Movie.MovieStatus.ACTIVE);
-        List<Movie> movies;
-        
-        switch (sort.toLowerCase()) {
-            case "rating":
-                movies = movieRepository.findNewMoviesByStatusOrderByRatingDesc(Movie.MovieStatus.ACTIVE, pageable);
-                break;
-            case "year":
-                movies = movieRepository.findNewMoviesByStatusOrderByReleaseYearDesc(Movie.MovieStatus.ACTIVE, pageable);
-                break;
-            case "hot":
-                movies = movieRepository.findNewMoviesByStatusOrderByViewsDesc(Movie.MovieStatus.ACTIVE, pageable);
-                break;
-            default:
-                movies = movieRepository.findNewMoviesByStatus(Movie.MovieStatus.ACTIVE, pageable);
-                break;
-        }
-        
-        List<H5MovieDTO> dtos = movies.stream().map(this::convertToDTO).collect(Collectors.toList());
-        return new org.springframework.data.domain.PageImpl<>(dtos, pageable, total);
+        CatalogSort catalogSort = resolveSort(sort, CatalogSort.NEWEST);
+        return pageCacheService.getPage("new", "sort=" + catalogSort, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(catalogSort, null, pageable)));
     }
     
     @Override
     public List<H5MovieDTO> getHighRatedMovies(int limit, Double minRating) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Movie> movies = movieRepository.findHighRatedMoviesByStatus(Movie.MovieStatus.ACTIVE, minRating, pageable);
-        return movies.stream().map(this::convertToDTO).collect(Collectors.toList());
+        BigDecimal min = minRating != null ? BigDecimal.valueOf(minRating) : null;
+        return pageCacheService.getList("high-rated", "limit=" + limit + "&minRating=" + minRating,
+                () -> convertCards(catalogSnapshotService.top(CatalogSort.RATING,
+                        card -> min == null || (card.getRating() != null && card.getRating().compareTo(min) >= 0), limit)));
     }
     
     @Override
     public List<H5MovieDTO> getSuperRecommendedMovies(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Movie> movies = movieRepository.findSuperRecommendedMoviesByStatus(Movie.MovieStatus.ACTIVE, pageable);
-        return movies.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return pageCacheService.getList("super-recommended", "limit=" + limit,
+                () -> convertCards(catalogSnapshotService.top(CatalogSort.DEFAULT,
+                        card -> Boolean.TRUE.equals(card.getIsSuperRecommended()), limit)));
     }
     
     @Override
     public Page<H5MovieDTO> getMoviesByCategory(Long categoryId, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByCategoryIdAndStatusOrderBySortOrderDescCreatedAtDesc(categoryId, Movie.MovieStatus.ACTIVE, pageable);
-        return movies.map(this::convertToDTO);
+        return pageCacheService.getPage("category", "id=" + categoryId, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(CatalogSort.DEFAULT,
+                        categoryFilter(categoryId), pageable)));
     }
     
     @Override
     public Page<H5MovieDTO> getMoviesByRegion(Long regionId, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByRegionIdAndStatusOrderBySortOrderDescCreatedAtDesc(regionId, Movie.MovieStatus.ACTIVE, pageable);
-        return movies.map(this::convertToDTO);
+        return pageCacheService.getPage("region", "id=" + regionId, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(CatalogSort.DEFAULT,
+                        regionFilter(regionId), pageable)));
     }
     
     @Override
     public Page<H5MovieDTO> getMoviesByYear(Integer year, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByReleaseYearAndStatusOrderBySortOrderDescCreatedAtDesc(year, Movie.MovieStatus.ACTIVE, pageable);
-        return movies.map(this::convertToDTO);
+        return pageCacheService.getPage("year", "year=" + year, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(CatalogSort.DEFAULT,
+                        yearFilter(year), pageable)));
     }
     
     @Override
     public Page<H5MovieDTO> getMoviesByChargeType(String chargeType, Pageable pageable) {
         Movie.ChargeType type = Movie.ChargeType.valueOf(chargeType.toUpperCase());
-        Page<Movie> movies = movieRepository.findByChargeTypeAndStatusOrderBySortOrderDescCreatedAtDesc(type, Movie.MovieStatus.ACTIVE, pageable);
-        return movies.map(this::convertToDTO);
+        return pageCacheService.getPage("charge-type", "type=" + type, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(CatalogSort.DEFAULT,
+                        chargeTypeFilter(type), pageable)));
     }
     
     @Override
     public Page<H5MovieDTO> getMoviesByVipStatus(Boolean isVip, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByIsVipAndStatusOrderBySortOrderDescCreatedAtDesc(isVip, Movie.MovieStatus.ACTIVE, pageable);
-        return movies.map(this::convertToDTO);
+        return pageCacheService.getPage("vip", "isVip=" + isVip, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(CatalogSort.DEFAULT,
+                        vipFilter(isVip), pageable)));
     }
     
     @Override
     public Page<H5MovieDTO> getMoviesByFreeStatus(Boolean isFree, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByIsFreeAndStatusOrderBySortOrderDescCreatedAtDesc(isFree, Movie.MovieStatus.ACTIVE, pageable);
-        return movies.map(this::convertToDTO);
+        return getMoviesByFreeStatus(isFree, pageable, null);
     }
     
     @Override
     public Page<H5MovieDTO> getMoviesByFreeStatus(Boolean isFree, Pageable pageable, String sort) {
-        if (sort == null || sort.isEmpty() || "default".equals(sort)) {
-            return getMoviesByFreeStatus(isFree, pageable);
+        CatalogSort catalogSort = resolveSort(sort, CatalogSort.DEFAULT);
+        return pageCacheService.getPage("free", "isFree=" + isFree + "&sort=" + catalogSort, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(catalogSort,
+                        freeFilter(isFree), pageable)));
+    }
+    
+    @Override
+    public Page<H5MovieDTO> getMoviesByQuality(String quality, Pageable pageable) {
+        // 与数据库默认排序规则一致，画质比较不区分大小写
+        String normalizedQuality = quality != null ? quality.toUpperCase() : null;
+        return pageCacheService.getPage("quality", "quality=" + normalizedQuality, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(CatalogSort.DEFAULT,
+                        qualityFilter(quality), pageable)));
+    }
+    
+    private Predicate<H5MovieCardDTO> categoryFilter(Long categoryId) {
+        return card -> Objects.equals(categoryId, card.getCategoryId());
+    }
+    
+    private Predicate<H5MovieCardDTO> regionFilter(Long regionId) {
+        return card -> Objects.equals(regionId, card.getRegionId());
+    }
+    
+    private Predicate<H5MovieCardDTO> yearFilter(Integer year) {
+        return card -> Objects.equals(year, card.getReleaseYear());
+    }
+    
+    private Predicate<H5MovieCardDTO> chargeTypeFilter(Movie.ChargeType type) {
+        return card -> type.name().equals(card.getChargeType());
+    }
+    
+    private Predicate<H5MovieCardDTO> vipFilter(Boolean isVip) {
+        return card -> Objects.equals(isVip, card.getIsVip());
+    }
+    
+    private Predicate<H5MovieCardDTO> freeFilter(Boolean isFree) {
+        return card -> Objects.equals(isFree, card.getIsFree());
+    }
+    
+    private Predicate<H5MovieCardDTO> qualityFilter(String quality) {
+        return card -> quality != null && quality.equalsIgnoreCase(card.getQuality());
+    }
+    
+    /**
+     * 将列表接口的sort参数映射为快照排序方式
+     * @param sort 排序参数：rating、year、hot，其他值使用默认排序
+     * @param defaultSort 默认排序方式
+     */
+    private CatalogSort resolveSort(String sort, CatalogSort defaultSort) {
+        if (sort == null || sort.isEmpty()) {
+            return defaultSort;
         }
-        
-        Page<Movie> movies;
-        
         switch (sort.toLowerCase()) {
             case "rating":
-                movies = movieRepository.findByIsFreeAndStatusOrderByRatingDesc(isFree, Movie.MovieStatus.ACTIVE, pageable);
-                break;
+                return CatalogSort.RATING;
             case "year":
-                movies = movieRepository.findByIsFreeAndStatusOrderByReleaseYearDesc(isFree, Movie.MovieStatus.ACTIVE, pageable);
-                break;
+                return CatalogSort.YEAR;
             case "hot":
-                movies = movieRepository.findByIsFreeAndStatusOrderByViewsDesc(isFree, Movie.MovieStatus.ACTIVE, pageable);
-                break;
+                return CatalogSort.HOT;
             default:
-                movies = movieRepository.findByIsFreeAndStatusOrderBySortOrderDescCreatedAtDesc(isFree, Movie.MovieStatus.ACTIVE, pageable);
-                break;
+                return defaultSort;
         }
-        
-        return movies.map(this::convertToDTO);
-    }
-    
-    @Override
-    public Page<H5MovieDTO> getMoviesByQuality(String quality, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByQualityAndStatusOrderBySortOrderDescCreatedAtDesc(quality, Movie.MovieStatus.ACTIVE, pageable);
-        return movies.map(this::convertToDTO);
     }
     
     @Override
     public Page<H5MovieDTO> searchMovies(String keyword, Pageable pageable) {
-        List<Movie> movies = movieRepository.searchByKeyword(Movie.MovieStatus.ACTIVE, keyword, pageable);
-        return Page.empty(pageable);
+        return convertCardPage(movieSearchService.search(keyword, pageable));
     }
     
     @Override
     public Page<H5MovieDTO> searchMoviesByTag(String tag, Pageable pageable) {
-        List<Movie> movies = movieRepository.searchByTag(Movie.MovieStatus.ACTIVE, tag, pageable);
-        return Page.empty(pageable);
+        return convertCardPage(movieSearchService.searchByTag(tag, pageable));
     }
     
     @Override
     public Page<H5MovieDTO> getMoviesByConditions(Long categoryId, Long regionId, Integer releaseYear, 
                                                   String chargeType, Boolean isVip, String quality, Pageable pageable) {
+        CatalogFilter filter = conditionsFilter(categoryId, regionId, releaseYear, chargeType, isVip, quality);
+        String params = "category=" + categoryId + "&region=" + regionId + "&year=" + releaseYear
+                + "&chargeType=" + filter.getChargeType() + "&isVip=" + isVip + "&quality=" + filter.getQuality();
+        return pageCacheService.getPage("filter", params, pageable,
+                () -> convertCardPage(catalogSnapshotService.filter(CatalogSort.DEFAULT, filter, pageable)));
+    }
+    
+    /**
+     * 构建复合查询条件，无效的收费类型视为不限
+     */
+    private CatalogFilter conditionsFilter(Long categoryId, Long regionId, Integer releaseYear,
+                                           String chargeType, Boolean isVip, String quality) {
         Movie.ChargeType type = null;
         if (chargeType != null && !chargeType.isEmpty()) {
             try {
@@ -256,136 +326,356 @@ public class H5MovieServiceImpl implements IH5MovieService {
                 log.warn("Invalid charge type: {}", chargeType);
             }
         }
-        
-        Page<Movie> movies = movieRepository.findByConditions(Movie.MovieStatus.ACTIVE, categoryId, regionId, 
-                                                             releaseYear, type, isVip, quality, pageable);
-        return movies.map(this::convertToDTO);
+        return new CatalogFilter(categoryId, regionId, releaseYear,
+                type != null ? type.name() : null, isVip, CatalogBitmapIndex.normalizeQuality(quality));
     }
     
     @Override
     public Page<H5MovieDTO> getAllMovies(Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByStatusOrderBySortOrderDescCreatedAtDesc(Movie.MovieStatus.ACTIVE, pageable);
-        return movies.map(this::convertToDTO);
+        return pageCacheService.getPage("list", "", pageable,
+                () -> convertCardPage(catalogSnapshotService.page(CatalogSort.DEFAULT, null, pageable)));
     }
     
     @Override
     public Page<H5MovieDTO> getRankingMovies(Pageable pageable, String sortBy, String timeRange) {
         log.info("获取电影排行榜，排序方式: {}, 时间范围: {}", sortBy, timeRange);
         
-        // 根据排序方式和时间范围构建查询
-        Page<Movie> movies;
+        List<Long> rankedIds = resolveRankedIds(sortBy, timeRange);
+        if (rankedIds != null) {
+            List<H5MovieCardDTO> cards = rankedCards(rankedIds);
+            int from = (int) Math.min(pageable.getOffset(), cards.size());
+            int to = Math.min(from + pageable.getPageSize(), cards.size());
+            return new PageImpl<>(convertCards(cards.subList(from, to)), pageable, cards.size());
+        }
         
-        switch (sortBy.toLowerCase()) {
+        // 累计排行直接按排序方式取快照
+        CatalogSort rankingSort = resolveRankingSort(sortBy);
+        return pageCacheService.getPage("ranking", "sort=" + rankingSort, pageable,
+                () -> convertCardPage(catalogSnapshotService.page(rankingSort, null, pageable)));
+    }
+    
+    /**
+     * 取时间窗口排行榜或热度榜的电影ID
+     * @return 按累计计数排行（或排行榜尚未加载）时返回null
+     */
+    private List<Long> resolveRankedIds(String sortBy, String timeRange) {
+        String metric = sortBy.toLowerCase();
+        if ("trending".equals(metric)) {
+            return movieRankingService.trending();
+        }
+        RankingWindow window = RankingWindow.of(timeRange);
+        if (window == null) {
+            return null;
+        }
+        switch (metric) {
             case "views":
-                movies = getRankingByViews(pageable, timeRange);
-                break;
-            case "rating":
-                movies = getRankingByRating(pageable, timeRange);
-                break;
+                return movieRankingService.top(Counter.VIEWS, window);
             case "likes":
-                movies = getRankingByLikes(pageable, timeRange);
-                break;
+                return movieRankingService.top(Counter.LIKES, window);
             case "favorites":
-                movies = getRankingByFavorites(pageable, timeRange);
-                break;
-            case "newest":
-                movies = getRankingByNewest(pageable, timeRange);
-                break;
+                return movieRankingService.top(Counter.FAVORITES, window);
+            case "viewers":
+                return movieRankingService.topViewers(window);
             default:
-                movies = getRankingByViews(pageable, timeRange);
+                return null;
         }
-        
-        return movies.map(this::convertToDTO);
     }
     
     /**
-     * 按观看次数排序
+     * 按排行榜顺序取快照中的电影，跳过已下架的电影
      */
-    private Page<Movie> getRankingByViews(Pageable pageable, String timeRange) {
-        // 暂时忽略时间范围，直接按观看次数排序
-        return movieRepository.findByStatusOrderByViewsDesc(Movie.MovieStatus.ACTIVE, pageable);
+    private List<H5MovieCardDTO> rankedCards(List<Long> rankedIds) {
+        List<H5MovieCardDTO> cards = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            H5MovieCardDTO card = catalogSnapshotService.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
     }
     
     /**
-     * 按评分排序
+     * 将排行榜的sortBy参数映射为快照排序方式
      */
-    private Page<Movie> getRankingByRating(Pageable pageable, String timeRange) {
-        // 暂时忽略时间范围，直接按评分排序
-        return movieRepository.findByStatusOrderByRatingDesc(Movie.MovieStatus.ACTIVE, pageable);
+    private CatalogSort resolveRankingSort(String sortBy) {
+        switch (sortBy.toLowerCase()) {
+            case "rating":
+                return CatalogSort.RATING;
+            case "likes":
+                return CatalogSort.LIKES;
+            case "favorites":
+                return CatalogSort.FAVORITES;
+            case "newest":
+                return CatalogSort.NEWEST;
+            case "views":
+            default:
+                return CatalogSort.HOT;
+        }
     }
     
-    /**
-     * 按点赞数排序
-     */
-    private Page<Movie> getRankingByLikes(Pageable pageable, String timeRange) {
-        // 暂时忽略时间范围，直接按点赞数排序
-        return movieRepository.findByStatusOrderByLikesDesc(Movie.MovieStatus.ACTIVE, pageable);
+    // ==================== 游标分页（无限滚动） ====================
+    // 游标定位只需在快照的有序数组上二分查找，不统计总数，也不经过分页缓存
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollHotMovies(String sort, String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(resolveSort(sort, CatalogSort.HOT),
+                null, cursor, size));
     }
     
-    /**
-     * 按收藏数排序
-     */
-    private Page<Movie> getRankingByFavorites(Pageable pageable, String timeRange) {
-        // 暂时忽略时间范围，直接按收藏数排序
-        return movieRepository.findByStatusOrderByFavoritesDesc(Movie.MovieStatus.ACTIVE, pageable);
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollNewMovies(String sort, String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(resolveSort(sort, CatalogSort.NEWEST),
+                null, cursor, size));
     }
     
-    /**
-     * 按最新排序
-     */
-    private Page<Movie> getRankingByNewest(Pageable pageable, String timeRange) {
-        // 暂时忽略时间范围，直接按创建时间排序
-        return movieRepository.findByStatusOrderByCreatedAtDesc(Movie.MovieStatus.ACTIVE, pageable);
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollMoviesByCategory(Long categoryId, String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(CatalogSort.DEFAULT,
+                categoryFilter(categoryId), cursor, size));
     }
     
     @Override
-    @Transactional
-    public void recordView(Long movieId) {
-        Movie movie = movieRepository.findById(movieId).orElse(null);
-        if (movie != null && movie.getStatus() == Movie.MovieStatus.ACTIVE) {
-            movie.setViews(movie.getViews() + 1);
-            movieRepository.save(movie);
+    public H5CursorPageDTO<H5MovieDTO> scrollMoviesByRegion(Long regionId, String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(CatalogSort.DEFAULT,
+                regionFilter(regionId), cursor, size));
+    }
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollMoviesByYear(Integer year, String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(CatalogSort.DEFAULT,
+                yearFilter(year), cursor, size));
+    }
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollMoviesByChargeType(String chargeType, String cursor, int size) {
+        Movie.ChargeType type = Movie.ChargeType.valueOf(chargeType.toUpperCase());
+        return convertCursorPage(catalogSnapshotService.scroll(CatalogSort.DEFAULT,
+                chargeTypeFilter(type), cursor, size));
+    }
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollMoviesByVipStatus(Boolean isVip, String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(CatalogSort.DEFAULT,
+                vipFilter(isVip), cursor, size));
+    }
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollMoviesByFreeStatus(Boolean isFree, String sort, String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(resolveSort(sort, CatalogSort.DEFAULT),
+                freeFilter(isFree), cursor, size));
+    }
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollMoviesByQuality(String quality, String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(CatalogSort.DEFAULT,
+                qualityFilter(quality), cursor, size));
+    }
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollMoviesByConditions(Long categoryId, Long regionId, Integer releaseYear,
+                                                                String chargeType, Boolean isVip, String quality,
+                                                                String cursor, int size) {
+        CatalogFilter filter = conditionsFilter(categoryId, regionId, releaseYear, chargeType, isVip, quality);
+        return convertCursorPage(catalogSnapshotService.scrollFilter(CatalogSort.DEFAULT, filter, cursor, size));
+    }
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollAllMovies(String cursor, int size) {
+        return convertCursorPage(catalogSnapshotService.scroll(CatalogSort.DEFAULT,
+                null, cursor, size));
+    }
+    
+    @Override
+    public H5CursorPageDTO<H5MovieDTO> scrollRankingMovies(String sortBy, String timeRange, String cursor, int size) {
+        List<Long> rankedIds = resolveRankedIds(sortBy, timeRange);
+        if (rankedIds != null) {
+            // 排行榜本身是有限的前N名，按偏移量翻页
+            if (size <= 0) {
+                throw new IllegalArgumentException("每页数量必须大于0");
+            }
+            String scope = "RANKING:" + sortBy.toLowerCase() + ":" + timeRange.toLowerCase();
+            List<H5MovieCardDTO> cards = rankedCards(rankedIds);
+            int from = cursor != null && !cursor.isEmpty()
+                    ? Math.min(CatalogCursor.decodeOffset(scope, cursor), cards.size()) : 0;
+            int to = Math.min(from + size, cards.size());
+            boolean hasMore = to < cards.size();
+            return new H5CursorPageDTO<>(convertCards(cards.subList(from, to)),
+                    hasMore ? CatalogCursor.encodeOffset(scope, to) : null, hasMore);
         }
+        return convertCursorPage(catalogSnapshotService.scroll(resolveRankingSort(sortBy),
+                null, cursor, size));
+    }
+    
+    @Override
+    public void recordView(Long movieId, String viewerId) {
+        // 快照只包含上架电影，计数由计数服务批量写回
+        if (catalogSnapshotService.get(movieId) != null) {
+            movieCounterService.increment(movieId, Counter.VIEWS, 1);
+            recordViewer(movieId, viewerId);
+        }
+    }
+    
+    /**
+     * 记录独立观众，并通知排行榜在刷新时统计该电影独立观众数的增长
+     */
+    private void recordViewer(Long movieId, String viewerId) {
+        movieAudienceService.recordViewer(movieId, viewerId);
+        movieRankingService.recordViewer(movieId);
     }
     
     @Override
-    @Transactional
     public boolean likeMovie(Long movieId, Long userId) {
-        Movie movie = movieRepository.findById(movieId).orElse(null);
-        User user = userRepository.findById(userId).orElse(null);
-        
-        if (movie == null || user == null || movie.getStatus() != Movie.MovieStatus.ACTIVE) {
+        if (catalogSnapshotService.get(movieId) == null || userId == null || !userRepository.existsById(userId)) {
             return false;
         }
-        
-        movie.setLikes(movie.getLikes() + 1);
-        movieRepository.save(movie);
+        // 重复点赞不再累加点赞数
+        if (movieLikeService.like(userId, movieId)) {
+            movieCounterService.increment(movieId, Counter.LIKES, 1);
+        }
         return true;
     }
     
     @Override
-    @Transactional
     public boolean unlikeMovie(Long movieId, Long userId) {
-        Movie movie = movieRepository.findById(movieId).orElse(null);
-        User user = userRepository.findById(userId).orElse(null);
-        
-        if (movie == null || user == null || movie.getStatus() != Movie.MovieStatus.ACTIVE) {
+        if (catalogSnapshotService.get(movieId) == null || userId == null || !userRepository.existsById(userId)) {
             return false;
         }
-        
-        if (movie.getLikes() > 0) {
-            movie.setLikes(movie.getLikes() - 1);
-            movieRepository.save(movie);
+        if (movieLikeService.unlike(userId, movieId)) {
+            movieCounterService.increment(movieId, Counter.LIKES, -1);
         }
         return true;
     }
     
     @Override
     public boolean checkUserLiked(Long movieId, Long userId) {
-        // 由于当前系统没有用户点赞记录表，我们暂时返回false
-        // 在实际项目中，应该查询用户点赞记录表
         log.debug("检查用户点赞状态，电影ID: {}, 用户ID: {}", movieId, userId);
-        return false;
+        return movieLikeService.isLiked(userId, movieId);
+    }
+    
+    @Override
+    public List<Long> batchCheckUserLiked(Long userId, List<Long> movieIds) {
+        log.debug("批量检查用户点赞状态，用户ID: {}, 电影ID数量: {}", userId, movieIds != null ? movieIds.size() : 0);
+        return movieLikeService.filterLiked(userId, movieIds);
+    }
+    
+    @Override
+    public List<H5MoviePersonalizationDTO> getMoviePersonalization(Long userId, List<Long> movieIds) {
+        log.debug("批量获取电影个性化状态，用户ID: {}, 电影ID数量: {}", userId, movieIds != null ? movieIds.size() : 0);
+        
+        if (userId == null || movieIds == null || movieIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(movieIds));
+        ids.remove(null);
+        if (ids.size() > MAX_PERSONALIZATION_MOVIES) {
+            throw new IllegalArgumentException("单次最多查询" + MAX_PERSONALIZATION_MOVIES + "部电影");
+        }
+        
+        Entitlement entitlement = userEntitlementService.get(userId);
+        boolean isVip = entitlement != null && entitlement.isVipActive();
+        Set<Long> favorited = new HashSet<>(userFavoriteService.batchCheckUserFavorited(userId, ids, "MOVIE"));
+        Set<Long> liked = new HashSet<>(movieLikeService.filterLiked(userId, ids));
+        
+        List<H5MoviePersonalizationDTO> result = new ArrayList<>(ids.size());
+        for (Long movieId : ids) {
+            // 试看条件与 hasTrialPermission 一致：上架、有试看时长且用户不是VIP
+            H5MovieCardDTO card = catalogSnapshotService.get(movieId);
+            boolean trialAvailable = !isVip && card != null
+                    && card.getTrialDuration() != null && card.getTrialDuration() > 0;
+            result.add(H5MoviePersonalizationDTO.builder()
+                    .movieId(movieId)
+                    .isFavorited(favorited.contains(movieId))
+                    .isPurchased(entitlement != null && entitlement.hasPurchased(movieId))
+                    .isLiked(liked.contains(movieId))
+                    .isTrialAvailable(trialAvailable)
+                    .build());
+        }
+        return result;
+    }
+    
+    @Override
+    public void recordWatchHeartbeat(Long movieId, Long userId, Integer positionSeconds, Integer durationSeconds) {
+        if (movieId == null || userId == null) {
+            throw new IllegalArgumentException("电影ID和用户ID不能为空");
+        }
+        if (positionSeconds == null || positionSeconds < 0) {
+            throw new IllegalArgumentException("播放位置无效");
+        }
+        H5MovieCardDTO movie = catalogSnapshotService.get(movieId);
+        if (movie == null) {
+            throw new IllegalArgumentException("电影不存在或已下架");
+        }
+        int reported = durationSeconds != null && durationSeconds > 0 ? durationSeconds : 0;
+        // 电影记录了时长时以其为准，上报的时长与之明显不符时拒绝
+        int known = parseDurationSeconds(movie.getDuration());
+        if (known > 0 && reported > 0
+                && Math.abs(reported - known) > Math.max(DURATION_TOLERANCE_SECONDS, known * DURATION_TOLERANCE_RATIO)) {
+            throw new IllegalArgumentException("视频时长与电影时长不符");
+        }
+        int duration = known > 0 ? known : reported;
+        int position = duration > 0 ? Math.min(positionSeconds, duration) : positionSeconds;
+        watchHistoryService.heartbeat(userId, movieId, position, duration);
+    }
+    
+    /**
+     * 解析 HH:mm:ss（或 mm:ss）格式的电影时长
+     * @return 秒数，为空或格式不正确时返回0
+     */
+    static int parseDurationSeconds(String duration) {
+        if (duration == null || duration.isBlank()) {
+            return 0;
+        }
+        int seconds = 0;
+        for (String part : duration.trim().split(":")) {
+            try {
+                int value = Integer.parseInt(part.trim());
+                if (value < 0) {
+                    return 0;
+                }
+                seconds = seconds * 60 + value;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return seconds;
+    }
+    
+    @Override
+    public List<H5WatchProgressDTO> getContinueWatching(Long userId, int limit) {
+        log.debug("获取继续观看列表，用户ID: {}, 数量: {}", userId, limit);
+        
+        if (userId == null || limit <= 0) {
+            return List.of();
+        }
+        List<WatchProgress> progresses = watchHistoryService.getContinueWatching(userId, Math.min(limit, MAX_CONTINUE_WATCHING));
+        if (progresses.isEmpty()) {
+            return List.of();
+        }
+        
+        // 只保留仍在上架的电影，整页封面一次签名
+        List<H5MovieCardDTO> cards = new ArrayList<>(progresses.size());
+        List<WatchProgress> visible = new ArrayList<>(progresses.size());
+        for (WatchProgress progress : progresses) {
+            H5MovieCardDTO card = catalogSnapshotService.get(progress.getMovieId());
+            if (card != null) {
+                cards.add(card);
+                visible.add(progress);
+            }
+        }
+        List<H5MovieDTO> movies = convertCards(cards);
+        
+        List<H5WatchProgressDTO> result = new ArrayList<>(movies.size());
+        for (int i = 0; i < movies.size(); i++) {
+            WatchProgress progress = visible.get(i);
+            result.add(H5WatchProgressDTO.builder()
+                    .movie(movies.get(i))
+                    .positionSeconds(progress.getPositionSeconds())
+                    .durationSeconds(progress.getDurationSeconds())
+                    .lastWatchedAt(progress.getUpdatedAt())
+                    .build());
+        }
+        return result;
     }
     
     @Override
@@ -394,21 +684,17 @@ public class H5MovieServiceImpl implements IH5MovieService {
         log.debug("收藏电影，电影ID: {}, 用户ID: {}", movieId, userId);
         
         try {
-            Movie movie = movieRepository.findById(movieId).orElse(null);
-            User user = userRepository.findById(userId).orElse(null);
+            H5MovieCardDTO movie = catalogSnapshotService.get(movieId);
             
-            if (movie == null || user == null || movie.getStatus() != Movie.MovieStatus.ACTIVE) {
+            if (movie == null || userId == null || !userRepository.existsById(userId)) {
                 log.warn("电影或用户不存在，或电影状态异常，电影ID: {}, 用户ID: {}", movieId, userId);
                 return false;
             }
             
-            // 使用收藏服务添加收藏
+            // 使用收藏服务添加收藏（收藏次数由收藏服务累加）
             boolean success = userFavoriteService.addFavorite(userId, movieId, "MOVIE", movie.getTitle(), movie.getCover());
             
             if (success) {
-                // 增加电影收藏次数
-                movie.setFavorites(movie.getFavorites() + 1);
-                movieRepository.save(movie);
                 log.info("收藏电影成功，电影ID: {}, 用户ID: {}", movieId, userId);
             }
             
@@ -426,23 +712,15 @@ public class H5MovieServiceImpl implements IH5MovieService {
         log.debug("取消收藏电影，电影ID: {}, 用户ID: {}", movieId, userId);
         
         try {
-            Movie movie = movieRepository.findById(movieId).orElse(null);
-            User user = userRepository.findById(userId).orElse(null);
-            
-            if (movie == null || user == null || movie.getStatus() != Movie.MovieStatus.ACTIVE) {
+            if (catalogSnapshotService.get(movieId) == null || userId == null || !userRepository.existsById(userId)) {
                 log.warn("电影或用户不存在，或电影状态异常，电影ID: {}, 用户ID: {}", movieId, userId);
                 return false;
             }
             
-            // 使用收藏服务取消收藏
+            // 使用收藏服务取消收藏（收藏次数由收藏服务扣减）
             boolean success = userFavoriteService.removeFavorite(userId, movieId, "MOVIE");
             
             if (success) {
-                // 减少电影收藏次数
-                if (movie.getFavorites() > 0) {
-                    movie.setFavorites(movie.getFavorites() - 1);
-                    movieRepository.save(movie);
-                }
                 log.info("取消收藏电影成功，电影ID: {}, 用户ID: {}", movieId, userId);
             }
             
@@ -456,156 +734,166 @@ public class H5MovieServiceImpl implements IH5MovieService {
     
     @Override
     public MovieWatchPermission checkWatchPermission(Long movieId, Long userId) {
-        Movie movie = movieRepository.findById(movieId).orElse(null);
-        if (movie == null || movie.getStatus() != Movie.MovieStatus.ACTIVE) {
+        // 快照中只有上架电影
+        H5MovieCardDTO movie = catalogSnapshotService.get(movieId);
+        if (movie == null) {
             return new MovieWatchPermission(false, "电影不存在或已下架");
         }
         
-        if (movie.getIsFree()) {
+        if (Boolean.TRUE.equals(movie.getIsFree())) {
             return new MovieWatchPermission(true, "可以观看", movie.getTrialDuration(), 
-                                          movie.getChargeType().name(), movie.getChargeType().getDescription());
+                                          movie.getChargeType(), movie.getChargeTypeDesc());
         }
         
         if (userId == null) {
             return new MovieWatchPermission(false, "请先登录", movie.getTrialDuration(), 
-                                          movie.getChargeType().name(), movie.getChargeType().getDescription());
+                                          movie.getChargeType(), movie.getChargeTypeDesc());
         }
         
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
+        Entitlement entitlement = userEntitlementService.get(userId);
+        if (entitlement == null) {
             return new MovieWatchPermission(false, "用户不存在", movie.getTrialDuration(), 
-                                          movie.getChargeType().name(), movie.getChargeType().getDescription());
+                                          movie.getChargeType(), movie.getChargeTypeDesc());
         }
         
-        if (movie.getChargeType() == Movie.ChargeType.VIP) {
-            if (user.getIsVip()) {
+        if ("VIP".equals(movie.getChargeType())) {
+            if (entitlement.isVipActive()) {
                 return new MovieWatchPermission(true, "VIP用户可以观看", movie.getTrialDuration(), 
-                                              movie.getChargeType().name(), movie.getChargeType().getDescription());
+                                              movie.getChargeType(), movie.getChargeTypeDesc());
             } else {
                 // 检查是否已单片购买该电影
-                boolean hasPurchased = checkMoviePurchase(userId, movieId);
+                boolean hasPurchased = entitlement.hasPurchased(movieId);
                 if (hasPurchased) {
                     return new MovieWatchPermission(true, "已购买，可以观看", movie.getTrialDuration(), 
-                                                  movie.getChargeType().name(), movie.getChargeType().getDescription());
+                                                  movie.getChargeType(), movie.getChargeTypeDesc());
                 } else {
                     return new MovieWatchPermission(false, "该电影为VIP电影，请开通VIP或单片购买", movie.getTrialDuration(), 
-                                                  movie.getChargeType().name(), movie.getChargeType().getDescription());
+                                                  movie.getChargeType(), movie.getChargeTypeDesc());
                 }
             }
         }
         
         return new MovieWatchPermission(false, "无法观看该电影", movie.getTrialDuration(), 
-                                      movie.getChargeType().name(), movie.getChargeType().getDescription());
+                                      movie.getChargeType(), movie.getChargeTypeDesc());
     }
     
     @Override
     public MovieFilterOptions getFilterOptions() {
-        List<YearOption> years = movieRepository.findAllByStatusOrderBySortOrderDescCreatedAtDesc(Movie.MovieStatus.ACTIVE)
-                .stream()
-                .filter(movie -> movie.getReleaseYear() != null)
-                .collect(Collectors.groupingBy(Movie::getReleaseYear, Collectors.counting()))
-                .entrySet().stream()
-                .map(entry -> new YearOption(entry.getKey(), entry.getValue()))
-                .sorted((a, b) -> b.getYear().compareTo(a.getYear()))
-                .collect(Collectors.toList());
-        
-        List<QualityOption> qualities = movieRepository.findAllByStatusOrderBySortOrderDescCreatedAtDesc(Movie.MovieStatus.ACTIVE)
-                .stream()
-                .filter(movie -> movie.getQuality() != null && !movie.getQuality().isEmpty())
-                .collect(Collectors.groupingBy(Movie::getQuality, Collectors.counting()))
-                .entrySet().stream()
-                .map(entry -> new QualityOption(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
-        
-        List<ChargeTypeOption> chargeTypes = movieRepository.findAllByStatusOrderBySortOrderDescCreatedAtDesc(Movie.MovieStatus.ACTIVE)
-                .stream()
-                .collect(Collectors.groupingBy(Movie::getChargeType, Collectors.counting()))
-                .entrySet().stream()
-                .map(entry -> new ChargeTypeOption(entry.getKey().name(), entry.getKey().getDescription(), entry.getValue()))
-                .collect(Collectors.toList());
-        
-        return new MovieFilterOptions(years, qualities, chargeTypes);
+        return movieFacetService.getFilterOptions();
     }
     
     private H5MovieDTO convertToDTO(Movie movie) {
-        H5MovieDTO dto = H5MovieDTO.builder()
-                .id(movie.getId())
-                .title(movie.getTitle())
-                .description(movie.getDescription())
-                .cover(movie.getCover())
-                .coverUrl(null) // 封面URL将在下面生成
-                .banner(movie.getBanner())
-                .bannerUrl(null) // Banner URL将在下面生成
-                .duration(movie.getDuration())
-                .rating(movie.getRating())
-                .views(movie.getViews())
-                .likes(movie.getLikes())
-                .favorites(movie.getFavorites())
-                .releaseDate(movie.getReleaseDate())
-                .releaseYear(movie.getReleaseYear())
-                .quality(movie.getQuality())
-                .isVip(movie.getIsVip())
-                .isFree(movie.getIsFree())
-                .price(movie.getPrice())
-                .trialDuration(movie.getTrialDuration())
-                .chargeType(movie.getChargeType().name())
-                .chargeTypeDesc(movie.getChargeType().getDescription())
-                .fileSizeFormatted(formatFileSize(movie.getFileSize()))
-                .fileFormat(movie.getFileFormat())
-                .isSuperRecommended(movie.getIsSuperRecommended())
-                .build();
-        
-        // 生成封面URL
-        if (dto.getCover() != null && !dto.getCover().trim().isEmpty()) {
-            try {
-                dto.setCoverUrl(minioService.getFileUrl(dto.getCover()));
-            } catch (Exception e) {
-                log.warn("生成封面URL失败: {}", e.getMessage());
-                dto.setCoverUrl(null);
-            }
-        }
-        
-        // 生成Banner URL
-        if (dto.getBanner() != null && !dto.getBanner().trim().isEmpty()) {
-            try {
-                dto.setBannerUrl(minioService.getFileUrl(dto.getBanner()));
-            } catch (Exception e) {
-                log.warn("生成Banner URL失败: {}", e.getMessage());
-                dto.setBannerUrl(null);
+        return convertToDTOs(List.of(movie)).get(0);
+    }
+    
+    /**
+     * 批量转换电影列表，整页的封面和Banner只签名一次
+     */
+    private List<H5MovieDTO> convertToDTOs(List<Movie> movies) {
+        return convertCards(movies.stream()
+                .map(catalogSnapshotService::toCard)
+                .collect(Collectors.toList()));
+    }
+    
+    /**
+     * 批量转换快照中的电影卡片
+     */
+    private List<H5MovieDTO> convertCards(List<H5MovieCardDTO> cards) {
+        Map<String, String> fileUrls = presignCardFiles(cards);
+        return cards.stream()
+                .map(card -> convertCardToDTO(card, fileUrls))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 批量转换快照分页结果
+     */
+    private Page<H5MovieDTO> convertCardPage(Page<H5MovieCardDTO> cards) {
+        return new PageImpl<>(convertCards(cards.getContent()), cards.getPageable(), cards.getTotalElements());
+    }
+    
+    /**
+     * 批量转换游标分页结果
+     */
+    private H5CursorPageDTO<H5MovieDTO> convertCursorPage(H5CursorPageDTO<H5MovieCardDTO> cards) {
+        return new H5CursorPageDTO<>(convertCards(cards.getContent()), cards.getNextCursor(), cards.isHasMore());
+    }
+    
+    /**
+     * 为一组电影的封面、Banner（以及可选的视频文件）批量生成预签名URL
+     * @param movies 电影列表
+     * @param includeVideo 是否包含视频文件
+     * @return 对象名称 -> 预签名URL，生成失败时返回空映射
+     */
+    private Map<String, String> presignMovieFiles(List<Movie> movies, boolean includeVideo) {
+        Set<String> objectNames = new HashSet<>();
+        for (Movie movie : movies) {
+            objectNames.add(movie.getCover());
+            objectNames.add(movie.getBanner());
+            if (includeVideo) {
+                objectNames.add(movie.getFilePath());
             }
         }
-        
-        if (movie.getCategory() != null) {
-            dto.setCategory(H5MovieCategoryDTO.builder()
-                    .id(movie.getCategory().getId())
-                    .name(movie.getCategory().getName())
-                    .description(movie.getCategory().getDescription())
-                    .icon(movie.getCategory().getIcon())
-                    .weight(movie.getCategory().getWeight())
-                    .build());
+        return presignFiles(objectNames);
+    }
+    
+    /**
+     * 为一组电影卡片的封面和Banner批量生成预签名URL
+     */
+    private Map<String, String> presignCardFiles(List<H5MovieCardDTO> cards) {
+        Set<String> objectNames = new HashSet<>();
+        for (H5MovieCardDTO card : cards) {
+            objectNames.add(card.getCover());
+            objectNames.add(card.getBanner());
         }
-        
-        if (movie.getRegion() != null) {
-            dto.setRegion(H5RegionDTO.builder()
-                    .id(movie.getRegion().getId())
-                    .name(movie.getRegion().getName())
-                    .description(movie.getRegion().getDescription())
-                    .icon(movie.getRegion().getIcon())
-                    .weight(movie.getRegion().getWeight())
-                    .build());
+        return presignFiles(objectNames);
+    }
+    
+    private Map<String, String> presignFiles(Set<String> objectNames) {
+        objectNames.remove(null);
+        if (objectNames.isEmpty()) {
+            return Map.of();
         }
         
-        if (movie.getTags() != null && !movie.getTags().isEmpty()) {
-            try {
-                List<String> tags = objectMapper.readValue(movie.getTags(), new TypeReference<List<String>>() {});
-                dto.setTags(tags);
-            } catch (Exception e) {
-                log.warn("Failed to parse tags for movie {}: {}", movie.getId(), e.getMessage());
-                dto.setTags(List.of());
-            }
+        try {
+            return minioService.getFileUrls(objectNames);
+        } catch (Exception e) {
+            log.warn("批量生成文件URL失败: {}", e.getMessage());
+            return Map.of();
         }
-        
-        return dto;
+    }
+    
+    private H5MovieDTO convertCardToDTO(H5MovieCardDTO card, Map<String, String> fileUrls) {
+        return H5MovieDTO.builder()
+                .id(card.getId())
+                .title(card.getTitle())
+                .description(card.getDescription())
+                .cover(card.getCover())
+                .coverUrl(card.getCover() != null ? fileUrls.get(card.getCover()) : null)
+                .banner(card.getBanner())
+                .bannerUrl(card.getBanner() != null ? fileUrls.get(card.getBanner()) : null)
+                .duration(card.getDuration())
+                .rating(card.getRating())
+                .views(movieCounterService.merge(card.getId(), Counter.VIEWS, card.getViews(), card.getCounterEpoch()))
+                .likes(movieCounterService.merge(card.getId(), Counter.LIKES, card.getLikes(), card.getCounterEpoch()))
+                .favorites(movieCounterService.merge(card.getId(), Counter.FAVORITES, card.getFavorites(),
+                        card.getCounterEpoch()))
+                .releaseDate(card.getReleaseDate())
+                .releaseYear(card.getReleaseYear())
+                .category(card.getCategory())
+                .region(card.getRegion())
+                .quality(card.getQuality())
+                .tags(card.getTags())
+                .isVip(card.getIsVip())
+                .isFree(card.getIsFree())
+                .price(card.getPrice())
+                .trialDuration(card.getTrialDuration())
+                .chargeType(card.getChargeType())
+                .chargeTypeDesc(card.getChargeTypeDesc())
+                .fileSizeFormatted(formatFileSize(card.getFileSize()))
+                .fileFormat(card.getFileFormat())
+                .isSuperRecommended(card.getIsSuperRecommended())
+                .build();
     }
     
     private String formatFileSize(Long fileSize) {
@@ -631,38 +919,128 @@ public class H5MovieServiceImpl implements IH5MovieService {
     public H5MovieDetailDTO getMovieDetail(Long movieId) {
         log.debug("获取电影详情，电影ID: {}", movieId);
         
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new IllegalArgumentException("电影不存在"));
-        
-        // 检查电影状态
-        if (!"ACTIVE".equals(movie.getStatus().toString())) {
-            throw new IllegalArgumentException("电影已下架或不存在");
-        }
-        
-        return convertToDetailDTO(movie, null);
+        return getMovieDetail(movieId, null);
     }
     
+    /**
+     * 组装电影详情
+     * 收藏状态、点赞状态和用户权益互不依赖（缓存未命中时都要查询数据库），请求开始时一起提交到查询线程池，
+     * 与请求线程上的电影加载和文件签名并行；
+     * 用户权益是必要信息，一直等到结果返回（线程池已满时在请求线程查询）；
+     * 收藏和点赞状态不是必要信息，最多等待到本次请求的截止时间，超时、失败或线程池已满时返回的详情中不带该状态
+     */
     @Override
     public H5MovieDetailDTO getMovieDetail(Long movieId, Long userId) {
         log.debug("获取电影详情，电影ID: {}, 用户ID: {}", movieId, userId);
+        long startTime = System.nanoTime();
         
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new IllegalArgumentException("电影不存在"));
+        CompletableFuture<Boolean> favoritedFuture = null;
+        CompletableFuture<Boolean> likedFuture = null;
+        CompletableFuture<Entitlement> entitlementFuture = null;
+        if (userId != null) {
+            favoritedFuture = submitDetailLookup(
+                    () -> userFavoriteService.checkUserFavorited(userId, movieId, "MOVIE"), "收藏状态", movieId, userId);
+            likedFuture = submitDetailLookup(
+                    () -> movieLikeService.isLiked(userId, movieId), "点赞状态", movieId, userId);
+            entitlementFuture = submitDetailLookup(
+                    () -> userEntitlementService.get(userId), "用户权益", movieId, userId);
+        }
         
-        // 检查电影状态
-        if (!"ACTIVE".equals(movie.getStatus().toString())) {
-            throw new IllegalArgumentException("电影已下架或不存在");
+        Movie movie;
+        Entitlement entitlement = null;
+        try {
+            // 分类和地区与电影同一条语句取出
+            movie = movieRepository.findByIdAndStatus(movieId, Movie.MovieStatus.ACTIVE);
+            if (movie == null) {
+                throw new IllegalArgumentException(movieRepository.existsById(movieId) ? "电影已下架或不存在" : "电影不存在");
+            }
+            
+            // 验证用户是否存在（如果提供了用户ID）；权益缓存加载失败时再确认一次，避免把查询异常当成用户不存在
+            if (userId != null) {
+                entitlement = entitlementFuture != null ? joinDetailLookup(entitlementFuture)
+                        : userEntitlementService.get(userId);
+                if (entitlement == null && !userRepository.existsById(userId)) {
+                    throw new IllegalArgumentException("用户不存在");
+                }
+            }
+        } catch (RuntimeException e) {
+            cancelDetailLookups(favoritedFuture, likedFuture, entitlementFuture);
+            throw e;
         }
         
-        // 验证用户是否存在（如果提供了用户ID）
+        Map<String, String> fileUrls = presignMovieFiles(List.of(movie), true);
+        Boolean isPurchased = null;
+        Boolean isLiked = null;
+        Boolean isFavorited = null;
         if (userId != null) {
-            User user = userRepository.findById(userId).orElse(null);
-            if (user == null) {
-                throw new IllegalArgumentException("用户不存在");
-            }
+            isPurchased = entitlement != null && entitlement.hasPurchased(movieId);
+            isLiked = awaitDetailLookup(likedFuture, startTime, "点赞状态", movieId, userId);
+            isFavorited = awaitDetailLookup(favoritedFuture, startTime, "收藏状态", movieId, userId);
         }
         
-        return convertToDetailDTO(movie, userId);
+        H5MovieDetailDTO detail = convertToDetailDTO(movie, fileUrls, isPurchased, isLiked, isFavorited);
+        log.debug("电影详情组装完成，电影ID: {}, 耗时: {}ms", movieId,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return detail;
+    }
+    
+    /**
+     * 提交详情页的一项查询
+     * @return 查询结果；线程池已满时返回null
+     */
+    private <T> CompletableFuture<T> submitDetailLookup(Supplier<T> lookup, String name, Long movieId, Long userId) {
+        try {
+            return CompletableFuture.supplyAsync(lookup, movieDetailLookupExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("详情查询线程池已满，{}查询未提交，电影ID: {}, 用户ID: {}", name, movieId, userId);
+            return null;
+        }
+    }
+    
+    /**
+     * 等待必要的查询结果，查询抛出的异常原样抛出
+     */
+    private static <T> T joinDetailLookup(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * 在请求截止时间前等待非必要的查询结果
+     * @return 查询结果；未提交、超时或失败时返回null
+     */
+    private <T> T awaitDetailLookup(CompletableFuture<T> future, long startTime, String name, Long movieId, Long userId) {
+        if (future == null) {
+            return null;
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(detailLookupTimeoutMs) - (System.nanoTime() - startTime);
+        try {
+            return future.get(Math.max(remaining, 0L), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            log.warn("查询{}超时，电影ID: {}, 用户ID: {}, 截止时间: {}ms", name, movieId, userId, detailLookupTimeoutMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("查询{}失败，电影ID: {}, 用户ID: {}, 错误: {}", name, movieId, userId, e.getCause().getMessage());
+            return null;
+        }
+    }
+    
+    private static void cancelDetailLookups(CompletableFuture<?>... futures) {
+        for (CompletableFuture<?> future : futures) {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
     }
     
     @Override
@@ -670,11 +1048,12 @@ public class H5MovieServiceImpl implements IH5MovieService {
         log.debug("检查播放权限，电影ID: {}, 用户ID: {}, 播放类型: {}", 
                 request.getMovieId(), request.getUserId(), request.getPlayType());
         
-        Movie movie = movieRepository.findById(request.getMovieId())
-                .orElseThrow(() -> new IllegalArgumentException("电影不存在"));
-        
-        // 检查电影状态
-        if (!"ACTIVE".equals(movie.getStatus().toString())) {
+        // 快照中只有上架电影，不在快照中时再区分不存在和已下架
+        H5MovieCardDTO movie = catalogSnapshotService.get(request.getMovieId());
+        if (movie == null) {
+            if (!movieRepository.existsById(request.getMovieId())) {
+                throw new IllegalArgumentException("电影不存在");
+            }
             return H5MoviePlayResponse.builder()
                     .permission("NOT_ALLOWED")
                     .permissionDesc("电影已下架或不存在")
@@ -683,7 +1062,7 @@ public class H5MovieServiceImpl implements IH5MovieService {
                     .build();
         }
         
-        String chargeType = movie.getChargeType().toString();
+        String chargeType = movie.getChargeType();
         Long userId = request.getUserId();
         String playType = request.getPlayType();
         
@@ -697,7 +1076,7 @@ public class H5MovieServiceImpl implements IH5MovieService {
             // VIP电影：未登录用户可以提供试看
             if ("VIP".equals(chargeType)) {
                 // 检查是否有试看权限（未登录用户也可以试看）
-                if (hasTrialPermission(request.getMovieId(), null)) {
+                if (hasTrialPermission(movie, null)) {
                     // 提供试看
                     return buildPlayResponse("TRIAL_ALLOWED", "VIP电影，提供试看", true, movie, true);
                 } else {
@@ -717,19 +1096,18 @@ public class H5MovieServiceImpl implements IH5MovieService {
         if (userId != null) {
             // VIP电影：检查VIP权限、单片购买权限和试看权限
             if ("VIP".equals(chargeType)) {
-                User user = userRepository.findById(userId).orElse(null);
-                boolean isVip = user != null && Boolean.TRUE.equals(user.getIsVip());
+                boolean isVip = userEntitlementService.isVip(userId);
                 
                 if (!isVip) {
                     // 检查是否已单片购买该电影
-                    boolean hasPurchased = checkMoviePurchase(userId, request.getMovieId());
+                    boolean hasPurchased = userEntitlementService.hasPurchased(userId, request.getMovieId());
                     
                     if (hasPurchased) {
                         // 用户已购买，允许播放
                         return buildPlayResponse("ALLOWED", "已购买，可完整观看", true, movie, false);
                     } else {
                         // 检查是否有试看权限
-                        if (hasTrialPermission(request.getMovieId(), userId)) {
+                        if (hasTrialPermission(movie, userId)) {
                             // 提供试看
                             return buildPlayResponse("TRIAL_ALLOWED", "VIP电影，提供试看", true, movie, true);
                         } else {
@@ -751,7 +1129,7 @@ public class H5MovieServiceImpl implements IH5MovieService {
         // 试看播放
         if ("TRIAL".equals(playType)) {
             // 检查是否有试看权限
-            if (hasTrialPermission(request.getMovieId(), userId)) {
+            if (hasTrialPermission(movie, userId)) {
                 return buildPlayResponse("TRIAL_ALLOWED", "试看模式", true, movie, true);
             } else {
                 return H5MoviePlayResponse.builder()
@@ -772,19 +1150,18 @@ public class H5MovieServiceImpl implements IH5MovieService {
             
             // VIP电影：需要VIP权限或单片购买
             if ("VIP".equals(chargeType)) {
-                User user = userRepository.findById(userId).orElse(null);
-                boolean isVip = user != null && Boolean.TRUE.equals(user.getIsVip());
+                boolean isVip = userEntitlementService.isVip(userId);
                 
                 if (!isVip) {
                     // 检查是否已单片购买该电影
-                    boolean hasPurchased = checkMoviePurchase(userId, request.getMovieId());
+                    boolean hasPurchased = userEntitlementService.hasPurchased(userId, request.getMovieId());
                     
                     if (hasPurchased) {
                         // 用户已购买，允许播放
                         return buildPlayResponse("ALLOWED", "已购买，可完整观看", true, movie, false);
                     } else {
                         // 检查是否有试看权限
-                        if (hasTrialPermission(request.getMovieId(), userId)) {
+                        if (hasTrialPermission(movie, userId)) {
                             // 提供试看
                             return buildPlayResponse("TRIAL_ALLOWED", "VIP电影，提供试看", true, movie, true);
                         } else {
@@ -813,105 +1190,67 @@ public class H5MovieServiceImpl implements IH5MovieService {
     }
     
     @Override
-    public List<H5MovieDetailDTO> getRelatedMovies(Long movieId, Integer limit, Integer offset) {
+    public List<H5MovieDTO> getRelatedMovies(Long movieId, Integer limit, Integer offset) {
         log.debug("获取相关推荐电影，电影ID: {}, 限制数量: {}, 偏移量: {}", movieId, limit, offset);
         
-        // 获取当前电影信息
-        Movie currentMovie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new IllegalArgumentException("电影不存在"));
-        
-        List<Movie> allRelatedMovies = new ArrayList<>();
-        
-        // 方法1：根据分类和地区获取相关电影
-        try {
-            List<Movie> categoryRegionMovies = movieRepository.findRelatedMovies(
-                    currentMovie.getCategory().getId(),
-                    currentMovie.getRegion().getId(),
-                    movieId,
-                    Movie.MovieStatus.ACTIVE,
-                    org.springframework.data.domain.PageRequest.of(0, limit * 2) // 获取更多电影用于随机选择
-            );
-            allRelatedMovies.addAll(categoryRegionMovies);
-        } catch (Exception e) {
-            log.warn("根据分类和地区获取相关电影失败: {}", e.getMessage());
+        H5MovieCardDTO current = catalogSnapshotService.get(movieId);
+        if (current == null && !movieRepository.existsById(movieId)) {
+            throw new IllegalArgumentException("电影不存在");
         }
         
-        // 方法2：如果方法1没有获取到足够的电影，获取热门电影作为备选
-        if (allRelatedMovies.size() < limit) {
-            try {
-                List<Movie> hotMovies = movieRepository.findHotMoviesByStatus(
-                        Movie.MovieStatus.ACTIVE,
-                        org.springframework.data.domain.PageRequest.of(0, limit * 2)
-                );
-                
-                // 过滤掉当前电影和已经添加的电影
-                List<Movie> additionalMovies = hotMovies.stream()
-                        .filter(movie -> !movie.getId().equals(movieId))
-                        .filter(movie -> allRelatedMovies.stream().noneMatch(rm -> rm.getId().equals(movie.getId())))
-                        .limit(limit - allRelatedMovies.size())
-                        .collect(Collectors.toList());
-                
-                allRelatedMovies.addAll(additionalMovies);
-            } catch (Exception e) {
-                log.warn("获取热门电影作为备选失败: {}", e.getMessage());
+        List<H5MovieCardDTO> related = new ArrayList<>();
+        List<Long> relatedIds = movieRelatedService.getRelatedIds(movieId);
+        if (relatedIds != null) {
+            for (Long id : relatedIds) {
+                H5MovieCardDTO card = catalogSnapshotService.get(id);
+                if (card != null) {
+                    related.add(card);
+                }
             }
-        }
-        
-        // 方法3：如果还是没有足够的电影，获取最新电影
-        if (allRelatedMovies.size() < limit) {
-            try {
-                List<Movie> newMovies = movieRepository.findNewMoviesByStatus(
-                        Movie.MovieStatus.ACTIVE,
-                        org.springframework.data.domain.PageRequest.of(0, limit * 2)
-                );
-                
-                // 过滤掉当前电影和已经添加的电影
-                List<Movie> additionalMovies = newMovies.stream()
-                        .filter(movie -> !movie.getId().equals(movieId))
-                        .filter(movie -> allRelatedMovies.stream().noneMatch(rm -> rm.getId().equals(movie.getId())))
-                        .limit(limit - allRelatedMovies.size())
-                        .collect(Collectors.toList());
-                
-                allRelatedMovies.addAll(additionalMovies);
-            } catch (Exception e) {
-                log.warn("获取最新电影作为备选失败: {}", e.getMessage());
+        } else {
+            // 索引建立后才上架（或已下架）的电影：同分类热门优先，其余热门补齐
+            Long categoryId = current != null ? current.getCategoryId() : null;
+            related.addAll(catalogSnapshotService.top(CatalogSort.HOT,
+                    card -> !card.getId().equals(movieId) && categoryId != null && categoryId.equals(card.getCategoryId()),
+                    limit * 2));
+            if (related.size() < limit) {
+                Set<Long> seen = related.stream().map(H5MovieCardDTO::getId).collect(Collectors.toSet());
+                related.addAll(catalogSnapshotService.top(CatalogSort.HOT,
+                        card -> !card.getId().equals(movieId) && !seen.contains(card.getId()),
+                        limit - related.size()));
             }
         }
         
         // 使用偏移量进行随机选择
-        List<Movie> finalMovies;
-        if (allRelatedMovies.size() >= limit) {
-            int startIndex = (offset % allRelatedMovies.size());
-            int endIndex = Math.min(startIndex + limit, allRelatedMovies.size());
-            finalMovies = allRelatedMovies.subList(startIndex, endIndex);
+        List<H5MovieCardDTO> finalCards;
+        if (related.size() >= limit) {
+            int startIndex = (offset % related.size());
+            int endIndex = Math.min(startIndex + limit, related.size());
+            finalCards = related.subList(startIndex, endIndex);
         } else {
-            finalMovies = allRelatedMovies;
+            finalCards = related;
         }
         
-        log.debug("最终获取到 {} 部相关电影", finalMovies.size());
-        
-        return finalMovies.stream()
-                .map(movie -> convertToDetailDTO(movie, null))
-                .collect(Collectors.toList());
+        log.debug("最终获取到 {} 部相关电影", finalCards.size());
+        return convertCards(finalCards);
     }
     
     @Override
-    @Transactional
-    public void incrementViews(Long movieId) {
+    public void incrementViews(Long movieId, String viewerId) {
         log.debug("增加观看次数，电影ID: {}", movieId);
         
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new IllegalArgumentException("电影不存在"));
-        
-        movie.setViews(movie.getViews() + 1);
-        movieRepository.save(movie);
+        if (catalogSnapshotService.get(movieId) == null && !movieRepository.existsById(movieId)) {
+            throw new IllegalArgumentException("电影不存在");
+        }
+        movieCounterService.increment(movieId, Counter.VIEWS, 1);
+        recordViewer(movieId, viewerId);
     }
     
     /**
      * 构建播放响应
      */
     private H5MoviePlayResponse buildPlayResponse(String permission, String permissionDesc, 
-                                                boolean canPlay, Movie movie, boolean isTrial) {
+                                                boolean canPlay, H5MovieCardDTO movie, boolean isTrial) {
         String playUrl = minioService.getFileUrl(movie.getFilePath());
         
         return H5MoviePlayResponse.builder()
@@ -922,8 +1261,8 @@ public class H5MovieServiceImpl implements IH5MovieService {
                 .trialDuration(movie.getTrialDuration())
                 .isTrial(isTrial)
                 .trialEndTime(isTrial ? movie.getTrialDuration() : null)
-                .chargeType(movie.getChargeType().toString())
-                .chargeTypeDesc(getChargeTypeDesc(movie.getChargeType().toString()))
+                .chargeType(movie.getChargeType())
+                .chargeTypeDesc(getChargeTypeDesc(movie.getChargeType()))
                 .build();
     }
     
@@ -939,35 +1278,13 @@ public class H5MovieServiceImpl implements IH5MovieService {
     }
     
     /**
-     * 转换为详情DTO
+     * 转换为详情DTO（使用已生成的文件URL和已查询的用户状态，未登录时用户状态均为null）
      */
-    private H5MovieDetailDTO convertToDetailDTO(Movie movie, Long userId) {
-        // 获取封面URL
-        String coverUrl = minioService.getFileUrl(movie.getCover());
-        
-        // 获取Banner URL
-        String bannerUrl = null;
-        if (movie.getBanner() != null && !movie.getBanner().trim().isEmpty()) {
-            try {
-                bannerUrl = minioService.getFileUrl(movie.getBanner());
-            } catch (Exception e) {
-                log.warn("生成Banner URL失败: {}", e.getMessage());
-            }
-        }
-        
-        // 获取文件URL
-        String fileUrl = minioService.getFileUrl(movie.getFilePath());
-        
-        // 检查用户是否已购买该电影
-        Boolean isPurchased = null;
-        Boolean isLiked = null;
-        Boolean isFavorited = null;
-        
-        if (userId != null) {
-            isPurchased = hasUserPurchasedMovie(userId, movie.getId());
-            isLiked = checkUserLiked(movie.getId(), userId);
-            isFavorited = userFavoriteService.checkUserFavorited(userId, movie.getId(), "MOVIE");
-        }
+    private H5MovieDetailDTO convertToDetailDTO(Movie movie, Map<String, String> fileUrls,
+                                                Boolean isPurchased, Boolean isLiked, Boolean isFavorited) {
+        String coverUrl = movie.getCover() != null ? fileUrls.get(movie.getCover()) : null;
+        String bannerUrl = movie.getBanner() != null ? fileUrls.get(movie.getBanner()) : null;
+        String fileUrl = movie.getFilePath() != null ? fileUrls.get(movie.getFilePath()) : null;
         
         // 根据购买状态确定收费类型描述
         String chargeTypeDesc;
@@ -987,9 +1304,9 @@ public class H5MovieServiceImpl implements IH5MovieService {
                 .bannerUrl(bannerUrl)
                 .duration(movie.getDuration())
                 .rating(movie.getRating())
-                .views(movie.getViews())
-                .likes(movie.getLikes())
-                .favorites(movie.getFavorites())
+                .views(movieCounterService.merge(movie.getId(), Counter.VIEWS, movie.getViews()))
+                .likes(movieCounterService.merge(movie.getId(), Counter.LIKES, movie.getLikes()))
+                .favorites(movieCounterService.merge(movie.getId(), Counter.FAVORITES, movie.getFavorites()))
                 .releaseYear(movie.getReleaseYear())
                 .category(convertToCategoryDTO(movie.getCategory()))
                 .region(convertToRegionDTO(movie.getRegion()))
@@ -1076,13 +1393,10 @@ public class H5MovieServiceImpl implements IH5MovieService {
         log.debug("获取试看视频URL，电影ID: {}, 用户ID: {}", movieId, userId);
         
         try {
-            Movie movie = movieRepository.findById(movieId).orElse(null);
+            H5MovieCardDTO movie = catalogSnapshotService.get(movieId);
             if (movie == null) {
-                return new TrialVideoInfo(false, null, null, "电影不存在");
-            }
-            
-            if (movie.getStatus() != Movie.MovieStatus.ACTIVE) {
-                return new TrialVideoInfo(false, null, null, "电影已下架");
+                return new TrialVideoInfo(false, null, null,
+                        movieRepository.existsById(movieId) ? "电影已下架" : "电影不存在");
             }
             
             // 检查是否有试看时长
@@ -1091,11 +1405,8 @@ public class H5MovieServiceImpl implements IH5MovieService {
             }
             
             // 检查用户权限（如果提供了用户ID）
-            if (userId != null) {
-                User user = userRepository.findById(userId).orElse(null);
-                if (user != null && Boolean.TRUE.equals(user.getIsVip())) {
-                    return new TrialVideoInfo(false, null, null, "VIP用户无需试看，可直接观看完整内容");
-                }
+            if (userId != null && userEntitlementService.isVip(userId)) {
+                return new TrialVideoInfo(false, null, null, "VIP用户无需试看，可直接观看完整内容");
             }
             
             // 生成试看URL（这里可以根据需要实现具体的试看逻辑）
@@ -1113,9 +1424,15 @@ public class H5MovieServiceImpl implements IH5MovieService {
     public boolean hasTrialPermission(Long movieId, Long userId) {
         log.debug("检查试看权限，电影ID: {}, 用户ID: {}", movieId, userId);
         
+        return hasTrialPermission(catalogSnapshotService.get(movieId), userId);
+    }
+    
+    /**
+     * 检查试看权限（使用已获取的快照卡片，null表示电影不存在或已下架）
+     */
+    private boolean hasTrialPermission(H5MovieCardDTO movie, Long userId) {
         try {
-            Movie movie = movieRepository.findById(movieId).orElse(null);
-            if (movie == null || movie.getStatus() != Movie.MovieStatus.ACTIVE) {
+            if (movie == null) {
                 return false;
             }
             
@@ -1125,11 +1442,8 @@ public class H5MovieServiceImpl implements IH5MovieService {
             }
             
             // 检查用户权限（如果提供了用户ID）
-            if (userId != null) {
-                User user = userRepository.findById(userId).orElse(null);
-                if (user != null && Boolean.TRUE.equals(user.getIsVip())) {
-                    return false; // VIP用户无需试看
-                }
+            if (userId != null && userEntitlementService.isVip(userId)) {
+                return false; // VIP用户无需试看
             }
             
             return true;
@@ -1145,7 +1459,7 @@ public class H5MovieServiceImpl implements IH5MovieService {
      * @param movie 电影信息
      * @return 试看URL
      */
-    private String generateTrialUrl(Movie movie) {
+    private String generateTrialUrl(H5MovieCardDTO movie) {
         // 这里可以根据实际需求实现试看URL生成逻辑
         // 例如：添加试看参数、时间限制等
         if (movie.getFilePath() != null && !movie.getFilePath().isEmpty()) {
@@ -1154,19 +1468,6 @@ public class H5MovieServiceImpl implements IH5MovieService {
         return null;
     }
 
-    /**
-     * 检查用户是否已单片购买电影
-     * @param userId 用户ID
-     * @param movieId 电影ID
-     * @return true if purchased, false otherwise
-     */
-    private boolean checkMoviePurchase(Long userId, Long movieId) {
-        if (userId == null || movieId == null) {
-            return false;
-        }
-        return userMoviePurchaseRepository.existsByUserIdAndMovieId(userId, movieId);
-    }
-    
     // ==================== 电影购买功能实现 ====================
     
     @Override
@@ -1174,7 +1475,7 @@ public class H5MovieServiceImpl implements IH5MovieService {
         if (userId == null || movieId == null) {
             return false;
         }
-        return userMoviePurchaseRepository.existsByUserIdAndMovieId(userId, movieId);
+        return userEntitlementService.hasPurchased(userId, movieId);
     }
     
     @Override
@@ -1184,7 +1485,41 @@ public class H5MovieServiceImpl implements IH5MovieService {
         }
         
         Page<UserMoviePurchase> purchases = userMoviePurchaseRepository.findByUserIdOrderByPurchaseTimeDesc(userId, pageable);
-        return purchases.map(purchase -> convertToDTO(purchase.getMovie()));
+        
+        // 购买记录中的电影是懒加载代理，只取ID不会触发加载；整页电影批量取出后按购买顺序组装
+        List<Long> movieIds = purchases.getContent().stream()
+                .map(purchase -> purchase.getMovie().getId())
+                .collect(Collectors.toList());
+        Map<Long, H5MovieCardDTO> cards = loadCards(movieIds);
+        List<H5MovieCardDTO> pageCards = movieIds.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(convertCards(pageCards), pageable, purchases.getTotalElements());
+    }
+    
+    /**
+     * 批量获取电影卡片：上架电影直接取快照，其余（已下架等）一次IN查询取出
+     * @param movieIds 电影ID
+     * @return 电影ID -> 卡片，不存在的电影不在结果中
+     */
+    private Map<Long, H5MovieCardDTO> loadCards(Collection<Long> movieIds) {
+        Map<Long, H5MovieCardDTO> cards = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long movieId : new LinkedHashSet<>(movieIds)) {
+            H5MovieCardDTO card = catalogSnapshotService.get(movieId);
+            if (card != null) {
+                cards.put(movieId, card);
+            } else {
+                missing.add(movieId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (MovieCardView view : movieRepository.findCardViewsByIdIn(missing)) {
+                cards.put(view.getId(), catalogSnapshotService.toCard(view));
+            }
+        }
+        return cards;
     }
     
     @Override
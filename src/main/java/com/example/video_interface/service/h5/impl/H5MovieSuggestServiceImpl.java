@@ -0,0 +1,377 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.event.CatalogChangedEvent;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogSort;
+import com.example.video_interface.service.h5.IH5MovieSuggestService;
+import com.example.video_interface.util.SearchTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * H5端搜索联想服务实现类
+ * 每部电影以三种键插入前缀树：去空白的标题、全拼、拼音首字母。
+ * 构建时按观看次数降序插入，每个节点预先保存前K个电影，查询只需沿前缀走到对应节点，与影片总数无关。
+ * 前缀树构建完成后不再修改，目录变更时整体重建并替换引用。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5MovieSuggestServiceImpl implements IH5MovieSuggestService {
+
+    /**
+     * 每个节点保存的联想条数上限
+     */
+    static final int MAX_SUGGESTIONS = 10;
+
+    /**
+     * 单个标题的多音字读音组合上限
+     */
+    private static final int MAX_PINYIN_VARIANTS = 8;
+
+    private static final HanyuPinyinOutputFormat PINYIN_FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        PINYIN_FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        PINYIN_FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        PINYIN_FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private final IH5CatalogSnapshotService catalogSnapshotService;
+
+    private volatile SuggestTrie trie;
+
+    /**
+     * 标题 -> 联想键，拼音转换较慢，重建时复用未变化标题的结果（仅在rebuild内访问）
+     */
+    private Map<String, Set<String>> keyCache = new HashMap<>();
+
+    @Override
+    public List<SuggestionItem> suggest(String prefix, int limit) {
+        String key = normalizeKey(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        SuggestTrie current = trie;
+        if (current == null) {
+            synchronized (this) {
+                if (trie == null) {
+                    rebuild();
+                }
+                current = trie;
+            }
+        }
+        Node node = current.root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        int size = Math.min(limit, node.top.length);
+        List<SuggestionItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(current.items[node.top[i]]);
+        }
+        return items;
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long version = catalogSnapshotService.getVersion();
+        List<H5MovieCardDTO> cards = catalogSnapshotService.top(CatalogSort.HOT, null, Integer.MAX_VALUE);
+
+        SuggestionItem[] items = new SuggestionItem[cards.size()];
+        Map<String, Set<String>> keys = new HashMap<>(cards.size() * 2);
+        MutableNode root = new MutableNode();
+        for (int i = 0; i < cards.size(); i++) {
+            H5MovieCardDTO card = cards.get(i);
+            items[i] = new SuggestionItem(card.getId(), card.getTitle(), card.getViews());
+            String title = card.getTitle() != null ? card.getTitle() : "";
+            Set<String> titleKeys = keys.computeIfAbsent(title, t -> {
+                Set<String> cached = keyCache.get(t);
+                return cached != null ? cached : buildKeys(t);
+            });
+            for (String key : titleKeys) {
+                root.insert(key, i);
+            }
+        }
+        keyCache = keys;
+        trie = new SuggestTrie(version, items, root.freeze());
+        log.info("搜索联想前缀树重建完成，电影数: {}, 目录版本: {}, 耗时: {}ms",
+                items.length, version, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 目录变更后（排在快照更新之后）重建前缀树
+     */
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getTarget() != CatalogChangedEvent.Target.MOVIE) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("重建搜索联想前缀树失败，事件: {}, 错误: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * 启动完成后建立前缀树
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("启动时建立搜索联想前缀树失败，将在首次查询时重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时检查快照版本，快照被定时重建或轮询重建后同步刷新前缀树（观看次数排序随之更新）
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.suggest.check-interval:60000}",
+               initialDelayString = "${app.catalog.suggest.check-interval:60000}")
+    public void syncWithSnapshot() {
+        SuggestTrie current = trie;
+        if (current != null && current.version == catalogSnapshotService.getVersion()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("同步搜索联想前缀树失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 归一化查询键：NFKC、小写并去掉空白
+     */
+    private static String normalizeKey(String text) {
+        String normalized = SearchTokenizer.normalize(text);
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 生成标题的联想键：原标题、全拼、拼音首字母
+     * 多音字按全部读音组合展开（组合数超过上限时后续多音字只取第一个读音）；
+     * 非汉字的字母数字原样保留，其余符号在拼音键中忽略
+     */
+    static Set<String> buildKeys(String title) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalized = normalizeKey(title);
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+
+        List<StringBuilder> fulls = new ArrayList<>(List.of(new StringBuilder()));
+        List<StringBuilder> initials = new ArrayList<>(List.of(new StringBuilder()));
+        boolean hasHan = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            List<String> readings = toPinyin(c);
+            if (!readings.isEmpty()) {
+                hasHan = true;
+                if (fulls.size() * readings.size() > MAX_PINYIN_VARIANTS) {
+                    readings = readings.subList(0, 1);
+                }
+                fulls = expand(fulls, readings, false);
+                initials = expand(initials, readings, true);
+            } else if (Character.isLetterOrDigit(c)) {
+                fulls.forEach(sb -> sb.append(c));
+                initials.forEach(sb -> sb.append(c));
+            }
+        }
+        if (hasHan) {
+            fulls.forEach(sb -> keys.add(sb.toString()));
+            initials.forEach(sb -> keys.add(sb.toString()));
+        }
+        return keys;
+    }
+
+    private static List<StringBuilder> expand(List<StringBuilder> prefixes, List<String> readings, boolean initialOnly) {
+        if (readings.size() == 1) {
+            String reading = readings.get(0);
+            prefixes.forEach(sb -> sb.append(initialOnly ? reading.substring(0, 1) : reading));
+            return prefixes;
+        }
+        Set<String> parts = new LinkedHashSet<>();
+        for (String reading : readings) {
+            parts.add(initialOnly ? reading.substring(0, 1) : reading);
+        }
+        List<StringBuilder> expanded = new ArrayList<>(prefixes.size() * parts.size());
+        for (StringBuilder prefix : prefixes) {
+            for (String part : parts) {
+                expanded.add(new StringBuilder(prefix).append(part));
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * 汉字的去重读音（不含声调），非汉字返回空列表
+     */
+    private static List<String> toPinyin(char c) {
+        if (Character.UnicodeScript.of(c) != Character.UnicodeScript.HAN) {
+            return List.of();
+        }
+        try {
+            String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, PINYIN_FORMAT);
+            if (readings == null) {
+                return List.of();
+            }
+            Set<String> distinct = new LinkedHashSet<>();
+            for (String reading : readings) {
+                if (reading != null && !reading.isEmpty()) {
+                    distinct.add(reading);
+                }
+            }
+            return new ArrayList<>(distinct);
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * 不可变的前缀树
+     */
+    private static final class SuggestTrie {
+        private final long version;
+        private final SuggestionItem[] items;
+        private final Node root;
+
+        private SuggestTrie(long version, SuggestionItem[] items, Node root) {
+            this.version = version;
+            this.items = items;
+            this.root = root;
+        }
+    }
+
+    /**
+     * 冻结后的节点：子节点按字符有序存放，二分查找
+     */
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        /**
+         * 经过该节点的电影下标，按观看次数降序
+         */
+        private final int[] top;
+
+        private Node(char[] labels, Node[] children, int[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+
+        private Node child(char c) {
+            int low = 0;
+            int high = labels.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (labels[mid] < c) {
+                    low = mid + 1;
+                } else if (labels[mid] > c) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 构建期节点，子节点数量通常很少，线性查找，冻结时再排序
+     */
+    private static final class MutableNode {
+        private static final int[] EMPTY = new int[0];
+
+        private char[] labels = new char[0];
+        private MutableNode[] children = new MutableNode[0];
+        private final int[] top = new int[MAX_SUGGESTIONS];
+        private int topSize;
+
+        /**
+         * 插入键；电影按观看次数降序依次插入，因此每个节点只需保留最先到达的K个
+         */
+        private void insert(String key, int index) {
+            MutableNode node = this;
+            node.offer(index);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                node.offer(index);
+            }
+        }
+
+        private MutableNode childOrCreate(char c) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == c) {
+                    return children[i];
+                }
+            }
+            int size = labels.length;
+            labels = Arrays.copyOf(labels, size + 1);
+            children = Arrays.copyOf(children, size + 1);
+            labels[size] = c;
+            children[size] = new MutableNode();
+            return children[size];
+        }
+
+        private void offer(int index) {
+            // 同一电影的多个键共享前缀时只记录一次；同一电影的键连续插入，比较最后一个即可
+            if (topSize < top.length && (topSize == 0 || top[topSize - 1] != index)) {
+                top[topSize++] = index;
+            }
+        }
+
+        private Node freeze() {
+            Integer[] order = new Integer[labels.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Character.compare(labels[a], labels[b]));
+            char[] sortedLabels = new char[labels.length];
+            Node[] frozen = new Node[labels.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedLabels[i] = labels[order[i]];
+                frozen[i] = children[order[i]].freeze();
+            }
+            int[] topCopy = topSize == 0 ? EMPTY : Arrays.copyOf(top, topSize);
+            return new Node(sortedLabels, frozen, topCopy);
+        }
+    }
+}
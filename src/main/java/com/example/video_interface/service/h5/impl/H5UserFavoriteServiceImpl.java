@@ -2,9 +2,11 @@ package com.example.video_interface.service.h5.impl;
 
 import com.example.video_interface.dto.h5.H5UserFavoriteDTO;
 import com.example.video_interface.model.UserFavorite;
-import com.example.video_interface.model.Movie;
 import com.example.video_interface.repository.UserFavoriteRepository;
+import com.example.video_interface.repository.MovieCardView;
 import com.example.video_interface.repository.MovieRepository;
+import com.example.video_interface.service.h5.IH5MovieCounterService;
+import com.example.video_interface.service.h5.IH5MovieCounterService.Counter;
 import com.example.video_interface.service.h5.IH5UserFavoriteService;
 import com.example.video_interface.service.common.IMinioService;
 import lombok.RequiredArgsConstructor;
@@ -14,8 +16,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +35,7 @@ public class H5UserFavoriteServiceImpl implements IH5UserFavoriteService {
     private final UserFavoriteRepository userFavoriteRepository;
     private final MovieRepository movieRepository;
     private final IMinioService minioService;
+    private final IH5MovieCounterService movieCounterService;
     
     @Override
     @Transactional
@@ -72,12 +79,7 @@ public class H5UserFavoriteServiceImpl implements IH5UserFavoriteService {
             
             // 如果是电影类型，更新电影的收藏数量
             if ("MOVIE".equals(contentType.toUpperCase())) {
-                Movie movie = movieRepository.findById(contentId).orElse(null);
-                if (movie != null) {
-                    movie.setFavorites(movie.getFavorites() + 1);
-                    movieRepository.save(movie);
-                    log.debug("更新电影收藏数量，电影ID: {}, 新收藏数: {}", contentId, movie.getFavorites());
-                }
+                movieCounterService.increment(contentId, Counter.FAVORITES, 1);
             }
             
             log.info("添加收藏成功，用户ID: {}, 内容ID: {}, 内容类型: {}", userId, contentId, contentType);
@@ -105,12 +107,7 @@ public class H5UserFavoriteServiceImpl implements IH5UserFavoriteService {
             if (affectedRows > 0) {
                 // 如果之前是ACTIVE状态且是电影类型，减少电影的收藏数量
                 if (wasActive && "MOVIE".equals(contentType.toUpperCase())) {
-                    Movie movie = movieRepository.findById(contentId).orElse(null);
-                    if (movie != null && movie.getFavorites() > 0) {
-                        movie.setFavorites(movie.getFavorites() - 1);
-                        movieRepository.save(movie);
-                        log.debug("减少电影收藏数量，电影ID: {}, 新收藏数: {}", contentId, movie.getFavorites());
-                    }
+                    movieCounterService.increment(contentId, Counter.FAVORITES, -1);
                 }
                 
                 log.info("取消收藏成功，用户ID: {}, 内容ID: {}, 内容类型: {}", userId, contentId, contentType);
@@ -147,7 +144,7 @@ public class H5UserFavoriteServiceImpl implements IH5UserFavoriteService {
             Page<UserFavorite> favorites = userFavoriteRepository.findByUserIdAndContentTypeAndStatusOrderBySortOrderDescCreatedAtDesc(
                     userId, UserFavorite.ContentType.valueOf(contentType.toUpperCase()), UserFavorite.FavoriteStatus.ACTIVE, pageable);
             
-            return favorites.map(this::convertToDTO);
+            return convertToDTOPage(favorites);
             
         } catch (Exception e) {
             log.error("获取用户收藏列表失败，用户ID: {}, 内容类型: {}, 错误: {}", userId, contentType, e.getMessage(), e);
@@ -210,10 +207,17 @@ public class H5UserFavoriteServiceImpl implements IH5UserFavoriteService {
     public List<Long> batchCheckUserFavorited(Long userId, List<Long> contentIds, String contentType) {
         log.debug("批量检查用户收藏状态，用户ID: {}, 内容ID数量: {}, 内容类型: {}", userId, contentIds.size(), contentType);
         
+        if (contentIds.isEmpty()) {
+            return List.of();
+        }
+        
         try {
-            List<Long> userFavoriteIds = getUserFavoriteContentIds(userId, contentType);
+            // 只查询本次传入的内容ID，结果放入HashSet后按传入顺序过滤
+            Set<Long> favoritedIds = new HashSet<>(userFavoriteRepository.findContentIdsByUserIdAndContentTypeAndStatusAndContentIdIn(
+                    userId, UserFavorite.ContentType.valueOf(contentType.toUpperCase()), UserFavorite.FavoriteStatus.ACTIVE,
+                    new HashSet<>(contentIds)));
             return contentIds.stream()
-                    .filter(userFavoriteIds::contains)
+                    .filter(favoritedIds::contains)
                     .collect(Collectors.toList());
         } catch (Exception e) {
             log.error("批量检查用户收藏状态失败，用户ID: {}, 内容类型: {}, 错误: {}", userId, contentType, e.getMessage(), e);
@@ -221,42 +225,79 @@ public class H5UserFavoriteServiceImpl implements IH5UserFavoriteService {
         }
     }
     
+    /**
+     * 批量转换一页收藏记录
+     * 整页的电影信息一次IN查询取出，封面一次批量签名，再按ID组装DTO
+     * @param favorites 收藏记录分页
+     * @return 收藏DTO分页
+     */
+    private Page<H5UserFavoriteDTO> convertToDTOPage(Page<UserFavorite> favorites) {
+        Set<Long> movieIds = new HashSet<>();
+        for (UserFavorite favorite : favorites.getContent()) {
+            if (favorite.getContentType() == UserFavorite.ContentType.MOVIE) {
+                movieIds.add(favorite.getContentId());
+            }
+        }
+        
+        Map<Long, MovieCardView> movies = new HashMap<>();
+        if (!movieIds.isEmpty()) {
+            try {
+                for (MovieCardView movie : movieRepository.findCardViewsByIdIn(movieIds)) {
+                    movies.put(movie.getId(), movie);
+                }
+            } catch (Exception e) {
+                log.warn("批量获取收藏电影信息失败，电影数: {}, 错误: {}", movieIds.size(), e.getMessage());
+            }
+        }
+        
+        // 电影使用电影实体的封面，其他类型使用收藏记录中的封面
+        Set<String> covers = new HashSet<>();
+        for (UserFavorite favorite : favorites.getContent()) {
+            covers.add(coverOf(favorite, movies));
+        }
+        covers.remove(null);
+        Map<String, String> coverUrls = Map.of();
+        if (!covers.isEmpty()) {
+            try {
+                coverUrls = minioService.getFileUrls(covers);
+            } catch (Exception e) {
+                log.warn("批量生成收藏封面URL失败: {}", e.getMessage());
+            }
+        }
+        
+        Map<String, String> urls = coverUrls;
+        return favorites.map(favorite -> convertToDTO(favorite, movies, urls));
+    }
+    
+    private String coverOf(UserFavorite favorite, Map<Long, MovieCardView> movies) {
+        if (favorite.getContentType() == UserFavorite.ContentType.MOVIE) {
+            MovieCardView movie = movies.get(favorite.getContentId());
+            return movie != null ? movie.getCover() : null;
+        }
+        return favorite.getContentCover();
+    }
+    
     /**
      * 转换为DTO
      * @param favorite 收藏实体
+     * @param movies 本页收藏的电影信息
+     * @param coverUrls 本页封面的预签名URL
      * @return 收藏DTO
      */
-    private H5UserFavoriteDTO convertToDTO(UserFavorite favorite) {
-        String contentCoverUrl = null;
+    private H5UserFavoriteDTO convertToDTO(UserFavorite favorite, Map<Long, MovieCardView> movies, Map<String, String> coverUrls) {
+        String cover = coverOf(favorite, movies);
+        String contentCoverUrl = cover != null ? coverUrls.get(cover) : null;
         String rating = null;
         Integer releaseYear = null;
         
-        // 根据内容类型生成封面URL和额外信息
-        if (favorite.getContentType() == UserFavorite.ContentType.MOVIE) {
-            // 对于电影类型，从电影实体获取封面URL、评分和年份
-            try {
-                Movie movie = movieRepository.findById(favorite.getContentId()).orElse(null);
-                if (movie != null) {
-                    if (movie.getCover() != null) {
-                        contentCoverUrl = minioService.getFileUrl(movie.getCover());
-                    }
-                    if (movie.getRating() != null) {
-                        rating = movie.getRating().toString();
-                    }
-                    releaseYear = movie.getReleaseYear();
-                }
-            } catch (Exception e) {
-                log.warn("生成电影信息失败，电影ID: {}, 错误: {}", favorite.getContentId(), e.getMessage());
-            }
-        } else {
-            // 对于其他类型，使用收藏记录中的封面信息
-            if (favorite.getContentCover() != null) {
-                try {
-                    contentCoverUrl = minioService.getFileUrl(favorite.getContentCover());
-                } catch (Exception e) {
-                    log.warn("生成封面URL失败，内容ID: {}, 错误: {}", favorite.getContentId(), e.getMessage());
-                }
+        // 电影类型附带评分和年份
+        MovieCardView movie = favorite.getContentType() == UserFavorite.ContentType.MOVIE
+                ? movies.get(favorite.getContentId()) : null;
+        if (movie != null) {
+            if (movie.getRating() != null) {
+                rating = movie.getRating().toString();
             }
+            releaseYear = movie.getReleaseYear();
         }
         
         return H5UserFavoriteDTO.builder()
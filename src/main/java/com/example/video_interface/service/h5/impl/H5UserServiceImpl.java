@@ -6,10 +6,14 @@ import com.example.video_interface.model.ActivationCode;
 import com.example.video_interface.model.User;
 import com.example.video_interface.repository.ActivationCodeRepository;
 import com.example.video_interface.repository.UserRepository;
+import com.example.video_interface.security.JwtPrincipalCache;
 import com.example.video_interface.security.JwtTokenProvider;
 import com.example.video_interface.service.common.ICaptchaService;
 import com.example.video_interface.service.common.IH5LoginFailureService;
 import com.example.video_interface.service.common.IRegistrationLimitService;
+import com.example.video_interface.service.common.ITokenRevocationService;
+import com.example.video_interface.service.common.IUserEntitlementService;
+import com.example.video_interface.service.common.IUserSessionService;
 import com.example.video_interface.service.h5.IH5UserService;
 import com.example.video_interface.util.RequestContextUtil;
 import lombok.RequiredArgsConstructor;
@@ -24,9 +28,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -49,6 +53,10 @@ public class H5UserServiceImpl implements IH5UserService {
     private final IRegistrationLimitService registrationLimitService;
     private final IH5LoginFailureService h5LoginFailureService;
     private final ActivationCodeRepository activationCodeRepository;
+    private final IUserEntitlementService userEntitlementService;
+    private final JwtPrincipalCache principalCache;
+    private final IUserSessionService userSessionService;
+    private final ITokenRevocationService tokenRevocationService;
 
     /**
      * 用户注册
@@ -262,10 +270,10 @@ public class H5UserServiceImpl implements IH5UserService {
             long remainingTime = expirationTime - currentTime;
             
             if (remainingTime > 0) {
-                String key = "blacklist:" + token;
-                stringRedisTemplate.opsForValue().set(key, username, remainingTime, TimeUnit.MILLISECONDS);
+                tokenRevocationService.revoke(token, username, Duration.ofMillis(remainingTime));
                 log.debug("Token已加入黑名单，用户: {}", username);
             }
+            principalCache.invalidateToken(token);
         } catch (Exception e) {
             log.error("登出过程发生错误: {}", e.getMessage());
             throw new RuntimeException("退出登录失败");
@@ -354,6 +362,7 @@ public class H5UserServiceImpl implements IH5UserService {
         }
         user.setIsVip(true);
         userRepository.save(user);
+        userEntitlementService.invalidate(userId);
         // 5. 返回结果
         return Map.of(
             "success", true,
@@ -437,6 +446,7 @@ public class H5UserServiceImpl implements IH5UserService {
         // 加密新密码并保存
         currentUser.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(currentUser);
+        principalCache.invalidateUser(currentUser.getUsername());
         log.info("用户{}修改密码成功", currentUser.getUsername());
     }
 
@@ -503,12 +513,9 @@ public class H5UserServiceImpl implements IH5UserService {
             return false;
         }
 
-        String userDeviceKey = "user:device:" + username;
-        String userTokenKey = "user:token:" + username;
-        String deviceUserKey = "device:user:" + currentDeviceId;
-        
         // 获取用户当前登录的设备
-        String oldDevice = stringRedisTemplate.opsForValue().get(userDeviceKey);
+        IUserSessionService.Session session = userSessionService.get(username);
+        String oldDevice = session.getDeviceId();
         
         if (oldDevice == null) {
             log.debug("用户 {} 未在任何设备登录", username);
@@ -524,17 +531,13 @@ public class H5UserServiceImpl implements IH5UserService {
         log.info("用户 {} 在新设备登录，顶掉原设备: {} -> {}", username, oldDevice, currentDeviceId);
         
         // 将旧设备的token加入黑名单
-        String oldToken = stringRedisTemplate.opsForValue().get(userTokenKey);
+        String oldToken = session.getToken();
         if (oldToken != null) {
-            String blacklistKey = "blacklist:" + oldToken;
-            stringRedisTemplate.opsForValue().set(blacklistKey, username, 24, TimeUnit.HOURS);
+            tokenRevocationService.revoke(oldToken, username, Duration.ofHours(24));
+            principalCache.invalidateToken(oldToken);
             log.debug("将用户 {} 的旧token加入黑名单", username);
         }
         
-        // 清除旧设备记录
-        String oldDeviceUserKey = "device:user:" + oldDevice;
-        stringRedisTemplate.delete(oldDeviceUserKey);
-        
         return true;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,297 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.service.h5.IH5WatchHistoryService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * H5端观看历史服务实现类
+ *
+ * 1. 每个用户一个 电影ID -> 观看状态 的小表，心跳只在内存中覆盖播放位置并累加观看秒数；
+ *    同一用户的读写都在外层 ConcurrentHashMap.compute 中进行，定时写入和清理空闲状态不会丢失并发心跳；
+ * 2. 观看秒数取两次心跳间播放位置的前进量；心跳间隔不超过上限的连续心跳构成一段播放，
+ *    一段播放累计计入的秒数不超过这段播放的实际时长（余量只加一次），
+ *    拖动进度条、暂停后恢复、高频发送心跳都不会虚增；间隔超过上限的心跳开始新的一段，本次不计时长；
+ * 3. 定时按批 INSERT ... ON DUPLICATE KEY UPDATE 写入观看历史，只有较新的心跳才覆盖播放位置；
+ *    用户总观看时长（分钟）按整分钟增量更新，不足一分钟的部分留在内存中继续累积；
+ * 4. 写入失败时把数据放回内存等待下次重试；长时间没有心跳且已写入的状态从内存中移除。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class H5WatchHistoryServiceImpl implements IH5WatchHistoryService {
+
+    private static final String UPSERT_SQL = "INSERT INTO user_watch_history "
+            + "(user_id, movie_id, position_seconds, duration_seconds, watched_seconds, finished, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "position_seconds = IF(VALUES(updated_at) >= updated_at, VALUES(position_seconds), position_seconds), "
+            + "duration_seconds = IF(VALUES(updated_at) >= updated_at, VALUES(duration_seconds), duration_seconds), "
+            + "finished = IF(VALUES(updated_at) >= updated_at, VALUES(finished), finished), "
+            + "watched_seconds = watched_seconds + VALUES(watched_seconds), "
+            + "updated_at = GREATEST(updated_at, VALUES(updated_at))";
+    private static final String WATCH_TIME_SQL = "UPDATE users SET watch_time = COALESCE(watch_time, 0) + ? WHERE id = ?";
+    private static final String CONTINUE_SQL = "SELECT movie_id, position_seconds, duration_seconds, updated_at "
+            + "FROM user_watch_history WHERE user_id = ? AND finished = 0 ORDER BY updated_at DESC LIMIT ?";
+
+    /**
+     * 播放位置达到总时长的该比例即视为看完
+     */
+    private static final double FINISHED_RATIO = 0.95;
+
+    /**
+     * 计算观看秒数时允许超出一段播放实际时长的余量（秒），每段播放只加一次
+     */
+    private static final long HEARTBEAT_SLACK_SECONDS = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.watch.flush-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.watch.max-heartbeat-gap-seconds:30}")
+    private long maxHeartbeatGapSeconds;
+
+    @Value("${app.watch.idle-timeout-seconds:300}")
+    private long idleTimeoutSeconds;
+
+    /**
+     * 用户ID -> (电影ID -> 观看状态)；内层表只在外层 compute 中访问
+     */
+    private final Map<Long, Map<Long, WatchState>> states = new ConcurrentHashMap<>();
+
+    /**
+     * 用户ID -> 尚未计入 users.watch_time 的观看秒数
+     */
+    private final Map<Long, Long> pendingWatchSeconds = new ConcurrentHashMap<>();
+
+    @Override
+    public void heartbeat(Long userId, Long movieId, int positionSeconds, int durationSeconds) {
+        heartbeat(userId, movieId, positionSeconds, durationSeconds, System.currentTimeMillis());
+    }
+
+    /**
+     * 按指定的心跳时间记录
+     */
+    void heartbeat(Long userId, Long movieId, int positionSeconds, int durationSeconds, long now) {
+        long[] watched = new long[1];
+        states.compute(userId, (id, movies) -> {
+            if (movies == null) {
+                movies = new HashMap<>();
+            }
+            WatchState state = movies.computeIfAbsent(movieId, m -> new WatchState());
+            watched[0] = state.update(positionSeconds, durationSeconds, now, maxHeartbeatGapSeconds);
+            return movies;
+        });
+        if (watched[0] > 0) {
+            pendingWatchSeconds.merge(userId, watched[0], Long::sum);
+        }
+    }
+
+    @Override
+    public List<WatchProgress> getContinueWatching(Long userId, int limit) {
+        Map<Long, WatchProgress> merged = new HashMap<>();
+        jdbcTemplate.query(CONTINUE_SQL, rs -> {
+            merged.put(rs.getLong(1), new WatchProgress(rs.getLong(1), rs.getInt(2), rs.getInt(3),
+                    rs.getTimestamp(4).toLocalDateTime()));
+        }, userId, limit);
+
+        // 内存中的进度比数据库新：看完的移除，未看完的覆盖
+        states.computeIfPresent(userId, (id, movies) -> {
+            for (Map.Entry<Long, WatchState> entry : movies.entrySet()) {
+                WatchState state = entry.getValue();
+                if (state.isFinished()) {
+                    merged.remove(entry.getKey());
+                } else {
+                    merged.put(entry.getKey(), new WatchProgress(entry.getKey(), state.position, state.duration,
+                            toLocalDateTime(state.lastHeartbeatMillis)));
+                }
+            }
+            return movies;
+        });
+
+        List<WatchProgress> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparing(WatchProgress::getUpdatedAt).reversed());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    @Override
+    public synchronized int flush() {
+        long idleBefore = System.currentTimeMillis() - idleTimeoutSeconds * 1000;
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : states.keySet()) {
+            states.computeIfPresent(userId, (id, movies) -> {
+                Iterator<Map.Entry<Long, WatchState>> it = movies.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Long, WatchState> entry = it.next();
+                    WatchState state = entry.getValue();
+                    if (state.dirty) {
+                        rows.add(new Object[] {id, entry.getKey(), state.position, state.duration,
+                                state.pendingWatchedSeconds, state.isFinished() ? 1 : 0,
+                                new Timestamp(state.lastHeartbeatMillis)});
+                        state.pendingWatchedSeconds = 0;
+                        state.dirty = false;
+                    } else if (state.lastHeartbeatMillis < idleBefore) {
+                        it.remove();
+                    }
+                }
+                return movies.isEmpty() ? null : movies;
+            });
+        }
+
+        int written = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, chunk);
+                written += chunk.size();
+            } catch (Exception e) {
+                log.warn("写入观看历史失败，{}条记录将在下次重试: {}", chunk.size(), e.getMessage());
+                chunk.forEach(this::restore);
+            }
+        }
+        flushWatchTime();
+        if (written > 0) {
+            log.debug("写入观看历史，记录数: {}", written);
+        }
+        return written;
+    }
+
+    /**
+     * 定时写入
+     */
+    @Scheduled(fixedDelayString = "${app.watch.flush-interval:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("定时写入观看历史失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 应用关闭前写入剩余进度
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flush();
+        log.info("应用关闭，已写入观看历史，记录数: {}", written);
+    }
+
+    /**
+     * 把整分钟的观看时长累加到 users.watch_time
+     */
+    private void flushWatchTime() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : pendingWatchSeconds.keySet()) {
+            pendingWatchSeconds.computeIfPresent(userId, (id, seconds) -> {
+                long minutes = seconds / 60;
+                if (minutes > 0) {
+                    rows.add(new Object[] {minutes, id});
+                }
+                long rest = seconds - minutes * 60;
+                return rest > 0 ? rest : null;
+            });
+        }
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            try {
+                jdbcTemplate.batchUpdate(WATCH_TIME_SQL, chunk);
+            } catch (Exception e) {
+                log.warn("更新用户观看时长失败，{}个用户的时长将在下次重试: {}", chunk.size(), e.getMessage());
+                for (Object[] row : chunk) {
+                    pendingWatchSeconds.merge((Long) row[1], (Long) row[0] * 60, Long::sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * 写入失败的记录放回内存；期间有新心跳时保留较新的播放位置
+     */
+    private void restore(Object[] row) {
+        Long movieId = (Long) row[1];
+        long heartbeatMillis = ((Timestamp) row[6]).getTime();
+        states.compute((Long) row[0], (id, movies) -> {
+            if (movies == null) {
+                movies = new HashMap<>();
+            }
+            WatchState state = movies.computeIfAbsent(movieId, m -> new WatchState());
+            if (state.lastHeartbeatMillis < heartbeatMillis) {
+                state.position = (Integer) row[2];
+                state.duration = (Integer) row[3];
+                state.lastHeartbeatMillis = heartbeatMillis;
+            }
+            state.pendingWatchedSeconds += (Long) row[4];
+            state.dirty = true;
+            return movies;
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 单个用户观看单部电影的状态（只在外层 compute 中读写）
+     */
+    private static final class WatchState {
+        private int position;
+        private int duration;
+        private long lastHeartbeatMillis;
+        private long pendingWatchedSeconds;
+        private boolean dirty;
+        /**
+         * 当前这段连续播放的开始时间（0表示尚未开始）及已计入的观看秒数
+         */
+        private long segmentStartMillis;
+        private long segmentWatchedSeconds;
+
+        /**
+         * 记录一次心跳
+         * @return 本次计入的观看秒数
+         */
+        long update(int positionSeconds, int durationSeconds, long now, long maxGapSeconds) {
+            long watched = 0;
+            long gapMillis = now - lastHeartbeatMillis;
+            if (segmentStartMillis > 0 && gapMillis >= 0 && gapMillis <= maxGapSeconds * 1000) {
+                long advanced = positionSeconds - position;
+                long remaining = Math.max(0, now - segmentStartMillis) / 1000 + HEARTBEAT_SLACK_SECONDS
+                        - segmentWatchedSeconds;
+                watched = Math.max(0, Math.min(advanced, remaining));
+            } else {
+                segmentStartMillis = now;
+                segmentWatchedSeconds = 0;
+            }
+            segmentWatchedSeconds += watched;
+            position = positionSeconds;
+            if (durationSeconds > 0) {
+                duration = durationSeconds;
+            }
+            lastHeartbeatMillis = now;
+            pendingWatchedSeconds += watched;
+            dirty = true;
+            return watched;
+        }
+
+        boolean isFinished() {
+            return duration > 0 && position >= duration * FINISHED_RATIO;
+        }
+    }
+}
@@ -1,4 +1,8 @@
 package com.example.video_interface.util;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -8,6 +12,8 @@ import javax.crypto.Cipher;
 import javax.crypto.Mac;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.*;
@@ -35,6 +41,9 @@ public class CryptoUtil {
         "password", "oldPassword", "newPassword", "token", "username", "email", "phone"
     );
 
+    private static final String CRYPTO_FIELD = "_crypto";
+    private static final byte[] NULL_BODY = "null".getBytes(StandardCharsets.UTF_8);
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     // 🔒 强化安全配置 - 生产级要求
@@ -180,28 +189,47 @@ public class CryptoUtil {
         }
     }
 
+    /**
+     * 对 前缀 + 请求体 + 后缀 计算HMAC，请求体字节直接送入Mac，不转换为字符串
+     * @return Base64编码的签名
+     */
+    private String hmacSign(String prefix, byte[] body, String suffix, String key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            mac.update(prefix.getBytes(StandardCharsets.UTF_8));
+            mac.update(body);
+            mac.update(suffix.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (Exception e) {
+            log.error("HMAC签名失败", e);
+            throw new RuntimeException("数据签名失败", e);
+        }
+    }
+
     /**
      * 解密敏感数据
-     * @param encryptedJson 加密的JSON数据
+     * 用流式解析器先读取顶层 _crypto 元数据并验证签名，再把请求体逐个token复制到输出，
+     * 只有加密字段被读取、解密后以字符串写出，_crypto 字段被去掉，其余内容原样复制
+     * @param body 请求体
      * @param deviceFingerprint 设备指纹
-     * @return 解密后的数据
+     * @param out 解密后的JSON输出
+     * @return 顶层没有 _crypto 字段时返回false且不写出任何内容，调用方直接使用原请求体
      */
-    public Map<String, Object> decryptSensitiveData(String encryptedJson, String deviceFingerprint) {
+    public boolean decryptSensitiveData(byte[] body, String deviceFingerprint, OutputStream out) {
         try {
-            JsonNode rootNode = objectMapper.readTree(encryptedJson);
+            JsonNode cryptoNode = readCryptoMetadata(body);
             
             // 检查是否包含加密元数据
-            if (!rootNode.has("_crypto")) {
+            if (cryptoNode == null) {
                 // 没有加密数据，直接返回
-                return objectMapper.convertValue(rootNode, Map.class);
+                return false;
             }
             
-            JsonNode cryptoNode = rootNode.get("_crypto");
             if (!cryptoNode.get("encrypted").asBoolean()) {
-                // 未加密，直接返回
-                Map<String, Object> result = objectMapper.convertValue(rootNode, Map.class);
-                result.remove("_crypto");
-                return result;
+                // 未加密，只去掉 _crypto
+                copyDecrypted(body, Collections.emptySet(), null, out);
+                return true;
             }
             
             // 提取加密元数据
@@ -256,22 +284,10 @@ public class CryptoUtil {
             }
             
             // 解密数据
-            Map<String, Object> decryptedData = objectMapper.convertValue(rootNode, Map.class);
-            decryptedData.remove("_crypto");
-            
-            for (String field : encryptedFields) {
-                if (decryptedData.containsKey(field)) {
-                    Map<String, Object> encryptedField = (Map<String, Object>) decryptedData.get(field);
-                    String ciphertext = (String) encryptedField.get("ciphertext");
-                    String iv = (String) encryptedField.get("iv");
-                    
-                    String decryptedValue = aesDecrypt(ciphertext, iv, dynamicKey);
-                    decryptedData.put(field, decryptedValue);
-                }
-            }
+            copyDecrypted(body, new HashSet<>(encryptedFields), dynamicKey, out);
             
             log.info("成功解密敏感数据，字段: {}", encryptedFields);
-            return decryptedData;
+            return true;
             
         } catch (Exception e) {
             log.error("解密敏感数据失败", e);
@@ -279,17 +295,72 @@ public class CryptoUtil {
         }
     }
 
+    /**
+     * 读取顶层 _crypto 字段，其他字段跳过不解析
+     * @return _crypto 节点，不存在时返回null
+     */
+    private JsonNode readCryptoMetadata(byte[] body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("请求体不是JSON对象");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if (CRYPTO_FIELD.equals(name)) {
+                    return objectMapper.readTree(parser);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 把请求体复制到输出：去掉 _crypto，加密字段替换为解密后的字符串，其余token原样复制
+     */
+    private void copyDecrypted(byte[] body, Set<String> encryptedFields, String dynamicKey, OutputStream out)
+            throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            parser.nextToken();
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (CRYPTO_FIELD.equals(name)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                generator.writeFieldName(name);
+                if (encryptedFields.contains(name)) {
+                    if (value != JsonToken.START_OBJECT) {
+                        throw new IllegalArgumentException("加密字段格式错误: " + name);
+                    }
+                    JsonNode encryptedField = objectMapper.readTree(parser);
+                    String ciphertext = encryptedField.get("ciphertext").asText();
+                    String iv = encryptedField.get("iv").asText();
+                    generator.writeString(aesDecrypt(ciphertext, iv, dynamicKey));
+                } else {
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+
     /**
      * 验证请求签名
+     * 签名数据为 方法|相对URL|请求体|时间戳|设备指纹，请求体按字节参与计算
      * @param method HTTP方法
      * @param url 请求URL（包含context-path的完整路径）
-     * @param data 请求数据（JSON字符串）
+     * @param body 请求体（JSON字节）
      * @param timestamp 时间戳
      * @param signature 签名
      * @param deviceFingerprint 设备指纹
      * @return 验证结果
      */
-    public boolean verifyRequestSignature(String method, String url, String data, 
+    public boolean verifyRequestSignature(String method, String url, byte[] body, 
                                         long timestamp, String signature, String deviceFingerprint) {
         try {
             // 🌍 增强时间戳验证 - 支持时区容差
@@ -309,38 +380,23 @@ public class CryptoUtil {
             }
             
             // 🔧 数据标准化：处理null和空字符串
-            String normalizedData = data;
-            if (data == null || data.trim().isEmpty() || data.equals("null")) {
-                normalizedData = "null";
+            byte[] normalizedBody = body;
+            if (body == null || isBlankOrNull(body)) {
+                normalizedBody = NULL_BODY;
             }
             
-            // 生成签名数据
-            String signatureData = String.join("|", 
-                method.toUpperCase(), 
-                relativeUrl, 
-                normalizedData, 
-                String.valueOf(timestamp), 
-                deviceFingerprint
-            );
+            // 生成签名数据：请求体前后的部分
+            String prefix = method.toUpperCase() + "|" + relativeUrl + "|";
+            String suffix = "|" + timestamp + "|" + deviceFingerprint;
             
             // 生成动态密钥
             String dynamicKey = generateDynamicKey(timestamp, deviceFingerprint);
             
-            // 🔍 临时调试信息
-            log.info("🔍 签名验证详细调试:");
-            log.info("  - 方法: {}", method.toUpperCase());
-            log.info("  - 原始URL: {}", url);
-            log.info("  - 相对URL: {}", relativeUrl);
-            log.info("  - 原始数据: {}", data);
-            log.info("  - 标准化数据: {}", normalizedData);
-            log.info("  - 时间戳: {}", timestamp);
-            log.info("  - 设备指纹: {}", deviceFingerprint);
-            log.info("  - 签名数据: {}", signatureData);
-            log.info("  - 动态密钥前缀: {}...", dynamicKey.length() > 8 ? dynamicKey.substring(0, 8) : dynamicKey);
-            log.info("  - 接收到的签名: {}", signature);
+            log.debug("签名验证: method={}, url={}, bodyLength={}, timestamp={}", 
+                method.toUpperCase(), relativeUrl, normalizedBody.length, timestamp);
             
             // 验证签名
-            boolean isValid = hmacVerify(signatureData, signature, dynamicKey);
+            boolean isValid = signature.equals(hmacSign(prefix, normalizedBody, suffix, dynamicKey));
             
             if (!isValid) {
                 // 🕐 尝试相邻时间窗口（处理时区边界）
@@ -352,21 +408,13 @@ public class CryptoUtil {
                 for (long adjacentTimestamp : adjacentWindows) {
                     if (Math.abs(currentTime - adjacentTimestamp) <= TIMESTAMP_TOLERANCE) {
                         String adjacentKey = generateDynamicKey(adjacentTimestamp, deviceFingerprint);
-                        if (hmacVerify(signatureData, signature, adjacentKey)) {
+                        if (signature.equals(hmacSign(prefix, normalizedBody, suffix, adjacentKey))) {
                             log.info("✅ 使用相邻时间窗口验证成功: original={}, adjacent={}", timestamp, adjacentTimestamp);
                             return true;
                         }
                     }
                 }
                 
-                // 计算期望的签名
-                String expectedSignature = hmacSign(signatureData, dynamicKey);
-                log.error("❌ 签名验证失败 - 详细对比:");
-                log.error("  - 接收到的签名: {}", signature);
-                log.error("  - 期望的签名: {}", expectedSignature);
-                log.error("  - 签名匹配: {}", signature.equals(expectedSignature));
-                log.error("  - 签名长度匹配: 接收={}, 期望={}", signature.length(), expectedSignature.length());
-                
                 log.warn("请求签名验证失败: method={}, url={}, timestamp={}", method, url, timestamp);
                 return false;
             }
@@ -378,6 +426,20 @@ public class CryptoUtil {
         }
     }
 
+    /**
+     * 请求体是否只有空白字符或为字面量 null（与 String.trim 的空白定义一致）
+     */
+    private static boolean isBlankOrNull(byte[] body) {
+        boolean blank = true;
+        for (byte b : body) {
+            if ((b & 0xFF) > ' ') {
+                blank = false;
+                break;
+            }
+        }
+        return blank || Arrays.equals(body, NULL_BODY);
+    }
+
     /**
      * 检查是否包含敏感数据
      * @param data 数据对象
@@ -0,0 +1,268 @@
+package com.example.video_interface.util;
+
+import com.example.video_interface.config.MinioConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MinIO预签名URL本地签名器（AWS Signature V4 查询串签名）
+ * 签名密钥按 日期+区域 只派生一次，之后每个对象只需计算一次规范请求的SHA-256和一次HMAC，
+ * 不再经过MinioClient的参数构建器和校验流程。生成结果与 MinioClient.getPresignedObjectUrl 一致（路径风格URL）。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MinioPresignSigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    });
+
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (Exception e) {
+            throw new IllegalStateException("HmacSHA256不可用", e);
+        }
+    });
+
+    private final MinioConfig minioConfig;
+
+    /**
+     * 协议+主机部分，例如 http://127.0.0.1:9000（默认端口不出现）
+     */
+    private String baseUrl;
+
+    /**
+     * 参与签名的Host头
+     */
+    private String host;
+
+    private String region;
+
+    /**
+     * 当日签名密钥，按日期滚动
+     */
+    private volatile SigningKey signingKey;
+
+    @PostConstruct
+    public void init() {
+        URI uri = URI.create(minioConfig.getEndpoint());
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "https";
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equals(scheme) && port == 80)
+                || ("https".equals(scheme) && port == 443);
+        this.host = defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+        this.baseUrl = scheme + "://" + host;
+        this.region = minioConfig.getRegion() != null && !minioConfig.getRegion().isEmpty()
+                ? minioConfig.getRegion() : "us-east-1";
+        log.info("MinIO本地签名器初始化完成，主机: {}, 区域: {}", host, region);
+    }
+
+    /**
+     * 批量生成GET预签名URL，同一批次使用同一签名时间
+     * @param bucket 存储桶
+     * @param objectNames 对象名称
+     * @param expiration 过期时间（秒）
+     * @return 对象名称 -> 预签名URL
+     */
+    public Map<String, String> presignGet(String bucket, Iterable<String> objectNames, int expiration) {
+        return presignGet(bucket, objectNames, expiration, ZonedDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * 使用指定签名时间批量生成GET预签名URL
+     */
+    Map<String, String> presignGet(String bucket, Iterable<String> objectNames, int expiration, ZonedDateTime now) {
+        String amzDate = now.withZoneSameInstant(ZoneOffset.UTC).format(AMZ_DATE_FORMAT);
+        SigningKey key = signingKeyFor(amzDate.substring(0, 8));
+
+        Mac mac = HMAC.get();
+        MessageDigest sha256 = SHA256.get();
+        StringBuilder sb = new StringBuilder(512);
+
+        // 除路径外，查询串在整个批次内都相同
+        String query = "X-Amz-Algorithm=" + ALGORITHM
+                + "&X-Amz-Credential=" + key.encodedCredential
+                + "&X-Amz-Date=" + amzDate
+                + "&X-Amz-Expires=" + expiration
+                + "&X-Amz-SignedHeaders=host";
+        String stringToSignPrefix = ALGORITHM + "\n" + amzDate + "\n" + key.scope + "\n";
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        try {
+            mac.init(key.key);
+            for (String objectName : objectNames) {
+                if (objectName == null || urls.containsKey(objectName)) {
+                    continue;
+                }
+                sb.setLength(0);
+                sb.append('/').append(bucket).append('/');
+                appendEncodedPath(sb, objectName);
+                String path = sb.toString();
+
+                sb.setLength(0);
+                sb.append("GET\n").append(path).append('\n')
+                  .append(query).append('\n')
+                  .append("host:").append(host).append("\n\n")
+                  .append("host\n")
+                  .append(UNSIGNED_PAYLOAD);
+                String canonicalRequestHash = toHex(sha256.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+
+                String signature = toHex(mac.doFinal(
+                        (stringToSignPrefix + canonicalRequestHash).getBytes(StandardCharsets.UTF_8)));
+
+                sb.setLength(0);
+                sb.append(baseUrl).append(path).append('?').append(query)
+                  .append("&X-Amz-Signature=").append(signature);
+                urls.put(objectName, sb.toString());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("预签名URL签名失败: " + e.getMessage(), e);
+        }
+        return urls;
+    }
+
+    /**
+     * 获取（必要时派生）指定日期的签名密钥
+     */
+    private SigningKey signingKeyFor(String date) {
+        SigningKey current = signingKey;
+        if (current != null && current.date.equals(date)) {
+            return current;
+        }
+        try {
+            byte[] kSecret = ("AWS4" + minioConfig.getSecretKey()).getBytes(StandardCharsets.UTF_8);
+            byte[] kDate = hmac(kSecret, date);
+            byte[] kRegion = hmac(kDate, region);
+            byte[] kService = hmac(kRegion, SERVICE);
+            byte[] kSigning = hmac(kService, "aws4_request");
+
+            String scope = date + "/" + region + "/" + SERVICE + "/aws4_request";
+            StringBuilder credential = new StringBuilder();
+            appendEncoded(credential, minioConfig.getAccessKey() + "/" + scope, false);
+
+            SigningKey derived = new SigningKey(date, scope, credential.toString(),
+                    new SecretKeySpec(kSigning, "HmacSHA256"));
+            signingKey = derived;
+            log.debug("派生MinIO签名密钥，日期: {}, 区域: {}", date, region);
+            return derived;
+        } catch (Exception e) {
+            throw new IllegalStateException("派生签名密钥失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 按S3规则编码对象路径，与MinioClient一致：中间连续的'/'合并为一个，开头和结尾的'/'保留
+     */
+    private static void appendEncodedPath(StringBuilder sb, String objectName) {
+        int length = objectName.length();
+        if (objectName.startsWith("/")) {
+            sb.append('/');
+        }
+        boolean first = true;
+        int start = 0;
+        while (start < length) {
+            int end = objectName.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                if (!first) {
+                    sb.append('/');
+                }
+                appendEncoded(sb, objectName.substring(start, end), false);
+                first = false;
+            }
+            start = end + 1;
+        }
+        if (objectName.endsWith("/")) {
+            sb.append('/');
+        }
+    }
+
+    /**
+     * RFC 3986 编码：仅保留非保留字符 A-Z a-z 0-9 - _ . ~
+     */
+    private static void appendEncoded(StringBuilder sb, String value, boolean keepSlash) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (keepSlash && c == '/')) {
+                sb.append(c);
+            } else if (c < 0x80) {
+                appendPercent(sb, c);
+            } else {
+                int end = i + 1;
+                if (Character.isHighSurrogate(c) && end < value.length()) {
+                    end++;
+                }
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    appendPercent(sb, b & 0xff);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private static void appendPercent(StringBuilder sb, int b) {
+        sb.append('%').append(HEX_UPPER[b >> 4]).append(HEX_UPPER[b & 0x0f]);
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            out[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(out);
+    }
+
+    /**
+     * 某一天的签名密钥及其凭证范围
+     */
+    private static final class SigningKey {
+        private final String date;
+        private final String scope;
+        private final String encodedCredential;
+        private final SecretKeySpec key;
+
+        private SigningKey(String date, String scope, String encodedCredential, SecretKeySpec key) {
+            this.date = date;
+            this.scope = scope;
+            this.encodedCredential = encodedCredential;
+            this.key = key;
+        }
+    }
+}
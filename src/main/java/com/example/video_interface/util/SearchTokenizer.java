@@ -0,0 +1,104 @@
+package com.example.video_interface.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 搜索分词工具
+ * 文本先做NFKC归一化（全角转半角）并转小写；
+ * 中日韩文字连续片段切分为单字和相邻二字组，字母数字连续片段作为一个词，其余字符视为分隔符
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 归一化文本：NFKC + 小写
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase();
+    }
+
+    /**
+     * 文档分词：中日韩片段同时输出单字和二字组，保证单字查询也能命中
+     * @param text 原文
+     * @return 词元列表（含重复，用于统计词频）
+     */
+    public static List<String> tokenizeDocument(String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(normalize(text), tokens, true);
+        return tokens;
+    }
+
+    /**
+     * 查询分词：中日韩片段长度大于1时只输出二字组，提高精确度
+     * @param text 查询词
+     * @return 去重后的词元
+     */
+    public static Set<String> tokenizeQuery(String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(normalize(text), tokens, false);
+        return new LinkedHashSet<>(tokens);
+    }
+
+    /**
+     * 是否为中日韩文字
+     */
+    public static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static void tokenize(String text, List<String> tokens, boolean withUnigrams) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int cp = text.codePointAt(i);
+            if (isCjk(cp)) {
+                int start = i;
+                while (i < length && isCjk(text.codePointAt(i))) {
+                    i += Character.charCount(text.codePointAt(i));
+                }
+                emitCjk(text.substring(start, i), tokens, withUnigrams);
+            } else if (Character.isLetterOrDigit(cp)) {
+                int start = i;
+                while (i < length) {
+                    int c = text.codePointAt(i);
+                    if (!Character.isLetterOrDigit(c) || isCjk(c)) {
+                        break;
+                    }
+                    i += Character.charCount(c);
+                }
+                tokens.add(text.substring(start, i));
+            } else {
+                i += Character.charCount(cp);
+            }
+        }
+    }
+
+    private static void emitCjk(String run, List<String> tokens, boolean withUnigrams) {
+        int[] cps = run.codePoints().toArray();
+        if (cps.length == 1) {
+            tokens.add(run);
+            return;
+        }
+        for (int k = 0; k < cps.length; k++) {
+            if (withUnigrams) {
+                tokens.add(new String(cps, k, 1));
+            }
+            if (k + 1 < cps.length) {
+                tokens.add(new String(cps, k, 2));
+            }
+        }
+    }
+}
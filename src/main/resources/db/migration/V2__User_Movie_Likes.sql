@@ -0,0 +1,12 @@
+-- ----------------------------
+-- Table structure for user_movie_likes
+-- 主键 (user_id, movie_id) 保证同一用户对同一电影只有一条点赞记录，
+-- idx_movie_user 用于按电影查询点赞用户
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `user_movie_likes` (
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `movie_id` bigint NOT NULL COMMENT '电影ID',
+  `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '点赞时间',
+  PRIMARY KEY (`user_id`,`movie_id`),
+  KEY `idx_movie_user` (`movie_id`,`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='用户电影点赞表';
@@ -0,0 +1,16 @@
+-- ----------------------------
+-- Table structure for user_watch_history
+-- 主键 (user_id, movie_id)，每个用户每部电影只保留一条观看进度，播放心跳在内存中合并后批量写入；
+-- idx_user_finished_updated 用于查询用户最近未看完的电影（继续观看）
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `user_watch_history` (
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `movie_id` bigint NOT NULL COMMENT '电影ID',
+  `position_seconds` int NOT NULL DEFAULT '0' COMMENT '播放位置（秒）',
+  `duration_seconds` int NOT NULL DEFAULT '0' COMMENT '视频总时长（秒）',
+  `watched_seconds` bigint NOT NULL DEFAULT '0' COMMENT '累计观看时长（秒）',
+  `finished` tinyint(1) NOT NULL DEFAULT '0' COMMENT '是否已看完',
+  `updated_at` datetime(3) NOT NULL COMMENT '最后观看时间',
+  PRIMARY KEY (`user_id`,`movie_id`),
+  KEY `idx_user_finished_updated` (`user_id`,`finished`,`updated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='用户观看历史表';
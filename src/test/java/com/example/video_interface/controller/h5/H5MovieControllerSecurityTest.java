@@ -0,0 +1,222 @@
+package com.example.video_interface.controller.h5;
+
+import com.example.video_interface.config.SecurityConfig;
+import com.example.video_interface.dto.h5.H5MoviePersonalizationDTO;
+import com.example.video_interface.filter.DecryptionFilter;
+import com.example.video_interface.model.User;
+import com.example.video_interface.security.CustomUserDetailsService;
+import com.example.video_interface.security.JwtAuthenticationFilter;
+import com.example.video_interface.security.PublicPathMatcher;
+import com.example.video_interface.service.h5.IH5MovieService;
+import com.example.video_interface.service.h5.IH5MovieSuggestService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 按用户处理的接口的访问控制：匿名请求被拒绝，登录用户只能读写自己的数据（忽略请求参数中的用户ID）
+ */
+@WebMvcTest(properties = {
+        "cors.allowed-origins=http://localhost",
+        "cors.allowed-methods=GET,POST",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=Authorization",
+        "cors.allow-credentials=false",
+        "cors.max-age=3600"
+})
+class H5MovieControllerSecurityTest {
+
+    /**
+     * 只加载控制器和安全配置（Application上的@ComponentScan会扫描全部服务）
+     */
+    @Configuration
+    @Import({H5MovieController.class, SecurityConfig.class, PublicPathMatcher.class})
+    static class WebConfig {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IH5MovieService movieService;
+
+    @MockBean
+    private IH5MovieSuggestService movieSuggestService;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private DecryptionFilter decryptionFilter;
+
+    @BeforeEach
+    void passThroughFilters() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<FilterChain>getArgument(2).doFilter(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(jwtAuthenticationFilter).doFilter(any(ServletRequest.class), any(ServletResponse.class), any(FilterChain.class));
+        doAnswer(invocation -> {
+            invocation.<FilterChain>getArgument(2).doFilter(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(decryptionFilter).doFilter(any(ServletRequest.class), any(ServletResponse.class), any(FilterChain.class));
+    }
+
+    @Test
+    void anonymousPersonalizationIsUnauthorized() throws Exception {
+        mockMvc.perform(post("/h5/movies/personalization").param("userId", "1")
+                        .contentType(MediaType.APPLICATION_JSON).content("[1,2]"))
+                .andExpect(status().isUnauthorized());
+
+        verify(movieService, never()).getMoviePersonalization(any(), anyList());
+    }
+
+    @Test
+    void personalizationUsesAuthenticatedUserInsteadOfParameter() throws Exception {
+        when(movieService.getMoviePersonalization(eq(7L), anyList()))
+                .thenReturn(List.of(H5MoviePersonalizationDTO.builder().movieId(1L).build()));
+
+        mockMvc.perform(post("/h5/movies/personalization").param("userId", "1")
+                        .with(loggedIn(7L))
+                        .contentType(MediaType.APPLICATION_JSON).content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieId").value(1));
+
+        verify(movieService, never()).getMoviePersonalization(eq(1L), anyList());
+    }
+
+    @Test
+    void anonymousWatchHistoryIsUnauthorized() throws Exception {
+        mockMvc.perform(post("/h5/movies/watch/heartbeat")
+                        .param("movieId", "1").param("userId", "1").param("position", "30"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/h5/movies/watch/continue").param("userId", "1"))
+                .andExpect(status().isUnauthorized());
+
+        verify(movieService, never()).recordWatchHeartbeat(any(), any(), any(), any());
+        verify(movieService, never()).getContinueWatching(any(), anyInt());
+    }
+
+    @Test
+    void watchHistoryUsesAuthenticatedUserInsteadOfParameter() throws Exception {
+        mockMvc.perform(post("/h5/movies/watch/heartbeat").with(loggedIn(7L))
+                        .param("movieId", "1").param("userId", "1").param("position", "30").param("duration", "600"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/h5/movies/watch/continue").with(loggedIn(7L)).param("userId", "1"))
+                .andExpect(status().isOk());
+
+        verify(movieService).recordWatchHeartbeat(1L, 7L, 30, 600);
+        verify(movieService).getContinueWatching(7L, 10);
+        verify(movieService, never()).getContinueWatching(eq(1L), anyInt());
+    }
+
+    @Test
+    void anonymousLikesAreUnauthorized() throws Exception {
+        mockMvc.perform(post("/h5/movies/like").param("movieId", "1").param("userId", "1"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/h5/movies/unlike").param("movieId", "1").param("userId", "1"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/h5/movies/liked").param("movieId", "1").param("userId", "1"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/h5/movies/liked/batch-check").param("userId", "1")
+                        .contentType(MediaType.APPLICATION_JSON).content("[1]"))
+                .andExpect(status().isUnauthorized());
+
+        verify(movieService, never()).likeMovie(any(), any());
+        verify(movieService, never()).unlikeMovie(any(), any());
+        verify(movieService, never()).checkUserLiked(any(), any());
+        verify(movieService, never()).batchCheckUserLiked(any(), anyList());
+    }
+
+    @Test
+    void likesUseAuthenticatedUserInsteadOfParameter() throws Exception {
+        when(movieService.likeMovie(1L, 7L)).thenReturn(true);
+        when(movieService.checkUserLiked(1L, 7L)).thenReturn(true);
+        when(movieService.batchCheckUserLiked(eq(7L), anyList())).thenReturn(List.of(1L));
+
+        mockMvc.perform(post("/h5/movies/like").with(loggedIn(7L)).param("movieId", "1").param("userId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(true));
+        mockMvc.perform(post("/h5/movies/unlike").with(loggedIn(7L)).param("movieId", "1").param("userId", "1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/h5/movies/liked").with(loggedIn(7L)).param("movieId", "1").param("userId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(true));
+        mockMvc.perform(post("/h5/movies/liked/batch-check").with(loggedIn(7L)).param("userId", "1")
+                        .contentType(MediaType.APPLICATION_JSON).content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(1));
+
+        verify(movieService).unlikeMovie(1L, 7L);
+        verify(movieService, never()).likeMovie(any(), eq(1L));
+        verify(movieService, never()).batchCheckUserLiked(eq(1L), anyList());
+    }
+
+    @Test
+    void anonymousViewsAreKeyedByClientAddress() throws Exception {
+        // 请求参数中的用户ID、自报的设备标识和代理头都不采信
+        mockMvc.perform(post("/h5/movies/view").param("movieId", "1").param("userId", "1")
+                        .header("X-Device-ID", "device-1").header("X-Forwarded-For", "10.0.0.1")
+                        .with(request -> {
+                            request.setRemoteAddr("203.0.113.5");
+                            return request;
+                        }))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/h5/movies/1/increment-view").param("userId", "1")
+                        .header("X-Device-ID", "device-1"))
+                .andExpect(status().isOk());
+
+        verify(movieService).recordView(1L, "ip:203.0.113.5");
+        verify(movieService).incrementViews(1L, "ip:127.0.0.1");
+    }
+
+    @Test
+    void viewsUseAuthenticatedUserInsteadOfParameter() throws Exception {
+        mockMvc.perform(post("/h5/movies/view").with(loggedIn(7L)).param("movieId", "1").param("userId", "1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/h5/movies/1/increment-view").with(loggedIn(7L)).param("userId", "1"))
+                .andExpect(status().isOk());
+
+        verify(movieService).recordView(1L, "u:7");
+        verify(movieService).incrementViews(1L, "u:7");
+    }
+
+    /**
+     * 以指定用户登录
+     */
+    private static RequestPostProcessor loggedIn(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        return authentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.video_interface.repository;
+
+import com.example.video_interface.model.Movie;
+import com.example.video_interface.model.MovieCategory;
+import com.example.video_interface.model.Region;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 列表页查询的SQL语句数：卡片投影和带实体图的查询，每页的语句数不随页大小增长
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class MovieRepositoryStatementCountTest {
+
+    private static final int MOVIE_COUNT = 30;
+
+    /**
+     * 只加载JPA相关的Bean（Application上的@ComponentScan会扫描全部服务）
+     */
+    @Configuration
+    @EntityScan(basePackageClasses = Movie.class)
+    @EnableJpaRepositories(basePackageClasses = MovieRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> movieIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<MovieCategory> categories = new ArrayList<>();
+        List<Region> regions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MovieCategory category = new MovieCategory();
+            category.setName("分类" + i);
+            category.setWeight(i);
+            category.setEnabled(true);
+            entityManager.persist(category);
+            categories.add(category);
+
+            Region region = new Region();
+            region.setName("地区" + i);
+            region.setWeight(i);
+            region.setEnabled(true);
+            entityManager.persist(region);
+            regions.add(region);
+        }
+        for (int i = 0; i < MOVIE_COUNT; i++) {
+            Movie movie = new Movie();
+            movie.setTitle("电影" + i);
+            movie.setDescription("简介".repeat(300));
+            movie.setCategory(categories.get(i % categories.size()));
+            movie.setRegion(regions.get(i % regions.size()));
+            movie.setQuality("1080P");
+            movie.setSortOrder(i);
+            entityManager.persist(movie);
+            movieIds.add(movie.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void cardViewsByIdsUseOneStatementPerPage() {
+        for (int pageSize : new int[] {5, 20}) {
+            Statistics statistics = resetStatistics();
+            List<MovieCardView> cards = movieRepository.findCardViewsByIdIn(movieIds.subList(0, pageSize));
+            cards.forEach(MovieRepositoryStatementCountTest::touchCard);
+
+            assertEquals(pageSize, cards.size());
+            assertEquals(1, statistics.getPrepareStatementCount(), "页大小 " + pageSize);
+        }
+    }
+
+    @Test
+    void cardViewsByStatusUseOneStatement() {
+        Statistics statistics = resetStatistics();
+        List<MovieCardView> cards = movieRepository.findCardViewsByStatus(Movie.MovieStatus.ACTIVE);
+        cards.forEach(MovieRepositoryStatementCountTest::touchCard);
+
+        assertEquals(MOVIE_COUNT, cards.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(MovieRepository.CARD_DESCRIPTION_LENGTH, cards.get(0).getDescription().length());
+    }
+
+    @Test
+    void entityGraphQueriesDoNotLazyLoadCategoryOrRegion() {
+        for (int pageSize : new int[] {5, 20}) {
+            Statistics statistics = resetStatistics();
+            List<Movie> hot = movieRepository.findHotMoviesByStatus(Movie.MovieStatus.ACTIVE, PageRequest.of(0, pageSize));
+            hot.forEach(MovieRepositoryStatementCountTest::touchMovie);
+            assertEquals(pageSize, hot.size());
+            assertEquals(1, statistics.getPrepareStatementCount(), "热门 页大小 " + pageSize);
+            entityManager.clear();
+
+            statistics = resetStatistics();
+            Page<Movie> page = movieRepository.findByConditions(null, null, null,
+                    Movie.MovieStatus.ACTIVE, null, PageRequest.of(0, pageSize));
+            page.forEach(MovieRepositoryStatementCountTest::touchMovie);
+            assertEquals(pageSize, page.getNumberOfElements());
+            // 数据查询 + 总数查询
+            assertEquals(2, statistics.getPrepareStatementCount(), "条件查询 页大小 " + pageSize);
+            entityManager.clear();
+        }
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static void touchCard(MovieCardView card) {
+        assertNotNull(card.getCategoryName());
+        assertNotNull(card.getRegionName());
+    }
+
+    private static void touchMovie(Movie movie) {
+        assertNotNull(movie.getCategory().getName());
+        assertNotNull(movie.getRegion().getName());
+    }
+}
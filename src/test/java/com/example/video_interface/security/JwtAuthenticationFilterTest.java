@@ -0,0 +1,98 @@
+package com.example.video_interface.security;
+
+import com.example.video_interface.model.User;
+import com.example.video_interface.service.common.ITokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 公开路径：不带Token直接放行；带有效Token时识别登录用户，Token无效也照常放行
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "token";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtPrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = mock(JwtTokenProvider.class);
+        principalCache = mock(JwtPrincipalCache.class);
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, mock(CustomUserDetailsService.class),
+                principalCache, new PublicPathMatcher(), mock(ITokenRevocationService.class));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void publicPathWithoutTokenSkipsAuthentication() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(viewRequest(null), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(principalCache, never()).get(anyString());
+    }
+
+    @Test
+    void publicPathWithValidTokenIdentifiesUser() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("user7");
+        Claims claims = Jwts.claims().setSubject("user7");
+        when(principalCache.get(TOKEN)).thenReturn(new JwtPrincipalCache.Principal(claims, user));
+        when(jwtTokenProvider.isSessionValid("user7", TOKEN)).thenReturn(true);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(viewRequest(TOKEN), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(7L, ((User) authentication.getPrincipal()).getId());
+    }
+
+    @Test
+    void publicPathWithInvalidTokenStillPasses() throws Exception {
+        when(jwtTokenProvider.parseClaims(TOKEN)).thenReturn(null);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(viewRequest(TOKEN), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest viewRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/h5/movies/view");
+        request.setContextPath("/api");
+        request.setServletPath("/h5/movies/view");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+}
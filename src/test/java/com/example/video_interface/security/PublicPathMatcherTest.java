@@ -0,0 +1,192 @@
+package com.example.video_interface.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 前缀树匹配结果与原先 SecurityConfig 中按顺序逐条匹配（第一条命中的规则决定放行与否）的结果一致
+ */
+class PublicPathMatcherTest {
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD"};
+
+    /**
+     * 原先的规则列表，顺序与原 SecurityConfig 相同；
+     * 唯一的改动是 GET、POST /h5/movies/* 拆成逐个列出的公开接口（点赞、个性化状态接口需要登录）
+     */
+    private static final List<Rule> LEGACY_RULES = List.of(
+            permit(null, "/error"),
+            permit(HttpMethod.POST, "/users/register"),
+            permit(HttpMethod.POST, "/users/login"),
+            permit(HttpMethod.POST, "/users/auth"),
+            permit(HttpMethod.GET, "/users/check-username"),
+            permit(HttpMethod.GET, "/users/check-email"),
+            permit(HttpMethod.GET, "/h5/categories/*"),
+            permit(HttpMethod.GET, "/h5/regions/*"),
+            permit(HttpMethod.GET, "/h5/system-config/info"),
+            permit(HttpMethod.GET, "/h5/movies/detail-simple"),
+            permit(HttpMethod.GET, "/h5/movies/hot"),
+            permit(HttpMethod.GET, "/h5/movies/new"),
+            permit(HttpMethod.GET, "/h5/movies/high-rated"),
+            permit(HttpMethod.GET, "/h5/movies/super-recommended"),
+            permit(HttpMethod.GET, "/h5/movies/category"),
+            permit(HttpMethod.GET, "/h5/movies/region"),
+            permit(HttpMethod.GET, "/h5/movies/year"),
+            permit(HttpMethod.GET, "/h5/movies/charge-type"),
+            permit(HttpMethod.GET, "/h5/movies/vip"),
+            permit(HttpMethod.GET, "/h5/movies/free"),
+            permit(HttpMethod.GET, "/h5/movies/quality"),
+            permit(HttpMethod.GET, "/h5/movies/search"),
+            permit(HttpMethod.GET, "/h5/movies/suggest"),
+            permit(HttpMethod.GET, "/h5/movies/filter"),
+            permit(HttpMethod.GET, "/h5/movies/list"),
+            permit(HttpMethod.GET, "/h5/movies/ranking"),
+            permit(HttpMethod.GET, "/h5/movies/permission"),
+            permit(HttpMethod.GET, "/h5/movies/filters"),
+            permit(HttpMethod.POST, "/h5/movies/view"),
+            permit(HttpMethod.POST, "/h5/movies/favorite"),
+            permit(HttpMethod.POST, "/h5/movies/unfavorite"),
+            permit(HttpMethod.GET, "/h5/movies/*/trial/*"),
+            permit(HttpMethod.GET, "/h5/movies/*/detail-page"),
+            permit(HttpMethod.GET, "/h5/movies/*/related"),
+            permit(HttpMethod.POST, "/h5/movies/*/play-permission"),
+            permit(HttpMethod.POST, "/h5/movies/*/increment-view"),
+            authenticated(HttpMethod.POST, "/h5/movies/purchase"),
+            authenticated(HttpMethod.GET, "/h5/movies/*/purchased"),
+            authenticated(HttpMethod.GET, "/h5/movies/user/*/purchased*"),
+            authenticated(HttpMethod.POST, "/h5/movies/like"),
+            authenticated(HttpMethod.POST, "/h5/movies/unlike"),
+            authenticated(HttpMethod.GET, "/h5/movies/liked"),
+            authenticated(null, "/h5/favorites/**"),
+            authenticated(null, "/orders/**"),
+            permit(null, "/payment/idr/order/callback"),
+            authenticated(null, "/payment/idr/**"),
+            permit(HttpMethod.GET, "/users/captcha"),
+            permit(HttpMethod.POST, "/users/captcha/refresh"),
+            permit(HttpMethod.POST, "/users/captcha/verify"),
+            permit(HttpMethod.POST, "/admin/login"),
+            permit(HttpMethod.POST, "/admin/init"),
+            permit(HttpMethod.GET, "/admin/check-status"),
+            authenticated(null, "/admin/**"));
+
+    private final PublicPathMatcher matcher = new PublicPathMatcher();
+
+    @Test
+    void matchesLegacyFirstMatchRules() {
+        int compared = 0;
+        for (String path : samplePaths()) {
+            for (String method : METHODS) {
+                MockHttpServletRequest request = request(method, path);
+                assertEquals(legacyPermits(request), matcher.matches(request), method + " " + path);
+                compared++;
+            }
+        }
+        assertTrue(compared > 1000, "样例数: " + compared);
+    }
+
+    @Test
+    void userScopedMovieEndpointsRequireAuthentication() {
+        assertFalse(matcher.isPublic("POST", "/h5/movies/personalization"));
+        assertFalse(matcher.isPublic("POST", "/h5/movies/like"));
+        assertFalse(matcher.isPublic("POST", "/h5/movies/unlike"));
+        assertFalse(matcher.isPublic("GET", "/h5/movies/liked"));
+        assertTrue(matcher.isPublic("GET", "/h5/movies/hot"));
+        assertTrue(matcher.isPublic("POST", "/h5/movies/view"));
+    }
+
+    @Test
+    void contextPathAndPathInfoAreHandled() {
+        assertFalse(matcher.isPublic("POST", "/api/users/login"));
+        MockHttpServletRequest request = request("POST", "/users");
+        request.setPathInfo("/login");
+        assertTrue(matcher.matches(request));
+        assertFalse(matcher.isPublic("GET", null));
+    }
+
+    /**
+     * 规则中的路径、把 "*" 和 "**" 替换成若干取值后的路径，以及多一段、少一段、末尾带斜杠等变体
+     */
+    private static Set<String> samplePaths() {
+        Set<String> paths = new LinkedHashSet<>(List.of("/", "/h5", "/h5/movies", "/api/h5/movies/hot",
+                "/h5/movies/personalization", "/h5/movies/watch/heartbeat", "/h5/movies/liked/batch-check",
+                "/h5/movies/user/1/purchased/ids", "/users/captcha/refresh/extra"));
+        String[] values = {"1", "hot", "personalization", "like", "purchase", "trial", "user", "purchased"};
+        for (Rule rule : LEGACY_RULES) {
+            List<String> expanded = new ArrayList<>(List.of(rule.pattern));
+            while (expanded.stream().anyMatch(path -> path.contains("*"))) {
+                List<String> next = new ArrayList<>();
+                for (String path : expanded) {
+                    int star = path.indexOf('*');
+                    if (star < 0) {
+                        next.add(path);
+                        continue;
+                    }
+                    boolean doubleStar = path.startsWith("**", star);
+                    String suffix = path.substring(star + (doubleStar ? 2 : 1));
+                    for (String value : values) {
+                        next.add(path.substring(0, star) + value + suffix);
+                    }
+                    if (doubleStar) {
+                        next.add(path.substring(0, star) + "a/b/c" + suffix);
+                        next.add(path.substring(0, star - 1) + suffix);
+                    }
+                }
+                expanded = next;
+            }
+            for (String path : expanded) {
+                paths.add(path);
+                paths.add(path + "/");
+                paths.add(path + "/extra");
+                paths.add(path.substring(0, Math.max(1, path.lastIndexOf('/'))));
+            }
+        }
+        return paths;
+    }
+
+    private static boolean legacyPermits(MockHttpServletRequest request) {
+        for (Rule rule : LEGACY_RULES) {
+            if (rule.matcher.matches(request)) {
+                return rule.permit;
+            }
+        }
+        return false;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private static Rule permit(HttpMethod method, String pattern) {
+        return new Rule(method, pattern, true);
+    }
+
+    private static Rule authenticated(HttpMethod method, String pattern) {
+        return new Rule(method, pattern, false);
+    }
+
+    private static final class Rule {
+        private final String pattern;
+        private final AntPathRequestMatcher matcher;
+        private final boolean permit;
+
+        private Rule(HttpMethod method, String pattern, boolean permit) {
+            this.pattern = pattern;
+            this.matcher = method == null ? new AntPathRequestMatcher(pattern)
+                    : new AntPathRequestMatcher(pattern, method.name());
+            this.permit = permit;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.video_interface.service.common.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.connection.stream.StringRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Token吊销：本地布隆过滤器、从流同步其他节点的记录、重建时跳过过期记录并按时间裁剪流
+ */
+class TokenRevocationServiceImplTest {
+
+    private static final String STREAM_KEY = "token:revocations";
+    private static final long RETENTION_MILLIS = 86_400_000L;
+
+    private StringRedisTemplate redisTemplate;
+    private StringRedisConnection connection;
+    private TokenRevocationServiceImpl service;
+
+    /**
+     * 流中lastRecordId之后的记录，每次读取返回全部剩余记录
+     */
+    private final List<StringRecord> stream = new ArrayList<>();
+
+    /**
+     * 每次读取时传入的起始记录ID
+     */
+    private final List<String> readOffsets = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        connection = mock(StringRedisConnection.class);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Collections.emptyList());
+        when(connection.xReadAsString(any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenAnswer(invocation -> {
+                    String after = invocation.<StreamOffset<String>>getArgument(1).getOffset().getOffset();
+                    readOffsets.add(after);
+                    List<StringRecord> records = new ArrayList<>();
+                    for (StringRecord record : stream) {
+                        if (compare(record.getId(), RecordId.of(after)) > 0) {
+                            records.add(record);
+                        }
+                    }
+                    return records;
+                });
+
+        service = new TokenRevocationServiceImpl(redisTemplate);
+        ReflectionTestUtils.setField(service, "capacity", 10_000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(service, "retentionMillis", RETENTION_MILLIS);
+    }
+
+    @Test
+    void localRevocationIsVisibleAndOtherTokensSkipRedis() {
+        service.init();
+        when(redisTemplate.hasKey("blacklist:revoked")).thenReturn(true);
+
+        service.revoke("revoked", "alice", Duration.ofMinutes(5));
+
+        assertTrue(service.isRevoked("revoked"));
+        assertFalse(service.isRevoked("valid"));
+        verify(redisTemplate, never()).hasKey("blacklist:valid");
+    }
+
+    @Test
+    void pollPicksUpRecordsFromOtherNodes() {
+        service.init();
+        when(redisTemplate.hasKey("blacklist:remote")).thenReturn(true);
+        assertFalse(service.isRevoked("remote"));
+
+        stream.add(record("1-0", "remote", System.currentTimeMillis() + 60_000));
+        service.poll();
+
+        assertTrue(service.isRevoked("remote"));
+    }
+
+    @Test
+    void rebuildSkipsExpiredRecordsAndTrimsByTime() {
+        long now = System.currentTimeMillis();
+        stream.add(record("1-0", "expired", now - 1_000));
+        stream.add(record("2-0", "active", now + 60_000));
+        when(redisTemplate.hasKey(anyString())).thenReturn(true);
+
+        service.init();
+
+        assertTrue(service.isRevoked("active"));
+        assertFalse(service.isRevoked("expired"));
+        verify(redisTemplate, never()).hasKey("blacklist:expired");
+        verify(connection).execute(eq("XTRIM"), eq(STREAM_KEY), eq("MINID"), eq("~"), anyString());
+    }
+
+    @Test
+    void pollContinuesAfterLastReadRecord() {
+        stream.add(record("1-0", "first", System.currentTimeMillis() + 60_000));
+        service.init();
+        when(redisTemplate.hasKey(anyString())).thenReturn(true);
+
+        stream.add(record("2-0", "second", System.currentTimeMillis() + 60_000));
+        readOffsets.clear();
+        service.poll();
+
+        assertEquals(List.of("1-0"), readOffsets);
+        assertTrue(service.isRevoked("first"));
+        assertTrue(service.isRevoked("second"));
+    }
+
+    private static StringRecord record(String id, String token, long expireAt) {
+        return StreamRecords.string(Map.of(
+                        "digest", Base64.getEncoder().encodeToString(sha256(token)),
+                        "expireAt", String.valueOf(expireAt)))
+                .withStreamKey(STREAM_KEY)
+                .withId(RecordId.of(id));
+    }
+
+    private static int compare(RecordId left, RecordId right) {
+        int result = Long.compare(left.getTimestamp(), right.getTimestamp());
+        return result != 0 ? result : Long.compare(left.getSequence(), right.getSequence());
+    }
+
+    private static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
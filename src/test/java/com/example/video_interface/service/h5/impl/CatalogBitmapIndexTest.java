@@ -0,0 +1,183 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.dto.h5.H5MovieCategoryDTO;
+import com.example.video_interface.dto.h5.H5RegionDTO;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogFilter;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CatalogBitmapIndex 的筛选结果与逐条比较的结果一致
+ */
+class CatalogBitmapIndexTest {
+
+    private static final String[] QUALITIES = {"720P", "1080P", "4K", "hd", "HD"};
+    private static final String[] CHARGE_TYPES = {"FREE", "VIP", "PAID"};
+
+    @Test
+    void matchesBruteForceFilter() {
+        H5MovieCardDTO[] entries = randomEntries(500, new Random(42));
+        CatalogBitmapIndex index = CatalogBitmapIndex.build(entries);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            CatalogFilter filter = randomFilter(random);
+            assertEquals(bruteForce(entries, filter), matched(index, filter, entries), "第" + i + "组条件");
+        }
+    }
+
+    @Test
+    void qualityIsCaseInsensitive() {
+        H5MovieCardDTO[] entries = {
+                card(1L, 1L, 1L, 2020, "FREE", false, "HD"),
+                card(2L, 1L, 1L, 2020, "FREE", false, "hd"),
+                card(3L, 1L, 1L, 2020, "FREE", false, "4k"),
+                card(4L, 1L, 1L, 2020, "FREE", false, "1080P")
+        };
+        CatalogBitmapIndex index = CatalogBitmapIndex.build(entries);
+
+        assertEquals(List.of(0, 1), toList(index.match(qualityFilter("hd"))));
+        assertEquals(List.of(0, 1), toList(index.match(qualityFilter("Hd"))));
+        assertEquals(List.of(2), toList(index.match(qualityFilter("4K"))));
+        assertEquals(List.of(3), toList(index.match(qualityFilter("1080p"))));
+    }
+
+    @Test
+    void noConditionReturnsNullAndUnknownValueReturnsEmpty() {
+        CatalogBitmapIndex index = CatalogBitmapIndex.build(new H5MovieCardDTO[] {
+                card(1L, 1L, 1L, 2020, "FREE", false, "HD")
+        });
+        assertNull(index.match(new CatalogFilter(null, null, null, null, null, null)));
+        assertTrue(index.match(new CatalogFilter(99L, null, null, null, null, null)).isEmpty());
+        assertTrue(index.match(new CatalogFilter(1L, null, 1999, null, null, null)).isEmpty());
+    }
+
+    @Test
+    void withChangeMatchesRebuild() {
+        Random random = new Random(3);
+        H5MovieCardDTO[] entries = randomEntries(200, random);
+        CatalogBitmapIndex index = CatalogBitmapIndex.build(entries);
+        CatalogBitmapIndex original = index;
+        H5MovieCardDTO[] originalEntries = entries.clone();
+
+        for (int i = 0; i < 300; i++) {
+            int slot = random.nextInt(entries.length);
+            H5MovieCardDTO previous = entries[slot];
+            // 约十分之一的变更是下架（槽位置空）
+            H5MovieCardDTO next = random.nextInt(10) == 0 ? null : randomCard((long) slot, random);
+            entries[slot] = next;
+            index = index.withChange(slot, previous, next);
+        }
+
+        CatalogBitmapIndex rebuilt = CatalogBitmapIndex.build(entries);
+        for (int i = 0; i < 200; i++) {
+            CatalogFilter filter = randomFilter(random);
+            assertEquals(matched(rebuilt, filter, entries), matched(index, filter, entries), "第" + i + "组条件");
+            assertEquals(bruteForce(entries, filter), matched(index, filter, entries), "第" + i + "组条件");
+            // 旧索引共享的位图不受增量更新影响
+            assertEquals(bruteForce(originalEntries, filter), matched(original, filter, originalEntries),
+                    "第" + i + "组条件");
+        }
+    }
+
+    private static CatalogFilter qualityFilter(String quality) {
+        return new CatalogFilter(null, null, null, null, null, quality);
+    }
+
+    private static H5MovieCardDTO[] randomEntries(int size, Random random) {
+        H5MovieCardDTO[] entries = new H5MovieCardDTO[size];
+        for (int slot = 0; slot < size; slot++) {
+            // 快照中下架电影的槽位为空
+            entries[slot] = random.nextInt(20) == 0 ? null : randomCard((long) slot, random);
+        }
+        return entries;
+    }
+
+    private static H5MovieCardDTO randomCard(Long id, Random random) {
+        return card(id,
+                random.nextInt(8) == 0 ? null : (long) random.nextInt(5) + 1,
+                random.nextInt(8) == 0 ? null : (long) random.nextInt(4) + 1,
+                random.nextInt(8) == 0 ? null : 2018 + random.nextInt(6),
+                CHARGE_TYPES[random.nextInt(CHARGE_TYPES.length)],
+                random.nextBoolean(),
+                random.nextInt(8) == 0 ? null : QUALITIES[random.nextInt(QUALITIES.length)]);
+    }
+
+    private static CatalogFilter randomFilter(Random random) {
+        return new CatalogFilter(
+                random.nextInt(3) == 0 ? (long) random.nextInt(6) + 1 : null,
+                random.nextInt(3) == 0 ? (long) random.nextInt(5) + 1 : null,
+                random.nextInt(3) == 0 ? 2017 + random.nextInt(8) : null,
+                random.nextInt(3) == 0 ? CHARGE_TYPES[random.nextInt(CHARGE_TYPES.length)] : null,
+                random.nextInt(3) == 0 ? random.nextBoolean() : null,
+                random.nextInt(3) == 0 ? QUALITIES[random.nextInt(QUALITIES.length)] : null);
+    }
+
+    private static H5MovieCardDTO card(Long id, Long categoryId, Long regionId, Integer year,
+                                       String chargeType, Boolean isVip, String quality) {
+        return H5MovieCardDTO.builder()
+                .id(id)
+                .category(categoryId != null ? H5MovieCategoryDTO.builder().id(categoryId).build() : null)
+                .region(regionId != null ? H5RegionDTO.builder().id(regionId).build() : null)
+                .releaseYear(year)
+                .chargeType(chargeType)
+                .isVip(isVip)
+                .quality(quality)
+                .build();
+    }
+
+    /**
+     * 逐条比较，与原先按条件查询数据库的语义一致（画质不区分大小写）
+     */
+    private static List<Integer> bruteForce(H5MovieCardDTO[] entries, CatalogFilter filter) {
+        List<Integer> slots = new ArrayList<>();
+        for (int slot = 0; slot < entries.length; slot++) {
+            H5MovieCardDTO card = entries[slot];
+            if (card == null) {
+                continue;
+            }
+            if ((filter.getCategoryId() == null || filter.getCategoryId().equals(card.getCategoryId()))
+                    && (filter.getRegionId() == null || filter.getRegionId().equals(card.getRegionId()))
+                    && (filter.getReleaseYear() == null || filter.getReleaseYear().equals(card.getReleaseYear()))
+                    && (filter.getChargeType() == null || filter.getChargeType().equals(card.getChargeType()))
+                    && (filter.getIsVip() == null || filter.getIsVip().equals(card.getIsVip()))
+                    && (filter.getQuality() == null || filter.getQuality().equalsIgnoreCase(card.getQuality()))) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * 索引筛选结果；没有条件时（match返回null）即全部非空槽位
+     */
+    private static List<Integer> matched(CatalogBitmapIndex index, CatalogFilter filter, H5MovieCardDTO[] entries) {
+        RoaringBitmap bitmap = index.match(filter);
+        if (bitmap == null) {
+            List<Integer> slots = new ArrayList<>();
+            for (int slot = 0; slot < entries.length; slot++) {
+                if (entries[slot] != null) {
+                    slots.add(slot);
+                }
+            }
+            return slots;
+        }
+        return toList(bitmap);
+    }
+
+    private static List<Integer> toList(RoaringBitmap bitmap) {
+        List<Integer> slots = new ArrayList<>();
+        bitmap.forEach((IntConsumer) slots::add);
+        return slots;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5CursorPageDTO;
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.model.Movie;
+import com.example.video_interface.repository.MovieCardView;
+import com.example.video_interface.repository.MovieRepository;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogFilter;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService.CatalogSort;
+import com.example.video_interface.service.h5.IH5MovieCounterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 快照游标分页：逐页翻完与偏移分页结果一致，快照变化后已返回的电影不重复、未返回的不遗漏
+ */
+class H5CatalogSnapshotServiceImplScrollTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private MovieRepository movieRepository;
+    private H5CatalogSnapshotServiceImpl service;
+    private List<MovieCardView> views;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(11);
+        views = new ArrayList<>();
+        for (long id = 1; id <= 120; id++) {
+            views.add(randomView(id, random));
+        }
+        movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findCardViewsByStatus(Movie.MovieStatus.ACTIVE)).thenAnswer(invocation -> views);
+        service = new H5CatalogSnapshotServiceImpl(movieRepository, new ObjectMapper(),
+                mock(IH5MovieCounterService.class));
+        service.rebuild();
+    }
+
+    @Test
+    void scrollMatchesOffsetPagingForEverySort() {
+        for (CatalogSort sort : CatalogSort.values()) {
+            for (int size : new int[] {1, 7, 50, 200}) {
+                List<Long> expected = ids(service.page(sort, null, PageRequest.of(0, 1000)).getContent());
+                assertEquals(expected, scrollAll(sort, null, size), sort + " 每页 " + size);
+            }
+        }
+    }
+
+    @Test
+    void scrollWithPredicateAndBitmapFilter() {
+        Predicate<H5MovieCardDTO> vipOnly = card -> Boolean.TRUE.equals(card.getIsVip());
+        CatalogFilter vipFilter = new CatalogFilter(null, null, null, null, true, null);
+        for (CatalogSort sort : CatalogSort.values()) {
+            List<Long> expected = ids(service.page(sort, vipOnly, PageRequest.of(0, 1000)).getContent());
+            assertEquals(expected, scrollAll(sort, vipOnly, 9), sort.name());
+
+            List<Long> filtered = new ArrayList<>();
+            String cursor = null;
+            do {
+                H5CursorPageDTO<H5MovieCardDTO> page = service.scrollFilter(sort, vipFilter, cursor, 9);
+                filtered.addAll(ids(page.getContent()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            assertEquals(expected, filtered, sort.name());
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        H5CursorPageDTO<H5MovieCardDTO> page = service.scroll(CatalogSort.DEFAULT, null, null, views.size());
+        assertEquals(views.size(), page.getContent().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+
+        H5CursorPageDTO<H5MovieCardDTO> empty = service.scroll(CatalogSort.DEFAULT, card -> false, null, 10);
+        assertTrue(empty.getContent().isEmpty());
+        assertFalse(empty.isHasMore());
+    }
+
+    @Test
+    void cursorSurvivesSnapshotChanges() {
+        H5CursorPageDTO<H5MovieCardDTO> first = service.scroll(CatalogSort.HOT, null, null, 30);
+        List<Long> seen = ids(first.getContent());
+        Set<Long> remaining = new HashSet<>(ids(service.page(CatalogSort.HOT, null, PageRequest.of(0, 1000)).getContent()));
+        seen.forEach(remaining::remove);
+
+        // 翻页期间：新上架一部排在最前面的电影，下架一部已返回的电影，更新一部尚未返回的电影
+        MovieCardView inserted = view(1000L, 0, BASE_TIME, 1_000_000L, 0L, null, 2024, false);
+        when(movieRepository.findCardViewByIdAndStatus(eq(1000L), any())).thenReturn(inserted);
+        service.refreshMovie(1000L);
+        when(movieRepository.findCardViewByIdAndStatus(eq(seen.get(0)), any())).thenReturn(null);
+        service.refreshMovie(seen.get(0));
+        Long updatedId = remaining.iterator().next();
+        MovieCardView original = views.stream().filter(v -> v.getId().equals(updatedId)).findFirst().orElseThrow();
+        MovieCardView updated = view(updatedId, original.getSortOrder(), original.getCreatedAt(),
+                original.getViews(), original.getLikes(), original.getRating(), original.getReleaseYear(), true);
+        when(movieRepository.findCardViewByIdAndStatus(eq(updatedId), any())).thenReturn(updated);
+        service.refreshMovie(updatedId);
+
+        List<Long> rest = new ArrayList<>();
+        String cursor = first.getNextCursor();
+        while (cursor != null) {
+            H5CursorPageDTO<H5MovieCardDTO> page = service.scroll(CatalogSort.HOT, null, cursor, 30);
+            rest.addAll(ids(page.getContent()));
+            cursor = page.getNextCursor();
+        }
+
+        // 排在游标之前的新电影不出现，排序键不变的电影都恰好出现一次
+        assertEquals(remaining, new HashSet<>(rest));
+        assertEquals(remaining.size(), rest.size());
+    }
+
+    @Test
+    void rejectsInvalidCursor() {
+        String hotCursor = service.scroll(CatalogSort.HOT, null, null, 5).getNextCursor();
+        assertThrows(IllegalArgumentException.class, () -> service.scroll(CatalogSort.HOT, null, "not-a-cursor", 5));
+        assertThrows(IllegalArgumentException.class, () -> service.scroll(CatalogSort.RATING, null, hotCursor, 5));
+        assertThrows(IllegalArgumentException.class, () -> service.scroll(CatalogSort.HOT, null, null, 0));
+    }
+
+    private List<Long> scrollAll(CatalogSort sort, Predicate<H5MovieCardDTO> filter, int size) {
+        List<Long> result = new ArrayList<>();
+        String cursor = null;
+        do {
+            H5CursorPageDTO<H5MovieCardDTO> page = service.scroll(sort, filter, cursor, size);
+            assertTrue(page.getContent().size() <= size);
+            assertEquals(page.getNextCursor() != null, page.isHasMore());
+            result.addAll(ids(page.getContent()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return result;
+    }
+
+    private static List<Long> ids(List<H5MovieCardDTO> cards) {
+        List<Long> ids = new ArrayList<>(cards.size());
+        cards.forEach(card -> ids.add(card.getId()));
+        return ids;
+    }
+
+    /**
+     * 取值范围很小，保证各排序字段都有大量相同值和NULL，排序须依靠次排序字段和ID区分
+     */
+    private static MovieCardView randomView(long id, Random random) {
+        return view(id,
+                random.nextInt(3),
+                random.nextInt(10) == 0 ? null : BASE_TIME.plusDays(random.nextInt(5)),
+                (long) random.nextInt(4),
+                (long) random.nextInt(3),
+                random.nextInt(5) == 0 ? null : BigDecimal.valueOf(random.nextInt(3)),
+                random.nextInt(5) == 0 ? null : 2020 + random.nextInt(3),
+                random.nextBoolean());
+    }
+
+    private static MovieCardView view(Long id, Integer sortOrder, LocalDateTime createdAt, Long views, Long likes,
+                                      BigDecimal rating, Integer releaseYear, Boolean isVip) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("getId", id);
+        values.put("getTitle", "电影" + id);
+        values.put("getSortOrder", sortOrder);
+        values.put("getCreatedAt", createdAt);
+        values.put("getViews", views);
+        values.put("getLikes", likes);
+        values.put("getFavorites", likes);
+        values.put("getRating", rating);
+        values.put("getReleaseYear", releaseYear);
+        values.put("getIsVip", isVip);
+        values.put("getChargeType", Boolean.TRUE.equals(isVip) ? Movie.ChargeType.VIP : Movie.ChargeType.FREE);
+        return (MovieCardView) Proxy.newProxyInstance(MovieCardView.class.getClassLoader(),
+                new Class<?>[] {MovieCardView.class}, (proxy, method, args) -> values.get(method.getName()));
+    }
+}
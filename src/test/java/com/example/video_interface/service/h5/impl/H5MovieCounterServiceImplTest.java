@@ -0,0 +1,186 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.service.h5.IH5MovieCounterService.Counter;
+import com.example.video_interface.service.h5.IH5MovieRankingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 互动计数的合并与写回：写回前后、快照重新加载前后，合并结果都不回退也不重复
+ */
+class H5MovieCounterServiceImplTest {
+
+    private static final Long MOVIE_ID = 1L;
+
+    private JdbcTemplate jdbcTemplate;
+    private IH5MovieRankingService movieRankingService;
+    private H5MovieCounterServiceImpl service;
+
+    /**
+     * 模拟数据库中的观看次数
+     */
+    private long databaseViews;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        movieRankingService = mock(IH5MovieRankingService.class);
+        service = new H5MovieCounterServiceImpl(jdbcTemplate, movieRankingService);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        databaseViews = 100;
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                if (MOVIE_ID.equals(row[3])) {
+                    databaseViews += (Long) row[0];
+                }
+            }
+            return new int[rows.size()];
+        });
+    }
+
+    @Test
+    void mergeAddsPendingDeltas() {
+        service.increment(MOVIE_ID, Counter.VIEWS, 3);
+        service.increment(MOVIE_ID, Counter.LIKES, 1);
+
+        assertEquals(103L, service.merge(MOVIE_ID, Counter.VIEWS, databaseViews));
+        assertEquals(6L, service.merge(MOVIE_ID, Counter.LIKES, 5L));
+        assertEquals(0L, service.merge(MOVIE_ID, Counter.FAVORITES, 0L));
+        assertEquals(7L, service.merge(2L, Counter.VIEWS, 7L));
+        assertNull(service.merge(2L, Counter.VIEWS, null));
+        verify(movieRankingService).record(MOVIE_ID, Counter.VIEWS, 3);
+    }
+
+    @Test
+    void snapshotCountsDoNotDropAfterFlush() {
+        // 快照在写回前加载
+        long snapshotEpoch = service.flushEpoch();
+        long snapshotViews = databaseViews;
+
+        service.increment(MOVIE_ID, Counter.VIEWS, 5);
+        assertEquals(105L, service.merge(MOVIE_ID, Counter.VIEWS, snapshotViews, snapshotEpoch));
+
+        assertEquals(1, service.flush());
+        assertEquals(105L, databaseViews);
+
+        // 快照仍是写回前的值，已写回的增量继续补上；新读取的数据库值不重复计入
+        assertEquals(105L, service.merge(MOVIE_ID, Counter.VIEWS, snapshotViews, snapshotEpoch));
+        assertEquals(105L, service.merge(MOVIE_ID, Counter.VIEWS, databaseViews));
+
+        service.increment(MOVIE_ID, Counter.VIEWS, 2);
+        assertEquals(1, service.flush());
+        assertEquals(107L, service.merge(MOVIE_ID, Counter.VIEWS, snapshotViews, snapshotEpoch));
+
+        // 快照重新加载后释放已计入的增量
+        long reloadedEpoch = service.flushEpoch();
+        long reloadedViews = databaseViews;
+        service.discardFlushed(reloadedEpoch);
+        assertEquals(107L, service.merge(MOVIE_ID, Counter.VIEWS, reloadedViews, reloadedEpoch));
+        assertEquals(107L, service.merge(MOVIE_ID, Counter.VIEWS, databaseViews));
+    }
+
+    @Test
+    void discardKeepsLaterFlushes() {
+        long snapshotEpoch = service.flushEpoch();
+        service.increment(MOVIE_ID, Counter.VIEWS, 5);
+        service.flush();
+        long reloadedEpoch = service.flushEpoch();
+        long reloadedViews = databaseViews;
+
+        // 快照重建读取之后又写回了一轮
+        service.increment(MOVIE_ID, Counter.VIEWS, 4);
+        service.flush();
+        service.discardFlushed(reloadedEpoch);
+
+        assertEquals(109L, service.merge(MOVIE_ID, Counter.VIEWS, reloadedViews, reloadedEpoch));
+        assertEquals(109L, service.merge(MOVIE_ID, Counter.VIEWS, databaseViews));
+        // 更早加载的卡片已无法补上被释放的轮次，但不会超过实际值
+        assertEquals(104L, service.merge(MOVIE_ID, Counter.VIEWS, 100L, snapshotEpoch));
+    }
+
+    @Test
+    void inFlightDeltasStayVisible() {
+        long snapshotEpoch = service.flushEpoch();
+        service.increment(MOVIE_ID, Counter.VIEWS, 5);
+        List<Long> seenDuringWrite = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            // 写回进行中：增量已离开待写回计数，数据库尚未更新
+            seenDuringWrite.add(service.merge(MOVIE_ID, Counter.VIEWS, 100L, snapshotEpoch));
+            seenDuringWrite.add(service.merge(MOVIE_ID, Counter.VIEWS, 100L));
+            databaseViews += 5;
+            return new int[1];
+        });
+
+        service.flush();
+
+        assertEquals(List.of(105L, 105L), seenDuringWrite);
+    }
+
+    @Test
+    void concurrentMergeNeverSeesDeltaInTransit() throws Exception {
+        long snapshotEpoch = service.flushEpoch();
+        int rounds = 20_000;
+        Thread flusher = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                service.increment(MOVIE_ID, Counter.VIEWS, 1);
+                service.flush();
+            }
+        });
+        flusher.start();
+
+        // 快照不重新加载，已写回的增量一直保留：合并结果只增不减
+        long last = 100L;
+        while (flusher.isAlive()) {
+            long merged = service.merge(MOVIE_ID, Counter.VIEWS, 100L, snapshotEpoch);
+            assertTrue(merged >= last, "合并结果回退: " + last + " -> " + merged);
+            last = merged;
+        }
+        flusher.join();
+        assertEquals(100L + rounds, service.merge(MOVIE_ID, Counter.VIEWS, 100L, snapshotEpoch));
+    }
+
+    @Test
+    void failedFlushReturnsDeltasToPending() {
+        long snapshotEpoch = service.flushEpoch();
+        service.increment(MOVIE_ID, Counter.VIEWS, 5);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("数据库不可用"));
+
+        assertEquals(0, service.flush());
+        assertEquals(105L, service.merge(MOVIE_ID, Counter.VIEWS, 100L, snapshotEpoch));
+        assertEquals(105L, service.merge(MOVIE_ID, Counter.VIEWS, 100L));
+
+        doReturn(new int[1]).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertEquals(1, service.flush());
+        assertEquals(105L, service.merge(MOVIE_ID, Counter.VIEWS, 100L, snapshotEpoch));
+        assertEquals(105L, service.merge(MOVIE_ID, Counter.VIEWS, 105L));
+    }
+
+    @Test
+    void mergeNeverGoesBelowZeroAndEmptyFlushDoesNothing() {
+        service.increment(MOVIE_ID, Counter.LIKES, -3);
+        assertEquals(0L, service.merge(MOVIE_ID, Counter.LIKES, 1L));
+
+        service.increment(MOVIE_ID, Counter.LIKES, 3);
+        long epoch = service.flushEpoch();
+        assertEquals(0, service.flush());
+        assertEquals(epoch, service.flushEpoch());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.video_interface.service.h5.impl;
+
+import com.example.video_interface.dto.h5.H5MovieCardDTO;
+import com.example.video_interface.model.Movie;
+import com.example.video_interface.repository.MovieRepository;
+import com.example.video_interface.repository.MovieSearchView;
+import com.example.video_interface.service.h5.IH5CatalogSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 全量重建与增量更新并发：扫描期间的增量更新在换入新索引后不丢失
+ */
+class H5MovieSearchServiceImplTest {
+
+    private static final Long MOVIE_ID = 1L;
+
+    private MovieRepository movieRepository;
+    private H5MovieSearchServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        IH5CatalogSnapshotService catalogSnapshotService = mock(IH5CatalogSnapshotService.class);
+        when(catalogSnapshotService.get(anyLong()))
+                .thenAnswer(invocation -> H5MovieCardDTO.builder().id(invocation.getArgument(0)).build());
+        service = new H5MovieSearchServiceImpl(movieRepository, catalogSnapshotService, new ObjectMapper());
+
+        when(movieRepository.findSearchViewsByStatus(Movie.MovieStatus.ACTIVE))
+                .thenReturn(List.of(view(MOVIE_ID, "alpha")));
+        service.rebuild();
+    }
+
+    @Test
+    void refreshDuringRebuildScanIsReplayedOnNewIndex() {
+        when(movieRepository.findSearchViewByIdAndStatus(MOVIE_ID, Movie.MovieStatus.ACTIVE))
+                .thenReturn(view(MOVIE_ID, "omega"));
+        // 扫描读到旧标题，扫描过程中标题被修改并触发增量更新
+        when(movieRepository.findSearchViewsByStatus(Movie.MovieStatus.ACTIVE)).thenAnswer(invocation -> {
+            List<MovieSearchView> snapshot = List.of(view(MOVIE_ID, "alpha"));
+            service.refreshMovie(MOVIE_ID);
+            return snapshot;
+        });
+
+        service.rebuild();
+
+        assertEquals(1, hits("omega"));
+        assertEquals(0, hits("alpha"));
+    }
+
+    @Test
+    void refreshAfterRebuildAppliesDirectly() {
+        when(movieRepository.findSearchViewByIdAndStatus(MOVIE_ID, Movie.MovieStatus.ACTIVE))
+                .thenReturn(view(MOVIE_ID, "omega"));
+
+        service.refreshMovie(MOVIE_ID);
+
+        assertEquals(1, hits("omega"));
+        assertEquals(0, hits("alpha"));
+    }
+
+    private long hits(String keyword) {
+        return service.search(keyword, PageRequest.of(0, 10)).getTotalElements();
+    }
+
+    private static MovieSearchView view(Long id, String title) {
+        Map<String, Object> values = Map.of("getId", id, "getTitle", title);
+        return (MovieSearchView) Proxy.newProxyInstance(MovieSearchView.class.getClassLoader(),
+                new Class<?>[] {MovieSearchView.class}, (proxy, method, args) -> values.get(method.getName()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.video_interface.service.h5.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 观看秒数的计算：一段连续播放累计计入的秒数不超过实际经过的时间
+ */
+class H5WatchHistoryServiceImplTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long MOVIE_ID = 10L;
+    private static final long START = 1_700_000_000_000L;
+
+    private H5WatchHistoryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new H5WatchHistoryServiceImpl(mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "maxHeartbeatGapSeconds", 30L);
+        ReflectionTestUtils.setField(service, "idleTimeoutSeconds", 300L);
+    }
+
+    @Test
+    void normalPlaybackIsCreditedInFull() {
+        for (int i = 0; i <= 12; i++) {
+            service.heartbeat(USER_ID, MOVIE_ID, i * 5, 3600, START + i * 5_000L);
+        }
+        assertEquals(60L, watchedSeconds());
+    }
+
+    @Test
+    void rapidHeartbeatsCannotOutrunWallClock() {
+        // 每50毫秒一次心跳、每次前进2秒，持续5秒
+        for (int i = 0; i <= 100; i++) {
+            service.heartbeat(USER_ID, MOVIE_ID, i * 2, 3600, START + i * 50L);
+        }
+        long watched = watchedSeconds();
+        assertTrue(watched <= 5 + 2, "计入秒数: " + watched);
+    }
+
+    @Test
+    void seekingForwardIsNotCredited() {
+        service.heartbeat(USER_ID, MOVIE_ID, 0, 3600, START);
+        service.heartbeat(USER_ID, MOVIE_ID, 1800, 3600, START + 5_000L);
+        assertTrue(watchedSeconds() <= 5 + 2);
+    }
+
+    @Test
+    void heartbeatAfterLongGapStartsNewSegment() {
+        service.heartbeat(USER_ID, MOVIE_ID, 0, 3600, START);
+        service.heartbeat(USER_ID, MOVIE_ID, 10, 3600, START + 10_000L);
+        // 暂停10分钟后恢复：间隔内的时间不计入，之后的高频心跳也不能动用暂停期间的时间
+        long resume = START + 610_000L;
+        service.heartbeat(USER_ID, MOVIE_ID, 40, 3600, resume);
+        for (int i = 1; i <= 100; i++) {
+            service.heartbeat(USER_ID, MOVIE_ID, 40 + i * 2, 3600, resume + i * 50L);
+        }
+        long watched = watchedSeconds();
+        assertTrue(watched >= 10 && watched <= 10 + 5 + 2, "计入秒数: " + watched);
+    }
+
+    @SuppressWarnings("unchecked")
+    private long watchedSeconds() {
+        Map<Long, Long> pending = (Map<Long, Long>) ReflectionTestUtils.getField(service, "pendingWatchSeconds");
+        return pending.getOrDefault(USER_ID, 0L);
+    }
+}